@@ -0,0 +1,18 @@
+package com.lms.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published on the Redis invalidation channel whenever a node writes to a
+ * two-tier cache. A null key means the whole cache was cleared.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+    private String origin;
+    private String cacheName;
+    private String key;
+}
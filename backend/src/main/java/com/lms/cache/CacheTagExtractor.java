@@ -0,0 +1,14 @@
+package com.lms.cache;
+
+import java.util.Set;
+
+/**
+ * Derives the dependency tags of a cache entry from its key and value. The tags are
+ * recorded when the entry is written to Redis so that a later write can evict just
+ * the entries depending on the entity it changed.
+ */
+@FunctionalInterface
+public interface CacheTagExtractor {
+
+    Set<String> tagsFor(Object key, Object value);
+}
@@ -0,0 +1,81 @@
+package com.lms.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Redis-backed reverse index from tag to the cache keys that depend on it. Each tag is a
+ * Redis set, so the index is shared by every node. Sets expire after the longest cache
+ * TTL, which keeps keys of entries that expired on their own from piling up.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheTagIndex {
+
+    private static final String INDEX_PREFIX = "lms:cache:tags:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${app.cache.tags.ttl:6h}")
+    private Duration tagTtl;
+
+    public void record(String cacheName, Object key, Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        String member = key.toString();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (String tag : tags) {
+                    String indexKey = indexKey(cacheName, tag);
+                    ops.opsForSet().add(indexKey, member);
+                    ops.expire(indexKey, tagTtl);
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Returns the keys tagged with {@code tag} and removes the tag set in the same
+     * MULTI/EXEC block, so each key is handed to exactly one invalidating writer.
+     */
+    public Set<String> drain(String cacheName, String tag) {
+        String indexKey = indexKey(cacheName, tag);
+        List<Object> results = redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.multi();
+                ops.opsForSet().members(indexKey);
+                ops.delete(indexKey);
+                return ops.exec();
+            }
+        });
+        if (results == null || results.isEmpty() || !(results.get(0) instanceof Set<?> members)) {
+            return Set.of();
+        }
+        return members.stream().map(String::valueOf).collect(Collectors.toSet());
+    }
+
+    private static String indexKey(String cacheName, String tag) {
+        return INDEX_PREFIX + cacheName + ":" + tag;
+    }
+}
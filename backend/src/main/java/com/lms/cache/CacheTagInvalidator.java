@@ -0,0 +1,84 @@
+package com.lms.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evicts only the cache entries that depend on the given tags. Keys are resolved from the
+ * shared {@link CacheTagIndex} and evicted through the {@link CacheManager}, so the Redis
+ * entries go away and every node drops its L1 copy via the usual invalidation messages.
+ *
+ * <p>Inside a transaction the eviction runs after commit; evicting earlier would let a
+ * concurrent reader re-cache the pre-commit state.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheTagInvalidator {
+
+    private final CacheManager cacheManager;
+    private final CacheTagIndex tagIndex;
+
+    public void evictTagged(String cacheName, String... tags) {
+        List<String> tagList = List.of(tags);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(cacheName, tagList);
+                }
+            });
+        } else {
+            evictNow(cacheName, tagList);
+        }
+    }
+
+    public void evictKey(String cacheName, Object key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictKeyNow(cacheName, key);
+                }
+            });
+        } else {
+            evictKeyNow(cacheName, key);
+        }
+    }
+
+    private void evictNow(String cacheName, List<String> tags) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        for (String tag : tags) {
+            try {
+                Set<String> keys = tagIndex.drain(cacheName, tag);
+                keys.forEach(cache::evict);
+                log.debug("Evicted {} entries tagged {} from cache {}", keys.size(), tag, cacheName);
+            } catch (Exception e) {
+                // Entries fall back to their TTL
+                log.error("Failed to evict entries tagged {} from cache {}", tag, cacheName, e);
+            }
+        }
+    }
+
+    private void evictKeyNow(String cacheName, Object key) {
+        try {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.evict(key);
+            }
+        } catch (Exception e) {
+            log.error("Failed to evict cache key: {}::{}", cacheName, key, e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.lms.cache;
+
+import com.lms.entity.Course;
+import org.springframework.data.domain.Page;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tag names shared by the cached read paths and the write paths that invalidate them,
+ * plus the extractors that derive tags for each tagged cache.
+ */
+public final class CacheTags {
+
+    /** Every cross-category course listing (published, featured, top-rated, most-enrolled). */
+    public static final String COURSE_LISTS = "course-lists";
+
+    private static final String CATEGORY_PAGE_PREFIX = "category:";
+    private static final String COURSE_GRADE_PREFIX = "course-grade:";
+    private static final String CERTIFICATE_VERIFICATION_PREFIX = "verify:";
+    private static final String GRADING_SCHEME_PREFIX = "grading-scheme:";
+
+    private CacheTags() {
+    }
+
+    public static String course(String courseId) {
+        return "course:" + courseId;
+    }
+
+    public static String category(String categoryId) {
+        return "category:" + categoryId;
+    }
+
+    public static String student(String studentId) {
+        return "student:" + studentId;
+    }
+
+    public static String courseGradeKey(String courseId, String studentId) {
+        return COURSE_GRADE_PREFIX + courseId + ":" + studentId;
+    }
+
+    public static String gradingSchemeKey(String courseId) {
+        return GRADING_SCHEME_PREFIX + courseId;
+    }
+
+    public static String certificateVerificationKey(String certificateNumber) {
+        return CERTIFICATE_VERIFICATION_PREFIX + certificateNumber;
+    }
+
+    public static Map<String, CacheTagExtractor> extractors() {
+        Map<String, CacheTagExtractor> extractors = new HashMap<>();
+        extractors.put("courses", CacheTags::courseEntryTags);
+        extractors.put("gradebook", CacheTags::gradebookEntryTags);
+        return extractors;
+    }
+
+    private static Set<String> courseEntryTags(Object key, Object value) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (value instanceof Course course) {
+            addCourse(tags, course);
+        } else if (value instanceof Page<?> page) {
+            // A page depends on every course it lists, whichever category they are in
+            page.getContent().forEach(item -> {
+                if (item instanceof Course course) {
+                    addCourse(tags, course);
+                }
+            });
+            String keyString = String.valueOf(key);
+            if (keyString.startsWith(CATEGORY_PAGE_PREFIX)) {
+                // 'category:<id>:<page>:<size>' changes whenever a course joins or leaves the category
+                String rest = keyString.substring(CATEGORY_PAGE_PREFIX.length());
+                int end = rest.indexOf(':');
+                tags.add(category(end >= 0 ? rest.substring(0, end) : rest));
+            } else {
+                tags.add(COURSE_LISTS);
+            }
+        }
+        return tags;
+    }
+
+    private static Set<String> gradebookEntryTags(Object key, Object value) {
+        // 'course-grade:<courseId>:<studentId>'; also covers cached empty results
+        String keyString = String.valueOf(key);
+        if (!keyString.startsWith(COURSE_GRADE_PREFIX)) {
+            return Set.of();
+        }
+        String[] parts = keyString.substring(COURSE_GRADE_PREFIX.length()).split(":", 2);
+        if (parts.length < 2) {
+            return Set.of();
+        }
+        return Set.of(course(parts[0]), student(parts[1]));
+    }
+
+    private static void addCourse(Set<String> tags, Course course) {
+        if (course.getId() != null) {
+            tags.add(course(course.getId()));
+        }
+    }
+}
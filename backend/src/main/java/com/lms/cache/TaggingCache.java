@@ -0,0 +1,104 @@
+package com.lms.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Decorates a Redis {@link Cache} so that every write records the entry's dependency
+ * tags in the {@link CacheTagIndex}. If the tags cannot be recorded the entry is evicted
+ * again rather than left in Redis where no targeted invalidation would ever find it.
+ */
+@Slf4j
+public class TaggingCache implements Cache {
+
+    private final Cache delegate;
+    private final CacheTagExtractor extractor;
+    private final CacheTagIndex tagIndex;
+
+    public TaggingCache(Cache delegate, CacheTagExtractor extractor, CacheTagIndex tagIndex) {
+        this.delegate = delegate;
+        this.extractor = extractor;
+        this.tagIndex = tagIndex;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        boolean[] loaded = new boolean[1];
+        T value = delegate.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        if (loaded[0]) {
+            recordTags(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        recordTags(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            recordTags(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private void recordTags(Object key, Object value) {
+        try {
+            Set<String> tags = extractor.tagsFor(key, value);
+            tagIndex.record(getName(), key, tags);
+        } catch (Exception e) {
+            log.warn("Failed to record cache tags for {}::{}, evicting entry", getName(), key, e);
+            delegate.evict(key);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.lms.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps the caches that have a {@link CacheTagExtractor} in a {@link TaggingCache};
+ * every other cache is returned unchanged.
+ */
+public class TaggingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Map<String, CacheTagExtractor> extractors;
+    private final CacheTagIndex tagIndex;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TaggingCacheManager(CacheManager delegate, Map<String, CacheTagExtractor> extractors, CacheTagIndex tagIndex) {
+        this.delegate = delegate;
+        this.extractors = Map.copyOf(extractors);
+        this.tagIndex = tagIndex;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        CacheTagExtractor extractor = extractors.get(name);
+        if (extractor == null) {
+            return delegate.getCache(name);
+        }
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache target = delegate.getCache(cacheName);
+            return target != null ? new TaggingCache(target, extractor, tagIndex) : null;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
@@ -0,0 +1,210 @@
+package com.lms.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link Cache} backed by a bounded Caffeine cache (L1) in front of a shared
+ * Redis cache (L2). Reads are served from L1 when possible and populate it from
+ * L2 on a miss. Every write goes to L2 first, drops the local entry and notifies
+ * the other nodes so they drop theirs.
+ *
+ * <p>L1 holds the same serialized form Redis holds and every read deserializes a fresh
+ * copy. Cached values are mostly JPA entities and pages of them, so handing one shared
+ * instance to every caller would let one request's changes, or Hibernate initialising a
+ * lazy association, leak into what other threads read.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final Cache remote;
+    private final RedisSerializer<Object> serializer;
+    private final BiConsumer<String, Object> invalidationPublisher;
+
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+    private final LongAdder remoteEvictions = new LongAdder();
+
+    public TwoTierCache(String name,
+                        com.github.benmanes.caffeine.cache.Cache<Object, Object> local,
+                        Cache remote,
+                        RedisSerializer<Object> serializer,
+                        BiConsumer<String, Object> invalidationPublisher) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.serializer = serializer;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object stored = local.getIfPresent(key);
+        if (stored != null) {
+            return new SimpleValueWrapper(fromStore(stored));
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null) {
+            remoteHits.increment();
+            local.put(key, toStore(wrapper.get()));
+        } else {
+            remoteMisses.increment();
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Caffeine serialises concurrent loads of the same key on this node
+        Object stored = local.get(key, k -> {
+            ValueWrapper wrapper = remote.get(k);
+            if (wrapper != null) {
+                remoteHits.increment();
+                return toStore(wrapper.get());
+            }
+            remoteMisses.increment();
+            T loaded;
+            try {
+                loaded = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+            remote.put(k, loaded);
+            return toStore(loaded);
+        });
+        return (T) fromStore(stored);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(key, toStore(value));
+        invalidationPublisher.accept(name, key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        local.invalidate(key);
+        invalidationPublisher.accept(name, key);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        remote.evict(key);
+        // A concurrent reader may have repopulated L1 from the old L2 value
+        local.invalidate(key);
+        remoteEvictions.increment();
+        invalidationPublisher.accept(name, key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean presentLocally = local.asMap().remove(key) != null;
+        boolean presentRemotely = remote.evictIfPresent(key);
+        local.invalidate(key);
+        remoteEvictions.increment();
+        invalidationPublisher.accept(name, key);
+        return presentLocally || presentRemotely;
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.accept(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        local.invalidateAll();
+        boolean hadEntries = remote.invalidate();
+        local.invalidateAll();
+        invalidationPublisher.accept(name, null);
+        return hadEntries;
+    }
+
+    /**
+     * Drops the L1 entry on every node without touching Redis, for callers that
+     * wrote the Redis entry directly.
+     */
+    public void invalidateLocal(Object key) {
+        local.invalidate(key);
+        invalidationPublisher.accept(name, key);
+    }
+
+    /**
+     * Drops a local entry on behalf of another node. Keys arrive as strings, so
+     * non-string keys are matched by their string form.
+     */
+    void evictLocal(String key) {
+        if (local.asMap().remove(key) == null) {
+            local.asMap().keySet().removeIf(k -> key.equals(String.valueOf(k)));
+        }
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getLocalCache() {
+        return local;
+    }
+
+    public Cache getRemoteCache() {
+        return remote;
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getRemoteMisses() {
+        return remoteMisses.sum();
+    }
+
+    public long getRemoteEvictions() {
+        return remoteEvictions.sum();
+    }
+
+    private Object toStore(Object value) {
+        return value != null ? serializer.serialize(value) : NullValue.INSTANCE;
+    }
+
+    private Object fromStore(Object stored) {
+        return stored == NullValue.INSTANCE ? null : serializer.deserialize((byte[]) stored);
+    }
+}
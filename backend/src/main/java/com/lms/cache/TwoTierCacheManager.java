@@ -0,0 +1,176 @@
+package com.lms.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.lms.config.LocalCacheProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps the Redis {@link CacheManager} with a per-node Caffeine tier.
+ *
+ * <p>Each node tags its invalidation messages with a random node id and ignores its
+ * own; messages from other nodes drop the matching L1 entries. Caches disabled in
+ * {@link LocalCacheProperties} are returned as plain Redis caches.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private final CacheManager remoteCacheManager;
+    private final LocalCacheProperties properties;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisSerializer<Object> valueSerializer;
+    private final MeterRegistry meterRegistry;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+    private final ObjectMapper messageMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager,
+                               LocalCacheProperties properties,
+                               RedisTemplate<String, Object> redisTemplate,
+                               RedisSerializer<Object> valueSerializer,
+                               MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.valueSerializer = valueSerializer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(remoteCacheManager.getCacheNames());
+        names.addAll(caches.keySet());
+        return Collections.unmodifiableSet(names);
+    }
+
+    private Cache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        LocalCacheProperties.Spec spec = properties.specFor(name);
+        if (!spec.isEnabled()) {
+            return remote;
+        }
+
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build();
+        TwoTierCache cache = new TwoTierCache(name, local, remote, valueSerializer, this::publishInvalidation);
+        bindMetrics(cache);
+
+        log.info("Two-tier cache '{}' created (L1 max {} entries, ttl {})",
+                name, spec.getMaximumSize(), spec.getTtl());
+        return cache;
+    }
+
+    private void bindMetrics(TwoTierCache cache) {
+        if (meterRegistry == null) {
+            return;
+        }
+        String name = cache.getName();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.getLocalCache(), name, Tags.of("tier", "l1"));
+
+        FunctionCounter.builder("cache.gets", cache, TwoTierCache::getRemoteHits)
+                .tags("cache", name, "tier", "l2", "result", "hit")
+                .description("Redis tier lookups that found a value")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, TwoTierCache::getRemoteMisses)
+                .tags("cache", name, "tier", "l2", "result", "miss")
+                .description("Redis tier lookups that found nothing")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", cache, TwoTierCache::getRemoteEvictions)
+                .tags("cache", name, "tier", "l2")
+                .description("Explicit evictions from the Redis tier")
+                .register(meterRegistry);
+    }
+
+    private void publishInvalidation(String cacheName, Object key) {
+        try {
+            CacheInvalidationMessage message = new CacheInvalidationMessage(
+                    nodeId, cacheName, key != null ? key.toString() : null);
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(), message);
+        } catch (Exception e) {
+            // Other nodes fall back to their L1 TTL
+            log.warn("Failed to publish cache invalidation for {}::{}", cacheName, key, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Object payload = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            CacheInvalidationMessage invalidation = messageMapper.convertValue(payload, CacheInvalidationMessage.class);
+            if (invalidation == null || nodeId.equals(invalidation.getOrigin())) {
+                return;
+            }
+
+            Cache cache = caches.get(invalidation.getCacheName());
+            if (cache instanceof TwoTierCache twoTierCache) {
+                if (invalidation.getKey() == null) {
+                    twoTierCache.clearLocal();
+                } else {
+                    twoTierCache.evictLocal(invalidation.getKey());
+                }
+                log.debug("Applied remote invalidation {}::{}", invalidation.getCacheName(), invalidation.getKey());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to apply cache invalidation message", e);
+        }
+    }
+
+    /**
+     * Per-cache, per-tier counters for the cache admin endpoint.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new TreeMap<>();
+        caches.forEach((name, cache) -> {
+            if (cache instanceof TwoTierCache twoTierCache) {
+                CacheStats l1 = twoTierCache.getLocalCache().stats();
+                Map<String, Object> l1Stats = new LinkedHashMap<>();
+                l1Stats.put("size", twoTierCache.getLocalCache().estimatedSize());
+                l1Stats.put("hits", l1.hitCount());
+                l1Stats.put("misses", l1.missCount());
+                l1Stats.put("hitRate", l1.hitRate());
+                l1Stats.put("evictions", l1.evictionCount());
+
+                Map<String, Object> l2Stats = new LinkedHashMap<>();
+                l2Stats.put("hits", twoTierCache.getRemoteHits());
+                l2Stats.put("misses", twoTierCache.getRemoteMisses());
+                l2Stats.put("evictions", twoTierCache.getRemoteEvictions());
+
+                statistics.put(name, Map.of("l1", l1Stats, "l2", l2Stats));
+            }
+        });
+        return statistics;
+    }
+}
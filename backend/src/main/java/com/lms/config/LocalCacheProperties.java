@@ -0,0 +1,40 @@
+package com.lms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the in-process (L1) tier that sits in front of the Redis cache.
+ * L1 TTLs should stay well below the Redis TTLs: cross-node invalidation is
+ * best-effort, so the TTL bounds how long a missed invalidation can be served.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.cache.local")
+@Data
+public class LocalCacheProperties {
+
+    private boolean enabled = true;
+
+    private String invalidationChannel = "lms:cache:invalidation";
+
+    private Spec defaults = new Spec();
+
+    // Per-cache overrides keyed by cache name
+    private Map<String, Spec> caches = new HashMap<>();
+
+    public Spec specFor(String cacheName) {
+        return caches.getOrDefault(cacheName, defaults);
+    }
+
+    @Data
+    public static class Spec {
+        private boolean enabled = true;
+        private long maximumSize = 1000;
+        private Duration ttl = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.lms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Listener container settings per consumer. Blocking consumers (SMTP, PDF rendering) want
+ * several consumers with a small prefetch, so a slow message does not hold others hostage
+ * in one consumer's buffer; fast consumers can take a larger prefetch.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.messaging.listener")
+@Data
+public class MessagingConsumerProperties {
+
+    // Consume notification.queue through the batched-notification consumer instead of the per-message one
+    private boolean batchedNotifications = true;
+
+    private Spec defaults = new Spec();
+
+    // Per-consumer overrides keyed by consumer name
+    private Map<String, Spec> consumers = new HashMap<>();
+
+    public Spec specFor(String consumer) {
+        return consumers.getOrDefault(consumer, defaults);
+    }
+
+    @Data
+    public static class Spec {
+        private int concurrency = 1;
+        private int maxConcurrency = 1;
+        private int prefetch = 250;
+        // Only honoured on Java 21+; older runtimes fall back to platform threads
+        private boolean virtualThreads = false;
+        // Batch listeners only: messages per batch, and how long to wait before handing over a partial batch
+        private int batchSize = 200;
+        private Duration receiveTimeout = Duration.ofMillis(200);
+    }
+}
@@ -1,28 +1,91 @@
 package com.lms.config;
 
+import com.lms.service.messaging.ConsumerMetrics;
+import com.lms.service.messaging.RetryingMessageRecoverer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exchanges, queues and listener containers.
+ *
+ * <p>Every consumed queue has a delivery-guarantee layer around it. A listener failure is
+ * not retried in place: {@link RetryingMessageRecoverer} acknowledges the message and
+ * republishes it to the delayed-retry tier for its attempt ({@code <queue>.retry.<n>}).
+ * The tier holds it for its TTL and dead-letters it back onto the work queue. After the
+ * last attempt, or for a message that cannot be converted at all, the message goes to
+ * {@code <queue>.parking-lot} and waits for an admin. Messages the broker rejects reach
+ * the same parking lot through the per-queue dead-letter exchange.
+ *
+ * <p>Adding dead-letter arguments to an existing queue fails the redeclaration, so queues
+ * created before this layer existed have to be deleted once (or get the arguments through
+ * a broker policy) when upgrading.
+ */
 @Configuration
+@Slf4j
 public class RabbitMQConfig {
 
+    // Listener container factories
+    public static final String BATCHED_NOTIFICATION_CONTAINER_FACTORY = "batchedNotificationContainerFactory";
+    public static final String EMAIL_CONTAINER_FACTORY = "emailContainerFactory";
+    public static final String CERTIFICATE_CONTAINER_FACTORY = "certificateContainerFactory";
+    public static final String NOTIFICATION_CONTAINER_FACTORY = "notificationContainerFactory";
+    public static final String BROADCAST_NOTIFICATION_CONTAINER_FACTORY = "broadcastNotificationContainerFactory";
+
+    // Listener ids, also the keys of app.messaging.listener.consumers and the metrics tag
+    public static final String EMAIL_LISTENER = "email";
+    public static final String CERTIFICATE_LISTENER = "certificate";
+    public static final String NOTIFICATION_LISTENER = "notification";
+    public static final String BATCHED_NOTIFICATION_LISTENER = "batched-notification";
+    public static final String BROADCAST_NOTIFICATION_LISTENER = "broadcast-notification";
+
     // Queue names
     public static final String EMAIL_QUEUE = "email.queue";
     public static final String NOTIFICATION_QUEUE = "notification.queue";
     public static final String CERTIFICATE_QUEUE = "certificate.queue";
+    // Broadcast chunks: one message carries a notification for many users
+    public static final String BROADCAST_NOTIFICATION_QUEUE = "notification.broadcast.queue";
+
+    // Consumed queues that get delayed retries and a parking lot
+    public static final List<String> RETRYABLE_QUEUES =
+            List.of(EMAIL_QUEUE, NOTIFICATION_QUEUE, CERTIFICATE_QUEUE, BROADCAST_NOTIFICATION_QUEUE);
 
     // Exchange names
     public static final String LMS_EXCHANGE = "lms.exchange";
+    public static final String DEAD_LETTER_EXCHANGE = "lms.dlx";
 
     // Routing keys
     public static final String EMAIL_ROUTING_KEY = "email.send";
     public static final String NOTIFICATION_ROUTING_KEY = "notification.send";
     public static final String CERTIFICATE_ROUTING_KEY = "certificate.generate";
+    public static final String BROADCAST_NOTIFICATION_ROUTING_KEY = "notification.broadcast";
+
+    @Value("${app.messaging.retry.max-attempts:5}")
+    private int retryMaxAttempts;
+
+    @Value("${app.messaging.retry.initial-interval:5s}")
+    private Duration retryInitialInterval;
+
+    @Value("${app.messaging.retry.multiplier:4.0}")
+    private double retryMultiplier;
+
+    @Value("${app.messaging.retry.max-interval:30m}")
+    private Duration retryMaxInterval;
 
     @Bean
     public TopicExchange lmsExchange() {
@@ -31,17 +94,73 @@ public class RabbitMQConfig {
 
     @Bean
     public Queue emailQueue() {
-        return QueueBuilder.durable(EMAIL_QUEUE).build();
+        return workQueue(EMAIL_QUEUE);
     }
 
     @Bean
     public Queue notificationQueue() {
-        return QueueBuilder.durable(NOTIFICATION_QUEUE).build();
+        return workQueue(NOTIFICATION_QUEUE);
     }
 
     @Bean
     public Queue certificateQueue() {
-        return QueueBuilder.durable(CERTIFICATE_QUEUE).build();
+        return workQueue(CERTIFICATE_QUEUE);
+    }
+
+    @Bean
+    public Queue broadcastNotificationQueue() {
+        return workQueue(BROADCAST_NOTIFICATION_QUEUE);
+    }
+
+    @Bean
+    public DirectExchange deadLetterExchange() {
+        return new DirectExchange(DEAD_LETTER_EXCHANGE);
+    }
+
+    @Bean
+    public RetryBackoff retryBackoff() {
+        return new RetryBackoff(retryMaxAttempts, retryInitialInterval, retryMultiplier, retryMaxInterval);
+    }
+
+    /**
+     * Parking lots and delayed-retry tiers of every retryable queue. A tier has no consumer:
+     * messages expire after the tier's delay and are dead-lettered straight back onto the
+     * work queue through the default exchange. Using one queue per delay keeps a long wait
+     * from blocking shorter ones behind it.
+     */
+    @Bean
+    public Declarables retryTopology() {
+        RetryBackoff backoff = retryBackoff();
+        List<Declarable> declarables = new ArrayList<>();
+        for (String queue : RETRYABLE_QUEUES) {
+            Queue parkingLot = QueueBuilder.durable(parkingLotQueue(queue)).build();
+            declarables.add(parkingLot);
+            declarables.add(BindingBuilder.bind(parkingLot).to(deadLetterExchange()).with(queue));
+            for (int attempt = 1; attempt <= backoff.tiers(); attempt++) {
+                declarables.add(QueueBuilder.durable(retryQueue(queue, attempt))
+                        .ttl((int) backoff.delay(attempt).toMillis())
+                        .deadLetterExchange("")
+                        .deadLetterRoutingKey(queue)
+                        .build());
+            }
+        }
+        return new Declarables(declarables);
+    }
+
+    public static String retryQueue(String queue, int attempt) {
+        return queue + ".retry." + attempt;
+    }
+
+    public static String parkingLotQueue(String queue) {
+        return queue + ".parking-lot";
+    }
+
+    // Rejected messages are dead-lettered into the queue's parking lot
+    private static Queue workQueue(String name) {
+        return QueueBuilder.durable(name)
+                .deadLetterExchange(DEAD_LETTER_EXCHANGE)
+                .deadLetterRoutingKey(name)
+                .build();
     }
 
     @Bean
@@ -68,15 +187,153 @@ public class RabbitMQConfig {
                 .with(CERTIFICATE_ROUTING_KEY);
     }
 
+    @Bean
+    public Binding broadcastNotificationBinding() {
+        return BindingBuilder
+                .bind(broadcastNotificationQueue())
+                .to(lmsExchange())
+                .with(BROADCAST_NOTIFICATION_ROUTING_KEY);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
     }
 
+    /**
+     * Consumers that hand {@code notification.queue} to the listener in batches: a batch is
+     * delivered once {@code batch-size} messages have arrived or no further message came
+     * within {@code receive-timeout}. The whole batch is acknowledged when the listener
+     * returns. Prefetch is raised to at least one batch so a consumer can always fill it.
+     */
+    @Bean(BATCHED_NOTIFICATION_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory batchedNotificationContainerFactory(
+            ConnectionFactory connectionFactory, MessagingConsumerProperties consumerProperties,
+            RetryingMessageRecoverer recoverer, ConsumerMetrics consumerMetrics) {
+        MessagingConsumerProperties.Spec spec = consumerProperties.specFor(BATCHED_NOTIFICATION_LISTENER);
+        int maxConsumers = Math.max(spec.getMaxConcurrency(), spec.getConcurrency());
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter());
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setAdviceChain(recoverWithoutRetry(recoverer),
+                consumerMetrics.listenerAdvice(BATCHED_NOTIFICATION_LISTENER, maxConsumers));
+        factory.setTaskExecutor(consumerExecutor(BATCHED_NOTIFICATION_LISTENER, spec.isVirtualThreads()));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(spec.getBatchSize());
+        factory.setReceiveTimeout(spec.getReceiveTimeout().toMillis());
+        factory.setPrefetchCount(Math.max(spec.getPrefetch(), spec.getBatchSize()));
+        factory.setConcurrentConsumers(spec.getConcurrency());
+        factory.setMaxConcurrentConsumers(maxConsumers);
+        return factory;
+    }
+
+    @Bean(EMAIL_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory emailContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            MessagingConsumerProperties consumerProperties, RetryingMessageRecoverer recoverer,
+            ConsumerMetrics consumerMetrics) {
+        return consumerFactory(EMAIL_LISTENER, configurer, connectionFactory, consumerProperties, recoverer, consumerMetrics);
+    }
+
+    @Bean(CERTIFICATE_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory certificateContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            MessagingConsumerProperties consumerProperties, RetryingMessageRecoverer recoverer,
+            ConsumerMetrics consumerMetrics) {
+        return consumerFactory(CERTIFICATE_LISTENER, configurer, connectionFactory, consumerProperties, recoverer, consumerMetrics);
+    }
+
+    @Bean(NOTIFICATION_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory notificationContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            MessagingConsumerProperties consumerProperties, RetryingMessageRecoverer recoverer,
+            ConsumerMetrics consumerMetrics) {
+        return consumerFactory(NOTIFICATION_LISTENER, configurer, connectionFactory, consumerProperties, recoverer, consumerMetrics);
+    }
+
+    @Bean(BROADCAST_NOTIFICATION_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory broadcastNotificationContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            MessagingConsumerProperties consumerProperties, RetryingMessageRecoverer recoverer,
+            ConsumerMetrics consumerMetrics) {
+        return consumerFactory(BROADCAST_NOTIFICATION_LISTENER, configurer, connectionFactory, consumerProperties,
+                recoverer, consumerMetrics);
+    }
+
+    /**
+     * Container factory of one consumer: Spring Boot's listener settings, then the
+     * consumer's own concurrency and prefetch, the retry layer, timing, and a dedicated
+     * thread pool so one consumer's blocked threads never starve another.
+     */
+    private SimpleRabbitListenerContainerFactory consumerFactory(String listener,
+                                                                 SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                 ConnectionFactory connectionFactory,
+                                                                 MessagingConsumerProperties consumerProperties,
+                                                                 RetryingMessageRecoverer recoverer,
+                                                                 ConsumerMetrics consumerMetrics) {
+        MessagingConsumerProperties.Spec spec = consumerProperties.specFor(listener);
+        int maxConsumers = Math.max(spec.getMaxConcurrency(), spec.getConcurrency());
+
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter());
+        factory.setConcurrentConsumers(spec.getConcurrency());
+        factory.setMaxConcurrentConsumers(maxConsumers);
+        factory.setPrefetchCount(spec.getPrefetch());
+        factory.setAdviceChain(recoverWithoutRetry(recoverer), consumerMetrics.listenerAdvice(listener, maxConsumers));
+        factory.setTaskExecutor(consumerExecutor(listener, spec.isVirtualThreads()));
+        return factory;
+    }
+
+    /**
+     * One thread per running consumer, so the pool is bounded by the consumer's maximum
+     * concurrency. Virtual threads need Java 21; on older runtimes the option logs a
+     * warning and platform threads are used.
+     */
+    private static SimpleAsyncTaskExecutor consumerExecutor(String listener, boolean virtualThreads) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(listener + "-consumer-");
+        if (virtualThreads) {
+            if (Runtime.version().feature() >= 21) {
+                executor.setVirtualThreads(true);
+            } else {
+                log.warn("Virtual threads requested for the {} consumer but Java {} does not support them; "
+                        + "using platform threads", listener, Runtime.version().feature());
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Default listener containers, as configured by Spring Boot, with failures handed to
+     * the recoverer instead of being requeued.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            RetryingMessageRecoverer recoverer) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter());
+        factory.setAdviceChain(recoverWithoutRetry(recoverer));
+        return factory;
+    }
+
+    // No in-process retry: the consumer thread is released at once and the broker holds the delay
+    private static RetryOperationsInterceptor recoverWithoutRetry(RetryingMessageRecoverer recoverer) {
+        return RetryInterceptorBuilder.stateless()
+                .maxAttempts(1)
+                .recoverer(recoverer)
+                .build();
+    }
+
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        // Unroutable messages come back to the publisher, so the outbox relay can retry them
+        rabbitTemplate.setMandatory(true);
         return rabbitTemplate;
     }
 }
@@ -1,39 +1,131 @@
 package com.lms.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Bucket4j;
+import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Bean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.redis.core.RedisTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Rate limit buckets, either per node ({@code local} mode) or shared across all nodes
+ * through Redis ({@code redis} mode).
+ *
+ * <p>In redis mode each bucket is a Bucket4j proxy whose state lives in Redis, so every
+ * replica draws from the same quota. Proxies use the delaying optimisation: a client well
+ * below its quota consumes against a local copy of the bucket and only synchronises with
+ * Redis once {@code local-sync-fraction} of the capacity or {@code local-sync-timeout} has
+ * accumulated. The overshoot across the cluster is bounded by that fraction per node.
+ *
+ * <p>In both modes buckets are held in a size-bounded cache that expires idle entries, so
+ * scans over many IPs cannot grow the heap without limit.
+ */
 @Configuration
 @Slf4j
 public class RateLimitConfig {
 
-    @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
+    private static final String KEY_PREFIX = "lms:rate-limit:";
 
-    // In-memory cache for rate limit buckets (fallback if Redis is unavailable)
-    private final ConcurrentHashMap<String, Bucket> bucketCache = new ConcurrentHashMap<>();
+    private static final Bandwidth GENERAL_LIMIT = limit(100, Duration.ofMinutes(1));
+    private static final Bandwidth AUTH_LIMIT = limit(10, Duration.ofMinutes(1));
+    private static final Bandwidth UPLOAD_LIMIT = limit(20, Duration.ofHours(1));
+    private static final Bandwidth SEARCH_LIMIT = limit(200, Duration.ofMinutes(1));
+    private static final Bandwidth ADMIN_LIMIT = limit(50, Duration.ofMinutes(1));
+    private static final Bandwidth EMAIL_LIMIT = limit(5, Duration.ofHours(1));
+    private static final Bandwidth ENROLLMENT_LIMIT = limit(10, Duration.ofHours(1));
+
+    @Value("${app.rate-limit.mode:redis}")
+    private String mode;
+
+    @Value("${app.rate-limit.cache.maximum-size:100000}")
+    private long cacheMaximumSize;
+
+    @Value("${app.rate-limit.cache.expire-after-access:2h}")
+    private Duration cacheExpireAfterAccess;
+
+    @Value("${app.rate-limit.local-sync-fraction:0.1}")
+    private double localSyncFraction;
+
+    @Value("${app.rate-limit.local-sync-timeout:1s}")
+    private Duration localSyncTimeout;
+
+    @Value("${spring.redis.host:localhost}")
+    private String redisHost;
+
+    @Value("${spring.redis.port:6379}")
+    private int redisPort;
+
+    @Value("${spring.redis.password:}")
+    private String redisPassword;
+
+    @Value("${spring.redis.database:0}")
+    private int database;
+
+    private Cache<String, Bucket> bucketCache;
+    private RedisClient redisClient;
+    private StatefulRedisConnection<byte[], byte[]> redisConnection;
+    private LettuceBasedProxyManager proxyManager;
+
+    @PostConstruct
+    public void init() {
+        bucketCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterAccess(cacheExpireAfterAccess)
+                .build();
+
+        if (isDistributed()) {
+            RedisURI.Builder uri = RedisURI.builder()
+                    .withHost(redisHost)
+                    .withPort(redisPort)
+                    .withDatabase(database);
+            if (redisPassword != null && !redisPassword.trim().isEmpty()) {
+                uri.withPassword(redisPassword.toCharArray());
+            }
+            redisClient = RedisClient.create(uri.build());
+            redisConnection = redisClient.connect(ByteArrayCodec.INSTANCE);
+            // Redis drops a bucket a minute after it would have refilled completely anyway
+            proxyManager = LettuceBasedProxyManager.builderFor(redisConnection.async())
+                    .withExpirationStrategy(ExpirationAfterWriteStrategy
+                            .basedOnTimeForRefillingBucketUpToMax(Duration.ofMinutes(1)))
+                    .build();
+            log.info("Distributed rate limiting enabled via Redis {}:{}", redisHost, redisPort);
+        } else {
+            log.info("Rate limiting is per node (local mode)");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (redisConnection != null) {
+            redisConnection.close();
+        }
+        if (redisClient != null) {
+            redisClient.shutdown();
+        }
+    }
 
     /**
      * Create rate limit bucket for general API requests
      * 100 requests per minute per IP
      */
     public Bucket createGeneralBucket(String key) {
-        return bucketCache.computeIfAbsent(key, k -> {
-            Bandwidth limit = Bandwidth.classic(100, Refill.intervally(100, Duration.ofMinutes(1)));
-            return Bucket4j.builder()
-                    .addLimit(limit)
-                    .build();
-        });
+        return resolve("general:" + key, GENERAL_LIMIT);
     }
 
     /**
@@ -41,12 +133,7 @@ public class RateLimitConfig {
      * 10 requests per minute per IP (stricter for login/register)
      */
     public Bucket createAuthBucket(String key) {
-        return bucketCache.computeIfAbsent("auth:" + key, k -> {
-            Bandwidth limit = Bandwidth.classic(10, Refill.intervally(10, Duration.ofMinutes(1)));
-            return Bucket4j.builder()
-                    .addLimit(limit)
-                    .build();
-        });
+        return resolve("auth:" + key, AUTH_LIMIT);
     }
 
     /**
@@ -54,12 +141,7 @@ public class RateLimitConfig {
      * 20 requests per hour per user (file uploads are resource intensive)
      */
     public Bucket createUploadBucket(String key) {
-        return bucketCache.computeIfAbsent("upload:" + key, k -> {
-            Bandwidth limit = Bandwidth.classic(20, Refill.intervally(20, Duration.ofHours(1)));
-            return Bucket4j.builder()
-                    .addLimit(limit)
-                    .build();
-        });
+        return resolve("upload:" + key, UPLOAD_LIMIT);
     }
 
     /**
@@ -67,12 +149,7 @@ public class RateLimitConfig {
      * 200 requests per minute per user (search can be frequent)
      */
     public Bucket createSearchBucket(String key) {
-        return bucketCache.computeIfAbsent("search:" + key, k -> {
-            Bandwidth limit = Bandwidth.classic(200, Refill.intervally(200, Duration.ofMinutes(1)));
-            return Bucket4j.builder()
-                    .addLimit(limit)
-                    .build();
-        });
+        return resolve("search:" + key, SEARCH_LIMIT);
     }
 
     /**
@@ -80,12 +157,7 @@ public class RateLimitConfig {
      * 50 requests per minute per admin user
      */
     public Bucket createAdminBucket(String key) {
-        return bucketCache.computeIfAbsent("admin:" + key, k -> {
-            Bandwidth limit = Bandwidth.classic(50, Refill.intervally(50, Duration.ofMinutes(1)));
-            return Bucket4j.builder()
-                    .addLimit(limit)
-                    .build();
-        });
+        return resolve("admin:" + key, ADMIN_LIMIT);
     }
 
     /**
@@ -93,12 +165,7 @@ public class RateLimitConfig {
      * 5 emails per hour per user
      */
     public Bucket createEmailBucket(String key) {
-        return bucketCache.computeIfAbsent("email:" + key, k -> {
-            Bandwidth limit = Bandwidth.classic(5, Refill.intervally(5, Duration.ofHours(1)));
-            return Bucket4j.builder()
-                    .addLimit(limit)
-                    .build();
-        });
+        return resolve("email:" + key, EMAIL_LIMIT);
     }
 
     /**
@@ -106,12 +173,7 @@ public class RateLimitConfig {
      * 10 enrollments per hour per user
      */
     public Bucket createEnrollmentBucket(String key) {
-        return bucketCache.computeIfAbsent("enrollment:" + key, k -> {
-            Bandwidth limit = Bandwidth.classic(10, Refill.intervally(10, Duration.ofHours(1)));
-            return Bucket4j.builder()
-                    .addLimit(limit)
-                    .build();
-        });
+        return resolve("enrollment:" + key, ENROLLMENT_LIMIT);
     }
 
     /**
@@ -130,10 +192,11 @@ public class RateLimitConfig {
     }
 
     /**
-     * Clear all rate limit buckets (for testing or admin purposes)
+     * Clear all cached rate limit buckets (for testing or admin purposes).
+     * In redis mode this only drops the local proxies; the shared state stays in Redis.
      */
     public void clearAllBuckets() {
-        bucketCache.clear();
+        bucketCache.invalidateAll();
         log.info("All rate limit buckets cleared");
     }
 
@@ -141,6 +204,37 @@ public class RateLimitConfig {
      * Get current bucket cache size
      */
     public int getBucketCacheSize() {
-        return bucketCache.size();
+        return (int) bucketCache.estimatedSize();
+    }
+
+    public boolean isDistributed() {
+        return "redis".equalsIgnoreCase(mode);
+    }
+
+    private Bucket resolve(String key, Bandwidth limit) {
+        return bucketCache.get(key, k -> isDistributed()
+                ? createProxy(k, limit)
+                : Bucket.builder().addLimit(limit).build());
+    }
+
+    private Bucket createProxy(String key, Bandwidth limit) {
+        BucketConfiguration configuration = BucketConfiguration.builder().addLimit(limit).build();
+        long maxUnsyncedTokens = (long) (limit.getCapacity() * localSyncFraction);
+        if (maxUnsyncedTokens < 1) {
+            // Tight limits (email, auth) always go to Redis
+            return proxyManager.builder()
+                    .build(redisKey(key), () -> configuration);
+        }
+        return proxyManager.builder()
+                .withOptimization(Optimizations.delaying(new DelayParameters(maxUnsyncedTokens, localSyncTimeout)))
+                .build(redisKey(key), () -> configuration);
+    }
+
+    private static byte[] redisKey(String key) {
+        return (KEY_PREFIX + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Bandwidth limit(long capacity, Duration period) {
+        return Bandwidth.classic(capacity, Refill.intervally(capacity, period));
     }
 }
@@ -7,7 +7,13 @@ import com.fasterxml.jackson.databind.type.CollectionType;
 import com.fasterxml.jackson.databind.type.MapType;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.lms.cache.CacheTagIndex;
+import com.lms.cache.CacheTags;
+import com.lms.cache.TaggingCacheManager;
+import com.lms.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -19,6 +25,8 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -86,13 +94,19 @@ public class RedisConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     RedisTemplate<String, Object> redisTemplate,
+                                     LocalCacheProperties localCacheProperties,
+                                     CacheTagIndex cacheTagIndex,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        // Shared with the L1 tier, which keeps the same serialized values as Redis
+        GenericJackson2JsonRedisSerializer valueSerializer = new GenericJackson2JsonRedisSerializer();
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofHours(1)) // Default TTL of 1 hour
                 .serializeKeysWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
                         .fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
-                        .fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                        .fromSerializer(valueSerializer));
 
         // Configure different TTL for different cache types
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
@@ -117,10 +131,40 @@ public class RedisConfig {
         
         // Notifications - cache for 2 minutes
         cacheConfigurations.put("notifications", defaultConfig.entryTtl(Duration.ofMinutes(2)));
+        
+        // Certificate verifications - issued certificates do not change
+        cacheConfigurations.put("certificates", defaultConfig.entryTtl(Duration.ofHours(24)));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
+
+        // Not a bean on its own, so initialise the configured caches here
+        redisCacheManager.afterPropertiesSet();
+
+        // Record dependency tags on every Redis write so updates can evict just the affected keys
+        CacheManager taggedCacheManager = new TaggingCacheManager(redisCacheManager, CacheTags.extractors(), cacheTagIndex);
+
+        if (!localCacheProperties.isEnabled()) {
+            return taggedCacheManager;
+        }
+
+        log.info("Local L1 cache tier enabled in front of Redis");
+        return new TwoTierCacheManager(taggedCacheManager, localCacheProperties, redisTemplate,
+                valueSerializer, meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            CacheManager cacheManager,
+                                                                            LocalCacheProperties localCacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (cacheManager instanceof TwoTierCacheManager twoTierCacheManager) {
+            container.addMessageListener(twoTierCacheManager,
+                    new ChannelTopic(localCacheProperties.getInvalidationChannel()));
+        }
+        return container;
     }
 }
@@ -0,0 +1,32 @@
+package com.lms.config;
+
+import java.time.Duration;
+
+/**
+ * Exponential backoff of failed message deliveries. Attempt {@code n} (1-based) that fails
+ * is retried after {@code initialInterval * multiplier^(n-1)}, capped at {@code maxInterval};
+ * after {@code maxAttempts} failed attempts the message is parked.
+ */
+public record RetryBackoff(int maxAttempts, Duration initialInterval, double multiplier, Duration maxInterval) {
+
+    public RetryBackoff {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+    }
+
+    /**
+     * Delay before the retry that follows failed attempt {@code attempt}.
+     */
+    public Duration delay(int attempt) {
+        double millis = initialInterval.toMillis() * Math.pow(multiplier, attempt - 1);
+        return Duration.ofMillis((long) Math.min(millis, maxInterval.toMillis()));
+    }
+
+    /**
+     * Number of delayed-retry tiers, one per attempt that may still be retried.
+     */
+    public int tiers() {
+        return maxAttempts - 1;
+    }
+}
@@ -110,6 +110,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/courses/*/public").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/categories/active").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/courses/search").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/courses/search/suggest").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/courses/featured").permitAll()
 
                 // Admin endpoints
@@ -1,4 +1,5 @@
 package com.lms.controller;
+import com.lms.dto.admin.DashboardAnalyticsDto;
 import com.lms.service.AdminService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +27,12 @@ public class AdminAnalyticsController {
         return ResponseEntity.ok(analytics);
     }
 
+    @GetMapping("/dashboard/snapshot")
+    public ResponseEntity<DashboardAnalyticsDto> getDashboardSnapshot() {
+        DashboardAnalyticsDto snapshot = adminService.getDashboardSnapshot();
+        return ResponseEntity.ok(snapshot);
+    }
+
     @GetMapping("/users")
     public ResponseEntity<Map<String, Object>> getUserAnalytics() {
         Map<String, Object> analytics = adminService.getUserAnalytics();
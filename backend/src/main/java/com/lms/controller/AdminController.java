@@ -1,6 +1,7 @@
 package com.lms.controller;
 
 import com.lms.dto.admin.InstructorApprovalRequest;
+import com.lms.dto.common.CursorSlice;
 import com.lms.dto.user.UserDto;
 import com.lms.entity.User;
 import com.lms.entity.Course;
@@ -9,6 +10,7 @@ import com.lms.entity.CourseReview;
 import com.lms.entity.CourseComment;
 import com.lms.entity.Certificate;
 import com.lms.entity.Notification;
+import com.lms.entity.Broadcast;
 import com.lms.service.UserService;
 import com.lms.service.AdminService;
 import com.lms.service.CourseService;
@@ -17,12 +19,15 @@ import com.lms.service.CourseReviewService;
 import com.lms.service.CourseCommentService;
 import com.lms.service.CertificateService;
 import com.lms.service.NotificationService;
+import com.lms.service.messaging.DeadLetterService;
+import com.lms.service.search.CourseSearchService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -44,6 +49,8 @@ public class AdminController {
     private final CourseCommentService commentService;
     private final CertificateService certificateService;
     private final NotificationService notificationService;
+    private final DeadLetterService deadLetterService;
+    private final CourseSearchService courseSearchService;
 
     @GetMapping("/users")
     public ResponseEntity<Page<UserDto>> getAllUsers(
@@ -182,12 +189,24 @@ public class AdminController {
         return ResponseEntity.ok(enrollments);
     }
 
+    @GetMapping("/enrollments/scroll")
+    public ResponseEntity<CursorSlice<Enrollment>> scrollAllEnrollments(@RequestParam(required = false) String cursor,
+                                                                        @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(adminService.scrollAllEnrollments(cursor, size));
+    }
+
     @GetMapping("/certificates")
     public ResponseEntity<Page<Certificate>> getAllCertificates(Pageable pageable) {
         Page<Certificate> certificates = adminService.getAllCertificates(pageable);
         return ResponseEntity.ok(certificates);
     }
 
+    @GetMapping("/certificates/scroll")
+    public ResponseEntity<CursorSlice<Certificate>> scrollAllCertificates(@RequestParam(required = false) String cursor,
+                                                                          @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(adminService.scrollAllCertificates(cursor, size));
+    }
+
     @GetMapping("/certificates/pending")
     public ResponseEntity<Page<Certificate>> getPendingCertificates(Pageable pageable) {
         Page<Certificate> certificates = certificateService.getCertificatesByStatus(Certificate.Status.PENDING, pageable);
@@ -209,8 +228,63 @@ public class AdminController {
 
     @PostMapping("/notifications/broadcast")
     public ResponseEntity<Map<String, String>> broadcastNotification(@RequestBody Map<String, String> request) {
-        adminService.broadcastSystemNotification(request.get("title"), request.get("message"));
-        return ResponseEntity.ok(Map.of("message", "Notification broadcasted successfully"));
+        Broadcast broadcast = adminService.broadcastSystemNotification(request.get("title"), request.get("message"));
+        return ResponseEntity.ok(Map.of(
+                "message", "Notification broadcast started",
+                "broadcastId", broadcast.getId()));
+    }
+
+    @GetMapping("/broadcasts")
+    public ResponseEntity<Page<Broadcast>> getBroadcasts(Pageable pageable) {
+        return ResponseEntity.ok(adminService.getBroadcasts(pageable));
+    }
+
+    @GetMapping("/broadcasts/{broadcastId}")
+    public ResponseEntity<Broadcast> getBroadcast(@PathVariable String broadcastId) {
+        return ResponseEntity.ok(adminService.getBroadcast(broadcastId));
+    }
+
+    @PostMapping("/broadcasts/{broadcastId}/resume")
+    public ResponseEntity<Broadcast> resumeBroadcast(@PathVariable String broadcastId) {
+        return ResponseEntity.ok(adminService.resumeBroadcast(broadcastId));
+    }
+
+    // Message Delivery
+    @GetMapping("/messaging/queues")
+    public ResponseEntity<List<Map<String, Object>>> getMessagingQueues() {
+        return ResponseEntity.ok(deadLetterService.getQueueSummaries());
+    }
+
+    @GetMapping("/messaging/parking-lot/{queue}")
+    public ResponseEntity<List<Map<String, Object>>> getParkedMessages(@PathVariable String queue,
+                                                                       @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(deadLetterService.peekParked(queue, limit));
+    }
+
+    @PostMapping("/messaging/parking-lot/{queue}/replay")
+    public ResponseEntity<Map<String, Object>> replayParkedMessages(@PathVariable String queue,
+                                                                    @RequestParam(defaultValue = "100") int limit) {
+        int replayed = deadLetterService.replayParked(queue, limit);
+        return ResponseEntity.ok(Map.of("queue", queue, "replayed", replayed));
+    }
+
+    @DeleteMapping("/messaging/parking-lot/{queue}")
+    public ResponseEntity<Map<String, Object>> purgeParkedMessages(@PathVariable String queue) {
+        int purged = deadLetterService.purgeParked(queue);
+        return ResponseEntity.ok(Map.of("queue", queue, "purged", purged));
+    }
+
+    // Course Search Index
+    @GetMapping("/search/index")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStatus() {
+        return ResponseEntity.ok(courseSearchService.getStatus());
+    }
+
+    @PostMapping("/search/index/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        boolean started = courseSearchService.requestRebuild();
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(courseSearchService.getStatus());
     }
 
     // Reports and Exports
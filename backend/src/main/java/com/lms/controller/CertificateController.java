@@ -1,20 +1,25 @@
 package com.lms.controller;
 
 import com.lms.entity.Certificate;
+import com.lms.entity.CertificateIssuanceJob;
 import com.lms.service.CertificateService;
+import com.lms.service.certificate.CertificateFileStreamer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/certificates")
@@ -23,6 +28,7 @@ import java.nio.file.Paths;
 public class CertificateController {
 
     private final CertificateService certificateService;
+    private final CertificateFileStreamer certificateFileStreamer;
 
     @PostMapping("/enrollments/{enrollmentId}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('INSTRUCTOR') or hasRole('ADMIN')")
@@ -70,6 +76,28 @@ public class CertificateController {
         return ResponseEntity.ok(certificates);
     }
 
+    @PostMapping("/courses/{courseId}/issue")
+    @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
+    public ResponseEntity<CertificateIssuanceJob> issueCohortCertificates(
+            @PathVariable String courseId,
+            @RequestBody(required = false) Map<String, List<String>> request) {
+        List<String> enrollmentIds = request != null ? request.get("enrollmentIds") : null;
+        CertificateIssuanceJob job = certificateService.issueCohortCertificates(courseId, enrollmentIds);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @GetMapping("/issuance-jobs/{jobId}")
+    @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
+    public ResponseEntity<CertificateIssuanceJob> getIssuanceJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(certificateService.getIssuanceJob(jobId));
+    }
+
+    @PostMapping("/issuance-jobs/{jobId}/resume")
+    @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
+    public ResponseEntity<CertificateIssuanceJob> resumeIssuanceJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(certificateService.resumeIssuanceJob(jobId));
+    }
+
     @GetMapping("/instructor/certificates")
     @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
     public ResponseEntity<Page<Certificate>> getInstructorCertificates(@PageableDefault(size = 12) Pageable pageable) {
@@ -100,30 +128,28 @@ public class CertificateController {
 
     @GetMapping("/{certificateId}/download-file")
     @PreAuthorize("hasRole('STUDENT') or hasRole('INSTRUCTOR') or hasRole('ADMIN')")
-    public ResponseEntity<Resource> downloadCertificateFile(@PathVariable String certificateId) {
-        Certificate certificate = certificateService.downloadCertificate(certificateId);
+    public void downloadCertificateFile(@PathVariable String certificateId,
+                                        HttpServletRequest request,
+                                        HttpServletResponse response) throws IOException {
+        Certificate certificate = certificateService.getDownloadableCertificate(certificateId);
+
+        Path filePath = Paths.get(certificate.getFilePath());
+        if (!Files.isReadable(filePath)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-        try {
-            Path filePath = Paths.get(certificate.getFilePath());
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION,
-                               "attachment; filename=\"certificate_" + certificate.getCertificateNumber() + ".pdf\"")
-                        .header(HttpHeaders.CONTENT_TYPE, "application/pdf")
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+        // Revalidations and partial reads are not counted as downloads
+        boolean complete = certificateFileStreamer.stream(filePath,
+                "certificate_" + certificate.getCertificateNumber() + ".pdf", request, response);
+        if (complete) {
+            certificateService.recordDownload(certificate);
         }
     }
 
     @GetMapping("/verify/{certificateNumber}")
     public ResponseEntity<Boolean> verifyCertificate(@PathVariable String certificateNumber) {
-        boolean isValid = certificateService.verifyCertificate(certificateNumber);
+        boolean isValid = certificateService.getCertificateVerification(certificateNumber).isValid();
         return ResponseEntity.ok(isValid);
     }
 
@@ -1,5 +1,8 @@
 package com.lms.controller;
 
+import com.lms.dto.common.CursorSlice;
+import com.lms.dto.course.CourseCatalogDto;
+import com.lms.dto.course.CourseSuggestionDto;
 import com.lms.entity.Course;
 import com.lms.service.CourseService;
 import jakarta.validation.Valid;
@@ -14,6 +17,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/courses")
@@ -66,6 +70,13 @@ public class CourseController {
         return ResponseEntity.ok(courses);
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorSlice<Course>> scrollCourses(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "12") int size) {
+        CursorSlice<Course> courses = courseService.scrollPublishedCourses(cursor, size);
+        return ResponseEntity.ok(courses);
+    }
+
     @GetMapping("/instructor/{instructorId}")
     public ResponseEntity<Page<Course>> getCoursesByInstructor(@PathVariable String instructorId,
                                                              @PageableDefault(size = 12) Pageable pageable) {
@@ -87,20 +98,42 @@ public class CourseController {
         return ResponseEntity.ok(courses);
     }
 
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<CourseSuggestionDto>> suggestCourses(@RequestParam String q,
+                                                                   @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(courseService.suggestCourses(q, limit));
+    }
+
     @GetMapping("/filter")
     public ResponseEntity<Page<Course>> getCoursesWithFilters(
             @RequestParam(required = false) String categoryId,
             @RequestParam(required = false) Course.Level level,
+            @RequestParam(required = false) String language,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) String keyword,
             @RequestParam(defaultValue = "created") String sortBy,
             @PageableDefault(size = 12) Pageable pageable) {
         Page<Course> courses = courseService.getCoursesWithFilters(
-                categoryId, level, minPrice, maxPrice, keyword, sortBy, pageable);
+                categoryId, level, language, minPrice, maxPrice, keyword, sortBy, pageable);
         return ResponseEntity.ok(courses);
     }
 
+    @GetMapping("/catalog")
+    public ResponseEntity<CourseCatalogDto> getCourseCatalog(
+            @RequestParam(required = false) String categoryId,
+            @RequestParam(required = false) Course.Level level,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "created") String sortBy,
+            @PageableDefault(size = 12) Pageable pageable) {
+        CourseCatalogDto catalog = courseService.getCourseCatalog(
+                categoryId, level, language, minPrice, maxPrice, keyword, sortBy, pageable);
+        return ResponseEntity.ok(catalog);
+    }
+
     @GetMapping("/featured")
     public ResponseEntity<Page<Course>> getFeaturedCourses(@PageableDefault(size = 12) Pageable pageable) {
         Page<Course> courses = courseService.getFeaturedCourses(pageable);
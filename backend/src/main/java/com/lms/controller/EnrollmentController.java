@@ -1,5 +1,6 @@
 package com.lms.controller;
 
+import com.lms.dto.common.CursorSlice;
 import com.lms.entity.Enrollment;
 import com.lms.service.EnrollmentService;
 import lombok.RequiredArgsConstructor;
@@ -78,6 +79,14 @@ public class EnrollmentController {
         return ResponseEntity.ok(enrollments);
     }
 
+    @GetMapping("/my-enrollments/scroll")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('INSTRUCTOR') or hasRole('ADMIN')")
+    public ResponseEntity<CursorSlice<Enrollment>> scrollUserEnrollments(@RequestParam(required = false) String cursor,
+                                                                         @RequestParam(defaultValue = "12") int size) {
+        CursorSlice<Enrollment> enrollments = enrollmentService.scrollUserEnrollments(cursor, size);
+        return ResponseEntity.ok(enrollments);
+    }
+
     @GetMapping("/my-enrollments/completed")
     @PreAuthorize("hasRole('STUDENT') or hasRole('INSTRUCTOR') or hasRole('ADMIN')")
     public ResponseEntity<Page<Enrollment>> getUserCompletedEnrollments(@PageableDefault(size = 12) Pageable pageable) {
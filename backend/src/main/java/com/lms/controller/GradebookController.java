@@ -1,5 +1,6 @@
 package com.lms.controller;
 
+import com.lms.dto.gradebook.GradingSchemeDto;
 import com.lms.entity.CourseGrade;
 import com.lms.entity.GradebookCategory;
 import com.lms.service.GradebookService;
@@ -46,6 +47,20 @@ public class GradebookController {
         return ResponseEntity.ok(categories);
     }
 
+    // Grading Scheme
+    @GetMapping("/courses/{courseId}/grading-scheme")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('INSTRUCTOR') or hasRole('ADMIN')")
+    public ResponseEntity<GradingSchemeDto> getGradingScheme(@PathVariable String courseId) {
+        return ResponseEntity.ok(gradebookService.getGradingScheme(courseId));
+    }
+
+    @PutMapping("/courses/{courseId}/grading-scheme")
+    @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
+    public ResponseEntity<GradingSchemeDto> updateGradingScheme(@PathVariable String courseId,
+                                                              @Valid @RequestBody GradingSchemeDto scheme) {
+        return ResponseEntity.ok(gradebookService.updateGradingScheme(courseId, scheme));
+    }
+
     // Course Grades
     @PutMapping("/courses/{courseId}/students/{studentId}/recalculate")
     @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
@@ -85,6 +100,18 @@ public class GradebookController {
         return ResponseEntity.ok(Map.of("message", "All course grades recalculated successfully"));
     }
 
+    @GetMapping("/courses/{courseId}/recalculation-status")
+    @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getRecalculationStatus(@PathVariable String courseId) {
+        return ResponseEntity.ok(gradebookService.getRecalculationStatus(courseId));
+    }
+
+    @GetMapping("/recalculation/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getRecalculationQueueStatus() {
+        return ResponseEntity.ok(gradebookService.getRecalculationQueueStatus());
+    }
+
     @GetMapping("/courses/{courseId}/students-needing-attention")
     @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
     public ResponseEntity<List<CourseGrade>> getStudentsNeedingAttention(@PathVariable String courseId,
@@ -1,5 +1,7 @@
 package com.lms.controller;
 
+import com.lms.dto.common.CursorSlice;
+import com.lms.entity.Broadcast;
 import com.lms.entity.InAppMessage;
 import com.lms.service.InAppMessageService;
 import lombok.RequiredArgsConstructor;
@@ -46,6 +48,17 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<CursorSlice<InAppMessage>> scrollMessages(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        
+        String userId = getCurrentUserId();
+        return ResponseEntity.ok(messageService.scrollMessagesForUser(userId, unreadOnly, cursor, size));
+    }
+
     @GetMapping("/unread")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Page<InAppMessage>> getUnreadMessages(
@@ -137,16 +150,18 @@ public class MessageController {
     @PostMapping("/broadcast")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, String>> sendSystemAnnouncement(@RequestBody BroadcastMessageRequest request) {
-        messageService.sendSystemAnnouncement(
+        Broadcast broadcast = messageService.sendSystemAnnouncement(
             request.getSubject(),
             request.getContent(),
             request.getPriority(),
             request.getActionUrl(),
-            request.getActionText()
+            request.getActionText(),
+            getCurrentUserId()
         );
         
         Map<String, String> response = new HashMap<>();
-        response.put("message", "System announcement sent to all users");
+        response.put("message", "System announcement is being sent to all users");
+        response.put("broadcastId", broadcast.getId());
         
         return ResponseEntity.ok(response);
     }
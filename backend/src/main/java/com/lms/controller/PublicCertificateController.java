@@ -1,5 +1,6 @@
 package com.lms.controller;
 
+import com.lms.dto.certificate.CertificateVerificationDto;
 import com.lms.entity.Certificate;
 import com.lms.service.CertificateService;
 import lombok.RequiredArgsConstructor;
@@ -22,17 +23,17 @@ public class PublicCertificateController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Certificate certificate = certificateService.getCertificateByNumber(certificateNumber);
+            CertificateVerificationDto verification = certificateService.getCertificateVerification(certificateNumber);
             
-            if (certificate != null && certificate.isGenerated()) {
+            if (verification.isValid()) {
                 response.put("valid", true);
-                response.put("certificateNumber", certificate.getCertificateNumber());
-                response.put("studentName", certificate.getUser().getFullName());
-                response.put("courseName", certificate.getCourse().getTitle());
-                response.put("instructorName", certificate.getCourse().getInstructor().getFullName());
-                response.put("issueDate", certificate.getIssuedAt());
-                response.put("completionDate", certificate.getEnrollment().getCompletedAt());
-                response.put("courseDuration", certificate.getCourse().getDurationMinutes());
+                response.put("certificateNumber", verification.getCertificateNumber());
+                response.put("studentName", verification.getStudentName());
+                response.put("courseName", verification.getCourseName());
+                response.put("instructorName", verification.getInstructorName());
+                response.put("issueDate", verification.getIssueDate());
+                response.put("completionDate", verification.getCompletionDate());
+                response.put("courseDuration", verification.getCourseDuration());
             } else {
                 response.put("valid", false);
                 response.put("message", "Certificate not found or not valid");
@@ -47,7 +48,7 @@ public class PublicCertificateController {
 
     @GetMapping("/verify-simple/{certificateNumber}")
     public ResponseEntity<Map<String, Boolean>> verifyCertificateSimple(@PathVariable String certificateNumber) {
-        boolean isValid = certificateService.verifyCertificate(certificateNumber);
+        boolean isValid = certificateService.getCertificateVerification(certificateNumber).isValid();
         Map<String, Boolean> response = new HashMap<>();
         response.put("valid", isValid);
         return ResponseEntity.ok(response);
@@ -1,17 +1,18 @@
 package com.lms.dto.admin;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
-
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
+/**
+ * Immutable admin dashboard snapshot. Instances are built once per refresh
+ * and shared between all readers, so none of the nested stats can be mutated.
+ */
+@Value
+@Builder
 public class DashboardAnalyticsDto {
     
     private LocalDateTime generatedAt;
@@ -22,9 +23,8 @@ public class DashboardAnalyticsDto {
     private RevenueStats revenue;
     private List<TrendData> trends;
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
+    @Builder
     public static class OverviewStats {
         private long totalUsers;
         private long totalCourses;
@@ -34,9 +34,8 @@ public class DashboardAnalyticsDto {
         private long totalComments;
     }
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
+    @Builder
     public static class UserStats {
         private long totalStudents;
         private long totalInstructors;
@@ -48,9 +47,8 @@ public class DashboardAnalyticsDto {
         private List<MonthlyData> monthlyRegistrations;
     }
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
+    @Builder
     public static class CourseStats {
         private long publishedCourses;
         private long unpublishedCourses;
@@ -62,9 +60,8 @@ public class DashboardAnalyticsDto {
         private List<CourseData> mostEnrolledCourses;
     }
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
+    @Builder
     public static class EnrollmentStats {
         private long totalEnrollments;
         private long activeEnrollments;
@@ -75,9 +72,8 @@ public class DashboardAnalyticsDto {
         private List<MonthlyData> monthlyEnrollments;
     }
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
+    @Builder
     public static class RevenueStats {
         private BigDecimal totalRevenue;
         private BigDecimal monthlyRevenue;
@@ -88,9 +84,7 @@ public class DashboardAnalyticsDto {
         private List<CourseEarningsData> topEarningCourses;
     }
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
     public static class TrendData {
         private String period;
         private String metric;
@@ -98,9 +92,7 @@ public class DashboardAnalyticsDto {
         private double changePercentage;
     }
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
     public static class MonthlyData {
         private int year;
         private int month;
@@ -109,9 +101,7 @@ public class DashboardAnalyticsDto {
         private BigDecimal amount;
     }
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
     public static class CategoryData {
         private String categoryId;
         private String categoryName;
@@ -119,9 +109,7 @@ public class DashboardAnalyticsDto {
         private long enrollmentCount;
     }
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
     public static class CourseData {
         private String courseId;
         private String title;
@@ -133,9 +121,7 @@ public class DashboardAnalyticsDto {
         private LocalDateTime createdAt;
     }
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
     public static class InstructorEarningsData {
         private String instructorId;
         private String instructorName;
@@ -146,9 +132,7 @@ public class DashboardAnalyticsDto {
         private double averageRating;
     }
     
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
     public static class CourseEarningsData {
         private String courseId;
         private String title;
@@ -0,0 +1,19 @@
+package com.lms.dto.certificate;
+
+import lombok.Data;
+
+/**
+ * Public verification result for a certificate number. Valid results are cached; dates are
+ * kept as ISO strings so the cached form matches the JSON response.
+ */
+@Data
+public class CertificateVerificationDto {
+    private boolean valid;
+    private String certificateNumber;
+    private String studentName;
+    private String courseName;
+    private String instructorName;
+    private String issueDate;
+    private String completionDate;
+    private Integer courseDuration;
+}
@@ -0,0 +1,49 @@
+package com.lms.dto.common;
+
+import com.lms.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position in a listing ordered newest first by a timestamp and then by id. Clients get it
+ * as an opaque token and pass it back unchanged; the next slice starts strictly after it.
+ */
+public record Cursor(LocalDateTime timestamp, String id) {
+
+    private static final char SEPARATOR = ',';
+
+    public Cursor {
+        // The seek predicate never returns rows without a timestamp, so neither part may be missing
+        Objects.requireNonNull(timestamp, "cursor timestamp");
+        Objects.requireNonNull(id, "cursor id");
+    }
+
+    public String encode() {
+        String raw = timestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the position of the token, or null for a missing token, which reads the first slice
+     * @throws BadRequestException if the token was not issued by {@link #encode()}
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
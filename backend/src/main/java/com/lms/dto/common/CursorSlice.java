@@ -0,0 +1,50 @@
+package com.lms.dto.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One slice of a keyset-paginated listing. Unlike a page it carries no total count, so
+ * reading it never scans the rows before or after the slice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSlice<T> {
+
+    public static final int MAX_SIZE = 100;
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    /**
+     * Slice size requested by a client, clamped to 1..{@link #MAX_SIZE}.
+     */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Builds a slice from up to {@code size + 1} rows read after the previous cursor; the
+     * extra row only tells whether another slice follows.
+     */
+    public static <T> CursorSlice<T> of(List<T> rows, int size, Function<T, LocalDateTime> timestamp,
+                                        Function<T, String> id) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            T last = content.get(content.size() - 1);
+            nextCursor = new Cursor(timestamp.apply(last), id.apply(last)).encode();
+        }
+        return new CursorSlice<>(content, size, hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,22 @@
+package com.lms.dto.course;
+
+import com.lms.entity.Course;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of filtered catalog results with the facet counts for the same filters, keyed by
+ * dimension: category, level, language and price.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseCatalogDto {
+    private Page<Course> courses;
+    private Map<String, List<FacetCountDto>> facets;
+}
@@ -0,0 +1,13 @@
+package com.lms.dto.course;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSuggestionDto {
+    private String courseId;
+    private String title;
+}
@@ -0,0 +1,51 @@
+package com.lms.dto.gradebook;
+
+import com.lms.entity.GradingScheme;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingSchemeDto {
+    
+    @NotNull(message = "Scheme type is required")
+    private GradingScheme.SchemeType schemeType;
+    
+    private boolean plusMinus = true;
+    
+    @NotNull(message = "Passing percentage is required")
+    @DecimalMin(value = "0.00", message = "Passing percentage must be at least 0")
+    @DecimalMax(value = "100.00", message = "Passing percentage must be at most 100")
+    private BigDecimal passingPercentage;
+    
+    // Optional custom letter cutoffs, replacing the standard scale
+    @Valid
+    private List<Cutoff> cutoffs;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cutoff {
+        
+        @NotBlank(message = "Letter is required")
+        @Size(max = 5, message = "Letter must be at most 5 characters")
+        private String letter;
+        
+        @NotNull(message = "Minimum percentage is required")
+        @DecimalMin(value = "0.00", message = "Minimum percentage must be at least 0")
+        @DecimalMax(value = "100.00", message = "Minimum percentage must be at most 100")
+        private BigDecimal minPercentage;
+        
+        @NotNull(message = "Grade points are required")
+        @DecimalMin(value = "0.00", message = "Grade points must be at least 0")
+        @DecimalMax(value = "9.99", message = "Grade points must be at most 9.99")
+        private BigDecimal gradePoints;
+    }
+}
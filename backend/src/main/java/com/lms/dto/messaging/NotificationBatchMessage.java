@@ -0,0 +1,36 @@
+package com.lms.dto.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One notification addressed to a chunk of users. Notification ids are derived from
+ * {@code broadcastId} and the user id, so redelivering a chunk never duplicates rows.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationBatchMessage {
+    
+    private String id;
+    private String broadcastId;
+    private List<String> userIds;
+    private String title;
+    private String message;
+    private NotificationMessage.NotificationType type;
+    private LocalDateTime createdAt;
+    
+    public NotificationBatchMessage(String broadcastId, List<String> userIds, String title, String message,
+                                    NotificationMessage.NotificationType type) {
+        this.broadcastId = broadcastId;
+        this.userIds = userIds;
+        this.title = title;
+        this.message = message;
+        this.type = type;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,110 @@
+package com.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "broadcasts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Broadcast {
+    
+    @Id
+    private String id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Channel channel;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Audience audience;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Delivery delivery = Delivery.WRITE;
+    
+    @Column(nullable = false, length = 500)
+    private String title;
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String content;
+    
+    @Enumerated(EnumType.STRING)
+    private InAppMessage.Priority priority;
+    
+    @Column(name = "action_url", length = 500)
+    private String actionUrl;
+    
+    @Column(name = "action_text", length = 100)
+    private String actionText;
+    
+    @Column(name = "requested_by")
+    private String requestedBy;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+    
+    @Column(name = "total_recipients", nullable = false)
+    private long totalRecipients = 0;
+    
+    @Column(name = "processed_recipients", nullable = false)
+    private long processedRecipients = 0;
+    
+    @Column(name = "last_recipient_id")
+    private String lastRecipientId;
+    
+    @Column(name = "owner_node", length = 64)
+    private String ownerNode;
+    
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+    
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public enum Channel {
+        NOTIFICATION, IN_APP_MESSAGE
+    }
+    
+    public enum Audience {
+        ENABLED_USERS, ALL_USERS
+    }
+    
+    /**
+     * WRITE copies the broadcast into every inbox; READ stores it once and merges it into
+     * inbox queries, tracked per user by a read watermark.
+     */
+    public enum Delivery {
+        WRITE, READ
+    }
+    
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -44,7 +44,7 @@ public class Certificate {
     private Status status = Status.PENDING;
     
     @CreationTimestamp
-    @Column(name = "issued_at")
+    @Column(name = "issued_at", nullable = false)
     private LocalDateTime issuedAt;
     
     @Column(name = "downloaded_at")
@@ -0,0 +1,87 @@
+package com.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+@Entity
+@Table(name = "certificate_issuance_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateIssuanceJob {
+    
+    @Id
+    private String id;
+    
+    @Column(name = "course_id", nullable = false)
+    private String courseId;
+    
+    @Column(name = "enrollment_ids", columnDefinition = "MEDIUMTEXT")
+    private String enrollmentIds;
+    
+    @Column(name = "requested_by")
+    private String requestedBy;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+    
+    @Column(name = "total_enrollments", nullable = false)
+    private long totalEnrollments = 0;
+    
+    @Column(name = "issued_count", nullable = false)
+    private long issuedCount = 0;
+    
+    @Column(name = "skipped_count", nullable = false)
+    private long skippedCount = 0;
+    
+    @Column(name = "failed_count", nullable = false)
+    private long failedCount = 0;
+    
+    @Column(name = "last_enrollment_id")
+    private String lastEnrollmentId;
+    
+    @Column(name = "owner_node", length = 64)
+    private String ownerNode;
+    
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+    
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+    
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+    
+    // Helper methods
+    public boolean isRestrictedToEnrollments() {
+        return enrollmentIds != null && !enrollmentIds.isBlank();
+    }
+    
+    public List<String> getEnrollmentIdList() {
+        return isRestrictedToEnrollments() ? Arrays.asList(enrollmentIds.split(",")) : List.of();
+    }
+}
@@ -73,17 +73,19 @@ public class Course {
     @Column(name = "is_featured", nullable = false)
     private boolean isFeatured = false;
     
-    @Column(name = "enrolled_count", nullable = false)
+    // Maintained in place by EnrollmentCounterService; never written back from a loaded entity
+    @Column(name = "enrolled_count", nullable = false, updatable = false)
     private Integer enrolledCount = 0;
     
-    @Column(name = "average_rating", nullable = false, precision = 3, scale = 2)
+    // Copied from course_rating_stats by CourseRatingStatsService; never written back from a loaded entity
+    @Column(name = "average_rating", nullable = false, updatable = false, precision = 3, scale = 2)
     private BigDecimal averageRating = BigDecimal.ZERO;
     
-    @Column(name = "total_ratings", nullable = false)
+    @Column(name = "total_ratings", nullable = false, updatable = false)
     private Integer totalRatings = 0;
     
     @CreationTimestamp
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
     @UpdateTimestamp
@@ -29,7 +29,7 @@ public class Enrollment {
     private Course course;
     
     @CreationTimestamp
-    @Column(name = "enrolled_at")
+    @Column(name = "enrolled_at", nullable = false)
     private LocalDateTime enrolledAt;
     
     @Column(name = "completed_at")
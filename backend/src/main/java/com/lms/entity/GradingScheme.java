@@ -0,0 +1,51 @@
+package com.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "grading_schemes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingScheme {
+    
+    @Id
+    private String id;
+    
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false, unique = true)
+    private Course course;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scheme_type", nullable = false)
+    private SchemeType schemeType = SchemeType.LETTER;
+    
+    @Column(name = "plus_minus", nullable = false)
+    private boolean plusMinus = true;
+    
+    @Column(name = "passing_percentage", nullable = false, precision = 5, scale = 2)
+    private BigDecimal passingPercentage = BigDecimal.valueOf(60);
+    
+    @Column(columnDefinition = "TEXT")
+    private String cutoffs; // JSON array of {letter, minPercentage, gradePoints}; null uses the standard scale
+    
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public enum SchemeType {
+        LETTER, PASS_FAIL
+    }
+}
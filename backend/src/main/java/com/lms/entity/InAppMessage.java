@@ -48,7 +48,7 @@ public class InAppMessage {
     private LocalDateTime readAt;
     
     @CreationTimestamp
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "expires_at")
@@ -38,7 +38,7 @@ public class Notification {
     private String metadata;
     
     @CreationTimestamp
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "read_at")
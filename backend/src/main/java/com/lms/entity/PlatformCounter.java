@@ -0,0 +1,31 @@
+package com.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "platform_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformCounter {
+    
+    @Id
+    @Column(length = 64)
+    private String name;
+    
+    @Column(nullable = false)
+    private Long value = 0L;
+    
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
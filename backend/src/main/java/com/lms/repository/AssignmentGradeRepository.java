@@ -12,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -76,4 +77,22 @@ public interface AssignmentGradeRepository extends JpaRepository<AssignmentGrade
     
     // Check if grade exists for submission
     boolean existsBySubmission(AssignmentSubmission submission);
+    
+    // Gradebook recalculation: one row per grade as [studentId, assignmentId, percentage, isExcused, attemptNumber]
+    @Query("SELECT s.student.id, a.id, g.percentage, g.isExcused, s.attemptNumber " +
+           "FROM AssignmentGrade g JOIN g.submission s JOIN s.assignment a " +
+           "WHERE a.course.id = :courseId")
+    List<Object[]> findGradeRowsByCourseId(@Param("courseId") String courseId);
+    
+    @Query("SELECT s.student.id, a.id, g.percentage, g.isExcused, s.attemptNumber " +
+           "FROM AssignmentGrade g JOIN g.submission s JOIN s.assignment a " +
+           "WHERE a.course.id = :courseId AND s.student.id = :studentId")
+    List<Object[]> findGradeRowsByCourseIdAndStudentId(@Param("courseId") String courseId,
+                                                       @Param("studentId") String studentId);
+    
+    @Query("SELECT s.student.id, a.id, g.percentage, g.isExcused, s.attemptNumber " +
+           "FROM AssignmentGrade g JOIN g.submission s JOIN s.assignment a " +
+           "WHERE a.course.id = :courseId AND s.student.id IN :studentIds")
+    List<Object[]> findGradeRowsByCourseIdAndStudentIds(@Param("courseId") String courseId,
+                                                        @Param("studentIds") Collection<String> studentIds);
 }
@@ -67,4 +67,9 @@ public interface AssignmentRepository extends JpaRepository<Assignment, String>
            "(LOWER(a.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(a.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
     Page<Assignment> searchAssignments(@Param("course") Course course, @Param("searchTerm") String searchTerm, Pageable pageable);
+
+    // Published assignments that count towards a gradebook category, as [assignmentId, categoryId]
+    @Query("SELECT a.id, a.gradebookCategory.id FROM Assignment a " +
+           "WHERE a.course.id = :courseId AND a.isPublished = true AND a.gradebookCategory IS NOT NULL")
+    List<Object[]> findGradedAssignmentCategories(@Param("courseId") String courseId);
 }
@@ -0,0 +1,98 @@
+package com.lms.repository;
+
+import com.lms.entity.Broadcast;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BroadcastRepository extends JpaRepository<Broadcast, String> {
+    
+    Page<Broadcast> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    
+    // Unfinished broadcasts nobody is working on: never started, or the owner stopped heartbeating
+    @Query("SELECT b.id FROM Broadcast b WHERE b.status IN :statuses " +
+           "AND (b.heartbeatAt IS NULL OR b.heartbeatAt < :staleBefore) ORDER BY b.createdAt")
+    List<String> findAbandonedIds(@Param("statuses") Collection<Broadcast.Status> statuses,
+                                  @Param("staleBefore") LocalDateTime staleBefore);
+    
+    // Take ownership unless another live node holds it
+    @Modifying
+    @Transactional
+    @Query("UPDATE Broadcast b SET b.ownerNode = :node, b.heartbeatAt = :now, b.status = :running, " +
+           "b.startedAt = COALESCE(b.startedAt, :now), b.errorMessage = NULL " +
+           "WHERE b.id = :id AND b.status IN :statuses " +
+           "AND (b.ownerNode IS NULL OR b.ownerNode = :node OR b.heartbeatAt IS NULL OR b.heartbeatAt < :staleBefore)")
+    int claim(@Param("id") String id,
+              @Param("node") String node,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore,
+              @Param("running") Broadcast.Status running,
+              @Param("statuses") Collection<Broadcast.Status> statuses);
+    
+    // Advance the resume point; matches nothing once another node has taken over
+    @Modifying
+    @Transactional
+    @Query("UPDATE Broadcast b SET b.processedRecipients = b.processedRecipients + :delivered, " +
+           "b.lastRecipientId = :lastRecipientId, b.heartbeatAt = :now " +
+           "WHERE b.id = :id AND b.ownerNode = :node")
+    int checkpoint(@Param("id") String id,
+                   @Param("node") String node,
+                   @Param("delivered") long delivered,
+                   @Param("lastRecipientId") String lastRecipientId,
+                   @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Broadcast b SET b.status = :status, b.completedAt = :now, b.heartbeatAt = :now, " +
+           "b.errorMessage = :error WHERE b.id = :id AND b.ownerNode = :node")
+    int finish(@Param("id") String id,
+               @Param("node") String node,
+               @Param("status") Broadcast.Status status,
+               @Param("error") String error,
+               @Param("now") LocalDateTime now);
+    
+    // Read-time broadcasts of one channel created after :after that have not expired, newest first
+    @Query("SELECT b FROM Broadcast b WHERE b.delivery = :delivery AND b.channel = :channel " +
+           "AND b.status = :status AND b.createdAt > :after " +
+           "AND (b.expiresAt IS NULL OR b.expiresAt > :now) ORDER BY b.createdAt DESC, b.id DESC")
+    List<Broadcast> findInbox(@Param("delivery") Broadcast.Delivery delivery,
+                              @Param("channel") Broadcast.Channel channel,
+                              @Param("status") Broadcast.Status status,
+                              @Param("after") LocalDateTime after,
+                              @Param("now") LocalDateTime now,
+                              Pageable pageable);
+    
+    @Query("SELECT COUNT(b) FROM Broadcast b WHERE b.delivery = :delivery AND b.channel = :channel " +
+           "AND b.status = :status AND b.createdAt > :after " +
+           "AND (b.expiresAt IS NULL OR b.expiresAt > :now)")
+    long countInbox(@Param("delivery") Broadcast.Delivery delivery,
+                    @Param("channel") Broadcast.Channel channel,
+                    @Param("status") Broadcast.Status status,
+                    @Param("after") LocalDateTime after,
+                    @Param("now") LocalDateTime now);
+    
+    // Keyset variant of findInbox: the visible broadcasts strictly after the (createdAt, id) cursor
+    @Query("SELECT b FROM Broadcast b WHERE b.delivery = :delivery AND b.channel = :channel " +
+           "AND b.status = :status AND b.createdAt > :after " +
+           "AND (b.expiresAt IS NULL OR b.expiresAt > :now) " +
+           "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Broadcast> findInboxBefore(@Param("delivery") Broadcast.Delivery delivery,
+                                    @Param("channel") Broadcast.Channel channel,
+                                    @Param("status") Broadcast.Status status,
+                                    @Param("after") LocalDateTime after,
+                                    @Param("now") LocalDateTime now,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") String id,
+                                    Pageable pageable);
+}
@@ -37,4 +37,10 @@ public interface CategoryRepository extends JpaRepository<Category, String> {
     // Find categories with published courses
     @Query("SELECT DISTINCT c FROM Category c JOIN c.courses course WHERE c.isActive = true AND course.isPublished = true ORDER BY c.name")
     List<Category> getCategoriesWithPublishedCourses();
+
+    // Active categories for the admin dashboard, as [id, name, courseCount, enrollmentCount]
+    @Query("SELECT c.id, c.name, COUNT(course), COALESCE(SUM(course.enrolledCount), 0) " +
+           "FROM Category c LEFT JOIN c.courses course WHERE c.isActive = true " +
+           "GROUP BY c.id, c.name ORDER BY c.name")
+    List<Object[]> getDashboardCategoryAggregates();
 }
@@ -0,0 +1,66 @@
+package com.lms.repository;
+
+import com.lms.entity.CertificateIssuanceJob;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CertificateIssuanceJobRepository extends JpaRepository<CertificateIssuanceJob, String> {
+    
+    Page<CertificateIssuanceJob> findByCourseIdOrderByCreatedAtDesc(String courseId, Pageable pageable);
+    
+    // Unfinished jobs nobody is working on: never started, or the owner stopped heartbeating
+    @Query("SELECT j.id FROM CertificateIssuanceJob j WHERE j.status IN :statuses " +
+           "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore) ORDER BY j.createdAt")
+    List<String> findAbandonedIds(@Param("statuses") Collection<CertificateIssuanceJob.Status> statuses,
+                                  @Param("staleBefore") LocalDateTime staleBefore);
+    
+    // Take ownership unless another live node holds it
+    @Modifying
+    @Transactional
+    @Query("UPDATE CertificateIssuanceJob j SET j.ownerNode = :node, j.heartbeatAt = :now, j.status = :running, " +
+           "j.startedAt = COALESCE(j.startedAt, :now), j.errorMessage = NULL " +
+           "WHERE j.id = :id AND j.status IN :statuses " +
+           "AND (j.ownerNode IS NULL OR j.ownerNode = :node OR j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)")
+    int claim(@Param("id") String id,
+              @Param("node") String node,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore,
+              @Param("running") CertificateIssuanceJob.Status running,
+              @Param("statuses") Collection<CertificateIssuanceJob.Status> statuses);
+    
+    // Advance the resume point; matches nothing once another node has taken over
+    @Modifying
+    @Transactional
+    @Query("UPDATE CertificateIssuanceJob j SET j.issuedCount = j.issuedCount + :issued, " +
+           "j.skippedCount = j.skippedCount + :skipped, j.failedCount = j.failedCount + :failed, " +
+           "j.lastEnrollmentId = :lastEnrollmentId, j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.ownerNode = :node")
+    int checkpoint(@Param("id") String id,
+                   @Param("node") String node,
+                   @Param("issued") long issued,
+                   @Param("skipped") long skipped,
+                   @Param("failed") long failed,
+                   @Param("lastEnrollmentId") String lastEnrollmentId,
+                   @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE CertificateIssuanceJob j SET j.status = :status, j.completedAt = :now, j.heartbeatAt = :now, " +
+           "j.errorMessage = :error WHERE j.id = :id AND j.ownerNode = :node")
+    int finish(@Param("id") String id,
+               @Param("node") String node,
+               @Param("status") CertificateIssuanceJob.Status status,
+               @Param("error") String error,
+               @Param("now") LocalDateTime now);
+}
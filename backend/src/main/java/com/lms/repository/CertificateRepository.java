@@ -11,6 +11,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +34,15 @@ public interface CertificateRepository extends JpaRepository<Certificate, String
     // Find certificates by user
     Page<Certificate> findByUserOrderByIssuedAtDesc(User user, Pageable pageable);
     
+    // Keyset slices of all certificates, newest first
+    List<Certificate> findAllByOrderByIssuedAtDescIdDesc(Pageable pageable);
+    
+    @Query("SELECT c FROM Certificate c " +
+           "WHERE c.issuedAt < :issuedAt OR (c.issuedAt = :issuedAt AND c.id < :id) " +
+           "ORDER BY c.issuedAt DESC, c.id DESC")
+    List<Certificate> findAllBefore(@Param("issuedAt") LocalDateTime issuedAt, @Param("id") String id,
+                                    Pageable pageable);
+    
     // Find certificates by course
     Page<Certificate> findByCourseOrderByIssuedAtDesc(Course course, Pageable pageable);
     
@@ -70,4 +81,9 @@ public interface CertificateRepository extends JpaRepository<Certificate, String
     
     // Find certificates by course and status
     Page<Certificate> findByCourseAndStatusOrderByIssuedAtDesc(Course course, Certificate.Status status, Pageable pageable);
+    
+    // Certificates of the given enrollments with the associations the PDF and notifications read
+    @Query("SELECT c FROM Certificate c JOIN FETCH c.user JOIN FETCH c.enrollment " +
+           "JOIN FETCH c.course co JOIN FETCH co.instructor WHERE c.enrollment.id IN :enrollmentIds")
+    List<Certificate> findWithDetailsByEnrollmentIdIn(@Param("enrollmentIds") Collection<String> enrollmentIds);
 }
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -69,4 +70,14 @@ public interface CourseGradeRepository extends JpaRepository<CourseGrade, String
     
     // Check if grade exists
     boolean existsByCourseAndStudent(Course course, User student);
+    
+    // Existing rows for bulk recalculation, as [studentId, id, isComplete, finalGrade, completionDate]
+    @Query("SELECT cg.student.id, cg.id, cg.isComplete, cg.finalGrade, cg.completionDate " +
+           "FROM CourseGrade cg WHERE cg.course.id = :courseId")
+    List<Object[]> findGradeStateByCourseId(@Param("courseId") String courseId);
+    
+    @Query("SELECT cg.student.id, cg.id, cg.isComplete, cg.finalGrade, cg.completionDate " +
+           "FROM CourseGrade cg WHERE cg.course.id = :courseId AND cg.student.id IN :studentIds")
+    List<Object[]> findGradeStateByCourseIdAndStudentIds(@Param("courseId") String courseId,
+                                                         @Param("studentIds") Collection<String> studentIds);
 }
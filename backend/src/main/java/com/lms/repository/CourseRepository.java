@@ -11,7 +11,9 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 @Repository
@@ -20,6 +22,15 @@ public interface CourseRepository extends JpaRepository<Course, String> {
     // Find published courses
     Page<Course> findByIsPublishedTrueOrderByCreatedAtDesc(Pageable pageable);
     
+    // Keyset slices of published courses, newest first: the first slice, then the slice after a cursor
+    List<Course> findByIsPublishedTrueOrderByCreatedAtDescIdDesc(Pageable pageable);
+    
+    @Query("SELECT c FROM Course c WHERE c.isPublished = true " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Course> findPublishedBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id,
+                                     Pageable pageable);
+    
     // Find courses by instructor
     Page<Course> findByInstructorOrderByCreatedAtDesc(User instructor, Pageable pageable);
     
@@ -48,8 +59,8 @@ public interface CourseRepository extends JpaRepository<Course, String> {
     @Query("SELECT c FROM Course c WHERE c.isPublished = true AND c.totalRatings > 0 ORDER BY c.averageRating DESC, c.totalRatings DESC")
     Page<Course> findTopRatedCourses(Pageable pageable);
     
-    // Find most enrolled courses
-    @Query("SELECT c FROM Course c WHERE c.isPublished = true ORDER BY c.enrolledCount DESC")
+    // Find most enrolled courses; enrolledCount is kept current by EnrollmentCounterService
+    @Query("SELECT c FROM Course c WHERE c.isPublished = true ORDER BY c.enrolledCount DESC, c.id DESC")
     Page<Course> findMostEnrolledCourses(Pageable pageable);
     
     // Find courses by instructor and status
@@ -68,6 +79,7 @@ public interface CourseRepository extends JpaRepository<Course, String> {
     @Query("SELECT c FROM Course c WHERE c.isPublished = true " +
            "AND (:categoryId IS NULL OR c.category.id = :categoryId) " +
            "AND (:level IS NULL OR c.level = :level) " +
+           "AND (:language IS NULL OR c.language = :language) " +
            "AND (:minPrice IS NULL OR c.price >= :minPrice) " +
            "AND (:maxPrice IS NULL OR c.price <= :maxPrice) " +
            "AND (:keyword IS NULL OR LOWER(c.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(c.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
@@ -78,12 +90,29 @@ public interface CourseRepository extends JpaRepository<Course, String> {
            "c.createdAt DESC")
     Page<Course> findWithFilters(@Param("categoryId") String categoryId,
                                 @Param("level") Course.Level level,
+                                @Param("language") String language,
                                 @Param("minPrice") BigDecimal minPrice,
                                 @Param("maxPrice") BigDecimal maxPrice,
                                 @Param("keyword") String keyword,
                                 @Param("sortBy") String sortBy,
                                 Pageable pageable);
 
+    // Published courses with their category in id order, for rebuilding the search index
+    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.category WHERE c.isPublished = true AND c.id > :afterId ORDER BY c.id")
+    List<Course> findPublishedForIndexing(@Param("afterId") String afterId, Pageable pageable);
+
+    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.category WHERE c.id = :courseId")
+    Optional<Course> findWithCategoryById(@Param("courseId") String courseId);
+
+    // Tag names of the given courses as [courseId, tagName]; course_tags has no entity mapping
+    @Query(value = "SELECT ct.course_id, t.name FROM course_tags ct JOIN tags t ON t.id = ct.tag_id " +
+                   "WHERE ct.course_id IN (:courseIds)", nativeQuery = true)
+    List<Object[]> findTagNames(@Param("courseIds") Collection<String> courseIds);
+
+    // Rating and enrollment count of every published course, for the facet index sort orders
+    @Query("SELECT c.id, c.averageRating, c.enrolledCount FROM Course c WHERE c.isPublished = true")
+    List<Object[]> findPublishedStats();
+
     // Additional count methods for analytics
     long countByIsPublishedTrue();
     long countByIsPublishedFalse();
@@ -92,4 +121,25 @@ public interface CourseRepository extends JpaRepository<Course, String> {
     // Get monthly course creation statistics
     @Query("SELECT YEAR(c.createdAt), MONTH(c.createdAt), COUNT(c) FROM Course c GROUP BY YEAR(c.createdAt), MONTH(c.createdAt) ORDER BY YEAR(c.createdAt) DESC, MONTH(c.createdAt) DESC")
     List<Object[]> getMonthlyCourseCreation();
+
+    // Single grouped pass for the admin dashboard: published flag, count, new since
+    @Query("SELECT c.isPublished, COUNT(c), " +
+           "SUM(CASE WHEN c.createdAt >= :since THEN 1 ELSE 0 END) " +
+           "FROM Course c GROUP BY c.isPublished")
+    List<Object[]> getDashboardCourseAggregates(@Param("since") LocalDateTime since);
+
+    // Top rated published courses for the admin dashboard, as scalar rows:
+    // [id, title, instructorName, enrolledCount, averageRating, totalRatings, price, createdAt]
+    @Query("SELECT c.id, c.title, CONCAT(i.firstName, ' ', i.lastName), c.enrolledCount, c.averageRating, " +
+           "c.totalRatings, c.price, c.createdAt " +
+           "FROM Course c JOIN c.instructor i WHERE c.isPublished = true AND c.totalRatings > 0 " +
+           "ORDER BY c.averageRating DESC, c.totalRatings DESC")
+    List<Object[]> getDashboardTopRatedCourses(Pageable pageable);
+
+    // Most enrolled published courses for the admin dashboard, same columns as above
+    @Query("SELECT c.id, c.title, CONCAT(i.firstName, ' ', i.lastName), c.enrolledCount, c.averageRating, " +
+           "c.totalRatings, c.price, c.createdAt " +
+           "FROM Course c JOIN c.instructor i WHERE c.isPublished = true " +
+           "ORDER BY c.enrolledCount DESC, c.id DESC")
+    List<Object[]> getDashboardMostEnrolledCourses(Pageable pageable);
 }
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +30,24 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, String>
     // Find active enrollments by user
     Page<Enrollment> findByUserAndIsActiveTrueOrderByEnrolledAtDesc(User user, Pageable pageable);
     
+    // Keyset slices of a user's active enrollments, newest first
+    List<Enrollment> findByUserAndIsActiveTrueOrderByEnrolledAtDescIdDesc(User user, Pageable pageable);
+    
+    @Query("SELECT e FROM Enrollment e WHERE e.user = :user AND e.isActive = true " +
+           "AND (e.enrolledAt < :enrolledAt OR (e.enrolledAt = :enrolledAt AND e.id < :id)) " +
+           "ORDER BY e.enrolledAt DESC, e.id DESC")
+    List<Enrollment> findActiveByUserBefore(@Param("user") User user, @Param("enrolledAt") LocalDateTime enrolledAt,
+                                            @Param("id") String id, Pageable pageable);
+    
+    // Keyset slices of all enrollments, newest first
+    List<Enrollment> findAllByOrderByEnrolledAtDescIdDesc(Pageable pageable);
+    
+    @Query("SELECT e FROM Enrollment e " +
+           "WHERE e.enrolledAt < :enrolledAt OR (e.enrolledAt = :enrolledAt AND e.id < :id) " +
+           "ORDER BY e.enrolledAt DESC, e.id DESC")
+    List<Enrollment> findAllBefore(@Param("enrolledAt") LocalDateTime enrolledAt, @Param("id") String id,
+                                   Pageable pageable);
+    
     // Find completed enrollments by user
     Page<Enrollment> findByUserAndCompletedAtIsNotNullOrderByCompletedAtDesc(User user, Pageable pageable);
     
@@ -97,4 +116,39 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, String>
     // Get average progress across all enrollments
     @Query("SELECT AVG(e.progressPercentage) FROM Enrollment e WHERE e.isActive = true")
     Double getAverageProgress();
+
+    // Single pass for the admin dashboard: total, active, completed, new since, average active progress
+    @Query("SELECT COUNT(e), " +
+           "SUM(CASE WHEN e.isActive = true THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN e.completedAt IS NOT NULL THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN e.enrolledAt >= :since THEN 1 ELSE 0 END), " +
+           "AVG(CASE WHEN e.isActive = true THEN e.progressPercentage END) " +
+           "FROM Enrollment e")
+    List<Object[]> getDashboardEnrollmentAggregates(@Param("since") LocalDateTime since);
+
+    // Monthly enrollments since a date for the admin dashboard, as [year, month, count]
+    @Query("SELECT YEAR(e.enrolledAt), MONTH(e.enrolledAt), COUNT(e) FROM Enrollment e " +
+           "WHERE e.enrolledAt >= :since GROUP BY YEAR(e.enrolledAt), MONTH(e.enrolledAt)")
+    List<Object[]> getDashboardMonthlyEnrollments(@Param("since") LocalDateTime since);
+
+    // Enrolled students and their progress, as [userId, progressPercentage]
+    @Query("SELECT e.user.id, e.progressPercentage FROM Enrollment e WHERE e.course.id = :courseId")
+    List<Object[]> findStudentProgressByCourseId(@Param("courseId") String courseId);
+
+    // Completed enrollments of a course after :afterId in id order, with everything a certificate needs
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.user JOIN FETCH e.course c JOIN FETCH c.instructor " +
+           "WHERE c.id = :courseId AND e.completedAt IS NOT NULL AND e.id > :afterId ORDER BY e.id")
+    List<Enrollment> findCompletedForIssuance(@Param("courseId") String courseId,
+                                              @Param("afterId") String afterId,
+                                              Pageable pageable);
+
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.user JOIN FETCH e.course c JOIN FETCH c.instructor " +
+           "WHERE c.id = :courseId AND e.completedAt IS NOT NULL AND e.id > :afterId AND e.id IN :ids ORDER BY e.id")
+    List<Enrollment> findCompletedForIssuance(@Param("courseId") String courseId,
+                                              @Param("afterId") String afterId,
+                                              @Param("ids") Collection<String> ids,
+                                              Pageable pageable);
+
+    @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = :courseId AND e.completedAt IS NOT NULL AND e.id IN :ids")
+    long countCompletedByCourseIdAndIdIn(@Param("courseId") String courseId, @Param("ids") Collection<String> ids);
 }
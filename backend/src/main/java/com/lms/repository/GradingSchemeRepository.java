@@ -0,0 +1,14 @@
+package com.lms.repository;
+
+import com.lms.entity.GradingScheme;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GradingSchemeRepository extends JpaRepository<GradingScheme, String> {
+    
+    // Find the scheme of a course
+    Optional<GradingScheme> findByCourseId(String courseId);
+}
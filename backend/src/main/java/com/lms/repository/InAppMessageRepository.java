@@ -22,6 +22,27 @@ public interface InAppMessageRepository extends JpaRepository<InAppMessage, Stri
     // Find unread messages for a recipient
     Page<InAppMessage> findByRecipientAndIsReadFalseOrderByCreatedAtDesc(User recipient, Pageable pageable);
     
+    // Keyset slices of a recipient's messages, newest first
+    List<InAppMessage> findByRecipientOrderByCreatedAtDescIdDesc(User recipient, Pageable pageable);
+    
+    List<InAppMessage> findByRecipientAndIsReadFalseOrderByCreatedAtDescIdDesc(User recipient, Pageable pageable);
+    
+    @Query("SELECT m FROM InAppMessage m WHERE m.recipient = :recipient " +
+           "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<InAppMessage> findByRecipientBefore(@Param("recipient") User recipient,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") String id,
+                                             Pageable pageable);
+    
+    @Query("SELECT m FROM InAppMessage m WHERE m.recipient = :recipient AND m.isRead = false " +
+           "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<InAppMessage> findUnreadByRecipientBefore(@Param("recipient") User recipient,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") String id,
+                                                   Pageable pageable);
+    
     // Find messages by type for a recipient
     Page<InAppMessage> findByRecipientAndTypeOrderByCreatedAtDesc(User recipient, InAppMessage.MessageType type, Pageable pageable);
     
@@ -79,4 +79,34 @@ public interface InstructorEarningsRepository extends JpaRepository<InstructorEa
 
     @Query("SELECT SUM(e.platformFee) FROM InstructorEarnings e")
     BigDecimal getTotalPlatformRevenue();
+
+    // Single pass for the admin dashboard: total, since month start, platform fee, instructor net
+    @Query("SELECT SUM(e.amount), " +
+           "SUM(CASE WHEN e.earnedAt >= :monthStart THEN e.amount ELSE 0 END), " +
+           "SUM(e.platformFee), SUM(e.netAmount) " +
+           "FROM InstructorEarnings e")
+    List<Object[]> getDashboardRevenueAggregates(@Param("monthStart") LocalDateTime monthStart);
+
+    // Monthly earnings since a date for the admin dashboard, as [year, month, count, amount]
+    @Query("SELECT YEAR(e.earnedAt), MONTH(e.earnedAt), COUNT(e), SUM(e.amount) FROM InstructorEarnings e " +
+           "WHERE e.earnedAt >= :since GROUP BY YEAR(e.earnedAt), MONTH(e.earnedAt)")
+    List<Object[]> getDashboardMonthlyRevenue(@Param("since") LocalDateTime since);
+
+    // Top earning instructors for the admin dashboard, as
+    // [id, name, email, totalEarnings, courseCount, enrollmentCount, averageRating]
+    @Query("SELECT i.id, CONCAT(i.firstName, ' ', i.lastName), i.email, SUM(e.netAmount), " +
+           "COUNT(DISTINCT e.course.id), COUNT(e), " +
+           "(SELECT AVG(c.averageRating) FROM Course c WHERE c.instructor = i AND c.totalRatings > 0) " +
+           "FROM InstructorEarnings e JOIN e.instructor i WHERE e.status = 'PAID' " +
+           "GROUP BY i.id, i.firstName, i.lastName, i.email ORDER BY SUM(e.netAmount) DESC")
+    List<Object[]> getDashboardTopEarningInstructors(Pageable pageable);
+
+    // Top earning courses for the admin dashboard, as
+    // [id, title, instructorName, totalEarnings, enrolledCount, averageRating, price]
+    @Query("SELECT c.id, c.title, CONCAT(i.firstName, ' ', i.lastName), SUM(e.netAmount), " +
+           "c.enrolledCount, c.averageRating, c.price " +
+           "FROM InstructorEarnings e JOIN e.course c JOIN c.instructor i WHERE e.status = 'PAID' " +
+           "GROUP BY c.id, c.title, i.firstName, i.lastName, c.enrolledCount, c.averageRating, c.price " +
+           "ORDER BY SUM(e.netAmount) DESC")
+    List<Object[]> getDashboardTopEarningCourses(Pageable pageable);
 }
@@ -0,0 +1,35 @@
+package com.lms.repository;
+
+import com.lms.entity.PlatformCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface PlatformCounterRepository extends JpaRepository<PlatformCounter, String> {
+    
+    // Apply a delta in place so concurrent nodes never overwrite each other's flushes
+    @Modifying
+    @Transactional
+    @Query("UPDATE PlatformCounter c SET c.value = c.value + :delta WHERE c.name = :name")
+    int incrementBy(@Param("name") String name, @Param("delta") long delta);
+
+    // Row lock held by a reconciliation; flushes of other nodes wait for it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM PlatformCounter c WHERE c.name = :name")
+    Optional<PlatformCounter> findForUpdate(@Param("name") String name);
+
+    // Reconciliation correction, applied on top of whatever the row holds
+    @Modifying
+    @Query("UPDATE PlatformCounter c SET c.value = c.value + :correction, c.reconciledAt = :reconciledAt WHERE c.name = :name")
+    int applyCorrection(@Param("name") String name, @Param("correction") long correction,
+                        @Param("reconciledAt") LocalDateTime reconciledAt);
+}
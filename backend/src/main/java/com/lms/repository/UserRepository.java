@@ -57,10 +57,28 @@ public interface UserRepository extends JpaRepository<User, String> {
     // Find active users
     List<User> findByIsEnabledTrue();
 
+    // Keyset-paginated user ids for broadcasts, in id order after the given id
+    @Query("SELECT u.id FROM User u WHERE u.isEnabled = true AND u.id > :afterId ORDER BY u.id")
+    List<String> findEnabledUserIdsAfter(@Param("afterId") String afterId, Pageable pageable);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<String> findUserIdsAfter(@Param("afterId") String afterId, Pageable pageable);
+
     // Find recent registrations
     List<User> findByCreatedAtAfterOrderByCreatedAtDesc(LocalDateTime date);
 
     // Get monthly registration statistics
     @Query("SELECT YEAR(u.createdAt), MONTH(u.createdAt), COUNT(u) FROM User u GROUP BY YEAR(u.createdAt), MONTH(u.createdAt) ORDER BY YEAR(u.createdAt) DESC, MONTH(u.createdAt) DESC")
     List<Object[]> getMonthlyRegistrations();
+
+    // Single grouped pass for the admin dashboard: role, enabled, approved, count, new since
+    @Query("SELECT u.role, u.isEnabled, u.isApproved, COUNT(u), " +
+           "SUM(CASE WHEN u.createdAt >= :since THEN 1 ELSE 0 END) " +
+           "FROM User u GROUP BY u.role, u.isEnabled, u.isApproved")
+    List<Object[]> getDashboardUserAggregates(@Param("since") LocalDateTime since);
+
+    // Monthly registrations since a date for the admin dashboard, as [year, month, count]
+    @Query("SELECT YEAR(u.createdAt), MONTH(u.createdAt), COUNT(u) FROM User u " +
+           "WHERE u.createdAt >= :since GROUP BY YEAR(u.createdAt), MONTH(u.createdAt)")
+    List<Object[]> getDashboardMonthlyRegistrations(@Param("since") LocalDateTime since);
 }
@@ -1,7 +1,9 @@
 package com.lms.security;
 
+import com.lms.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -13,9 +15,12 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtUtils {
 
+    private final TokenRevocationService tokenRevocationService;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -25,8 +30,24 @@ public class JwtUtils {
     @Value("${jwt.refresh.expiration:604800000}") // 7 days
     private long refreshTokenExpirationMs;
 
+    // Built once; both are immutable and thread-safe
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        if (signingKey == null) {
+            signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        }
+        return signingKey;
+    }
+
+    private JwtParser getParser() {
+        if (parser == null) {
+            parser = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+        }
+        return parser;
     }
 
     public String generateJwtToken(Authentication authentication) {
@@ -47,6 +68,29 @@ public class JwtUtils {
         return generateJwtToken(email, userId, role);
     }
 
+    /**
+     * Issue an access token that also carries the account state and revocation epoch,
+     * so the authentication filter can build the principal without a database lookup.
+     */
+    public String generateJwtToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TokenRevocationService.CLAIM_USER_ID, user.getId());
+        claims.put(TokenRevocationService.CLAIM_ROLE, user.getRole().name());
+        claims.put("type", "access");
+        claims.put(TokenRevocationService.CLAIM_ENABLED, user.isEnabled());
+        claims.put(TokenRevocationService.CLAIM_APPROVED, user.isApproved());
+        claims.put(TokenRevocationService.CLAIM_FIRST_NAME, user.getFirstName());
+        claims.put(TokenRevocationService.CLAIM_LAST_NAME, user.getLastName());
+        try {
+            claims.put(TokenRevocationService.CLAIM_EPOCH, tokenRevocationService.currentEpoch(user.getId()));
+        } catch (Exception e) {
+            // Without an epoch the token simply always takes the database path
+            log.warn("Could not read token epoch for user {}, issuing token without it", user.getId(), e);
+        }
+
+        return createToken(claims, user.getEmail(), jwtExpirationMs);
+    }
+
     /**
      * Create a token with custom claims and expiration
      */
@@ -64,37 +108,37 @@ public class JwtUtils {
     }
 
     public String getEmailFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
     public String getUserIdFromJwtToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        Claims claims = getParser()
                 .parseClaimsJws(token)
                 .getBody();
         return claims.get("userId", String.class);
     }
 
     public String getRoleFromJwtToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        Claims claims = getParser()
                 .parseClaimsJws(token)
                 .getBody();
         return claims.get("role", String.class);
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseAccessToken(authToken) != null;
+    }
+
+    /**
+     * Verify the token once and return its claims, or {@code null} if it is not a valid
+     * access token.
+     */
+    public Claims parseAccessToken(String authToken) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+            Claims claims = getParser()
                 .parseClaimsJws(authToken)
                 .getBody();
 
@@ -102,10 +146,10 @@ public class JwtUtils {
             String tokenType = claims.get("type", String.class);
             if (!"access".equals(tokenType)) {
                 log.error("Invalid token type: {}", tokenType);
-                return false;
+                return null;
             }
 
-            return true;
+            return claims;
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -117,16 +161,14 @@ public class JwtUtils {
         } catch (Exception e) {
             log.error("JWT token validation failed: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 
     /**
      * Get all claims from JWT token
      */
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -0,0 +1,116 @@
+package com.lms.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-user revocation epochs for stateless access tokens, plus the short-lived cache of
+ * principals built from token claims.
+ *
+ * <p>Every access token carries the user's epoch at issue time. Disabling a user, changing
+ * their role or approval, or resetting their password bumps the epoch in Redis. Tokens
+ * with an older epoch are no longer trusted on the fast path and fall back to the database
+ * lookup. A principal cached on another node can outlive a bump by at most the cache TTL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ENABLED = "enabled";
+    public static final String CLAIM_APPROVED = "approved";
+    public static final String CLAIM_FIRST_NAME = "firstName";
+    public static final String CLAIM_LAST_NAME = "lastName";
+    public static final String CLAIM_EPOCH = "epoch";
+
+    private static final String EPOCH_PREFIX = "lms:auth:epoch:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${app.security.jwt.principal-cache.ttl:30s}")
+    private Duration principalCacheTtl;
+
+    @Value("${app.security.jwt.principal-cache.maximum-size:10000}")
+    private long principalCacheMaximumSize;
+
+    // Keyed by the raw token, so a re-issued token never sees a stale principal
+    private Cache<String, UserPrincipal> principalCache;
+
+    @PostConstruct
+    public void init() {
+        principalCache = Caffeine.newBuilder()
+                .maximumSize(principalCacheMaximumSize)
+                .expireAfterWrite(principalCacheTtl)
+                .build();
+    }
+
+    /**
+     * Returns the principal described by the token's signed claims, or {@code null} when
+     * the caller has to load the user from the database instead: the token predates the
+     * fast-path claims, its epoch is stale, or the epoch cannot be read.
+     */
+    public UserPrincipal principalFor(String token, Claims claims) {
+        UserPrincipal cached = principalCache.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        Number tokenEpoch = claims.get(CLAIM_EPOCH, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Boolean enabled = claims.get(CLAIM_ENABLED, Boolean.class);
+        Boolean approved = claims.get(CLAIM_APPROVED, Boolean.class);
+        if (userId == null || tokenEpoch == null || role == null || enabled == null || approved == null) {
+            return null;
+        }
+
+        try {
+            if (tokenEpoch.longValue() != currentEpoch(userId)) {
+                return null;
+            }
+        } catch (Exception e) {
+            log.warn("Could not read token epoch for user {}, falling back to database", userId, e);
+            return null;
+        }
+
+        UserPrincipal principal = new UserPrincipal(
+                userId,
+                claims.getSubject(),
+                null,
+                claims.get(CLAIM_FIRST_NAME, String.class),
+                claims.get(CLAIM_LAST_NAME, String.class),
+                role,
+                approved,
+                enabled
+        );
+        principalCache.put(token, principal);
+        return principal;
+    }
+
+    public long currentEpoch(String userId) {
+        Object value = redisTemplate.opsForValue().get(EPOCH_PREFIX + userId);
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    /**
+     * Invalidates every access token issued to the user so far. Their next request goes
+     * through the database lookup and picks up the new account state. A Redis failure is
+     * propagated so the surrounding account change rolls back instead of silently leaving
+     * old tokens trusted.
+     */
+    public void revokeTokens(String userId) {
+        redisTemplate.opsForValue().increment(EPOCH_PREFIX + userId);
+        principalCache.asMap().values().removeIf(principal -> userId.equals(principal.getId()));
+    }
+}
@@ -1,14 +1,22 @@
 package com.lms.service;
 
+import com.lms.dto.admin.DashboardAnalyticsDto;
+import com.lms.dto.common.Cursor;
+import com.lms.dto.common.CursorSlice;
 import com.lms.entity.*;
 import com.lms.exception.BadRequestException;
 import com.lms.exception.ResourceNotFoundException;
 import com.lms.repository.*;
+import com.lms.security.TokenRevocationService;
+import com.lms.service.broadcast.BroadcastService;
 import com.lms.service.messaging.MessagingService;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -36,44 +44,54 @@ public class AdminService {
     private final InstructorEarningsRepository earningsRepository;
     private final CategoryRepository categoryRepository;
     private final MessagingService messagingService;
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final PlatformMetricsService platformMetrics;
+    private final TokenRevocationService tokenRevocationService;
+    private final BroadcastService broadcastService;
 
     // Dashboard Analytics
     @Transactional(readOnly = true)
     public Map<String, Object> getDashboardAnalytics() {
         validateAdminAccess();
         
+        // Served from the in-memory snapshot; no count queries on the request path
+        DashboardAnalyticsDto snapshot = dashboardSnapshotService.getSnapshot();
         Map<String, Object> analytics = new HashMap<>();
         
         // Basic counts
-        analytics.put("totalUsers", userRepository.count());
-        analytics.put("totalCourses", courseRepository.count());
-        analytics.put("totalEnrollments", enrollmentRepository.count());
-        analytics.put("totalCertificates", certificateRepository.count());
+        analytics.put("totalUsers", snapshot.getOverview().getTotalUsers());
+        analytics.put("totalCourses", snapshot.getOverview().getTotalCourses());
+        analytics.put("totalEnrollments", snapshot.getOverview().getTotalEnrollments());
+        analytics.put("totalCertificates", snapshot.getOverview().getTotalCertificates());
         
         // User breakdown
-        analytics.put("totalStudents", userRepository.countByRole(User.Role.STUDENT));
-        analytics.put("totalInstructors", userRepository.countByRole(User.Role.INSTRUCTOR));
-        analytics.put("totalAdmins", userRepository.countByRole(User.Role.ADMIN));
+        analytics.put("totalStudents", snapshot.getUsers().getTotalStudents());
+        analytics.put("totalInstructors", snapshot.getUsers().getTotalInstructors());
+        analytics.put("totalAdmins", snapshot.getUsers().getTotalAdmins());
         
         // Course statistics
-        analytics.put("publishedCourses", courseRepository.countByIsPublishedTrue());
-        analytics.put("pendingCourses", courseRepository.countByIsPublishedFalse());
+        analytics.put("publishedCourses", snapshot.getCourses().getPublishedCourses());
+        analytics.put("pendingCourses", snapshot.getCourses().getPendingCourses());
         
         // Recent activity (last 30 days)
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        analytics.put("newUsersLast30Days", userRepository.countByCreatedAtAfter(thirtyDaysAgo));
-        analytics.put("newCoursesLast30Days", courseRepository.countByCreatedAtAfter(thirtyDaysAgo));
-        analytics.put("newEnrollmentsLast30Days", enrollmentRepository.countByEnrolledAtAfter(thirtyDaysAgo));
+        analytics.put("newUsersLast30Days", snapshot.getUsers().getNewUsersLast30Days());
+        analytics.put("newCoursesLast30Days", snapshot.getCourses().getNewCoursesLast30Days());
+        analytics.put("newEnrollmentsLast30Days", snapshot.getEnrollments().getNewEnrollmentsLast30Days());
         
         // Revenue statistics
-        BigDecimal totalRevenue = earningsRepository.getTotalRevenue();
-        BigDecimal monthlyRevenue = earningsRepository.getMonthlyRevenue(LocalDateTime.now().getYear(), LocalDateTime.now().getMonthValue());
-        analytics.put("totalRevenue", totalRevenue != null ? totalRevenue : BigDecimal.ZERO);
-        analytics.put("monthlyRevenue", monthlyRevenue != null ? monthlyRevenue : BigDecimal.ZERO);
+        analytics.put("totalRevenue", snapshot.getRevenue().getTotalRevenue());
+        analytics.put("monthlyRevenue", snapshot.getRevenue().getMonthlyRevenue());
+        analytics.put("generatedAt", snapshot.getGeneratedAt());
         
         return analytics;
     }
 
+    @Transactional(readOnly = true)
+    public DashboardAnalyticsDto getDashboardSnapshot() {
+        validateAdminAccess();
+        return dashboardSnapshotService.getSnapshot();
+    }
+
     @Transactional(readOnly = true)
     public Map<String, Object> getUserAnalytics() {
         validateAdminAccess();
@@ -217,21 +235,57 @@ public class AdminService {
         return certificateRepository.findAll(pageable);
     }
 
-    // Notification Broadcasting
-    public void broadcastSystemNotification(String title, String message) {
+    @Transactional(readOnly = true)
+    public CursorSlice<Enrollment> scrollAllEnrollments(String cursor, int size) {
         validateAdminAccess();
-        
-        List<User> allUsers = userRepository.findByIsEnabledTrue();
-        
-        for (User user : allUsers) {
-            try {
-                messagingService.sendSystemNotification(user, title, message);
-            } catch (Exception e) {
-                log.error("Failed to send notification to user: {}", user.getEmail(), e);
-            }
+        Cursor after = Cursor.decode(cursor);
+        int limit = CursorSlice.clampSize(size);
+        PageRequest rows = PageRequest.of(0, limit + 1);
+        List<Enrollment> enrollments = after == null
+                ? enrollmentRepository.findAllByOrderByEnrolledAtDescIdDesc(rows)
+                : enrollmentRepository.findAllBefore(after.timestamp(), after.id(), rows);
+        return CursorSlice.of(enrollments, limit, Enrollment::getEnrolledAt, Enrollment::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorSlice<Certificate> scrollAllCertificates(String cursor, int size) {
+        validateAdminAccess();
+        Cursor after = Cursor.decode(cursor);
+        int limit = CursorSlice.clampSize(size);
+        PageRequest rows = PageRequest.of(0, limit + 1);
+        List<Certificate> certificates = after == null
+                ? certificateRepository.findAllByOrderByIssuedAtDescIdDesc(rows)
+                : certificateRepository.findAllBefore(after.timestamp(), after.id(), rows);
+        return CursorSlice.of(certificates, limit, Certificate::getIssuedAt, Certificate::getId);
+    }
+
+    // Notification Broadcasting
+    public Broadcast broadcastSystemNotification(String title, String message) {
+        User admin = getCurrentUser();
+        if (!admin.isAdmin()) {
+            throw new BadRequestException("Admin access required");
         }
         
-        log.info("System notification broadcasted to {} users", allUsers.size());
+        // Delivered in the background in keyset-ordered chunks
+        return broadcastService.startBroadcast(Broadcast.Channel.NOTIFICATION, Broadcast.Audience.ENABLED_USERS,
+                title, message, null, null, null, admin.getEmail());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Broadcast> getBroadcasts(Pageable pageable) {
+        validateAdminAccess();
+        return broadcastService.getBroadcasts(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Broadcast getBroadcast(String broadcastId) {
+        validateAdminAccess();
+        return broadcastService.getBroadcast(broadcastId);
+    }
+
+    public Broadcast resumeBroadcast(String broadcastId) {
+        validateAdminAccess();
+        return broadcastService.resumeBroadcast(broadcastId);
     }
 
     // Reports Generation
@@ -296,13 +350,13 @@ public class AdminService {
         }
         
         // Check for pending tasks
-        long pendingCertificates = certificateRepository.countByStatus(Certificate.Status.PENDING);
+        long pendingCertificates = platformMetrics.get(PlatformMetric.PENDING_CERTIFICATES);
         health.put("pendingCertificates", pendingCertificates);
         
-        long pendingReviews = reviewRepository.countByIsPublishedFalse();
+        long pendingReviews = platformMetrics.get(PlatformMetric.PENDING_REVIEWS);
         health.put("pendingReviews", pendingReviews);
         
-        long pendingComments = commentRepository.countByIsPublishedFalse();
+        long pendingComments = platformMetrics.get(PlatformMetric.PENDING_COMMENTS);
         health.put("pendingComments", pendingComments);
         
         return health;
@@ -316,14 +370,14 @@ public class AdminService {
         Map<String, Object> stats = new HashMap<>();
         stats.put("timestamp", LocalDateTime.now());
         
-        // Entity counts
-        stats.put("users", userRepository.count());
-        stats.put("courses", courseRepository.count());
-        stats.put("enrollments", enrollmentRepository.count());
-        stats.put("reviews", reviewRepository.count());
-        stats.put("comments", commentRepository.count());
-        stats.put("certificates", certificateRepository.count());
-        stats.put("notifications", notificationRepository.count());
+        // Entity counts (maintained incrementally, no table scans)
+        stats.put("users", platformMetrics.get(PlatformMetric.TOTAL_USERS));
+        stats.put("courses", platformMetrics.get(PlatformMetric.TOTAL_COURSES));
+        stats.put("enrollments", platformMetrics.get(PlatformMetric.TOTAL_ENROLLMENTS));
+        stats.put("reviews", platformMetrics.get(PlatformMetric.TOTAL_REVIEWS));
+        stats.put("comments", platformMetrics.get(PlatformMetric.TOTAL_COMMENTS));
+        stats.put("certificates", platformMetrics.get(PlatformMetric.TOTAL_CERTIFICATES));
+        stats.put("notifications", platformMetrics.get(PlatformMetric.TOTAL_NOTIFICATIONS));
         
         // Storage usage (placeholder - would need actual implementation)
         stats.put("storageUsed", "N/A");
@@ -432,7 +486,7 @@ public class AdminService {
         metrics.put("averageQueryTime", "N/A");
 
         // Application performance
-        metrics.put("activeUsers", userRepository.countByIsEnabledTrue());
+        metrics.put("activeUsers", platformMetrics.get(PlatformMetric.ACTIVE_USERS));
         metrics.put("systemLoad", "N/A");
 
         return metrics;
@@ -449,7 +503,7 @@ public class AdminService {
 
         // User activity metrics
         activity.put("period", Map.of("start", startDate, "end", endDate));
-        activity.put("activeUsers", userRepository.countByIsEnabledTrue());
+        activity.put("activeUsers", platformMetrics.get(PlatformMetric.ACTIVE_USERS));
 
         return activity;
     }
@@ -485,9 +539,10 @@ public class AdminService {
 
         Map<String, Object> stats = new HashMap<>();
 
-        stats.put("pendingReviews", reviewRepository.countByIsPublishedFalse());
-        stats.put("pendingComments", commentRepository.countByIsPublishedFalse());
-        stats.put("pendingCourses", courseRepository.countByIsPublishedFalse());
+        stats.put("pendingReviews", platformMetrics.get(PlatformMetric.PENDING_REVIEWS));
+        stats.put("pendingComments", platformMetrics.get(PlatformMetric.PENDING_COMMENTS));
+        stats.put("pendingCourses", platformMetrics.get(PlatformMetric.TOTAL_COURSES)
+                - platformMetrics.get(PlatformMetric.PUBLISHED_COURSES));
 
         return stats;
     }
@@ -498,9 +553,10 @@ public class AdminService {
 
         Map<String, Object> usage = new HashMap<>();
 
-        usage.put("totalUsers", userRepository.count());
-        usage.put("totalCourses", courseRepository.count());
-        usage.put("totalEnrollments", enrollmentRepository.count());
+        usage.put("totalUsers", platformMetrics.get(PlatformMetric.TOTAL_USERS));
+        usage.put("totalCourses", platformMetrics.get(PlatformMetric.TOTAL_COURSES));
+        usage.put("totalEnrollments", platformMetrics.get(PlatformMetric.TOTAL_ENROLLMENTS));
+        usage.put("completedEnrollments", platformMetrics.get(PlatformMetric.COMPLETED_ENROLLMENTS));
         usage.put("storageUsed", "N/A"); // Would need actual implementation
 
         return usage;
@@ -548,7 +604,7 @@ public class AdminService {
 
         Map<String, Object> metrics = new HashMap<>();
         metrics.put("timestamp", LocalDateTime.now());
-        metrics.put("activeUsers", userRepository.countByIsEnabledTrue());
+        metrics.put("activeUsers", platformMetrics.get(PlatformMetric.ACTIVE_USERS));
         metrics.put("onlineUsers", "N/A"); // Would need session tracking
 
         return metrics;
@@ -564,7 +620,7 @@ public class AdminService {
         List<Map<String, Object>> alertList = new ArrayList<>();
 
         // Check pending certificates
-        long pendingCerts = certificateRepository.countByStatus(Certificate.Status.PENDING);
+        long pendingCerts = platformMetrics.get(PlatformMetric.PENDING_CERTIFICATES);
         if (pendingCerts > 10) {
             alertList.add(Map.of(
                 "level", "WARNING",
@@ -623,7 +679,10 @@ public class AdminService {
         // Update user fields
         if (userDto.getFirstName() != null) user.setFirstName(userDto.getFirstName());
         if (userDto.getLastName() != null) user.setLastName(userDto.getLastName());
-        if (userDto.getEmail() != null) user.setEmail(userDto.getEmail());
+        if (userDto.getEmail() != null && !userDto.getEmail().equals(user.getEmail())) {
+            user.setEmail(userDto.getEmail());
+            tokenRevocationService.revokeTokens(userId);
+        }
 
         User savedUser = userRepository.save(user);
         log.info("User {} updated by admin", savedUser.getEmail());
@@ -637,8 +696,13 @@ public class AdminService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        boolean wasEnabled = user.isEnabled();
         user.setEnabled(true);
         userRepository.save(user);
+        if (!wasEnabled) {
+            platformMetrics.increment(PlatformMetric.ACTIVE_USERS);
+        }
+        tokenRevocationService.revokeTokens(userId);
         log.info("User {} activated by admin", user.getEmail());
     }
 
@@ -648,8 +712,13 @@ public class AdminService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        boolean wasEnabled = user.isEnabled();
         user.setEnabled(false);
         userRepository.save(user);
+        if (wasEnabled) {
+            platformMetrics.decrement(PlatformMetric.ACTIVE_USERS);
+        }
+        tokenRevocationService.revokeTokens(userId);
         log.info("User {} deactivated by admin", user.getEmail());
     }
 
@@ -668,6 +737,7 @@ public class AdminService {
         }
 
         User savedUser = userRepository.save(user);
+        tokenRevocationService.revokeTokens(userId);
         log.info("User {} role changed from {} to {} by admin", user.getEmail(), oldRole, newRole);
 
         return convertToUserDto(savedUser);
@@ -686,6 +756,11 @@ public class AdminService {
         }
 
         userRepository.delete(user);
+        platformMetrics.decrement(PlatformMetric.TOTAL_USERS);
+        if (user.isEnabled()) {
+            platformMetrics.decrement(PlatformMetric.ACTIVE_USERS);
+        }
+        tokenRevocationService.revokeTokens(userId);
         log.info("User {} deleted by admin", user.getEmail());
     }
 
@@ -709,6 +784,7 @@ public class AdminService {
 
         instructor.setApproved(true);
         userRepository.save(instructor);
+        tokenRevocationService.revokeTokens(instructorId);
 
         // Send approval notification
         try {
@@ -734,6 +810,7 @@ public class AdminService {
         instructor.setRole(User.Role.STUDENT);
         instructor.setApproved(false);
         userRepository.save(instructor);
+        tokenRevocationService.revokeTokens(instructorId);
 
         // Send rejection notification
         try {
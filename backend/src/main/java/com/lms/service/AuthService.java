@@ -13,6 +13,9 @@ import com.lms.exception.UserAlreadyExistsException;
 import com.lms.mapper.UserMapper;
 import com.lms.repository.UserRepository;
 import com.lms.security.JwtUtils;
+import com.lms.security.TokenRevocationService;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -44,6 +47,8 @@ public class AuthService {
     private final EmailService emailService;
     private final RefreshTokenService refreshTokenService;
     private final SecurityAuditService securityAuditService;
+    private final PlatformMetricsService platformMetrics;
+    private final TokenRevocationService tokenRevocationService;
 
     @Transactional
     public AuthResponse login(LoginRequest loginRequest, HttpServletRequest request) {
@@ -66,7 +71,7 @@ public class AuthService {
             }
 
             // Generate tokens
-            String accessToken = jwtUtils.generateJwtToken(user.getEmail(), user.getId(), user.getRole().name());
+            String accessToken = jwtUtils.generateJwtToken(user);
             RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getId(), request);
 
             // Calculate expiration info
@@ -116,6 +121,8 @@ public class AuthService {
         user.setVerificationToken(UUID.randomUUID().toString());
 
         User savedUser = userRepository.save(user);
+        platformMetrics.increment(PlatformMetric.TOTAL_USERS);
+        platformMetrics.increment(PlatformMetric.ACTIVE_USERS);
 
         // Send welcome email
         emailService.sendWelcomeEmail(savedUser);
@@ -126,11 +133,7 @@ public class AuthService {
         }
 
         // Generate JWT token
-        String jwt = jwtUtils.generateTokenFromEmail(
-                savedUser.getEmail(), 
-                savedUser.getId(), 
-                savedUser.getRole().name()
-        );
+        String jwt = jwtUtils.generateJwtToken(savedUser);
 
         UserDto userDto = userMapper.toDto(savedUser);
 
@@ -174,6 +177,7 @@ public class AuthService {
         user.setResetPasswordExpires(null);
 
         userRepository.save(user);
+        tokenRevocationService.revokeTokens(user.getId());
     }
 
     /**
@@ -189,7 +193,7 @@ public class AuthService {
         User user = refreshToken.getUser();
 
         // Generate new access token
-        String newAccessToken = jwtUtils.generateJwtToken(user.getEmail(), user.getId(), user.getRole().name());
+        String newAccessToken = jwtUtils.generateJwtToken(user);
 
         // Calculate expiration info
         Date expirationDate = jwtUtils.getExpirationDateFromToken(newAccessToken);
@@ -1,5 +1,7 @@
 package com.lms.service;
 
+import com.lms.cache.TwoTierCache;
+import com.lms.cache.TwoTierCacheManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
@@ -8,6 +10,7 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -35,6 +38,10 @@ public class CacheService {
         try {
             String fullKey = cacheName + "::" + key;
             redisTemplate.opsForValue().set(fullKey, value, ttl.toMillis(), TimeUnit.MILLISECONDS);
+            // Written behind the cache abstraction, so L1 copies must be dropped explicitly
+            if (cacheManager.getCache(cacheName) instanceof TwoTierCache twoTierCache) {
+                twoTierCache.invalidateLocal(key);
+            }
             log.debug("Cached value for key: {} with TTL: {}", fullKey, ttl);
         } catch (Exception e) {
             log.error("Failed to cache value for key: {}::{}", cacheName, key, e);
@@ -152,6 +159,11 @@ public class CacheService {
             
             // Get cache names
             stats.setCacheNames(cacheManager.getCacheNames());
+
+            // Per-tier hit/miss/eviction counters when the L1 tier is active
+            if (cacheManager instanceof TwoTierCacheManager twoTierCacheManager) {
+                stats.setTierStats(twoTierCacheManager.getStatistics());
+            }
             
             return stats;
         } catch (Exception e) {
@@ -203,10 +215,13 @@ public class CacheService {
     public static class CacheStats {
         private String redisInfo;
         private Set<String> cacheNames;
+        private Map<String, Object> tierStats;
 
         public String getRedisInfo() { return redisInfo; }
         public void setRedisInfo(String redisInfo) { this.redisInfo = redisInfo; }
         public Set<String> getCacheNames() { return cacheNames; }
         public void setCacheNames(Set<String> cacheNames) { this.cacheNames = cacheNames; }
+        public Map<String, Object> getTierStats() { return tierStats; }
+        public void setTierStats(Map<String, Object> tierStats) { this.tierStats = tierStats; }
     }
 }
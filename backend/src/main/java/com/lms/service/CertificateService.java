@@ -1,6 +1,10 @@
 package com.lms.service;
 
+import com.lms.cache.CacheTagInvalidator;
+import com.lms.cache.CacheTags;
+import com.lms.dto.certificate.CertificateVerificationDto;
 import com.lms.entity.Certificate;
+import com.lms.entity.CertificateIssuanceJob;
 import com.lms.entity.Course;
 import com.lms.entity.Enrollment;
 import com.lms.entity.User;
@@ -10,9 +14,13 @@ import com.lms.repository.CertificateRepository;
 import com.lms.repository.CourseRepository;
 import com.lms.repository.EnrollmentRepository;
 import com.lms.repository.UserRepository;
+import com.lms.service.certificate.CertificateIssuanceService;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -31,11 +39,16 @@ import java.util.UUID;
 @Transactional
 public class CertificateService {
 
+    private static final String CERTIFICATES_CACHE = "certificates";
+
     private final CertificateRepository certificateRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final PdfCertificateGeneratorService pdfGeneratorService;
+    private final PlatformMetricsService platformMetrics;
+    private final CertificateIssuanceService certificateIssuanceService;
+    private final CacheTagInvalidator cacheTagInvalidator;
 
     @Value("${app.certificate.base-url:http://localhost:8080/certificates}")
     private String certificateBaseUrl;
@@ -71,6 +84,8 @@ public class CertificateService {
         certificate.setStatus(Certificate.Status.PENDING);
 
         Certificate savedCertificate = certificateRepository.save(certificate);
+        platformMetrics.increment(PlatformMetric.TOTAL_CERTIFICATES);
+        platformMetrics.increment(PlatformMetric.PENDING_CERTIFICATES);
 
         // Generate PDF asynchronously
         try {
@@ -98,10 +113,14 @@ public class CertificateService {
             certificate.setStatus(Certificate.Status.GENERATED);
             
             certificateRepository.save(certificate);
+            platformMetrics.decrement(PlatformMetric.PENDING_CERTIFICATES);
             
             log.info("Certificate PDF generated successfully: {}", fileName);
         } catch (Exception e) {
             log.error("Failed to generate certificate PDF", e);
+            if (certificate.getStatus() == Certificate.Status.PENDING) {
+                platformMetrics.decrement(PlatformMetric.PENDING_CERTIFICATES);
+            }
             certificate.setStatus(Certificate.Status.FAILED);
             certificateRepository.save(certificate);
             throw new RuntimeException("Failed to generate certificate PDF", e);
@@ -180,6 +199,15 @@ public class CertificateService {
     }
 
     public Certificate downloadCertificate(String certificateId) {
+        Certificate certificate = getDownloadableCertificate(certificateId);
+        return recordDownload(certificate);
+    }
+
+    /**
+     * The certificate, if the current user may download it and its PDF is ready.
+     */
+    @Transactional(readOnly = true)
+    public Certificate getDownloadableCertificate(String certificateId) {
         Certificate certificate = getCertificateById(certificateId);
         User currentUser = getCurrentUser();
 
@@ -192,6 +220,11 @@ public class CertificateService {
         if (!certificate.isGenerated()) {
             throw new BadRequestException("Certificate is not ready for download");
         }
+        return certificate;
+    }
+
+    public Certificate recordDownload(Certificate certificate) {
+        User currentUser = getCurrentUser();
 
         // Update download statistics
         certificate.markAsDownloaded();
@@ -203,11 +236,30 @@ public class CertificateService {
         return savedCertificate;
     }
 
+    /**
+     * Public verification details. An issued certificate does not change, so valid results
+     * are cached; negative results are not, as a pending certificate may still be issued.
+     */
+    @Cacheable(value = "certificates", key = "'verify:' + #certificateNumber", unless = "!#result.valid")
     @Transactional(readOnly = true)
-    public boolean verifyCertificate(String certificateNumber) {
-        return certificateRepository.findByCertificateNumber(certificateNumber)
-                .map(certificate -> certificate.getStatus() == Certificate.Status.GENERATED)
-                .orElse(false);
+    public CertificateVerificationDto getCertificateVerification(String certificateNumber) {
+        CertificateVerificationDto verification = new CertificateVerificationDto();
+        verification.setCertificateNumber(certificateNumber);
+
+        Certificate certificate = certificateRepository.findByCertificateNumber(certificateNumber).orElse(null);
+        if (certificate == null || !certificate.isGenerated()) {
+            return verification;
+        }
+
+        verification.setValid(true);
+        verification.setStudentName(certificate.getUser().getFullName());
+        verification.setCourseName(certificate.getCourse().getTitle());
+        verification.setInstructorName(certificate.getCourse().getInstructor().getFullName());
+        verification.setIssueDate(certificate.getIssuedAt() != null ? certificate.getIssuedAt().toString() : null);
+        verification.setCompletionDate(certificate.getEnrollment().getCompletedAt() != null
+                ? certificate.getEnrollment().getCompletedAt().toString() : null);
+        verification.setCourseDuration(certificate.getCourse().getDurationMinutes());
+        return verification;
     }
 
     @Transactional(readOnly = true)
@@ -230,11 +282,17 @@ public class CertificateService {
             throw new BadRequestException("You can only regenerate your own certificates");
         }
 
+        if (certificate.getStatus() != Certificate.Status.PENDING) {
+            platformMetrics.increment(PlatformMetric.PENDING_CERTIFICATES);
+        }
         certificate.setStatus(Certificate.Status.PENDING);
         certificate.setDownloadCount(0);
         certificate.setDownloadedAt(null);
         
         Certificate savedCertificate = certificateRepository.save(certificate);
+        // Only the regenerated certificate's verification result is affected
+        cacheTagInvalidator.evictKey(CERTIFICATES_CACHE,
+                CacheTags.certificateVerificationKey(certificate.getCertificateNumber()));
 
         // Regenerate PDF
         try {
@@ -260,6 +318,40 @@ public class CertificateService {
         }
     }
 
+    /**
+     * Starts a background job issuing certificates to the course's completed enrollments,
+     * or to the given subset of them.
+     */
+    public CertificateIssuanceJob issueCohortCertificates(String courseId, List<String> enrollmentIds) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
+        User currentUser = getCurrentUser();
+
+        if (!currentUser.isAdmin() && !course.getInstructor().getId().equals(currentUser.getId())) {
+            throw new BadRequestException("You can only issue certificates for your own courses");
+        }
+
+        return certificateIssuanceService.startIssuance(course, enrollmentIds, currentUser.getEmail());
+    }
+
+    @Transactional(readOnly = true)
+    public CertificateIssuanceJob getIssuanceJob(String jobId) {
+        CertificateIssuanceJob job = certificateIssuanceService.getJob(jobId);
+        Course course = courseRepository.findById(job.getCourseId())
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
+        User currentUser = getCurrentUser();
+
+        if (!currentUser.isAdmin() && !course.getInstructor().getId().equals(currentUser.getId())) {
+            throw new BadRequestException("You can only view certificate issuance for your own courses");
+        }
+        return job;
+    }
+
+    public CertificateIssuanceJob resumeIssuanceJob(String jobId) {
+        getIssuanceJob(jobId);
+        return certificateIssuanceService.resumeJob(jobId);
+    }
+
     private String generateCertificateNumber() {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
         String randomPart = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
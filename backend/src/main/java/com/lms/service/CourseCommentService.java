@@ -10,6 +10,8 @@ import com.lms.repository.CourseCommentRepository;
 import com.lms.repository.CourseRepository;
 import com.lms.repository.EnrollmentRepository;
 import com.lms.repository.UserRepository;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -32,6 +34,7 @@ public class CourseCommentService {
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final PlatformMetricsService platformMetrics;
 
     public CourseComment createComment(String courseId, CourseComment comment) {
         User currentUser = getCurrentUser();
@@ -56,6 +59,7 @@ public class CourseCommentService {
         comment.setPublished(true);
 
         CourseComment savedComment = commentRepository.save(comment);
+        platformMetrics.increment(PlatformMetric.TOTAL_COMMENTS);
 
         log.info("Comment created for course {} by user {}", course.getTitle(), currentUser.getEmail());
 
@@ -87,6 +91,7 @@ public class CourseCommentService {
         reply.setPublished(true);
 
         CourseComment savedReply = commentRepository.save(reply);
+        platformMetrics.increment(PlatformMetric.TOTAL_COMMENTS);
 
         log.info("Reply created for comment {} by user {}", parentCommentId, currentUser.getEmail());
 
@@ -128,6 +133,10 @@ public class CourseCommentService {
         }
 
         commentRepository.delete(comment);
+        platformMetrics.decrement(PlatformMetric.TOTAL_COMMENTS);
+        if (!comment.isPublished()) {
+            platformMetrics.decrement(PlatformMetric.PENDING_COMMENTS);
+        }
 
         log.info("Comment deleted for course {} by user {}", 
                 comment.getCourse().getTitle(), currentUser.getEmail());
@@ -209,6 +218,9 @@ public class CourseCommentService {
         }
 
         CourseComment comment = getCommentById(commentId);
+        if (comment.isPublished() != publish) {
+            platformMetrics.add(PlatformMetric.PENDING_COMMENTS, publish ? -1 : 1);
+        }
         comment.setPublished(publish);
         
         CourseComment savedComment = commentRepository.save(comment);
@@ -9,6 +9,9 @@ import com.lms.repository.CourseRepository;
 import com.lms.repository.CourseReviewRepository;
 import com.lms.repository.EnrollmentRepository;
 import com.lms.repository.UserRepository;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
+import com.lms.service.review.CourseRatingStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -18,8 +21,6 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
 import java.util.UUID;
 
@@ -33,6 +34,8 @@ public class CourseReviewService {
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final PlatformMetricsService platformMetrics;
+    private final CourseRatingStatsService ratingStats;
 
     public CourseReview createReview(String courseId, CourseReview review) {
         User currentUser = getCurrentUser();
@@ -66,9 +69,10 @@ public class CourseReviewService {
         review.setPublished(true);
 
         CourseReview savedReview = reviewRepository.save(review);
+        platformMetrics.increment(PlatformMetric.TOTAL_REVIEWS);
 
         // Update course rating statistics
-        updateCourseRatingStats(course);
+        ratingStats.recordChange(course.getId(), null, savedReview.getRating());
 
         log.info("Review created for course {} by user {}", course.getTitle(), currentUser.getEmail());
 
@@ -84,6 +88,8 @@ public class CourseReviewService {
             throw new BadRequestException("You can only update your own reviews");
         }
 
+        Integer previousRating = existingReview.getRating();
+
         // Update fields
         if (reviewUpdate.getRating() != null) {
             if (reviewUpdate.getRating() < 1 || reviewUpdate.getRating() > 5) {
@@ -101,7 +107,9 @@ public class CourseReviewService {
         CourseReview savedReview = reviewRepository.save(existingReview);
 
         // Update course rating statistics
-        updateCourseRatingStats(existingReview.getCourse());
+        if (existingReview.isPublished()) {
+            ratingStats.recordChange(existingReview.getCourse().getId(), previousRating, existingReview.getRating());
+        }
 
         log.info("Review updated for course {} by user {}", 
                 existingReview.getCourse().getTitle(), currentUser.getEmail());
@@ -120,9 +128,15 @@ public class CourseReviewService {
 
         Course course = review.getCourse();
         reviewRepository.delete(review);
+        platformMetrics.decrement(PlatformMetric.TOTAL_REVIEWS);
+        if (!review.isPublished()) {
+            platformMetrics.decrement(PlatformMetric.PENDING_REVIEWS);
+        }
 
         // Update course rating statistics
-        updateCourseRatingStats(course);
+        if (review.isPublished()) {
+            ratingStats.recordChange(course.getId(), review.getRating(), null);
+        }
 
         log.info("Review deleted for course {} by user {}", course.getTitle(), currentUser.getEmail());
     }
@@ -172,9 +186,10 @@ public class CourseReviewService {
 
     @Transactional(readOnly = true)
     public List<Object[]> getCourseRatingDistribution(String courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
-        return reviewRepository.getRatingDistribution(course);
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found");
+        }
+        return ratingStats.getDistribution(courseId);
     }
 
     @Transactional(readOnly = true)
@@ -214,12 +229,19 @@ public class CourseReviewService {
         }
 
         CourseReview review = getReviewById(reviewId);
+        boolean changed = review.isPublished() != publish;
+        if (changed) {
+            platformMetrics.add(PlatformMetric.PENDING_REVIEWS, publish ? -1 : 1);
+        }
         review.setPublished(publish);
         
         CourseReview savedReview = reviewRepository.save(review);
         
         // Update course rating statistics
-        updateCourseRatingStats(review.getCourse());
+        if (changed) {
+            ratingStats.recordChange(review.getCourse().getId(),
+                    publish ? null : review.getRating(), publish ? review.getRating() : null);
+        }
 
         log.info("Review {} for course {} by admin {}", 
                 publish ? "published" : "unpublished", 
@@ -240,18 +262,6 @@ public class CourseReviewService {
         return reviewRepository.findByIsPublishedFalseOrderByCreatedAtDesc(pageable);
     }
 
-    private void updateCourseRatingStats(Course course) {
-        Double averageRating = reviewRepository.getAverageRating(course);
-        long totalRatings = reviewRepository.countByCourseAndIsPublishedTrue(course);
-
-        course.setAverageRating(averageRating != null ? 
-                BigDecimal.valueOf(averageRating).setScale(2, RoundingMode.HALF_UP) : 
-                BigDecimal.ZERO);
-        course.setTotalRatings((int) totalRatings);
-
-        courseRepository.save(course);
-    }
-
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
@@ -1,5 +1,11 @@
 package com.lms.service;
 
+import com.lms.cache.CacheTagInvalidator;
+import com.lms.cache.CacheTags;
+import com.lms.dto.common.Cursor;
+import com.lms.dto.common.CursorSlice;
+import com.lms.dto.course.CourseCatalogDto;
+import com.lms.dto.course.CourseSuggestionDto;
 import com.lms.entity.Category;
 import com.lms.entity.Course;
 import com.lms.entity.User;
@@ -9,13 +15,15 @@ import com.lms.repository.CategoryRepository;
 import com.lms.repository.CourseRepository;
 import com.lms.repository.UserRepository;
 import com.lms.service.messaging.MessagingService;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
+import com.lms.service.search.CourseSearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,7 +33,11 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -38,6 +50,9 @@ public class CourseService {
     private final UserRepository userRepository;
     private final CloudinaryService cloudinaryService;
     private final MessagingService messagingService;
+    private final PlatformMetricsService platformMetrics;
+    private final CacheTagInvalidator cacheTagInvalidator;
+    private final CourseSearchService courseSearchService;
 
     public Course createCourse(Course course) {
         User currentUser = getCurrentUser();
@@ -59,15 +74,14 @@ public class CourseService {
         }
 
         Course savedCourse = courseRepository.save(course);
+        platformMetrics.increment(PlatformMetric.TOTAL_COURSES);
+        courseSearchService.courseChanged(savedCourse);
         log.info("Course created: {} by instructor: {}", savedCourse.getTitle(), currentUser.getEmail());
         
         return savedCourse;
     }
 
-    @Caching(evict = {
-        @CacheEvict(value = "courses", key = "#courseId"),
-        @CacheEvict(value = "courses", allEntries = true)
-    })
+    @CacheEvict(value = "courses", key = "#courseId")
     public Course updateCourse(String courseId, Course courseUpdate) {
         Course existingCourse = getCourseById(courseId);
         User currentUser = getCurrentUser();
@@ -107,13 +121,24 @@ public class CourseService {
         }
 
         // Update category if provided
+        String movedToCategoryId = null;
         if (courseUpdate.getCategory() != null && courseUpdate.getCategory().getId() != null) {
             Category category = categoryRepository.findById(courseUpdate.getCategory().getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+            if (existingCourse.getCategory() == null || !category.getId().equals(existingCourse.getCategory().getId())) {
+                movedToCategoryId = category.getId();
+            }
             existingCourse.setCategory(category);
         }
 
         Course savedCourse = courseRepository.save(existingCourse);
+        // Pages of the old category already carry this course's tag; the new category's pages do not
+        if (movedToCategoryId != null) {
+            evictCachedCourse(courseId, CacheTags.category(movedToCategoryId));
+        } else {
+            evictCachedCourse(courseId);
+        }
+        courseSearchService.courseChanged(savedCourse);
         log.info("Course updated: {}", savedCourse.getTitle());
         
         return savedCourse;
@@ -132,6 +157,7 @@ public class CourseService {
         course.setThumbnailUrl(thumbnailUrl);
         
         Course savedCourse = courseRepository.save(course);
+        evictCachedCourse(courseId);
         log.info("Thumbnail uploaded for course: {}", savedCourse.getTitle());
         
         return savedCourse;
@@ -150,6 +176,7 @@ public class CourseService {
         course.setPreviewVideoUrl(videoUrl);
         
         Course savedCourse = courseRepository.save(course);
+        evictCachedCourse(courseId);
         log.info("Preview video uploaded for course: {}", savedCourse.getTitle());
         
         return savedCourse;
@@ -168,6 +195,20 @@ public class CourseService {
         return courseRepository.findByIsPublishedTrueOrderByCreatedAtDesc(pageable);
     }
 
+    /**
+     * Keyset slice of the published catalog, newest first, starting after {@code cursor}.
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<Course> scrollPublishedCourses(String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        int limit = CursorSlice.clampSize(size);
+        PageRequest rows = PageRequest.of(0, limit + 1);
+        List<Course> courses = after == null
+                ? courseRepository.findByIsPublishedTrueOrderByCreatedAtDescIdDesc(rows)
+                : courseRepository.findPublishedBefore(after.timestamp(), after.id(), rows);
+        return CursorSlice.of(courses, limit, Course::getCreatedAt, Course::getId);
+    }
+
     @Transactional(readOnly = true)
     public Page<Course> getCoursesByInstructor(String instructorId, Pageable pageable) {
         User instructor = userRepository.findById(instructorId)
@@ -181,17 +222,48 @@ public class CourseService {
         return courseRepository.findByCategoryIdAndPublished(categoryId, pageable);
     }
 
+    /**
+     * Ranked by the in-process search index; the LIKE query only answers until the index
+     * has been built.
+     */
     @Transactional(readOnly = true)
-    @Cacheable(value = "search", key = "'courses:' + #keyword + ':' + #pageable.pageNumber + ':' + #pageable.pageSize")
     public Page<Course> searchCourses(String keyword, Pageable pageable) {
-        return courseRepository.searchByKeyword(keyword, pageable);
+        Page<Course> ranked = courseSearchService.search(keyword, pageable);
+        return ranked != null ? ranked : courseRepository.searchByKeyword(keyword, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CourseSuggestionDto> suggestCourses(String query, int limit) {
+        return courseSearchService.suggest(query, limit);
     }
 
     @Transactional(readOnly = true)
-    public Page<Course> getCoursesWithFilters(String categoryId, Course.Level level, 
+    public Page<Course> getCoursesWithFilters(String categoryId, Course.Level level, String language,
                                             BigDecimal minPrice, BigDecimal maxPrice, 
                                             String keyword, String sortBy, Pageable pageable) {
-        return courseRepository.findWithFilters(categoryId, level, minPrice, maxPrice, keyword, sortBy, pageable);
+        CourseCatalogDto catalog = courseSearchService.browse(categoryId, level, language, minPrice, maxPrice,
+                keyword, sortBy, pageable, false);
+        if (catalog != null) {
+            return catalog.getCourses();
+        }
+        return courseRepository.findWithFilters(categoryId, level, language, minPrice, maxPrice, keyword, sortBy, pageable);
+    }
+
+    /**
+     * Filtered listing with facet counts. Until the catalog indexes are built the facets
+     * are left empty.
+     */
+    @Transactional(readOnly = true)
+    public CourseCatalogDto getCourseCatalog(String categoryId, Course.Level level, String language,
+                                             BigDecimal minPrice, BigDecimal maxPrice,
+                                             String keyword, String sortBy, Pageable pageable) {
+        CourseCatalogDto catalog = courseSearchService.browse(categoryId, level, language, minPrice, maxPrice,
+                keyword, sortBy, pageable, true);
+        if (catalog != null) {
+            return catalog;
+        }
+        return new CourseCatalogDto(courseRepository.findWithFilters(categoryId, level, language, minPrice, maxPrice,
+                keyword, sortBy, pageable), Map.of());
     }
 
     @Transactional(readOnly = true)
@@ -212,10 +284,7 @@ public class CourseService {
         return courseRepository.findMostEnrolledCourses(pageable);
     }
 
-    @Caching(evict = {
-        @CacheEvict(value = "courses", key = "#courseId"),
-        @CacheEvict(value = "courses", allEntries = true)
-    })
+    @CacheEvict(value = "courses", key = "#courseId")
     public Course publishCourse(String courseId) {
         Course course = getCourseById(courseId);
         User currentUser = getCurrentUser();
@@ -225,8 +294,14 @@ public class CourseService {
             throw new BadRequestException("You can only publish your own courses");
         }
 
+        boolean wasPublished = course.isPublished();
         course.setPublished(true);
         Course savedCourse = courseRepository.save(course);
+        if (!wasPublished) {
+            platformMetrics.increment(PlatformMetric.PUBLISHED_COURSES);
+        }
+        evictCachedCourse(courseId, listingTags(savedCourse));
+        courseSearchService.courseChanged(savedCourse);
         
         log.info("Course published: {}", savedCourse.getTitle());
 
@@ -240,6 +315,7 @@ public class CourseService {
         return savedCourse;
     }
 
+    @CacheEvict(value = "courses", key = "#courseId")
     public Course unpublishCourse(String courseId) {
         Course course = getCourseById(courseId);
         User currentUser = getCurrentUser();
@@ -249,19 +325,21 @@ public class CourseService {
             throw new BadRequestException("Only admin can unpublish courses");
         }
 
+        boolean wasPublished = course.isPublished();
         course.setPublished(false);
         Course savedCourse = courseRepository.save(course);
+        if (wasPublished) {
+            platformMetrics.decrement(PlatformMetric.PUBLISHED_COURSES);
+        }
+        evictCachedCourse(courseId, listingTags(savedCourse));
+        courseSearchService.courseChanged(savedCourse);
         
         log.info("Course unpublished: {}", savedCourse.getTitle());
         
         return savedCourse;
     }
 
-    @Caching(evict = {
-        @CacheEvict(value = "courses", key = "#courseId"),
-        @CacheEvict(value = "courses", allEntries = true),
-        @CacheEvict(value = "search", allEntries = true)
-    })
+    @CacheEvict(value = "courses", key = "#courseId")
     public void deleteCourse(String courseId) {
         Course course = getCourseById(courseId);
         User currentUser = getCurrentUser();
@@ -277,9 +355,33 @@ public class CourseService {
         }
 
         courseRepository.delete(course);
+        platformMetrics.decrement(PlatformMetric.TOTAL_COURSES);
+        if (course.isPublished()) {
+            platformMetrics.decrement(PlatformMetric.PUBLISHED_COURSES);
+        }
+        evictCachedCourse(courseId, listingTags(course));
+        courseSearchService.courseDeleted(courseId);
         log.info("Course deleted: {}", course.getTitle());
     }
 
+    /**
+     * Evicts the cached entries that contain the course, plus any listings given in
+     * {@code extraTags} that it may have joined or left.
+     */
+    private void evictCachedCourse(String courseId, String... extraTags) {
+        String[] tags = Stream.concat(Stream.of(CacheTags.course(courseId)), Arrays.stream(extraTags))
+                .toArray(String[]::new);
+        cacheTagInvalidator.evictTagged(CacheService.COURSES_CACHE, tags);
+    }
+
+    // Listings whose membership changes when the course is published, unpublished or deleted
+    private String[] listingTags(Course course) {
+        if (course.getCategory() == null || course.getCategory().getId() == null) {
+            return new String[] { CacheTags.COURSE_LISTS };
+        }
+        return new String[] { CacheTags.COURSE_LISTS, CacheTags.category(course.getCategory().getId()) };
+    }
+
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
@@ -0,0 +1,286 @@
+package com.lms.service;
+
+import com.lms.dto.admin.DashboardAnalyticsDto;
+import com.lms.entity.User;
+import com.lms.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Builds the admin dashboard from a handful of grouped aggregate queries and keeps
+ * the latest result in memory. Readers always get the current snapshot; the database
+ * is only touched by the background refresh.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardSnapshotService {
+
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final CertificateRepository certificateRepository;
+    private final CourseReviewRepository reviewRepository;
+    private final CourseCommentRepository commentRepository;
+    private final InstructorEarningsRepository earningsRepository;
+    private final CategoryRepository categoryRepository;
+
+    @Value("${app.admin.dashboard.recent-days:30}")
+    private int recentDays;
+
+    @Value("${app.admin.dashboard.trend-months:12}")
+    private int trendMonths;
+
+    @Value("${app.admin.dashboard.top-limit:10}")
+    private int topLimit;
+
+    private final AtomicReference<DashboardAnalyticsDto> snapshot = new AtomicReference<>();
+
+    public DashboardAnalyticsDto getSnapshot() {
+        DashboardAnalyticsDto current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (snapshot) {
+            current = snapshot.get();
+            return current != null ? current : refresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.admin.dashboard.refresh-interval:30000}",
+               initialDelayString = "${app.admin.dashboard.initial-delay:5000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // Keep serving the previous snapshot; the next tick will retry
+            log.error("Failed to refresh admin dashboard snapshot", e);
+        }
+    }
+
+    public DashboardAnalyticsDto refresh() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = now.minusDays(recentDays);
+        LocalDateTime monthStart = now.toLocalDate().withDayOfMonth(1).atStartOfDay();
+        YearMonth currentMonth = YearMonth.from(now);
+        LocalDateTime trendStart = currentMonth.minusMonths(trendMonths - 1L).atDay(1).atStartOfDay();
+        Pageable top = PageRequest.of(0, topLimit);
+
+        // Users: role x enabled x approved
+        long totalUsers = 0, students = 0, instructors = 0, admins = 0;
+        long activeUsers = 0, inactiveUsers = 0, pendingInstructors = 0, newUsers = 0;
+        for (Object[] row : userRepository.getDashboardUserAggregates(since)) {
+            User.Role role = (User.Role) row[0];
+            boolean enabled = Boolean.TRUE.equals(row[1]);
+            boolean approved = Boolean.TRUE.equals(row[2]);
+            long count = asLong(row[3]);
+
+            totalUsers += count;
+            newUsers += asLong(row[4]);
+            if (enabled) {
+                activeUsers += count;
+            } else {
+                inactiveUsers += count;
+            }
+            switch (role) {
+                case STUDENT -> students += count;
+                case INSTRUCTOR -> {
+                    instructors += count;
+                    if (!approved) {
+                        pendingInstructors += count;
+                    }
+                }
+                case ADMIN -> admins += count;
+            }
+        }
+
+        // Courses: published flag
+        long publishedCourses = 0, unpublishedCourses = 0, newCourses = 0;
+        for (Object[] row : courseRepository.getDashboardCourseAggregates(since)) {
+            if (Boolean.TRUE.equals(row[0])) {
+                publishedCourses += asLong(row[1]);
+            } else {
+                unpublishedCourses += asLong(row[1]);
+            }
+            newCourses += asLong(row[2]);
+        }
+
+        Object[] enrollments = singleRow(enrollmentRepository.getDashboardEnrollmentAggregates(since), 5);
+        long totalEnrollments = asLong(enrollments[0]);
+        long completedEnrollments = asLong(enrollments[2]);
+        double completionRate = totalEnrollments > 0 ? (double) completedEnrollments / totalEnrollments * 100 : 0;
+
+        Object[] revenue = singleRow(earningsRepository.getDashboardRevenueAggregates(monthStart), 4);
+
+        List<DashboardAnalyticsDto.MonthlyData> monthlyRegistrations =
+                monthly(userRepository.getDashboardMonthlyRegistrations(trendStart), currentMonth, false);
+        List<DashboardAnalyticsDto.MonthlyData> monthlyEnrollments =
+                monthly(enrollmentRepository.getDashboardMonthlyEnrollments(trendStart), currentMonth, false);
+        List<DashboardAnalyticsDto.MonthlyData> monthlyRevenue =
+                monthly(earningsRepository.getDashboardMonthlyRevenue(trendStart), currentMonth, true);
+
+        List<DashboardAnalyticsDto.CategoryData> coursesByCategory = new ArrayList<>();
+        for (Object[] row : categoryRepository.getDashboardCategoryAggregates()) {
+            coursesByCategory.add(new DashboardAnalyticsDto.CategoryData(
+                    (String) row[0], (String) row[1], asLong(row[2]), asLong(row[3])));
+        }
+
+        List<DashboardAnalyticsDto.InstructorEarningsData> topEarningInstructors = new ArrayList<>();
+        for (Object[] row : earningsRepository.getDashboardTopEarningInstructors(top)) {
+            topEarningInstructors.add(new DashboardAnalyticsDto.InstructorEarningsData(
+                    (String) row[0], (String) row[1], (String) row[2], asDecimal(row[3]),
+                    asLong(row[4]), asLong(row[5]), asDouble(row[6])));
+        }
+
+        List<DashboardAnalyticsDto.CourseEarningsData> topEarningCourses = new ArrayList<>();
+        for (Object[] row : earningsRepository.getDashboardTopEarningCourses(top)) {
+            topEarningCourses.add(new DashboardAnalyticsDto.CourseEarningsData(
+                    (String) row[0], (String) row[1], (String) row[2], asDecimal(row[3]),
+                    asLong(row[4]), asDouble(row[5]), asDecimal(row[6])));
+        }
+
+        DashboardAnalyticsDto built = DashboardAnalyticsDto.builder()
+                .generatedAt(now)
+                .overview(DashboardAnalyticsDto.OverviewStats.builder()
+                        .totalUsers(totalUsers)
+                        .totalCourses(publishedCourses + unpublishedCourses)
+                        .totalEnrollments(totalEnrollments)
+                        .totalCertificates(certificateRepository.count())
+                        .totalReviews(reviewRepository.count())
+                        .totalComments(commentRepository.count())
+                        .build())
+                .users(DashboardAnalyticsDto.UserStats.builder()
+                        .totalStudents(students)
+                        .totalInstructors(instructors)
+                        .totalAdmins(admins)
+                        .activeUsers(activeUsers)
+                        .inactiveUsers(inactiveUsers)
+                        .pendingInstructors(pendingInstructors)
+                        .newUsersLast30Days(newUsers)
+                        .monthlyRegistrations(monthlyRegistrations)
+                        .build())
+                .courses(DashboardAnalyticsDto.CourseStats.builder()
+                        .publishedCourses(publishedCourses)
+                        .unpublishedCourses(unpublishedCourses)
+                        .pendingCourses(unpublishedCourses)
+                        .newCoursesLast30Days(newCourses)
+                        .coursesByCategory(List.copyOf(coursesByCategory))
+                        .topRatedCourses(courses(courseRepository.getDashboardTopRatedCourses(top)))
+                        .mostEnrolledCourses(courses(courseRepository.getDashboardMostEnrolledCourses(top)))
+                        .build())
+                .enrollments(DashboardAnalyticsDto.EnrollmentStats.builder()
+                        .totalEnrollments(totalEnrollments)
+                        .activeEnrollments(asLong(enrollments[1]))
+                        .completedEnrollments(completedEnrollments)
+                        .newEnrollmentsLast30Days(asLong(enrollments[3]))
+                        .completionRate(completionRate)
+                        .averageProgress(enrollments[4] != null ? ((Number) enrollments[4]).doubleValue() : 0.0)
+                        .monthlyEnrollments(monthlyEnrollments)
+                        .build())
+                .revenue(DashboardAnalyticsDto.RevenueStats.builder()
+                        .totalRevenue(asDecimal(revenue[0]))
+                        .monthlyRevenue(asDecimal(revenue[1]))
+                        .platformRevenue(asDecimal(revenue[2]))
+                        .instructorRevenue(asDecimal(revenue[3]))
+                        .monthlyRevenueTrends(monthlyRevenue)
+                        .topEarningInstructors(List.copyOf(topEarningInstructors))
+                        .topEarningCourses(List.copyOf(topEarningCourses))
+                        .build())
+                .trends(List.of(
+                        trend("registrations", monthlyRegistrations, false),
+                        trend("enrollments", monthlyEnrollments, false),
+                        trend("revenue", monthlyRevenue, true)))
+                .build();
+
+        snapshot.set(built);
+        log.debug("Admin dashboard snapshot refreshed in {} ms", System.currentTimeMillis() - started);
+        return built;
+    }
+
+    /**
+     * One entry per month from the oldest trend month to the current one, oldest first;
+     * months without rows are filled with zeros so consecutive entries can be compared.
+     * Rows are {@code [year, month, count]} or, for amounts, {@code [year, month, count, amount]}.
+     */
+    private List<DashboardAnalyticsDto.MonthlyData> monthly(List<Object[]> rows, YearMonth currentMonth, boolean amounts) {
+        Map<YearMonth, Object[]> byMonth = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null && row[1] != null) {
+                byMonth.put(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()), row);
+            }
+        }
+        List<DashboardAnalyticsDto.MonthlyData> series = new ArrayList<>(trendMonths);
+        for (int i = trendMonths - 1; i >= 0; i--) {
+            YearMonth month = currentMonth.minusMonths(i);
+            Object[] row = byMonth.get(month);
+            long count = row != null ? asLong(row[2]) : 0L;
+            BigDecimal amount = amounts ? (row != null ? asDecimal(row[3]) : BigDecimal.ZERO) : null;
+            series.add(new DashboardAnalyticsDto.MonthlyData(month.getYear(), month.getMonthValue(),
+                    month.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH), count, amount));
+        }
+        return List.copyOf(series);
+    }
+
+    /**
+     * The current month's figure of a series and its change against the previous month.
+     */
+    private static DashboardAnalyticsDto.TrendData trend(String metric, List<DashboardAnalyticsDto.MonthlyData> series,
+                                                         boolean amounts) {
+        DashboardAnalyticsDto.MonthlyData current = series.get(series.size() - 1);
+        double currentValue = amounts ? current.getAmount().doubleValue() : current.getCount();
+        double change = 0;
+        if (series.size() > 1) {
+            DashboardAnalyticsDto.MonthlyData previous = series.get(series.size() - 2);
+            double previousValue = amounts ? previous.getAmount().doubleValue() : previous.getCount();
+            change = previousValue > 0 ? (currentValue - previousValue) / previousValue * 100 : 0;
+        }
+        String period = YearMonth.of(current.getYear(), current.getMonth()).toString();
+        Object value = amounts ? current.getAmount() : current.getCount();
+        return new DashboardAnalyticsDto.TrendData(period, metric, value, change);
+    }
+
+    private static List<DashboardAnalyticsDto.CourseData> courses(List<Object[]> rows) {
+        List<DashboardAnalyticsDto.CourseData> courses = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            courses.add(new DashboardAnalyticsDto.CourseData((String) row[0], (String) row[1], (String) row[2],
+                    asLong(row[3]), asDouble(row[4]), (int) asLong(row[5]), asDecimal(row[6]), (LocalDateTime) row[7]));
+        }
+        return List.copyOf(courses);
+    }
+
+    private static Object[] singleRow(List<Object[]> rows, int width) {
+        return rows.isEmpty() || rows.get(0) == null ? new Object[width] : rows.get(0);
+    }
+
+    private static long asLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static double asDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    private static BigDecimal asDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
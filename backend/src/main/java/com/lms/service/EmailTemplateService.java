@@ -1,14 +1,18 @@
 package com.lms.service;
 
+import com.lms.service.email.CompiledTemplate;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Map;
 
+/**
+ * HTML bodies of the emails sent directly by {@link EmailService}. The templates are compiled
+ * once at startup with the frontend URL folded in; values are HTML-escaped when rendered.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -17,15 +21,47 @@ public class EmailTemplateService {
     @Value("${cors.allowed-origins}")
     private String frontendUrl;
 
-    private String getBaseUrl() {
-        return frontendUrl.split(",")[0];
+    private CompiledTemplate welcome;
+    private CompiledTemplate enrollmentConfirmation;
+    private CompiledTemplate passwordReset;
+    private CompiledTemplate certificateReady;
+    private CompiledTemplate instructorApproved;
+
+    @PostConstruct
+    public void compileTemplates() {
+        Map<String, Object> constants = Map.of("baseUrl", frontendUrl.split(",")[0]);
+        welcome = compile(WELCOME_TEMPLATE, constants);
+        enrollmentConfirmation = compile(ENROLLMENT_CONFIRMATION_TEMPLATE, constants);
+        passwordReset = compile(PASSWORD_RESET_TEMPLATE, constants);
+        certificateReady = compile(CERTIFICATE_READY_TEMPLATE, constants);
+        instructorApproved = compile(INSTRUCTOR_APPROVED_TEMPLATE, constants);
     }
 
     public String generateWelcomeEmail(Map<String, Object> data) {
-        String firstName = (String) data.get("firstName");
-        String verificationToken = (String) data.get("verificationToken");
-        
-        return String.format("""
+        return welcome.render(data);
+    }
+
+    public String generateEnrollmentConfirmationEmail(Map<String, Object> data) {
+        return enrollmentConfirmation.render(data);
+    }
+
+    public String generatePasswordResetEmail(Map<String, Object> data) {
+        return passwordReset.render(data);
+    }
+
+    public String generateCertificateReadyEmail(Map<String, Object> data) {
+        return certificateReady.render(data);
+    }
+
+    public String generateInstructorApprovedEmail(Map<String, Object> data) {
+        return instructorApproved.render(data);
+    }
+
+    private static CompiledTemplate compile(String source, Map<String, Object> constants) {
+        return CompiledTemplate.compile(source, true).bind(constants);
+    }
+
+    private static final String WELCOME_TEMPLATE = """
             <!DOCTYPE html>
             <html>
             <head>
@@ -34,7 +70,7 @@ public class EmailTemplateService {
                 <style>
                     body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
                     .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
+                    .header { background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
                     .content { background: #f9f9f9; padding: 30px; border-radius: 0 0 10px 10px; }
                     .button { display: inline-block; background: #667eea; color: white; padding: 12px 30px; text-decoration: none; border-radius: 5px; margin: 20px 0; }
                     .footer { text-align: center; margin-top: 30px; color: #666; font-size: 14px; }
@@ -47,7 +83,7 @@ public class EmailTemplateService {
                         <p>Your journey to knowledge starts here</p>
                     </div>
                     <div class="content">
-                        <h2>Hi %s,</h2>
+                        <h2>Hi {{firstName}},</h2>
                         <p>Welcome to Modern LMS! We're thrilled to have you join our learning community where knowledge meets innovation.</p>
                         
                         <p><strong>What you can do with Modern LMS:</strong></p>
@@ -62,11 +98,11 @@ public class EmailTemplateService {
                         <p>To get started, please verify your email address by clicking the button below:</p>
                         
                         <div style="text-align: center;">
-                            <a href="%s/verify-email?token=%s" class="button">Verify Email Address</a>
+                            <a href="{{baseUrl}}/verify-email?token={{verificationToken}}" class="button">Verify Email Address</a>
                         </div>
                         
                         <p>If the button doesn't work, copy and paste this link into your browser:</p>
-                        <p style="word-break: break-all; color: #667eea;">%s/verify-email?token=%s</p>
+                        <p style="word-break: break-all; color: #667eea;">{{baseUrl}}/verify-email?token={{verificationToken}}</p>
                         
                         <p>This verification link will expire in 24 hours for security reasons.</p>
                         
@@ -80,17 +116,9 @@ public class EmailTemplateService {
                 </div>
             </body>
             </html>
-            """, firstName, getBaseUrl(), verificationToken, getBaseUrl(), verificationToken);
-    }
+            """;
 
-    public String generateEnrollmentConfirmationEmail(Map<String, Object> data) {
-        String studentName = (String) data.get("studentName");
-        String courseName = (String) data.get("courseName");
-        String instructorName = (String) data.get("instructorName");
-        Integer courseDuration = (Integer) data.get("courseDuration");
-        String courseId = (String) data.get("courseId");
-        
-        return String.format("""
+    private static final String ENROLLMENT_CONFIRMATION_TEMPLATE = """
             <!DOCTYPE html>
             <html>
             <head>
@@ -99,7 +127,7 @@ public class EmailTemplateService {
                 <style>
                     body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
                     .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: linear-gradient(135deg, #4CAF50 0%%, #45a049 100%%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
+                    .header { background: linear-gradient(135deg, #4CAF50 0%, #45a049 100%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
                     .content { background: #f9f9f9; padding: 30px; border-radius: 0 0 10px 10px; }
                     .course-info { background: white; padding: 20px; border-radius: 8px; margin: 20px 0; border-left: 4px solid #4CAF50; }
                     .button { display: inline-block; background: #4CAF50; color: white; padding: 12px 30px; text-decoration: none; border-radius: 5px; margin: 20px 0; }
@@ -113,14 +141,14 @@ public class EmailTemplateService {
                         <p>You're all set to start learning</p>
                     </div>
                     <div class="content">
-                        <h2>Hi %s,</h2>
+                        <h2>Hi {{studentName}},</h2>
                         <p>Congratulations! You have successfully enrolled in your new course. We're excited to be part of your learning journey.</p>
                         
                         <div class="course-info">
                             <h3>📚 Course Details</h3>
-                            <p><strong>Course:</strong> %s</p>
-                            <p><strong>Instructor:</strong> %s</p>
-                            <p><strong>Duration:</strong> %d hours</p>
+                            <p><strong>Course:</strong> {{courseName}}</p>
+                            <p><strong>Instructor:</strong> {{instructorName}}</p>
+                            <p><strong>Duration:</strong> {{courseDuration}} hours</p>
                             <p><strong>Access:</strong> Lifetime access</p>
                         </div>
                         
@@ -133,7 +161,7 @@ public class EmailTemplateService {
                         </ul>
                         
                         <div style="text-align: center;">
-                            <a href="%s/courses/%s" class="button">Start Learning Now</a>
+                            <a href="{{baseUrl}}/courses/{{courseId}}" class="button">Start Learning Now</a>
                         </div>
                         
                         <p>Need help? Our support team is here to assist you. Simply reply to this email or visit our help center.</p>
@@ -147,14 +175,9 @@ public class EmailTemplateService {
                 </div>
             </body>
             </html>
-            """, studentName, courseName, instructorName, courseDuration, getBaseUrl(), courseId);
-    }
+            """;
 
-    public String generatePasswordResetEmail(Map<String, Object> data) {
-        String firstName = (String) data.get("firstName");
-        String resetToken = (String) data.get("resetToken");
-        
-        return String.format("""
+    private static final String PASSWORD_RESET_TEMPLATE = """
             <!DOCTYPE html>
             <html>
             <head>
@@ -163,7 +186,7 @@ public class EmailTemplateService {
                 <style>
                     body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
                     .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: linear-gradient(135deg, #ff6b6b 0%%, #ee5a24 100%%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
+                    .header { background: linear-gradient(135deg, #ff6b6b 0%, #ee5a24 100%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
                     .content { background: #f9f9f9; padding: 30px; border-radius: 0 0 10px 10px; }
                     .warning { background: #fff3cd; border: 1px solid #ffeaa7; padding: 15px; border-radius: 5px; margin: 20px 0; }
                     .button { display: inline-block; background: #ff6b6b; color: white; padding: 12px 30px; text-decoration: none; border-radius: 5px; margin: 20px 0; }
@@ -177,11 +200,11 @@ public class EmailTemplateService {
                         <p>Secure your account</p>
                     </div>
                     <div class="content">
-                        <h2>Hi %s,</h2>
+                        <h2>Hi {{firstName}},</h2>
                         <p>We received a request to reset your password for your Modern LMS account. If you made this request, click the button below to reset your password.</p>
                         
                         <div style="text-align: center;">
-                            <a href="%s/reset-password?token=%s" class="button">Reset Password</a>
+                            <a href="{{baseUrl}}/reset-password?token={{resetToken}}" class="button">Reset Password</a>
                         </div>
                         
                         <div class="warning">
@@ -194,7 +217,7 @@ public class EmailTemplateService {
                         </div>
                         
                         <p>If the button doesn't work, copy and paste this link into your browser:</p>
-                        <p style="word-break: break-all; color: #ff6b6b;">%s/reset-password?token=%s</p>
+                        <p style="word-break: break-all; color: #ff6b6b;">{{baseUrl}}/reset-password?token={{resetToken}}</p>
                         
                         <p>For security reasons, we recommend:</p>
                         <ul>
@@ -214,17 +237,9 @@ public class EmailTemplateService {
                 </div>
             </body>
             </html>
-            """, firstName, getBaseUrl(), resetToken, getBaseUrl(), resetToken);
-    }
+            """;
 
-    public String generateCertificateReadyEmail(Map<String, Object> data) {
-        String studentName = (String) data.get("studentName");
-        String courseName = (String) data.get("courseName");
-        String certificateNumber = (String) data.get("certificateNumber");
-        String instructorName = (String) data.get("instructorName");
-        String completionDate = (String) data.get("completionDate");
-        
-        return String.format("""
+    private static final String CERTIFICATE_READY_TEMPLATE = """
             <!DOCTYPE html>
             <html>
             <head>
@@ -233,7 +248,7 @@ public class EmailTemplateService {
                 <style>
                     body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
                     .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: linear-gradient(135deg, #f39c12 0%%, #e67e22 100%%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
+                    .header { background: linear-gradient(135deg, #f39c12 0%, #e67e22 100%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
                     .content { background: #f9f9f9; padding: 30px; border-radius: 0 0 10px 10px; }
                     .certificate-info { background: white; padding: 20px; border-radius: 8px; margin: 20px 0; border-left: 4px solid #f39c12; }
                     .button { display: inline-block; background: #f39c12; color: white; padding: 12px 30px; text-decoration: none; border-radius: 5px; margin: 20px 0; }
@@ -247,21 +262,21 @@ public class EmailTemplateService {
                         <p>Your certificate is ready</p>
                     </div>
                     <div class="content">
-                        <h2>Hi %s,</h2>
+                        <h2>Hi {{studentName}},</h2>
                         <p>🎉 <strong>Congratulations on completing your course!</strong> We're proud of your dedication and hard work.</p>
                         
                         <div class="certificate-info">
                             <h3>📜 Certificate Details</h3>
-                            <p><strong>Course:</strong> %s</p>
-                            <p><strong>Instructor:</strong> %s</p>
-                            <p><strong>Completion Date:</strong> %s</p>
-                            <p><strong>Certificate Number:</strong> %s</p>
+                            <p><strong>Course:</strong> {{courseName}}</p>
+                            <p><strong>Instructor:</strong> {{instructorName}}</p>
+                            <p><strong>Completion Date:</strong> {{completionDate}}</p>
+                            <p><strong>Certificate Number:</strong> {{certificateNumber}}</p>
                         </div>
                         
                         <p>Your official certificate is now ready for download. This certificate verifies that you have successfully completed all course requirements and demonstrates your new skills and knowledge.</p>
                         
                         <div style="text-align: center;">
-                            <a href="%s/dashboard/certificates" class="button">Download Certificate</a>
+                            <a href="{{baseUrl}}/dashboard/certificates" class="button">Download Certificate</a>
                         </div>
                         
                         <p><strong>Ways to use your certificate:</strong></p>
@@ -283,13 +298,9 @@ public class EmailTemplateService {
                 </div>
             </body>
             </html>
-            """, studentName, courseName, instructorName, completionDate, certificateNumber, getBaseUrl());
-    }
+            """;
 
-    public String generateInstructorApprovedEmail(Map<String, Object> data) {
-        String instructorName = (String) data.get("instructorName");
-        
-        return String.format("""
+    private static final String INSTRUCTOR_APPROVED_TEMPLATE = """
             <!DOCTYPE html>
             <html>
             <head>
@@ -298,7 +309,7 @@ public class EmailTemplateService {
                 <style>
                     body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
                     .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: linear-gradient(135deg, #27ae60 0%%, #2ecc71 100%%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
+                    .header { background: linear-gradient(135deg, #27ae60 0%, #2ecc71 100%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
                     .content { background: #f9f9f9; padding: 30px; border-radius: 0 0 10px 10px; }
                     .button { display: inline-block; background: #27ae60; color: white; padding: 12px 30px; text-decoration: none; border-radius: 5px; margin: 20px 0; }
                     .footer { text-align: center; margin-top: 30px; color: #666; font-size: 14px; }
@@ -311,7 +322,7 @@ public class EmailTemplateService {
                         <p>Your application has been approved</p>
                     </div>
                     <div class="content">
-                        <h2>Hi %s,</h2>
+                        <h2>Hi {{instructorName}},</h2>
                         <p>Excellent news! Your instructor application has been approved. Welcome to the Modern LMS instructor community!</p>
                         
                         <p><strong>As an approved instructor, you can now:</strong></p>
@@ -324,7 +335,7 @@ public class EmailTemplateService {
                         </ul>
                         
                         <div style="text-align: center;">
-                            <a href="%s/instructor/dashboard" class="button">Access Instructor Dashboard</a>
+                            <a href="{{baseUrl}}/instructor/dashboard" class="button">Access Instructor Dashboard</a>
                         </div>
                         
                         <p>We're excited to see the knowledge and expertise you'll share with our learning community. If you need any help getting started, our instructor support team is here to assist you.</p>
@@ -338,6 +349,5 @@ public class EmailTemplateService {
                 </div>
             </body>
             </html>
-            """, instructorName, getBaseUrl());
-    }
+            """;
 }
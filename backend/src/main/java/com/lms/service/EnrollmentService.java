@@ -1,5 +1,7 @@
 package com.lms.service;
 
+import com.lms.dto.common.Cursor;
+import com.lms.dto.common.CursorSlice;
 import com.lms.entity.Course;
 import com.lms.entity.Enrollment;
 
@@ -10,9 +12,13 @@ import com.lms.repository.CourseRepository;
 import com.lms.repository.EnrollmentRepository;
 import com.lms.repository.UserRepository;
 import com.lms.service.messaging.MessagingService;
+import com.lms.service.metrics.EnrollmentCounterService;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,6 +27,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -33,6 +40,8 @@ public class EnrollmentService {
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final MessagingService messagingService;
+    private final PlatformMetricsService platformMetrics;
+    private final EnrollmentCounterService enrollmentCounters;
 
     public Enrollment enrollInCourse(String courseId) {
         User currentUser = getCurrentUser();
@@ -63,10 +72,10 @@ public class EnrollmentService {
         enrollment.setActive(true);
 
         Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+        platformMetrics.increment(PlatformMetric.TOTAL_ENROLLMENTS);
 
         // Update course enrollment count
-        course.setEnrolledCount(course.getEnrolledCount() + 1);
-        courseRepository.save(course);
+        enrollmentCounters.enrolled(course.getId());
 
         log.info("User {} enrolled in course {}", currentUser.getEmail(), course.getTitle());
 
@@ -89,12 +98,14 @@ public class EnrollmentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found"));
 
         // Deactivate enrollment instead of deleting
+        boolean wasActive = enrollment.isActive();
         enrollment.setActive(false);
         enrollmentRepository.save(enrollment);
 
         // Update course enrollment count
-        course.setEnrolledCount(Math.max(0, course.getEnrolledCount() - 1));
-        courseRepository.save(course);
+        if (wasActive) {
+            enrollmentCounters.unenrolled(course.getId());
+        }
 
         log.info("User {} unenrolled from course {}", currentUser.getEmail(), course.getTitle());
     }
@@ -113,6 +124,9 @@ public class EnrollmentService {
 
         // Mark as completed if progress is 100%
         if (progressPercentage.compareTo(new BigDecimal("100")) >= 0) {
+            if (!enrollment.isCompleted()) {
+                platformMetrics.increment(PlatformMetric.COMPLETED_ENROLLMENTS);
+            }
             enrollment.markAsCompleted();
             log.info("Course completed by user {} for course {}",
                     currentUser.getEmail(), enrollment.getCourse().getTitle());
@@ -176,6 +190,21 @@ public class EnrollmentService {
         return enrollmentRepository.findByUserAndIsActiveTrueOrderByEnrolledAtDesc(currentUser, pageable);
     }
 
+    /**
+     * Keyset slice of the current user's active enrollments, newest first, starting after {@code cursor}.
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<Enrollment> scrollUserEnrollments(String cursor, int size) {
+        User currentUser = getCurrentUser();
+        Cursor after = Cursor.decode(cursor);
+        int limit = CursorSlice.clampSize(size);
+        PageRequest rows = PageRequest.of(0, limit + 1);
+        List<Enrollment> enrollments = after == null
+                ? enrollmentRepository.findByUserAndIsActiveTrueOrderByEnrolledAtDescIdDesc(currentUser, rows)
+                : enrollmentRepository.findActiveByUserBefore(currentUser, after.timestamp(), after.id(), rows);
+        return CursorSlice.of(enrollments, limit, Enrollment::getEnrolledAt, Enrollment::getId);
+    }
+
     @Transactional(readOnly = true)
     public Page<Enrollment> getUserCompletedEnrollments(Pageable pageable) {
         User currentUser = getCurrentUser();
@@ -1,12 +1,18 @@
 package com.lms.service;
 
+import com.lms.cache.CacheTagInvalidator;
+import com.lms.cache.CacheTags;
+import com.lms.dto.gradebook.GradingSchemeDto;
 import com.lms.entity.*;
 import com.lms.exception.BadRequestException;
 import com.lms.exception.ResourceNotFoundException;
 import com.lms.repository.*;
+import com.lms.service.gradebook.GradeRecalculationQueue;
+import com.lms.service.gradebook.GradeScale;
+import com.lms.service.gradebook.GradebookRecalculationService;
+import com.lms.service.gradebook.GradingSchemeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,22 +20,25 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GradebookService {
 
+    private static final String GRADEBOOK_CACHE = "gradebook";
+
     private final CourseGradeRepository courseGradeRepository;
     private final GradebookCategoryRepository categoryRepository;
-    private final AssignmentGradeRepository assignmentGradeRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final GradebookRecalculationService recalculationService;
+    private final GradeRecalculationQueue recalculationQueue;
+    private final GradingSchemeService gradingSchemeService;
+    private final CacheTagInvalidator cacheTagInvalidator;
 
     @Transactional
     public GradebookCategory createCategory(String courseId, GradebookCategory category) {
@@ -61,7 +70,6 @@ public class GradebookService {
     }
 
     @Transactional
-    @CacheEvict(value = "gradebook", allEntries = true)
     public GradebookCategory updateCategory(String categoryId, GradebookCategory categoryUpdate) {
         GradebookCategory existingCategory = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
@@ -82,8 +90,8 @@ public class GradebookService {
 
         GradebookCategory savedCategory = categoryRepository.save(existingCategory);
         
-        // Recalculate all course grades for this course
-        recalculateAllCourseGrades(existingCategory.getCourse().getId());
+        // Weights changed: recalculate every grade of the course in the background
+        recalculationQueue.enqueueCourse(existingCategory.getCourse().getId());
         
         log.info("Gradebook category updated: {}", savedCategory.getName());
         
@@ -98,8 +106,35 @@ public class GradebookService {
         return categoryRepository.findByCourseAndIsActiveTrueOrderByCategoryOrderAsc(course);
     }
 
+    @Transactional(readOnly = true)
+    public GradingSchemeDto getGradingScheme(String courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found");
+        }
+        return gradingSchemeService.getScheme(courseId);
+    }
+
+    @Transactional
+    public GradingSchemeDto updateGradingScheme(String courseId, GradingSchemeDto scheme) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
+        
+        User currentUser = getCurrentUser();
+        
+        // Check permissions
+        if (!currentUser.isAdmin() && !course.getInstructor().getId().equals(currentUser.getId())) {
+            throw new BadRequestException("You can only change the grading scheme of your own courses");
+        }
+
+        if (gradingSchemeService.saveScheme(course, scheme)) {
+            // Letters and passing status depend on the scheme
+            recalculationQueue.enqueueCourse(courseId);
+        }
+        
+        return gradingSchemeService.getScheme(courseId);
+    }
+
     @Transactional
-    @CacheEvict(value = "gradebook", allEntries = true)
     public CourseGrade updateCourseGrade(String courseId, String studentId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
@@ -118,11 +153,12 @@ public class GradebookService {
         }
 
         // Calculate weighted grade
-        BigDecimal calculatedGrade = calculateWeightedGrade(course, student);
+        BigDecimal calculatedGrade = recalculationService.computeGrade(course, studentId);
+        GradeScale scale = gradingSchemeService.scaleFor(courseId);
         courseGrade.setCurrentGrade(calculatedGrade);
-        courseGrade.setLetterGrade(calculateLetterGrade(calculatedGrade));
-        courseGrade.setGradePoints(calculateGradePoints(calculatedGrade));
-        courseGrade.setPassing(calculatedGrade.compareTo(BigDecimal.valueOf(60)) >= 0);
+        courseGrade.setLetterGrade(scale.letterGrade(calculatedGrade));
+        courseGrade.setGradePoints(scale.gradePoints(calculatedGrade));
+        courseGrade.setPassing(scale.isPassing(calculatedGrade));
         courseGrade.setLastCalculated(LocalDateTime.now());
 
         // Check if course is complete
@@ -135,6 +171,7 @@ public class GradebookService {
         }
 
         CourseGrade savedGrade = courseGradeRepository.save(courseGrade);
+        cacheTagInvalidator.evictKey(GRADEBOOK_CACHE, CacheTags.courseGradeKey(courseId, studentId));
         
         log.info("Course grade updated for student: {} in course: {} - Grade: {}%", 
                 student.getEmail(), course.getTitle(), calculatedGrade);
@@ -207,6 +244,25 @@ public class GradebookService {
         return stats;
     }
 
+    @Transactional(readOnly = true)
+    public Map<String, Object> getRecalculationStatus(String courseId) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
+        
+        User currentUser = getCurrentUser();
+        
+        // Check permissions
+        if (!currentUser.isAdmin() && !course.getInstructor().getId().equals(currentUser.getId())) {
+            throw new BadRequestException("You can only view grades for your own courses");
+        }
+
+        return recalculationQueue.getCourseStatus(courseId);
+    }
+
+    public Map<String, Object> getRecalculationQueueStatus() {
+        return recalculationQueue.getStatus();
+    }
+
     @Transactional
     public void recalculateAllCourseGrades(String courseId) {
         Course course = courseRepository.findById(courseId)
@@ -219,19 +275,13 @@ public class GradebookService {
             throw new BadRequestException("You can only recalculate grades for your own courses");
         }
 
-        // Get all enrolled students
-        List<Enrollment> enrollments = enrollmentRepository.findByCourse(course);
+        // Computed in bulk from projections and written back in JDBC batches
+        int written = recalculationService.recalculateCourse(course);
         
-        for (Enrollment enrollment : enrollments) {
-            try {
-                updateCourseGrade(courseId, enrollment.getUser().getId());
-            } catch (Exception e) {
-                log.error("Failed to recalculate grade for student: {} in course: {}", 
-                         enrollment.getUser().getEmail(), course.getTitle(), e);
-            }
-        }
-        
-        log.info("Recalculated all course grades for course: {}", course.getTitle());
+        // Drops every cached grade of the course, including students who have since left
+        cacheTagInvalidator.evictTagged(GRADEBOOK_CACHE, CacheTags.course(courseId));
+
+        log.info("Recalculated {} course grades for course: {}", written, course.getTitle());
     }
 
     @Transactional(readOnly = true)
@@ -249,80 +299,6 @@ public class GradebookService {
         return courseGradeRepository.findStudentsNeedingAttention(course, threshold);
     }
 
-    private BigDecimal calculateWeightedGrade(Course course, User student) {
-        List<GradebookCategory> categories = categoryRepository.findByCourseAndIsActiveTrueOrderByCategoryOrderAsc(course);
-        
-        if (categories.isEmpty()) {
-            // No categories, calculate simple average
-            return calculateSimpleAverage(course, student);
-        }
-
-        BigDecimal totalWeightedPoints = BigDecimal.ZERO;
-        BigDecimal totalWeight = BigDecimal.ZERO;
-
-        for (GradebookCategory category : categories) {
-            BigDecimal categoryGrade = calculateCategoryGrade(category, student);
-            if (categoryGrade != null) {
-                BigDecimal weight = category.getWeightPercentage();
-                totalWeightedPoints = totalWeightedPoints.add(categoryGrade.multiply(weight));
-                totalWeight = totalWeight.add(weight);
-            }
-        }
-
-        if (totalWeight.compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
-        }
-
-        return totalWeightedPoints.divide(totalWeight, 2, RoundingMode.HALF_UP);
-    }
-
-    private BigDecimal calculateCategoryGrade(GradebookCategory category, User student) {
-        // Get all assignment grades for this category and student
-        List<Assignment> assignments = category.getAssignments().stream()
-                .filter(Assignment::isPublished)
-                .collect(Collectors.toList());
-
-        if (assignments.isEmpty()) {
-            return null;
-        }
-
-        List<BigDecimal> grades = new ArrayList<>();
-        
-        for (Assignment assignment : assignments) {
-            Optional<AssignmentGrade> gradeOpt = assignmentGradeRepository.findBySubmission(
-                assignment.getSubmissions().stream()
-                    .filter(s -> s.getStudent().getId().equals(student.getId()))
-                    .findFirst()
-                    .orElse(null)
-            );
-            
-            if (gradeOpt.isPresent() && !gradeOpt.get().isExcused()) {
-                grades.add(gradeOpt.get().getPercentage());
-            }
-        }
-
-        if (grades.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-
-        // Apply drop lowest rule
-        if (category.getDropLowest() != null && category.getDropLowest() > 0 && grades.size() > category.getDropLowest()) {
-            grades.sort(BigDecimal::compareTo);
-            for (int i = 0; i < category.getDropLowest() && !grades.isEmpty(); i++) {
-                grades.remove(0); // Remove lowest grade
-            }
-        }
-
-        // Calculate average
-        BigDecimal sum = grades.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-        return sum.divide(BigDecimal.valueOf(grades.size()), 2, RoundingMode.HALF_UP);
-    }
-
-    private BigDecimal calculateSimpleAverage(Course course, User student) {
-        Optional<BigDecimal> average = assignmentGradeRepository.findAverageGradeByStudentAndCourse(student, course.getId());
-        return average.orElse(BigDecimal.ZERO);
-    }
-
     private boolean isStudentCourseComplete(Course course, User student) {
         // Check if student has completed all required assignments
         // This is a simplified check - you might want to add more sophisticated completion criteria
@@ -330,38 +306,6 @@ public class GradebookService {
         return enrollment.isPresent() && enrollment.get().getProgressPercentage().compareTo(BigDecimal.valueOf(100)) >= 0;
     }
 
-    private String calculateLetterGrade(BigDecimal percentage) {
-        if (percentage.compareTo(BigDecimal.valueOf(97)) >= 0) return "A+";
-        if (percentage.compareTo(BigDecimal.valueOf(93)) >= 0) return "A";
-        if (percentage.compareTo(BigDecimal.valueOf(90)) >= 0) return "A-";
-        if (percentage.compareTo(BigDecimal.valueOf(87)) >= 0) return "B+";
-        if (percentage.compareTo(BigDecimal.valueOf(83)) >= 0) return "B";
-        if (percentage.compareTo(BigDecimal.valueOf(80)) >= 0) return "B-";
-        if (percentage.compareTo(BigDecimal.valueOf(77)) >= 0) return "C+";
-        if (percentage.compareTo(BigDecimal.valueOf(73)) >= 0) return "C";
-        if (percentage.compareTo(BigDecimal.valueOf(70)) >= 0) return "C-";
-        if (percentage.compareTo(BigDecimal.valueOf(67)) >= 0) return "D+";
-        if (percentage.compareTo(BigDecimal.valueOf(63)) >= 0) return "D";
-        if (percentage.compareTo(BigDecimal.valueOf(60)) >= 0) return "D-";
-        return "F";
-    }
-
-    private BigDecimal calculateGradePoints(BigDecimal percentage) {
-        if (percentage.compareTo(BigDecimal.valueOf(97)) >= 0) return BigDecimal.valueOf(4.0);
-        if (percentage.compareTo(BigDecimal.valueOf(93)) >= 0) return BigDecimal.valueOf(4.0);
-        if (percentage.compareTo(BigDecimal.valueOf(90)) >= 0) return BigDecimal.valueOf(3.7);
-        if (percentage.compareTo(BigDecimal.valueOf(87)) >= 0) return BigDecimal.valueOf(3.3);
-        if (percentage.compareTo(BigDecimal.valueOf(83)) >= 0) return BigDecimal.valueOf(3.0);
-        if (percentage.compareTo(BigDecimal.valueOf(80)) >= 0) return BigDecimal.valueOf(2.7);
-        if (percentage.compareTo(BigDecimal.valueOf(77)) >= 0) return BigDecimal.valueOf(2.3);
-        if (percentage.compareTo(BigDecimal.valueOf(73)) >= 0) return BigDecimal.valueOf(2.0);
-        if (percentage.compareTo(BigDecimal.valueOf(70)) >= 0) return BigDecimal.valueOf(1.7);
-        if (percentage.compareTo(BigDecimal.valueOf(67)) >= 0) return BigDecimal.valueOf(1.3);
-        if (percentage.compareTo(BigDecimal.valueOf(63)) >= 0) return BigDecimal.valueOf(1.0);
-        if (percentage.compareTo(BigDecimal.valueOf(60)) >= 0) return BigDecimal.valueOf(0.7);
-        return BigDecimal.valueOf(0.0);
-    }
-
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
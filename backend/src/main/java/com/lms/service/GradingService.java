@@ -4,6 +4,7 @@ import com.lms.entity.*;
 import com.lms.exception.BadRequestException;
 import com.lms.exception.ResourceNotFoundException;
 import com.lms.repository.*;
+import com.lms.service.gradebook.GradeRecalculationQueue;
 import com.lms.service.messaging.MessagingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,7 +34,7 @@ public class GradingService {
     private final AssignmentRepository assignmentRepository;
     private final UserRepository userRepository;
     private final MessagingService messagingService;
-    private final GradebookService gradebookService;
+    private final GradeRecalculationQueue gradeRecalculationQueue;
 
     @Transactional
     public AssignmentGrade gradeSubmission(String submissionId, AssignmentGrade grade) {
@@ -87,12 +88,8 @@ public class GradingService {
         log.info("Assignment graded: {} for student: {} with grade: {}%", 
                 submission.getAssignment().getTitle(), submission.getStudent().getEmail(), grade.getPercentage());
 
-        // Update course grade
-        try {
-            gradebookService.updateCourseGrade(submission.getAssignment().getCourse().getId(), submission.getStudent().getId());
-        } catch (Exception e) {
-            log.error("Failed to update course grade", e);
-        }
+        // Course grade is recalculated in the background once grading settles
+        gradeRecalculationQueue.enqueueStudent(submission.getAssignment().getCourse().getId(), submission.getStudent().getId());
 
         return savedGrade;
     }
@@ -140,12 +137,8 @@ public class GradingService {
         log.info("Assignment grade updated: {} for student: {}", 
                 existingGrade.getAssignment().getTitle(), existingGrade.getStudent().getEmail());
 
-        // Update course grade
-        try {
-            gradebookService.updateCourseGrade(existingGrade.getAssignment().getCourse().getId(), existingGrade.getStudent().getId());
-        } catch (Exception e) {
-            log.error("Failed to update course grade", e);
-        }
+        // Course grade is recalculated in the background once grading settles
+        gradeRecalculationQueue.enqueueStudent(existingGrade.getAssignment().getCourse().getId(), existingGrade.getStudent().getId());
 
         return savedGrade;
     }
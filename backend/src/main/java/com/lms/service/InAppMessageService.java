@@ -1,12 +1,17 @@
 package com.lms.service;
 
+import com.lms.dto.common.Cursor;
+import com.lms.dto.common.CursorSlice;
 import com.lms.entity.*;
 import com.lms.exception.ResourceNotFoundException;
 import com.lms.repository.InAppMessageRepository;
 import com.lms.repository.UserRepository;
+import com.lms.service.broadcast.BroadcastInboxService;
+import com.lms.service.broadcast.BroadcastService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -25,6 +30,8 @@ public class InAppMessageService {
 
     private final InAppMessageRepository messageRepository;
     private final UserRepository userRepository;
+    private final BroadcastService broadcastService;
+    private final BroadcastInboxService broadcastInboxService;
 
     /**
      * Send a message to a specific user
@@ -156,57 +163,79 @@ public class InAppMessageService {
     }
 
     /**
-     * Send system announcement to all users
+     * Send system announcement to all users. Delivery runs in the background in chunks;
+     * the returned broadcast reports progress.
      */
     @Transactional
-    public void sendSystemAnnouncement(String subject, String content, InAppMessage.Priority priority,
-                                     String actionUrl, String actionText) {
-        List<User> allUsers = userRepository.findAll();
-        
-        for (User user : allUsers) {
-            sendMessage(
-                user.getId(),
-                subject,
-                content,
-                InAppMessage.MessageType.SYSTEM_ANNOUNCEMENT,
-                priority,
-                null,
-                actionUrl,
-                actionText,
-                null
-            );
-        }
-        
-        log.info("Sent system announcement to {} users: {}", allUsers.size(), subject);
+    public Broadcast sendSystemAnnouncement(String subject, String content, InAppMessage.Priority priority,
+                                          String actionUrl, String actionText, String requestedBy) {
+        return broadcastService.startBroadcast(Broadcast.Channel.IN_APP_MESSAGE, Broadcast.Audience.ALL_USERS,
+                subject, content, priority, actionUrl, actionText, requestedBy);
     }
 
     /**
-     * Get messages for a user
+     * Get messages for a user, including read-time system announcements
      */
     public Page<InAppMessage> getMessagesForUser(String userId, Pageable pageable) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
-        return messageRepository.findByRecipientOrderByCreatedAtDesc(user, pageable);
+        return broadcastInboxService.mergeInbox(user, Broadcast.Channel.IN_APP_MESSAGE, false, pageable,
+                page -> messageRepository.findByRecipientOrderByCreatedAtDesc(user, page),
+                (broadcast, read) -> toMessage(broadcast, user, read), InAppMessage::getCreatedAt);
+    }
+
+    /**
+     * Keyset slice of a user's inbox, including read-time system announcements, newest
+     * first and starting after {@code cursor}
+     */
+    public CursorSlice<InAppMessage> scrollMessagesForUser(String userId, boolean unreadOnly, String cursor, int size) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        
+        return broadcastInboxService.scrollInbox(user, Broadcast.Channel.IN_APP_MESSAGE, unreadOnly,
+                Cursor.decode(cursor), CursorSlice.clampSize(size),
+                (after, limit) -> personalSlice(user, unreadOnly, after, PageRequest.of(0, limit)),
+                (broadcast, read) -> toMessage(broadcast, user, read), InAppMessage::getCreatedAt, InAppMessage::getId);
+    }
+
+    private List<InAppMessage> personalSlice(User user, boolean unreadOnly, Cursor after, Pageable rows) {
+        if (after == null) {
+            return unreadOnly
+                    ? messageRepository.findByRecipientAndIsReadFalseOrderByCreatedAtDescIdDesc(user, rows)
+                    : messageRepository.findByRecipientOrderByCreatedAtDescIdDesc(user, rows);
+        }
+        return unreadOnly
+                ? messageRepository.findUnreadByRecipientBefore(user, after.timestamp(), after.id(), rows)
+                : messageRepository.findByRecipientBefore(user, after.timestamp(), after.id(), rows);
     }
 
     /**
-     * Get unread messages for a user
+     * Get unread messages for a user, including unseen read-time system announcements
      */
     public Page<InAppMessage> getUnreadMessagesForUser(String userId, Pageable pageable) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
-        return messageRepository.findByRecipientAndIsReadFalseOrderByCreatedAtDesc(user, pageable);
+        return broadcastInboxService.mergeInbox(user, Broadcast.Channel.IN_APP_MESSAGE, true, pageable,
+                page -> messageRepository.findByRecipientAndIsReadFalseOrderByCreatedAtDesc(user, page),
+                (broadcast, read) -> toMessage(broadcast, user, read), InAppMessage::getCreatedAt);
     }
 
     /**
-     * Mark message as read
+     * Mark message as read. A read-time announcement id moves the user's announcement
+     * watermark instead.
      */
     @Transactional
     public void markMessageAsRead(String messageId, String userId) {
-        InAppMessage message = messageRepository.findById(messageId)
-                .orElseThrow(() -> new ResourceNotFoundException("Message not found"));
+        InAppMessage message = messageRepository.findById(messageId).orElse(null);
+        if (message == null) {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            broadcastInboxService.markRead(user, Broadcast.Channel.IN_APP_MESSAGE, messageId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Message not found"));
+            return;
+        }
         
         if (!message.getRecipient().getId().equals(userId)) {
             throw new IllegalArgumentException("User not authorized to read this message");
@@ -228,6 +257,7 @@ public class InAppMessageService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
         messageRepository.markAllAsReadForRecipient(user, LocalDateTime.now());
+        broadcastInboxService.markAllRead(user, Broadcast.Channel.IN_APP_MESSAGE);
         log.info("Marked all messages as read for user {}", userId);
     }
 
@@ -238,7 +268,8 @@ public class InAppMessageService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
-        return messageRepository.countUnreadMessages(user);
+        return messageRepository.countUnreadMessages(user)
+                + broadcastInboxService.countUnread(user, Broadcast.Channel.IN_APP_MESSAGE);
     }
 
     /**
@@ -261,8 +292,10 @@ public class InAppMessageService {
         Object[] stats = messageRepository.getMessageStatistics(user);
         
         return new MessageStatistics(
-            ((Number) stats[0]).longValue(), // total
-            ((Number) stats[1]).longValue(), // unread
+            ((Number) stats[0]).longValue()
+                + broadcastInboxService.countVisible(user, Broadcast.Channel.IN_APP_MESSAGE), // total
+            ((Number) stats[1]).longValue()
+                + broadcastInboxService.countUnread(user, Broadcast.Channel.IN_APP_MESSAGE), // unread
             ((Number) stats[2]).longValue(), // high priority
             ((Number) stats[3]).longValue()  // with actions
         );
@@ -283,6 +316,24 @@ public class InAppMessageService {
         }
     }
 
+    // Transient view of a read-time announcement; carries the broadcast id
+    private static InAppMessage toMessage(Broadcast broadcast, User recipient, boolean read) {
+        InAppMessage message = new InAppMessage();
+        message.setId(broadcast.getId());
+        message.setRecipient(recipient);
+        message.setSubject(broadcast.getTitle());
+        message.setContent(broadcast.getContent());
+        message.setType(InAppMessage.MessageType.SYSTEM_ANNOUNCEMENT);
+        message.setPriority(broadcast.getPriority() != null ? broadcast.getPriority() : InAppMessage.Priority.NORMAL);
+        message.setRead(read);
+        message.setCreatedAt(broadcast.getCreatedAt());
+        message.setExpiresAt(broadcast.getExpiresAt());
+        message.setActionUrl(broadcast.getActionUrl());
+        message.setActionText(broadcast.getActionText());
+        message.setMetadata(new HashMap<>());
+        return message;
+    }
+
     /**
      * Message statistics class
      */
@@ -1,11 +1,15 @@
 package com.lms.service;
 
+import com.lms.entity.Broadcast;
 import com.lms.entity.Notification;
 import com.lms.entity.User;
 import com.lms.exception.BadRequestException;
 import com.lms.exception.ResourceNotFoundException;
 import com.lms.repository.NotificationRepository;
 import com.lms.repository.UserRepository;
+import com.lms.service.broadcast.BroadcastInboxService;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -26,17 +30,23 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final PlatformMetricsService platformMetrics;
+    private final BroadcastInboxService broadcastInboxService;
 
     @Transactional(readOnly = true)
     public Page<Notification> getUserNotifications(Pageable pageable) {
         User currentUser = getCurrentUser();
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId(), pageable);
+        return broadcastInboxService.mergeInbox(currentUser, Broadcast.Channel.NOTIFICATION, false, pageable,
+                page -> notificationRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId(), page),
+                (broadcast, read) -> toNotification(broadcast, currentUser, read), Notification::getCreatedAt);
     }
 
     @Transactional(readOnly = true)
     public Page<Notification> getUserUnreadNotifications(Pageable pageable) {
         User currentUser = getCurrentUser();
-        return notificationRepository.findByUserIdAndReadFalseOrderByCreatedAtDesc(currentUser.getId(), pageable);
+        return broadcastInboxService.mergeInbox(currentUser, Broadcast.Channel.NOTIFICATION, true, pageable,
+                page -> notificationRepository.findByUserIdAndReadFalseOrderByCreatedAtDesc(currentUser.getId(), page),
+                (broadcast, read) -> toNotification(broadcast, currentUser, read), Notification::getCreatedAt);
     }
 
     @Transactional(readOnly = true)
@@ -48,13 +58,15 @@ public class NotificationService {
     @Transactional(readOnly = true)
     public long getUserNotificationCount() {
         User currentUser = getCurrentUser();
-        return notificationRepository.countByUserId(currentUser.getId());
+        return notificationRepository.countByUserId(currentUser.getId())
+                + broadcastInboxService.countVisible(currentUser, Broadcast.Channel.NOTIFICATION);
     }
 
     @Transactional(readOnly = true)
     public long getUserUnreadNotificationCount() {
         User currentUser = getCurrentUser();
-        return notificationRepository.countByUserIdAndReadFalse(currentUser.getId());
+        return notificationRepository.countByUserIdAndReadFalse(currentUser.getId())
+                + broadcastInboxService.countUnread(currentUser, Broadcast.Channel.NOTIFICATION);
     }
 
     @Transactional(readOnly = true)
@@ -64,8 +76,14 @@ public class NotificationService {
     }
 
     public Notification markAsRead(String notificationId) {
-        Notification notification = getNotificationById(notificationId);
         User currentUser = getCurrentUser();
+        Notification notification = notificationRepository.findById(notificationId).orElse(null);
+        if (notification == null) {
+            // Read-time announcements have no row of their own; move the watermark instead
+            return broadcastInboxService.markRead(currentUser, Broadcast.Channel.NOTIFICATION, notificationId)
+                    .map(broadcast -> toNotification(broadcast, currentUser, true))
+                    .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
+        }
 
         // Check if user owns this notification
         if (!notification.getUserId().equals(currentUser.getId())) {
@@ -84,6 +102,7 @@ public class NotificationService {
     public void markAllAsRead() {
         User currentUser = getCurrentUser();
         notificationRepository.markAllAsReadByUserId(currentUser.getId(), LocalDateTime.now());
+        broadcastInboxService.markAllRead(currentUser, Broadcast.Channel.NOTIFICATION);
         log.info("All notifications marked as read for user: {}", currentUser.getEmail());
     }
 
@@ -146,12 +165,27 @@ public class NotificationService {
         try {
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30); // Keep notifications for 30 days
             notificationRepository.deleteOldReadNotifications(cutoffDate);
+            // Bulk delete bypasses the incremental counter, so recount once
+            platformMetrics.reconcile(PlatformMetric.TOTAL_NOTIFICATIONS);
             log.info("Cleaned up old read notifications older than {}", cutoffDate);
         } catch (Exception e) {
             log.error("Failed to cleanup old notifications", e);
         }
     }
 
+    // Transient view of a read-time announcement; carries the broadcast id
+    private static Notification toNotification(Broadcast broadcast, User user, boolean read) {
+        Notification notification = new Notification();
+        notification.setId(broadcast.getId());
+        notification.setUserId(user.getId());
+        notification.setTitle(broadcast.getTitle());
+        notification.setMessage(broadcast.getContent());
+        notification.setType(Notification.NotificationType.SYSTEM_ANNOUNCEMENT);
+        notification.setRead(read);
+        notification.setCreatedAt(broadcast.getCreatedAt());
+        return notification;
+    }
+
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
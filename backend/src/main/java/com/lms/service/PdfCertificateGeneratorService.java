@@ -1,75 +1,98 @@
 package com.lms.service;
 
 import com.lms.entity.Certificate;
+import com.lms.service.certificate.CertificateRenderingEngine;
+import com.lms.service.certificate.CertificateStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
-import org.xhtmlrenderer.pdf.ITextRenderer;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
-import java.util.Locale;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PdfCertificateGeneratorService {
 
-    private final TemplateEngine templateEngine;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMMM dd, yyyy");
 
-    @Value("${app.certificate.storage-path:./certificates}")
-    private String certificateStoragePath;
+    private final CertificateRenderingEngine renderingEngine;
+    private final CertificateStorageService storageService;
 
     @Value("${app.certificate.template:certificate-template}")
     private String certificateTemplate;
 
+    @Value("${app.certificate.rendering.timeout:2m}")
+    private Duration renderTimeout;
+
     public String generateCertificate(Certificate certificate, String fileName) throws IOException {
-        // Ensure storage directory exists
-        Path storagePath = Paths.get(certificateStoragePath);
-        if (!Files.exists(storagePath)) {
-            Files.createDirectories(storagePath);
+        CompletableFuture<String> rendering = renderCertificate(certificate, fileName);
+        try {
+            // The rendering engine fails the render once it exceeds its deadline
+            return rendering.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IOException("Certificate PDF not rendered within " + renderTimeout, e.getCause());
+            }
+            log.error("Failed to generate PDF from HTML", e.getCause());
+            throw new IOException("Failed to generate PDF", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering certificate PDF", e);
         }
-
-        // Prepare template context
-        Context context = new Context(Locale.ENGLISH);
-        context.setVariable("certificate", certificate);
-        context.setVariable("studentName", certificate.getUser().getFullName());
-        context.setVariable("courseName", certificate.getCourse().getTitle());
-        context.setVariable("instructorName", certificate.getCourse().getInstructor().getFullName());
-        context.setVariable("certificateNumber", certificate.getCertificateNumber());
-        context.setVariable("issueDate", certificate.getIssuedAt().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy")));
-        context.setVariable("completionDate", certificate.getEnrollment().getCompletedAt().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy")));
-        context.setVariable("courseDuration", formatDuration(certificate.getCourse().getDurationMinutes()));
-
-        // Generate HTML from template
-        String htmlContent = templateEngine.process(certificateTemplate, context);
-
-        // Convert HTML to PDF
-        String filePath = Paths.get(certificateStoragePath, fileName).toString();
-        generatePdfFromHtml(htmlContent, filePath);
-
-        log.info("Certificate PDF generated: {}", filePath);
-        return filePath;
     }
 
-    private void generatePdfFromHtml(String htmlContent, String outputPath) throws IOException {
-        try (FileOutputStream outputStream = new FileOutputStream(outputPath)) {
-            ITextRenderer renderer = new ITextRenderer();
-            renderer.setDocumentFromString(htmlContent);
-            renderer.layout();
-            renderer.createPDF(outputStream);
-        } catch (Exception e) {
-            log.error("Failed to generate PDF from HTML", e);
-            throw new IOException("Failed to generate PDF", e);
-        }
+    /**
+     * Queues the certificate on the rendering pool without waiting. The certificate's
+     * associations are read before this returns, so the caller's session may close while
+     * the PDF renders. Completes with the path of the stored, content-addressed file, or
+     * fails with a {@link TimeoutException} once the render exceeds its deadline; a render
+     * that fails or is cancelled stores nothing.
+     */
+    public CompletableFuture<String> renderCertificate(Certificate certificate, String fileName) {
+        // Template variables are resolved here, where the certificate's lazy associations can still load
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("studentName", certificate.getUser().getFullName());
+        variables.put("courseName", certificate.getCourse().getTitle());
+        variables.put("instructorName", certificate.getCourse().getInstructor().getFullName());
+        variables.put("certificateNumber", certificate.getCertificateNumber());
+        variables.put("issueDate", certificate.getIssuedAt().format(DATE_FORMAT));
+        variables.put("completionDate", certificate.getEnrollment().getCompletedAt().format(DATE_FORMAT));
+        variables.put("courseDuration", formatDuration(certificate.getCourse().getDurationMinutes()));
+
+        Path staged = storageService.stagingPath(fileName);
+        CompletableFuture<CertificateRenderingEngine.RenderTimings> rendering =
+                renderingEngine.render(certificateTemplate, variables, staged);
+        CompletableFuture<String> storing = rendering.thenApply(timings -> {
+            Path stored;
+            try {
+                stored = storageService.store(staged);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to store certificate " + fileName, e);
+            }
+            log.info("Certificate PDF generated: {} as {} in {} ms (queue {}, template {}, layout {}, pdf {})",
+                    fileName, stored.getFileName(), timings.total().toMillis(), timings.queued().toMillis(),
+                    timings.template().toMillis(), timings.layout().toMillis(), timings.pdf().toMillis());
+            return stored.toString();
+        });
+        // Cancelling the stored file cancels the render, which then skips or discards the PDF
+        storing.whenComplete((path, e) -> {
+            if (storing.isCancelled()) {
+                rendering.cancel(false);
+            }
+        });
+        return storing;
     }
 
     private String formatDuration(Integer durationMinutes) {
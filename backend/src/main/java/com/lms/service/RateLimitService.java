@@ -67,8 +67,7 @@ public class RateLimitService {
     public Duration getTimeUntilRefill(String type, String key) {
         try {
             Bucket bucket = rateLimitConfig.getBucket(type, key);
-            ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(0);
-            return Duration.ofNanos(probe.getNanosToWaitForRefill());
+            return Duration.ofNanos(bucket.estimateAbilityToConsume(1).getNanosToWaitForRefill());
         } catch (Exception e) {
             log.error("Error getting refill time for {}:{}", type, key, e);
             return Duration.ZERO;
@@ -182,10 +181,11 @@ public class RateLimitService {
      */
     public RateLimitInfo getRateLimitInfo(String type, String key) {
         try {
+            // Neither call consumes a token; the wait is zero while a request would still pass
             Bucket bucket = rateLimitConfig.getBucket(type, key);
             long remaining = bucket.getAvailableTokens();
-            Duration resetTime = getTimeUntilRefill(type, key);
-            
+            Duration resetTime = Duration.ofNanos(bucket.estimateAbilityToConsume(1).getNanosToWaitForRefill());
+
             return new RateLimitInfo(remaining, resetTime);
         } catch (Exception e) {
             log.error("Error getting rate limit info for {}:{}", type, key, e);
@@ -12,7 +12,10 @@ import com.lms.exception.ResourceNotFoundException;
 import com.lms.exception.UserAlreadyExistsException;
 import com.lms.mapper.UserMapper;
 import com.lms.repository.UserRepository;
+import com.lms.security.TokenRevocationService;
 import com.lms.security.UserPrincipal;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -41,6 +44,8 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final CloudinaryService cloudinaryService;
     private final EmailService emailService;
+    private final PlatformMetricsService platformMetrics;
+    private final TokenRevocationService tokenRevocationService;
 
     public UserProfileDto getCurrentUserProfile() {
         User user = getCurrentUser();
@@ -119,6 +124,7 @@ public class UserService {
         // Update password
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        tokenRevocationService.revokeTokens(user.getId());
         
         log.info("Password changed for user: {}", user.getEmail());
     }
@@ -167,6 +173,8 @@ public class UserService {
         user.setVerificationToken(UUID.randomUUID().toString());
 
         User savedUser = userRepository.save(user);
+        platformMetrics.increment(PlatformMetric.TOTAL_USERS);
+        platformMetrics.increment(PlatformMetric.ACTIVE_USERS);
 
         // Send welcome email
         emailService.sendWelcomeEmail(savedUser);
@@ -202,6 +210,7 @@ public class UserService {
             }
             user.setEmail(userDto.getEmail());
             user.setEmailVerified(false); // Reset email verification
+            tokenRevocationService.revokeTokens(userId);
         }
 
         User savedUser = userRepository.save(user);
@@ -234,6 +243,7 @@ public class UserService {
         
         instructor.setApproved(request.getApproved());
         User savedInstructor = userRepository.save(instructor);
+        tokenRevocationService.revokeTokens(instructor.getId());
         
         // Send notification email
         if (request.getApproved()) {
@@ -255,6 +265,8 @@ public class UserService {
         
         user.setEnabled(!user.isEnabled());
         userRepository.save(user);
+        platformMetrics.add(PlatformMetric.ACTIVE_USERS, user.isEnabled() ? 1 : -1);
+        tokenRevocationService.revokeTokens(userId);
         
         log.info("User {} status changed to: {}", user.getEmail(), 
                 user.isEnabled() ? "enabled" : "disabled");
@@ -275,6 +287,11 @@ public class UserService {
         }
         
         userRepository.delete(user);
+        platformMetrics.decrement(PlatformMetric.TOTAL_USERS);
+        if (user.isEnabled()) {
+            platformMetrics.decrement(PlatformMetric.ACTIVE_USERS);
+        }
+        tokenRevocationService.revokeTokens(userId);
         log.info("User deleted: {}", user.getEmail());
     }
 
@@ -0,0 +1,248 @@
+package com.lms.service.broadcast;
+
+import com.lms.dto.common.Cursor;
+import com.lms.dto.common.CursorSlice;
+import com.lms.entity.Broadcast;
+import com.lms.entity.User;
+import com.lms.repository.BroadcastRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Merges read-time broadcasts into user inboxes.
+ *
+ * <p>A broadcast with {@link Broadcast.Delivery#READ} delivery is stored once and never
+ * copied per user. Each user instead has one read watermark per channel: every broadcast
+ * created at or before it counts as read. Marking a single broadcast read moves the
+ * watermark to that broadcast, which also marks the older ones read; that is the price of
+ * keeping per-user state to one row. Users only see broadcasts created after they
+ * registered, matching what a write-time fan-out would have delivered to them.
+ *
+ * <p>An inbox page is built from the newest {@code offset + size} rows of both sources, so
+ * a page costs the same as before plus one bounded broadcast query. When no read-time
+ * broadcast is visible the personal query runs unchanged.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BroadcastInboxService {
+
+    private static final String SELECT_WATERMARK_SQL =
+            "SELECT last_seen_at FROM broadcast_watermarks WHERE user_id = ? AND channel = ?";
+
+    // Never moves backwards, so concurrent marks from several tabs settle on the newest
+    private static final String UPSERT_WATERMARK_SQL =
+            "INSERT INTO broadcast_watermarks (user_id, channel, last_seen_at) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE last_seen_at = GREATEST(last_seen_at, VALUES(last_seen_at))";
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 2, 0, 0);
+
+    private final BroadcastRepository broadcastRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the inbox item shown for a broadcast.
+     */
+    @FunctionalInterface
+    public interface ItemFactory<T> {
+        T create(Broadcast broadcast, boolean read);
+    }
+
+    /**
+     * One page of the user's inbox: personal rows from {@code personal} merged with the
+     * visible broadcasts of the channel, newest first.
+     *
+     * @param personal  runs the personal inbox query for a page; must order newest first
+     * @param createdAt creation time of an item, used for the merge order
+     */
+    @Transactional(readOnly = true)
+    public <T> Page<T> mergeInbox(User user, Broadcast.Channel channel, boolean unreadOnly, Pageable pageable,
+                                  Function<Pageable, Page<T>> personal, ItemFactory<T> items,
+                                  Function<T, LocalDateTime> createdAt) {
+        if (pageable.isUnpaged()) {
+            return personal.apply(pageable);
+        }
+
+        LocalDateTime watermark = watermark(user.getId(), channel);
+        LocalDateTime after = unreadOnly ? later(visibleAfter(user), watermark) : visibleAfter(user);
+        LocalDateTime now = LocalDateTime.now();
+        long broadcastTotal = broadcastRepository.countInbox(Broadcast.Delivery.READ, channel,
+                Broadcast.Status.COMPLETED, after, now);
+        if (broadcastTotal == 0) {
+            return personal.apply(pageable);
+        }
+
+        int window = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        Page<T> personalPrefix = personal.apply(PageRequest.of(0, window));
+        List<T> broadcasts = new ArrayList<>();
+        for (Broadcast broadcast : broadcastRepository.findInbox(Broadcast.Delivery.READ, channel,
+                Broadcast.Status.COMPLETED, after, now, PageRequest.of(0, window))) {
+            broadcasts.add(items.create(broadcast, isRead(broadcast, watermark)));
+        }
+
+        List<T> merged = mergeNewestFirst(personalPrefix.getContent(), broadcasts, createdAt);
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(from + pageable.getPageSize(), merged.size());
+        return new PageImpl<>(new ArrayList<>(merged.subList(from, to)), pageable,
+                personalPrefix.getTotalElements() + broadcastTotal);
+    }
+
+    /**
+     * Reads up to {@code limit} personal inbox rows, newest first, strictly after the cursor;
+     * a null cursor starts from the newest row.
+     */
+    public interface PersonalSlice<T> {
+        List<T> read(Cursor after, int limit);
+    }
+
+    /**
+     * One keyset slice of the user's inbox: personal rows and visible broadcasts after the
+     * cursor, merged newest first by creation time and then id. Each source reads at most
+     * {@code size + 1} rows and nothing is counted, so deep slices cost the same as the first.
+     */
+    @Transactional(readOnly = true)
+    public <T> CursorSlice<T> scrollInbox(User user, Broadcast.Channel channel, boolean unreadOnly, Cursor cursor,
+                                          int size, PersonalSlice<T> personal, ItemFactory<T> items,
+                                          Function<T, LocalDateTime> createdAt, Function<T, String> id) {
+        List<T> rows = new ArrayList<>(personal.read(cursor, size + 1));
+
+        LocalDateTime watermark = watermark(user.getId(), channel);
+        LocalDateTime after = unreadOnly ? later(visibleAfter(user), watermark) : visibleAfter(user);
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Broadcast> broadcasts = cursor == null
+                ? broadcastRepository.findInbox(Broadcast.Delivery.READ, channel, Broadcast.Status.COMPLETED,
+                        after, now, limit)
+                : broadcastRepository.findInboxBefore(Broadcast.Delivery.READ, channel, Broadcast.Status.COMPLETED,
+                        after, now, cursor.timestamp(), cursor.id(), limit);
+        if (broadcasts.isEmpty()) {
+            return CursorSlice.of(rows, size, createdAt, id);
+        }
+
+        for (Broadcast broadcast : broadcasts) {
+            rows.add(items.create(broadcast, isRead(broadcast, watermark)));
+        }
+        // Same order as the queries, so the last row of the slice is a valid cursor for both
+        rows.sort(Comparator.comparing(createdAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+                .thenComparing(id, Comparator.reverseOrder()));
+        return CursorSlice.of(rows.subList(0, Math.min(rows.size(), size + 1)), size, createdAt, id);
+    }
+
+    /**
+     * Number of read-time broadcasts of the channel visible to the user.
+     */
+    @Transactional(readOnly = true)
+    public long countVisible(User user, Broadcast.Channel channel) {
+        return broadcastRepository.countInbox(Broadcast.Delivery.READ, channel, Broadcast.Status.COMPLETED,
+                visibleAfter(user), LocalDateTime.now());
+    }
+
+    /**
+     * Number of visible broadcasts of the channel past the user's watermark.
+     */
+    @Transactional(readOnly = true)
+    public long countUnread(User user, Broadcast.Channel channel) {
+        LocalDateTime after = later(visibleAfter(user), watermark(user.getId(), channel));
+        return broadcastRepository.countInbox(Broadcast.Delivery.READ, channel, Broadcast.Status.COMPLETED,
+                after, LocalDateTime.now());
+    }
+
+    /**
+     * Marks a read-time broadcast read by moving the user's watermark up to it.
+     *
+     * @return the broadcast, or empty if the id is not a broadcast visible in this inbox
+     */
+    @Transactional
+    public Optional<Broadcast> markRead(User user, Broadcast.Channel channel, String broadcastId) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Broadcast> broadcast = broadcastRepository.findById(broadcastId)
+                .filter(b -> b.getDelivery() == Broadcast.Delivery.READ
+                        && b.getChannel() == channel
+                        && b.getStatus() == Broadcast.Status.COMPLETED
+                        && b.getCreatedAt() != null
+                        && b.getCreatedAt().isAfter(visibleAfter(user))
+                        && (b.getExpiresAt() == null || b.getExpiresAt().isAfter(now)));
+        broadcast.ifPresent(b -> advance(user.getId(), channel, b.getCreatedAt()));
+        return broadcast;
+    }
+
+    /**
+     * Marks every broadcast of the channel created so far as read.
+     */
+    @Transactional
+    public void markAllRead(User user, Broadcast.Channel channel) {
+        advance(user.getId(), channel, LocalDateTime.now());
+    }
+
+    /**
+     * The user's watermark for the channel, or {@code null} if they never marked anything.
+     */
+    LocalDateTime watermark(String userId, Broadcast.Channel channel) {
+        List<Timestamp> rows = jdbcTemplate.queryForList(SELECT_WATERMARK_SQL, Timestamp.class, userId, channel.name());
+        return rows.isEmpty() || rows.get(0) == null ? null : rows.get(0).toLocalDateTime();
+    }
+
+    private void advance(String userId, Broadcast.Channel channel, LocalDateTime seenUntil) {
+        // Stored at second precision like created_at; never rounded up past a newer broadcast
+        Timestamp lastSeenAt = Timestamp.valueOf(seenUntil.truncatedTo(ChronoUnit.SECONDS));
+        jdbcTemplate.update(UPSERT_WATERMARK_SQL, userId, channel.name(), lastSeenAt);
+        log.debug("Broadcast watermark for user {} on {} moved to {}", userId, channel, lastSeenAt);
+    }
+
+    private static boolean isRead(Broadcast broadcast, LocalDateTime watermark) {
+        return watermark != null && broadcast.getCreatedAt() != null && !broadcast.getCreatedAt().isAfter(watermark);
+    }
+
+    // Broadcasts created in the second of registration still count
+    private static LocalDateTime visibleAfter(User user) {
+        return user.getCreatedAt() != null
+                ? user.getCreatedAt().truncatedTo(ChronoUnit.SECONDS).minusSeconds(1)
+                : BEGINNING;
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * Merges two lists that are each ordered newest first. On equal timestamps personal
+     * items come first; items without a timestamp sort last.
+     */
+    static <T> List<T> mergeNewestFirst(List<T> personal, List<T> broadcasts, Function<T, LocalDateTime> createdAt) {
+        List<T> merged = new ArrayList<>(personal.size() + broadcasts.size());
+        int i = 0;
+        int j = 0;
+        while (i < personal.size() && j < broadcasts.size()) {
+            LocalDateTime left = createdAt.apply(personal.get(i));
+            LocalDateTime right = createdAt.apply(broadcasts.get(j));
+            if (right == null || (left != null && !left.isBefore(right))) {
+                merged.add(personal.get(i++));
+            } else {
+                merged.add(broadcasts.get(j++));
+            }
+        }
+        while (i < personal.size()) {
+            merged.add(personal.get(i++));
+        }
+        while (j < broadcasts.size()) {
+            merged.add(broadcasts.get(j++));
+        }
+        return merged;
+    }
+}
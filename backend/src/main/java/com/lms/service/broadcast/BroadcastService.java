@@ -0,0 +1,337 @@
+package com.lms.service.broadcast;
+
+import com.lms.dto.messaging.NotificationBatchMessage;
+import com.lms.dto.messaging.NotificationMessage;
+import com.lms.entity.Broadcast;
+import com.lms.entity.InAppMessage;
+import com.lms.exception.BadRequestException;
+import com.lms.exception.ResourceNotFoundException;
+import com.lms.repository.BroadcastRepository;
+import com.lms.repository.UserRepository;
+import com.lms.service.messaging.MessageProducerService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans a system broadcast out to every user without holding the audience in memory.
+ *
+ * <p>Recipients are read as bare ids in keyset-ordered chunks ({@code id > lastRecipientId}).
+ * Each chunk is delivered in one go, a JDBC batch insert for in-app messages or a single
+ * batch message for notifications, and then checkpointed on the broadcast row. A broadcast
+ * is owned by one node at a time through a heartbeat; if the owner dies, the resume sweep
+ * on any node claims it again and continues after the last checkpoint. Row ids are derived
+ * from the broadcast and user ids, so re-delivering the chunk in flight at a crash is
+ * harmless.
+ *
+ * <p>With {@code app.broadcast.delivery: read} nothing is fanned out: the broadcast row is
+ * stored as completed and {@link BroadcastInboxService} merges it into inbox queries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BroadcastService {
+
+    private static final List<Broadcast.Status> UNFINISHED =
+            List.of(Broadcast.Status.PENDING, Broadcast.Status.RUNNING);
+
+    private static final String INSERT_MESSAGE_SQL =
+            "INSERT IGNORE INTO in_app_messages (id, recipient_id, subject, content, type, priority, is_read, " +
+            "created_at, expires_at, action_url, action_text) VALUES (?, ?, ?, ?, ?, ?, false, ?, ?, ?, ?)";
+
+    private final BroadcastRepository broadcastRepository;
+    private final UserRepository userRepository;
+    private final MessageProducerService messageProducerService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.broadcast.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.broadcast.workers:2}")
+    private int workers;
+
+    @Value("${app.broadcast.stale-after:2m}")
+    private Duration staleAfter;
+
+    @Value("${app.broadcast.message-ttl:30d}")
+    private Duration messageTtl;
+
+    @Value("${app.broadcast.delivery:read}")
+    private Broadcast.Delivery delivery;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService executor;
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        AtomicLong counter = new AtomicLong();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "broadcast-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished broadcasts are picked up again from their checkpoint
+        executor.shutdownNow();
+    }
+
+    /**
+     * Records the broadcast and, with write-time delivery, starts fanning it out once the
+     * surrounding transaction commits. Returns immediately; progress is available through
+     * {@link #getBroadcast}.
+     */
+    @Transactional
+    public Broadcast startBroadcast(Broadcast.Channel channel, Broadcast.Audience audience,
+                                    String title, String content, InAppMessage.Priority priority,
+                                    String actionUrl, String actionText, String requestedBy) {
+        if (title == null || title.isBlank() || content == null || content.isBlank()) {
+            throw new BadRequestException("Broadcast title and content are required");
+        }
+
+        Broadcast broadcast = new Broadcast();
+        broadcast.setId(UUID.randomUUID().toString());
+        broadcast.setChannel(channel);
+        broadcast.setAudience(audience);
+        broadcast.setTitle(title);
+        broadcast.setContent(content);
+        broadcast.setPriority(priority != null ? priority : InAppMessage.Priority.NORMAL);
+        broadcast.setActionUrl(actionUrl);
+        broadcast.setActionText(actionText);
+        broadcast.setRequestedBy(requestedBy);
+        broadcast.setDelivery(delivery);
+        broadcast.setExpiresAt(LocalDateTime.now().plus(messageTtl));
+        broadcast.setTotalRecipients(audience == Broadcast.Audience.ENABLED_USERS
+                ? userRepository.countByIsEnabledTrue()
+                : userRepository.count());
+
+        if (delivery == Broadcast.Delivery.READ) {
+            // Visible in every inbox as soon as the row commits
+            LocalDateTime now = LocalDateTime.now();
+            broadcast.setStatus(Broadcast.Status.COMPLETED);
+            broadcast.setProcessedRecipients(broadcast.getTotalRecipients());
+            broadcast.setStartedAt(now);
+            broadcast.setCompletedAt(now);
+            Broadcast saved = broadcastRepository.save(broadcast);
+            log.info("Broadcast {} published for read-time delivery via {}", saved.getId(), channel);
+            return saved;
+        }
+
+        broadcast.setStatus(Broadcast.Status.PENDING);
+        Broadcast saved = broadcastRepository.save(broadcast);
+
+        String id = saved.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(id);
+                }
+            });
+        } else {
+            submit(id);
+        }
+
+        log.info("Broadcast {} queued for about {} recipients via {}", id, saved.getTotalRecipients(), channel);
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public Broadcast getBroadcast(String broadcastId) {
+        return broadcastRepository.findById(broadcastId)
+                .orElseThrow(() -> new ResourceNotFoundException("Broadcast not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Broadcast> getBroadcasts(Pageable pageable) {
+        return broadcastRepository.findAllByOrderByCreatedAtDesc(pageable);
+    }
+
+    /**
+     * Restarts a failed broadcast from its last checkpoint.
+     */
+    @Transactional
+    public Broadcast resumeBroadcast(String broadcastId) {
+        Broadcast broadcast = getBroadcast(broadcastId);
+        if (broadcast.getStatus() == Broadcast.Status.COMPLETED) {
+            throw new BadRequestException("Broadcast has already completed");
+        }
+        if (broadcast.getStatus() == Broadcast.Status.FAILED) {
+            broadcast.setStatus(Broadcast.Status.PENDING);
+            broadcast.setOwnerNode(null);
+            broadcast.setHeartbeatAt(null);
+        }
+        Broadcast saved = broadcastRepository.save(broadcast);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(broadcastId);
+            }
+        });
+        return saved;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        resumeAbandoned();
+    }
+
+    @Scheduled(fixedDelayString = "${app.broadcast.resume-interval:60000}",
+               initialDelayString = "${app.broadcast.resume-interval:60000}")
+    public void resumeAbandoned() {
+        try {
+            LocalDateTime staleBefore = LocalDateTime.now().minus(staleAfter);
+            for (String id : broadcastRepository.findAbandonedIds(UNFINISHED, staleBefore)) {
+                submit(id);
+            }
+        } catch (Exception e) {
+            log.error("Failed to look for abandoned broadcasts", e);
+        }
+    }
+
+    private void submit(String broadcastId) {
+        if (!running.add(broadcastId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(broadcastId);
+                } finally {
+                    running.remove(broadcastId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.remove(broadcastId);
+            log.warn("Broadcast {} not started, executor is shut down", broadcastId);
+        }
+    }
+
+    private void run(String broadcastId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (broadcastRepository.claim(broadcastId, nodeId, now, now.minus(staleAfter),
+                Broadcast.Status.RUNNING, UNFINISHED) == 0) {
+            return;
+        }
+        Broadcast broadcast = broadcastRepository.findById(broadcastId).orElse(null);
+        if (broadcast == null) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        String cursor = broadcast.getLastRecipientId() != null ? broadcast.getLastRecipientId() : "";
+        long delivered = broadcast.getProcessedRecipients();
+        log.info("Broadcast {} running from recipient {} ({} already delivered)",
+                broadcastId, cursor.isEmpty() ? "start" : cursor, delivered);
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<String> recipientIds = nextChunk(broadcast.getAudience(), cursor);
+                if (recipientIds.isEmpty()) {
+                    broadcastRepository.finish(broadcastId, nodeId, Broadcast.Status.COMPLETED, null, LocalDateTime.now());
+                    log.info("Broadcast {} completed: {} recipients in {} ms",
+                            broadcastId, delivered, (System.nanoTime() - started) / 1_000_000);
+                    return;
+                }
+
+                String last = recipientIds.get(recipientIds.size() - 1);
+                if (!deliver(broadcast, recipientIds, last)) {
+                    log.warn("Broadcast {} was taken over by another node", broadcastId);
+                    return;
+                }
+                cursor = last;
+                delivered += recipientIds.size();
+                log.debug("Broadcast {}: {} recipients delivered", broadcastId, delivered);
+            }
+        } catch (Exception e) {
+            log.error("Broadcast {} failed after {} recipients", broadcastId, delivered, e);
+            broadcastRepository.finish(broadcastId, nodeId, Broadcast.Status.FAILED, e.getMessage(), LocalDateTime.now());
+        }
+    }
+
+    private List<String> nextChunk(Broadcast.Audience audience, String afterId) {
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        return audience == Broadcast.Audience.ENABLED_USERS
+                ? userRepository.findEnabledUserIdsAfter(afterId, chunk)
+                : userRepository.findUserIdsAfter(afterId, chunk);
+    }
+
+    /**
+     * Delivers one chunk and moves the checkpoint past it.
+     *
+     * @return {@code false} if this node no longer owns the broadcast
+     */
+    private boolean deliver(Broadcast broadcast, List<String> recipientIds, String last) {
+        if (broadcast.getChannel() == Broadcast.Channel.IN_APP_MESSAGE) {
+            // Rows and checkpoint commit together
+            Boolean owned = chunkTransaction.execute(status -> {
+                insertMessages(broadcast, recipientIds);
+                if (checkpoint(broadcast.getId(), recipientIds.size(), last)) {
+                    return true;
+                }
+                status.setRollbackOnly();
+                return false;
+            });
+            return Boolean.TRUE.equals(owned);
+        }
+
+        // Published before the checkpoint: a crash in between re-sends this chunk,
+        // which the consumer absorbs through the deterministic notification ids
+        messageProducerService.sendNotificationBatchMessage(new NotificationBatchMessage(
+                broadcast.getId(), recipientIds, broadcast.getTitle(), broadcast.getContent(),
+                NotificationMessage.NotificationType.SYSTEM_ANNOUNCEMENT));
+        return checkpoint(broadcast.getId(), recipientIds.size(), last);
+    }
+
+    private boolean checkpoint(String broadcastId, int delivered, String last) {
+        return broadcastRepository.checkpoint(broadcastId, nodeId, delivered, last, LocalDateTime.now()) > 0;
+    }
+
+    private void insertMessages(Broadcast broadcast, List<String> recipientIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(now);
+        Timestamp expiresAt = Timestamp.valueOf(now.plus(messageTtl));
+        List<Object[]> rows = new ArrayList<>(recipientIds.size());
+        for (String recipientId : recipientIds) {
+            rows.add(new Object[]{recipientRowId(broadcast.getId(), recipientId), recipientId,
+                    broadcast.getTitle(), broadcast.getContent(),
+                    InAppMessage.MessageType.SYSTEM_ANNOUNCEMENT.name(), broadcast.getPriority().name(),
+                    createdAt, expiresAt, broadcast.getActionUrl(), broadcast.getActionText()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE_SQL, rows);
+    }
+
+    private static String recipientRowId(String broadcastId, String recipientId) {
+        return UUID.nameUUIDFromBytes((broadcastId + ":" + recipientId).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
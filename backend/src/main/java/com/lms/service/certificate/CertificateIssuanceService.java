@@ -0,0 +1,434 @@
+package com.lms.service.certificate;
+
+import com.lms.entity.Certificate;
+import com.lms.entity.CertificateIssuanceJob;
+import com.lms.entity.Course;
+import com.lms.entity.Enrollment;
+import com.lms.exception.BadRequestException;
+import com.lms.exception.ResourceNotFoundException;
+import com.lms.repository.CertificateIssuanceJobRepository;
+import com.lms.repository.CertificateRepository;
+import com.lms.repository.CourseRepository;
+import com.lms.repository.EnrollmentRepository;
+import com.lms.service.PdfCertificateGeneratorService;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues certificates to a whole course cohort as a resumable background job.
+ *
+ * <p>Completed enrollments are read in enrollment-id order, one chunk per query with the
+ * student, course and instructor fetched alongside. For each chunk the missing certificate
+ * rows are inserted in one JDBC batch, every PDF of the chunk is queued on the rendering
+ * pool at once (each bounded by its own render deadline), and the resulting statuses are written back in one batch update together
+ * with the student notifications and the job checkpoint. A job is owned by one node at a
+ * time through a heartbeat; after a crash the resume sweep continues after the last
+ * checkpoint. Certificate row ids derive from the enrollment id, so re-running the chunk in
+ * flight at a crash inserts nothing twice and re-renders at most that chunk.
+ *
+ * <p>When the job completes, the course instructor receives one summary notification.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CertificateIssuanceService {
+
+    private static final List<CertificateIssuanceJob.Status> UNFINISHED =
+            List.of(CertificateIssuanceJob.Status.PENDING, CertificateIssuanceJob.Status.RUNNING);
+
+    private static final String INSERT_CERTIFICATE_SQL =
+            "INSERT IGNORE INTO certificates (id, user_id, course_id, enrollment_id, certificate_number, status, " +
+            "issued_at, download_count) VALUES (?, ?, ?, ?, ?, 'PENDING', ?, 0)";
+    private static final String UPDATE_CERTIFICATE_SQL =
+            "UPDATE certificates SET status = ?, file_path = ?, file_url = ? WHERE id = ?";
+
+    private final CertificateIssuanceJobRepository jobRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final CertificateRepository certificateRepository;
+    private final CourseRepository courseRepository;
+    private final PdfCertificateGeneratorService pdfGeneratorService;
+    private final CertificateNotificationService certificateNotificationService;
+    private final PlatformMetricsService platformMetrics;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.certificate.issuance.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${app.certificate.issuance.workers:1}")
+    private int workers;
+
+    @Value("${app.certificate.issuance.stale-after:5m}")
+    private Duration staleAfter;
+
+    @Value("${app.certificate.base-url:http://localhost:8080/certificates}")
+    private String certificateBaseUrl;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService executor;
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        AtomicLong counter = new AtomicLong();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "certificate-issuance-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished jobs are picked up again from their checkpoint
+        executor.shutdownNow();
+    }
+
+    /**
+     * Records an issuance job for the course and starts it once the surrounding transaction
+     * commits. With {@code enrollmentIds} only those enrollments of the course are
+     * considered; otherwise every completed enrollment is. Returns immediately; progress is
+     * available through {@link #getJob}.
+     */
+    @Transactional
+    public CertificateIssuanceJob startIssuance(Course course, Collection<String> enrollmentIds, String requestedBy) {
+        CertificateIssuanceJob job = new CertificateIssuanceJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setCourseId(course.getId());
+        job.setRequestedBy(requestedBy);
+        job.setStatus(CertificateIssuanceJob.Status.PENDING);
+
+        if (enrollmentIds != null && !enrollmentIds.isEmpty()) {
+            Set<String> ids = new TreeSet<>(enrollmentIds);
+            if (ids.stream().anyMatch(id -> id == null || id.isBlank() || id.contains(","))) {
+                throw new BadRequestException("Invalid enrollment id");
+            }
+            job.setEnrollmentIds(String.join(",", ids));
+            job.setTotalEnrollments(enrollmentRepository.countCompletedByCourseIdAndIdIn(course.getId(), ids));
+        } else {
+            job.setTotalEnrollments(enrollmentRepository.countByCourseAndCompletedAtIsNotNull(course));
+        }
+
+        CertificateIssuanceJob saved = jobRepository.save(job);
+        String id = saved.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(id);
+                }
+            });
+        } else {
+            submit(id);
+        }
+
+        log.info("Certificate issuance {} queued for {} completed enrollments of course {}",
+                id, saved.getTotalEnrollments(), course.getId());
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public CertificateIssuanceJob getJob(String jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Certificate issuance job not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<CertificateIssuanceJob> getJobs(String courseId, Pageable pageable) {
+        return jobRepository.findByCourseIdOrderByCreatedAtDesc(courseId, pageable);
+    }
+
+    /**
+     * Restarts a failed job from its last checkpoint.
+     */
+    @Transactional
+    public CertificateIssuanceJob resumeJob(String jobId) {
+        CertificateIssuanceJob job = getJob(jobId);
+        if (job.getStatus() == CertificateIssuanceJob.Status.COMPLETED) {
+            throw new BadRequestException("Certificate issuance has already completed");
+        }
+        if (job.getStatus() == CertificateIssuanceJob.Status.FAILED) {
+            job.setStatus(CertificateIssuanceJob.Status.PENDING);
+            job.setOwnerNode(null);
+            job.setHeartbeatAt(null);
+        }
+        CertificateIssuanceJob saved = jobRepository.save(job);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(jobId);
+            }
+        });
+        return saved;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        resumeAbandoned();
+    }
+
+    @Scheduled(fixedDelayString = "${app.certificate.issuance.resume-interval:60000}",
+               initialDelayString = "${app.certificate.issuance.resume-interval:60000}")
+    public void resumeAbandoned() {
+        try {
+            LocalDateTime staleBefore = LocalDateTime.now().minus(staleAfter);
+            for (String id : jobRepository.findAbandonedIds(UNFINISHED, staleBefore)) {
+                submit(id);
+            }
+        } catch (Exception e) {
+            log.error("Failed to look for abandoned certificate issuance jobs", e);
+        }
+    }
+
+    private void submit(String jobId) {
+        if (!running.add(jobId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    running.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.remove(jobId);
+            log.warn("Certificate issuance {} not started, executor is shut down", jobId);
+        }
+    }
+
+    private void run(String jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (jobRepository.claim(jobId, nodeId, now, now.minus(staleAfter),
+                CertificateIssuanceJob.Status.RUNNING, UNFINISHED) == 0) {
+            return;
+        }
+        CertificateIssuanceJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        String cursor = job.getLastEnrollmentId() != null ? job.getLastEnrollmentId() : "";
+        List<String> restrictedTo = job.getEnrollmentIdList();
+        log.info("Certificate issuance {} running from enrollment {} ({} issued so far)",
+                jobId, cursor.isEmpty() ? "start" : cursor, job.getIssuedCount());
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Pageable chunk = PageRequest.of(0, chunkSize);
+                List<Enrollment> enrollments = restrictedTo.isEmpty()
+                        ? enrollmentRepository.findCompletedForIssuance(job.getCourseId(), cursor, chunk)
+                        : enrollmentRepository.findCompletedForIssuance(job.getCourseId(), cursor, restrictedTo, chunk);
+                if (enrollments.isEmpty()) {
+                    complete(jobId);
+                    log.info("Certificate issuance {} completed in {} ms", jobId, (System.nanoTime() - started) / 1_000_000);
+                    return;
+                }
+
+                String last = enrollments.get(enrollments.size() - 1).getId();
+                if (!issueChunk(jobId, enrollments, last)) {
+                    log.warn("Certificate issuance {} was taken over by another node", jobId);
+                    return;
+                }
+                cursor = last;
+            }
+        } catch (Exception e) {
+            log.error("Certificate issuance {} failed after enrollment {}", jobId, cursor, e);
+            jobRepository.finish(jobId, nodeId, CertificateIssuanceJob.Status.FAILED, e.getMessage(), LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Issues the certificates of one chunk and moves the checkpoint past it.
+     *
+     * @return {@code false} if this node no longer owns the job
+     */
+    private boolean issueChunk(String jobId, List<Enrollment> enrollments, String last) {
+        int created = insertPendingCertificates(enrollments);
+        if (created > 0) {
+            platformMetrics.add(PlatformMetric.TOTAL_CERTIFICATES, created);
+            platformMetrics.add(PlatformMetric.PENDING_CERTIFICATES, created);
+        }
+
+        List<String> enrollmentIds = enrollments.stream().map(Enrollment::getId).toList();
+        List<Certificate> toRender = new ArrayList<>();
+        for (Certificate certificate : certificateRepository.findWithDetailsByEnrollmentIdIn(enrollmentIds)) {
+            if (certificate.getStatus() == Certificate.Status.FAILED) {
+                platformMetrics.increment(PlatformMetric.PENDING_CERTIFICATES);
+                toRender.add(certificate);
+            } else if (certificate.getStatus() == Certificate.Status.PENDING) {
+                toRender.add(certificate);
+            }
+        }
+        long skipped = enrollments.size() - toRender.size();
+
+        List<Rendered> rendered = renderAll(toRender);
+        long issued = rendered.stream().filter(Rendered::succeeded).count();
+        long failed = rendered.size() - issued;
+
+        // Statuses, student notifications (through the outbox) and checkpoint commit together
+        Boolean owned = chunkTransaction.execute(status -> {
+            List<Object[]> updates = new ArrayList<>(rendered.size());
+            for (Rendered result : rendered) {
+                Certificate certificate = result.certificate();
+                if (result.succeeded()) {
+                    certificate.setFilePath(result.filePath());
+                    certificate.setFileUrl(certificateBaseUrl + "/" + fileName(certificate));
+                    certificate.setStatus(Certificate.Status.GENERATED);
+                } else {
+                    certificate.setStatus(Certificate.Status.FAILED);
+                }
+                updates.add(new Object[]{certificate.getStatus().name(), certificate.getFilePath(),
+                        certificate.getFileUrl(), certificate.getId()});
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_CERTIFICATE_SQL, updates);
+            }
+            for (Rendered result : rendered) {
+                if (result.succeeded()) {
+                    certificateNotificationService.notifyStudent(result.certificate());
+                }
+            }
+            if (jobRepository.checkpoint(jobId, nodeId, issued, skipped, failed, last, LocalDateTime.now()) > 0) {
+                return true;
+            }
+            status.setRollbackOnly();
+            return false;
+        });
+
+        if (!rendered.isEmpty()) {
+            platformMetrics.add(PlatformMetric.PENDING_CERTIFICATES, -rendered.size());
+        }
+        log.debug("Certificate issuance {}: chunk up to {} issued {}, skipped {}, failed {}",
+                jobId, last, issued, skipped, failed);
+        return Boolean.TRUE.equals(owned);
+    }
+
+    /**
+     * Inserts a PENDING certificate for every enrollment of the chunk that has none.
+     *
+     * @return the number of rows inserted
+     */
+    private int insertPendingCertificates(List<Enrollment> enrollments) {
+        Timestamp issuedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(enrollments.size());
+        for (Enrollment enrollment : enrollments) {
+            rows.add(new Object[]{certificateId(enrollment.getId()), enrollment.getUser().getId(),
+                    enrollment.getCourse().getId(), enrollment.getId(), generateCertificateNumber(), issuedAt});
+        }
+        int[] counts = chunkTransaction.execute(status -> jdbcTemplate.batchUpdate(INSERT_CERTIFICATE_SQL, rows));
+        int inserted = 0;
+        if (counts != null) {
+            for (int count : counts) {
+                // INSERT IGNORE reports 0 for rows that already existed
+                inserted += count > 0 ? 1 : 0;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Queues every certificate on the rendering pool, then waits for all of them. Each render
+     * is bounded by its own deadline in the rendering engine, so a certificate is failed only
+     * when its render overran, and a late render stores no file. If the job is interrupted
+     * the renders still outstanding are cancelled.
+     *
+     * @return one result per certificate, in the same order
+     */
+    private List<Rendered> renderAll(List<Certificate> certificates) {
+        List<CompletableFuture<String>> renders = new ArrayList<>(certificates.size());
+        for (Certificate certificate : certificates) {
+            try {
+                renders.add(pdfGeneratorService.renderCertificate(certificate, fileName(certificate)));
+            } catch (Exception e) {
+                renders.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        List<Rendered> results = new ArrayList<>(certificates.size());
+        for (int i = 0; i < certificates.size(); i++) {
+            Certificate certificate = certificates.get(i);
+            String filePath = null;
+            if (Thread.currentThread().isInterrupted()) {
+                renders.get(i).cancel(false);
+            } else {
+                try {
+                    filePath = renders.get(i).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    renders.get(i).cancel(false);
+                } catch (ExecutionException e) {
+                    log.error("Failed to render certificate {} for enrollment {}", certificate.getId(),
+                            certificate.getEnrollment().getId(), e.getCause());
+                }
+            }
+            results.add(new Rendered(certificate, filePath));
+        }
+        return results;
+    }
+
+    private void complete(String jobId) {
+        chunkTransaction.executeWithoutResult(status -> {
+            if (jobRepository.finish(jobId, nodeId, CertificateIssuanceJob.Status.COMPLETED, null,
+                    LocalDateTime.now()) == 0) {
+                return;
+            }
+            CertificateIssuanceJob job = jobRepository.findById(jobId).orElseThrow();
+            Course course = courseRepository.findById(job.getCourseId()).orElseThrow();
+            certificateNotificationService.notifyInstructor(job, course);
+        });
+    }
+
+    private static String fileName(Certificate certificate) {
+        return "certificate_" + certificate.getCertificateNumber() + ".pdf";
+    }
+
+    private static String certificateId(String enrollmentId) {
+        return UUID.nameUUIDFromBytes(("certificate:" + enrollmentId).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private String generateCertificateNumber() {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+        String randomPart = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return "CERT-" + timestamp + "-" + randomPart;
+    }
+
+    private record Rendered(Certificate certificate, String filePath) {
+
+        boolean succeeded() {
+            return filePath != null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.lms.service.certificate;
+
+import com.lms.dto.messaging.EmailMessage;
+import com.lms.dto.messaging.NotificationMessage;
+import com.lms.entity.Certificate;
+import com.lms.entity.CertificateIssuanceJob;
+import com.lms.entity.Course;
+import com.lms.service.messaging.MessageProducerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Messages sent when certificates are issued: the email and in-app notification to the
+ * student, and the summary to the instructor after a cohort issuance.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CertificateNotificationService {
+
+    private final MessageProducerService messageProducerService;
+
+    /**
+     * Tells the student their certificate is ready. Failures are logged, never thrown:
+     * the certificate itself has been issued.
+     */
+    public void notifyStudent(Certificate certificate) {
+        try {
+            // Send email notification
+            sendCertificateEmail(certificate);
+
+            // Send in-app notification
+            sendCertificateNotification(certificate);
+
+        } catch (Exception e) {
+            log.error("Failed to send certificate notifications", e);
+            // Don't fail the entire process if notifications fail
+        }
+    }
+
+    /**
+     * One notification to the course instructor summarising a finished cohort issuance.
+     */
+    public void notifyInstructor(CertificateIssuanceJob job, Course course) {
+        String title = "Certificates issued";
+        String message = String.format("Certificates for '%s': %d issued, %d already issued, %d failed.",
+                course.getTitle(), job.getIssuedCount(), job.getSkippedCount(), job.getFailedCount());
+
+        Map<String, Object> notificationData = new HashMap<>();
+        notificationData.put("courseId", course.getId());
+        notificationData.put("issuanceJobId", job.getId());
+        notificationData.put("issued", job.getIssuedCount());
+        notificationData.put("skipped", job.getSkippedCount());
+        notificationData.put("failed", job.getFailedCount());
+
+        messageProducerService.sendNotificationMessage(new NotificationMessage(
+                course.getInstructor().getId(),
+                title,
+                message,
+                NotificationMessage.NotificationType.CERTIFICATE_READY,
+                notificationData
+        ));
+    }
+
+    private void sendCertificateEmail(Certificate certificate) {
+        Map<String, Object> emailData = new HashMap<>();
+        emailData.put("studentName", certificate.getUser().getFullName());
+        emailData.put("courseName", certificate.getCourse().getTitle());
+        emailData.put("certificateNumber", certificate.getCertificateNumber());
+        emailData.put("instructorName", certificate.getCourse().getInstructor().getFullName());
+        emailData.put("completionDate", certificate.getEnrollment().getCompletedAt()
+                .format(DateTimeFormatter.ofPattern("MMMM dd, yyyy")));
+
+        EmailMessage emailMessage = new EmailMessage(
+                certificate.getUser().getEmail(),
+                "Your Certificate is Ready!",
+                EmailMessage.EmailType.CERTIFICATE_READY,
+                emailData
+        );
+
+        messageProducerService.sendEmailMessage(emailMessage);
+    }
+
+    private void sendCertificateNotification(Certificate certificate) {
+        String title = "Certificate Ready!";
+        String message = String.format("Your certificate for '%s' is now ready for download.",
+                certificate.getCourse().getTitle());
+
+        Map<String, Object> notificationData = new HashMap<>();
+        notificationData.put("certificateId", certificate.getId());
+        notificationData.put("courseId", certificate.getCourse().getId());
+        notificationData.put("certificateNumber", certificate.getCertificateNumber());
+
+        NotificationMessage notificationMessage = new NotificationMessage(
+                certificate.getUser().getId(),
+                title,
+                message,
+                NotificationMessage.NotificationType.CERTIFICATE_READY,
+                notificationData
+        );
+
+        messageProducerService.sendNotificationMessage(notificationMessage);
+    }
+}
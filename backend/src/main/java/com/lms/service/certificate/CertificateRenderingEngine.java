@@ -0,0 +1,246 @@
+package com.lms.service.certificate;
+
+import com.lowagie.text.pdf.BaseFont;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.xhtmlrenderer.pdf.ITextRenderer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Renders certificate PDFs on a bounded pool of worker threads.
+ *
+ * <p>Each worker keeps its own {@link ITextRenderer}: the renderer is not thread-safe, but
+ * reusing it keeps the font resolver, with the fonts from {@code fonts-dir} registered once,
+ * and the parsed stylesheets between documents. The Thymeleaf template is parsed once by the
+ * engine's template cache. The pool is sized to the cores because rendering is CPU-bound;
+ * when its queue is full the calling thread renders the certificate itself, which slows
+ * the producers down instead of piling up work.
+ *
+ * <p>Every render has its own deadline of {@code timeout}, counted from when a worker picks
+ * it up, so a certificate is not failed for the time it spent queued behind others. A
+ * render that misses its deadline, or is cancelled, completes exceptionally at once; a
+ * render cancelled while still queued is skipped, and one that finishes after its result
+ * was given up deletes the file it wrote, since nobody will store it.
+ *
+ * <p>Every stage is timed under {@code certificate.render.duration}: {@code queue} (waiting
+ * for a worker), {@code template} (Thymeleaf), {@code layout} (document parsing and layout)
+ * and {@code pdf} (writing the file).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CertificateRenderingEngine {
+
+    private static final String TEMPLATES_LOCATION = "templates/";
+
+    private final TemplateEngine templateEngine;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.certificate.rendering.workers:0}")
+    private int workers;
+
+    @Value("${app.certificate.rendering.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.certificate.rendering.timeout:2m}")
+    private Duration renderTimeout;
+
+    @Value("${app.certificate.rendering.fonts-dir:}")
+    private String fontsDir;
+
+    private ThreadPoolExecutor pool;
+    private List<String> fontFiles;
+    private String baseUrl;
+
+    private Timer queueTimer;
+    private Timer templateTimer;
+    private Timer layoutTimer;
+    private Timer pdfTimer;
+
+    private final ThreadLocal<ITextRenderer> renderers = new ThreadLocal<>();
+
+    @PostConstruct
+    public void start() {
+        int size = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        pool = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory("certificate-render-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+
+        fontFiles = scanFonts(fontsDir);
+        var templates = getClass().getClassLoader().getResource(TEMPLATES_LOCATION);
+        baseUrl = templates != null ? templates.toExternalForm() : null;
+
+        queueTimer = stageTimer("queue");
+        templateTimer = stageTimer("template");
+        layoutTimer = stageTimer("layout");
+        pdfTimer = stageTimer("pdf");
+        meterRegistry.gauge("certificate.render.active", pool, ThreadPoolExecutor::getActiveCount);
+        meterRegistry.gauge("certificate.render.queued", pool, p -> p.getQueue().size());
+
+        log.info("Certificate rendering pool started with {} workers and {} registered fonts", size, fontFiles.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdown();
+    }
+
+    /**
+     * Renders the template with the given variables into {@code target}. The file appears
+     * only once it is complete. Variables must already be plain values: they are read on
+     * a worker thread, outside the caller's persistence context.
+     *
+     * <p>The result fails with a {@link TimeoutException} if the render runs longer than
+     * {@code timeout}; cancelling it drops a queued render and discards a running one.
+     */
+    public CompletableFuture<RenderTimings> render(String template, Map<String, Object> variables, Path target) {
+        long submitted = System.nanoTime();
+        CompletableFuture<RenderTimings> result = new CompletableFuture<>();
+        pool.execute(() -> {
+            if (result.isDone()) {
+                return; // cancelled while queued
+            }
+            long started = System.nanoTime();
+            queueTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+            result.orTimeout(renderTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            try {
+                RenderTimings timings = renderNow(template, variables, target, Duration.ofNanos(started - submitted));
+                if (!result.complete(timings)) {
+                    discard(target);
+                }
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    // The render finished after its caller gave up on it
+    private void discard(Path target) {
+        try {
+            Files.deleteIfExists(target);
+            log.warn("Discarded certificate {} rendered after its deadline of {}", target.getFileName(), renderTimeout);
+        } catch (IOException e) {
+            log.warn("Failed to delete late certificate render {}", target, e);
+        }
+    }
+
+    private RenderTimings renderNow(String template, Map<String, Object> variables, Path target,
+                                    Duration queued) throws Exception {
+        long started = System.nanoTime();
+        Context context = new Context(Locale.ENGLISH);
+        context.setVariables(variables);
+        String html = templateEngine.process(template, context);
+        long templated = System.nanoTime();
+
+        ITextRenderer renderer = renderer();
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        try {
+            renderer.setDocumentFromString(html, baseUrl);
+            renderer.layout();
+            long laidOut = System.nanoTime();
+
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                renderer.createPDF(out);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long written = System.nanoTime();
+
+            templateTimer.record(templated - started, TimeUnit.NANOSECONDS);
+            layoutTimer.record(laidOut - templated, TimeUnit.NANOSECONDS);
+            pdfTimer.record(written - laidOut, TimeUnit.NANOSECONDS);
+            return new RenderTimings(queued, Duration.ofNanos(templated - started),
+                    Duration.ofNanos(laidOut - templated), Duration.ofNanos(written - laidOut));
+        } catch (Exception e) {
+            // A failed layout can leave the renderer half-initialised; start the next one fresh
+            renderers.remove();
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+    }
+
+    private ITextRenderer renderer() {
+        ITextRenderer renderer = renderers.get();
+        if (renderer == null) {
+            renderer = new ITextRenderer();
+            for (String font : fontFiles) {
+                try {
+                    renderer.getFontResolver().addFont(font, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+                } catch (Exception e) {
+                    log.warn("Skipping certificate font {}: {}", font, e.getMessage());
+                }
+            }
+            renderers.set(renderer);
+        }
+        return renderer;
+    }
+
+    private static List<String> scanFonts(String directory) {
+        if (directory == null || directory.isBlank()) {
+            return List.of();
+        }
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            log.warn("Certificate fonts directory {} does not exist", dir);
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(Path::toString)
+                    .filter(name -> {
+                        String lower = name.toLowerCase(Locale.ROOT);
+                        return lower.endsWith(".ttf") || lower.endsWith(".otf");
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Failed to list certificate fonts in {}: {}", dir, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("certificate.render.duration")
+                .description("Time spent per certificate rendering stage")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * How long one certificate spent in each stage.
+     */
+    public record RenderTimings(Duration queued, Duration template, Duration layout, Duration pdf) {
+
+        public Duration total() {
+            return queued.plus(template).plus(layout).plus(pdf);
+        }
+    }
+}
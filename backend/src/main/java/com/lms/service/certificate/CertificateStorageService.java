@@ -0,0 +1,111 @@
+package com.lms.service.certificate;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for certificate PDFs.
+ *
+ * <p>A rendered PDF is written to {@code staging/} first, hashed with SHA-256 and then moved
+ * to {@code objects/<first two hex digits>/<hash>.pdf}. An object never changes once
+ * stored, so its hash is a strong ETag and identical artifacts are kept once. Files written
+ * before this layout stay where they are and are hashed when served.
+ */
+@Service
+@Slf4j
+public class CertificateStorageService {
+
+    private static final Pattern OBJECT_NAME = Pattern.compile("[0-9a-f]{64}\\.pdf");
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    @Value("${app.certificate.storage-path:./certificates}")
+    private String certificateStoragePath;
+
+    private Path objects;
+    private Path staging;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path root = Paths.get(certificateStoragePath).toAbsolutePath().normalize();
+        objects = Files.createDirectories(root.resolve("objects"));
+        staging = Files.createDirectories(root.resolve("staging"));
+    }
+
+    /**
+     * A fresh path in the staging area to render a certificate into.
+     */
+    public Path stagingPath(String fileName) {
+        return staging.resolve(UUID.randomUUID() + "-" + fileName);
+    }
+
+    /**
+     * Moves a staged file to its content address. If the object already exists the staged
+     * copy is dropped.
+     *
+     * @return the stored object
+     */
+    public Path store(Path staged) throws IOException {
+        String hash = sha256(staged);
+        Path target = objectPath(hash);
+        Files.createDirectories(target.getParent());
+        if (Files.exists(target)) {
+            Files.delete(staged);
+            log.debug("Certificate object {} already stored", hash);
+            return target;
+        }
+        try {
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Stored concurrently with the same content
+            Files.deleteIfExists(staged);
+        }
+        return target;
+    }
+
+    public Path objectPath(String hash) {
+        return objects.resolve(hash.substring(0, 2)).resolve(hash + ".pdf");
+    }
+
+    /**
+     * SHA-256 of the file in hex. Taken from the name for stored objects, computed for
+     * files outside the store.
+     */
+    public String contentHash(Path file) throws IOException {
+        Path normalized = file.toAbsolutePath().normalize();
+        String name = normalized.getFileName().toString();
+        if (normalized.startsWith(objects) && OBJECT_NAME.matcher(name).matches()) {
+            return name.substring(0, 64);
+        }
+        return sha256(normalized);
+    }
+
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
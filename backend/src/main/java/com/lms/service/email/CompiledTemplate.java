@@ -0,0 +1,119 @@
+package com.lms.service.email;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.*;
+
+/**
+ * A text template parsed once into alternating literals and {@code {{name}}} placeholders.
+ * Rendering appends the literals and the placeholder values to a per-thread buffer, so a
+ * render costs one pass over the segments and one final copy into the result string.
+ *
+ * <p>Values are written with {@link String#valueOf(Object)}, as {@code %s} did, and are
+ * HTML-escaped when the template is HTML. Instances are immutable and thread-safe.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    // Buffers that grew past this are dropped after use instead of being kept by the thread
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    // literals[i] precedes names[i]; the last literal follows the last placeholder
+    private final String[] literals;
+    private final String[] names;
+    private final boolean html;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, String[] names, boolean html) {
+        this.literals = literals;
+        this.names = names;
+        this.html = html;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static CompiledTemplate compile(String source, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder at offset " + open);
+            }
+            literals.add(source.substring(position, open));
+            names.add(name);
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+        return new CompiledTemplate(literals.toArray(String[]::new), names.toArray(String[]::new), html);
+    }
+
+    /**
+     * A template with every placeholder named in {@code values} replaced by its value, and
+     * the remaining placeholders left open. Used to fold in values that are the same for
+     * every recipient, so they are written only once.
+     */
+    public CompiledTemplate bind(Map<String, ?> values) {
+        List<String> boundLiterals = new ArrayList<>();
+        List<String> boundNames = new ArrayList<>();
+        StringBuilder pending = new StringBuilder(literals[0]);
+        for (int i = 0; i < names.length; i++) {
+            if (values.containsKey(names[i])) {
+                appendValue(pending, values.get(names[i]));
+            } else {
+                boundLiterals.add(pending.toString());
+                boundNames.add(names[i]);
+                pending.setLength(0);
+            }
+            pending.append(literals[i + 1]);
+        }
+        boundLiterals.add(pending.toString());
+        return new CompiledTemplate(boundLiterals.toArray(String[]::new), boundNames.toArray(String[]::new), html);
+    }
+
+    /**
+     * Names of the placeholders still open, in order of first appearance.
+     */
+    public Set<String> variables() {
+        return new LinkedHashSet<>(Arrays.asList(names));
+    }
+
+    public String render(Map<String, ?> values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        try {
+            renderTo(buffer, values);
+            return buffer.toString();
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    public void renderTo(StringBuilder out, Map<String, ?> values) {
+        out.ensureCapacity(out.length() + literalLength + names.length * 16);
+        for (int i = 0; i < names.length; i++) {
+            out.append(literals[i]);
+            appendValue(out, values.get(names[i]));
+        }
+        out.append(literals[names.length]);
+    }
+
+    private void appendValue(StringBuilder out, Object value) {
+        String text = String.valueOf(value);
+        out.append(html ? HtmlUtils.htmlEscape(text) : text);
+    }
+}
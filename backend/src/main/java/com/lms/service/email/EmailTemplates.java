@@ -0,0 +1,169 @@
+package com.lms.service.email;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lms.dto.messaging.EmailMessage.EmailType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Plain-text bodies of the queued {@link EmailType} emails, compiled once at startup with the
+ * frontend URL folded in.
+ *
+ * <p>Each type names the variables that describe the course rather than the recipient. The
+ * first render for a set of such values binds them into a template of its own, which is
+ * cached, so a bulk send to a course only writes the per-recipient values.
+ */
+@Component
+@Slf4j
+public class EmailTemplates {
+
+    private static final String SIGNATURE = """
+
+
+            Best regards,
+            Modern LMS Team""";
+
+    private static final Map<EmailType, Definition> DEFINITIONS = new EnumMap<>(EmailType.class);
+
+    static {
+        define(EmailType.WELCOME, Set.of(), """
+                Hi {{firstName}},
+
+                Welcome to Modern LMS! We're excited to have you join our learning community.
+
+                Please verify your email by clicking the link below:
+                {{baseUrl}}/verify-email?token={{verificationToken}}""");
+        define(EmailType.ENROLLMENT_CONFIRMATION, Set.of("courseName", "instructorName", "courseDuration", "courseId"), """
+                Hi {{studentName}},
+
+                You have successfully enrolled in the course: {{courseName}}
+
+                Instructor: {{instructorName}}
+                Course Duration: {{courseDuration}} hours
+
+                You can start learning by visiting:
+                {{baseUrl}}/courses/{{courseId}}
+
+                Happy learning!""");
+        define(EmailType.COURSE_PUBLISHED, Set.of(), """
+                Hi {{instructorName}},
+
+                Great news! Your course '{{courseName}}' has been published and is now available to students.
+
+                Course URL: {{baseUrl}}/courses/{{courseId}}
+
+                Students can now discover and enroll in your course. We'll notify you when you get your first enrollments!""");
+        define(EmailType.CERTIFICATE_READY, Set.of("courseName"), """
+                Hi {{studentName}},
+
+                Congratulations! You have successfully completed the course: {{courseName}}
+
+                Your certificate is now ready for download.
+                Certificate Number: {{certificateNumber}}
+
+                Download your certificate from your dashboard:
+                {{baseUrl}}/dashboard/certificates
+
+                Well done on completing the course!""");
+        define(EmailType.INSTRUCTOR_APPROVED, Set.of(), """
+                Hi {{instructorName}},
+
+                Congratulations! Your instructor application has been approved.
+
+                You can now start creating and publishing courses on Modern LMS.
+
+                Get started by visiting your instructor dashboard:
+                {{baseUrl}}/instructor/dashboard
+
+                Welcome to the Modern LMS instructor community!""");
+        define(EmailType.INSTRUCTOR_REJECTED, Set.of(), """
+                Hi {{instructorName}},
+
+                Thank you for your interest in becoming an instructor on Modern LMS.
+
+                After reviewing your application, we are unable to approve it at this time.
+
+                {{reasonLine}}
+
+                You're welcome to reapply in the future. If you have any questions, \
+                please don't hesitate to contact our support team.""");
+        define(EmailType.PASSWORD_RESET, Set.of(), """
+                Hi {{userName}},
+
+                You requested a password reset for your Modern LMS account.
+
+                Click the link below to reset your password:
+                {{baseUrl}}/reset-password?token={{resetToken}}
+
+                This link will expire in 1 hour.
+
+                If you didn't request this, please ignore this email.""");
+    }
+
+    private static final CompiledTemplate FALLBACK = CompiledTemplate.compile("Thank you for using Modern LMS!", false);
+
+    @Value("${cors.allowed-origins}")
+    private String frontendUrl;
+
+    @Value("${app.email.templates.fragment-cache-size:1000}")
+    private int fragmentCacheSize;
+
+    private final Map<EmailType, CompiledTemplate> compiled = new EnumMap<>(EmailType.class);
+    private Cache<FragmentKey, CompiledTemplate> fragments;
+
+    @PostConstruct
+    public void compile() {
+        Map<String, Object> constants = Map.of("baseUrl", frontendUrl.split(",")[0]);
+        DEFINITIONS.forEach((type, definition) ->
+                compiled.put(type, CompiledTemplate.compile(definition.source(), false).bind(constants)));
+        fragments = Caffeine.newBuilder()
+                .maximumSize(fragmentCacheSize)
+                .build();
+        log.info("Compiled {} email templates", compiled.size());
+    }
+
+    public String render(EmailType type, Map<String, Object> data) {
+        Map<String, Object> values = data != null ? data : Map.of();
+        if (type == EmailType.INSTRUCTOR_REJECTED) {
+            values = withReasonLine(values);
+        }
+        return template(type, values).render(values);
+    }
+
+    private CompiledTemplate template(EmailType type, Map<String, Object> values) {
+        CompiledTemplate template = compiled.get(type);
+        if (template == null) {
+            return FALLBACK;
+        }
+        Set<String> shared = DEFINITIONS.get(type).shared();
+        if (shared.isEmpty()) {
+            return template;
+        }
+        Map<String, Object> sharedValues = new HashMap<>();
+        for (String name : shared) {
+            sharedValues.put(name, values.get(name));
+        }
+        return fragments.get(new FragmentKey(type, sharedValues), key -> template.bind(key.values()));
+    }
+
+    private static Map<String, Object> withReasonLine(Map<String, Object> data) {
+        Map<String, Object> values = new HashMap<>(data);
+        Object reason = data.get("reason");
+        values.put("reasonLine", reason != null ? "Reason: " + reason
+                : "Please ensure you meet all our instructor requirements.");
+        return values;
+    }
+
+    private static void define(EmailType type, Set<String> shared, String body) {
+        DEFINITIONS.put(type, new Definition(body + SIGNATURE, shared));
+    }
+
+    private record Definition(String source, Set<String> shared) {}
+
+    private record FragmentKey(EmailType type, Map<String, Object> values) {}
+}
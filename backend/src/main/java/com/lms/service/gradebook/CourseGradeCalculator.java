@@ -0,0 +1,189 @@
+package com.lms.service.gradebook;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Computes course grades for many students at once from flat grade rows.
+ *
+ * <p>Percentages and weights are held as basis points (see {@link GradeMath}), so averages
+ * and weighted sums are exact and round half-up to two decimals exactly as the former
+ * per-student {@code BigDecimal} code did. Per-student grades live in a flat
+ * {@code students x assignments} array; nothing is allocated per row.
+ *
+ * <p>Rules carried over from the per-student calculation:
+ * <ul>
+ *   <li>Without active categories the grade is the plain average of all non-excused grades.</li>
+ *   <li>Otherwise each active category with published assignments contributes its average,
+ *       after dropping the lowest {@code dropLowest} scores; a category where the student has
+ *       no grade yet contributes 0.</li>
+ * </ul>
+ *
+ * <p>One rule is new: in a weighted category only the student's highest-numbered attempt
+ * at each assignment counts, whatever its score and the order of the rows, and an excused
+ * latest attempt leaves the assignment out. The per-student code graded whichever
+ * submission it happened to find first.
+ *
+ * <p>Instances are not thread-safe; build one per recalculation.
+ */
+public final class CourseGradeCalculator {
+
+    private static final int MISSING = -1;
+
+    private final int categoryCount;
+    private final long[] categoryWeights;
+    private final int[] categoryDropLowest;
+    private final int[][] categoryAssignments;
+    private final Map<String, Integer> assignmentIndex;
+    private final int maxAssignmentsPerCategory;
+
+    /**
+     * @param categories  active categories in display order
+     * @param assignments rows of {@code [assignmentId, categoryId]} for published assignments
+     */
+    public CourseGradeCalculator(List<Category> categories, List<Object[]> assignments) {
+        this.categoryCount = categories.size();
+        this.categoryWeights = new long[categoryCount];
+        this.categoryDropLowest = new int[categoryCount];
+        Map<String, Integer> categoryIndex = new HashMap<>();
+        for (int c = 0; c < categoryCount; c++) {
+            Category category = categories.get(c);
+            categoryIndex.put(category.id(), c);
+            categoryWeights[c] = GradeMath.toBasisPoints(category.weightPercentage());
+            categoryDropLowest[c] = category.dropLowest();
+        }
+
+        this.assignmentIndex = new HashMap<>();
+        List<List<Integer>> perCategory = new ArrayList<>();
+        for (int c = 0; c < categoryCount; c++) {
+            perCategory.add(new ArrayList<>());
+        }
+        for (Object[] row : assignments) {
+            Integer c = categoryIndex.get((String) row[1]);
+            if (c == null) {
+                continue; // category inactive
+            }
+            int a = assignmentIndex.size();
+            assignmentIndex.put((String) row[0], a);
+            perCategory.get(c).add(a);
+        }
+
+        this.categoryAssignments = new int[categoryCount][];
+        int max = 0;
+        for (int c = 0; c < categoryCount; c++) {
+            categoryAssignments[c] = perCategory.get(c).stream().mapToInt(Integer::intValue).toArray();
+            max = Math.max(max, categoryAssignments[c].length);
+        }
+        this.maxAssignmentsPerCategory = max;
+    }
+
+    /**
+     * @param studentIds students to grade
+     * @param gradeRows  rows of {@code [studentId, assignmentId, percentage, isExcused, attemptNumber]}
+     * @return the grade of each student, aligned with {@code studentIds}
+     */
+    public BigDecimal[] compute(List<String> studentIds, List<Object[]> gradeRows) {
+        long[] basisPoints = computeBasisPoints(studentIds, gradeRows);
+        BigDecimal[] grades = new BigDecimal[basisPoints.length];
+        for (int s = 0; s < basisPoints.length; s++) {
+            grades[s] = GradeMath.toPercentage(basisPoints[s]);
+        }
+        return grades;
+    }
+
+    /**
+     * Same as {@link #compute(List, List)}, with each grade in basis points.
+     */
+    public long[] computeBasisPoints(List<String> studentIds, List<Object[]> gradeRows) {
+        Map<String, Integer> studentIndex = new HashMap<>(studentIds.size() * 2);
+        for (int s = 0; s < studentIds.size(); s++) {
+            studentIndex.put(studentIds.get(s), s);
+        }
+        return categoryCount == 0
+                ? computeSimpleAverages(studentIds.size(), studentIndex, gradeRows)
+                : computeWeighted(studentIds.size(), studentIndex, gradeRows);
+    }
+
+    private long[] computeSimpleAverages(int studentCount, Map<String, Integer> studentIndex,
+                                               List<Object[]> gradeRows) {
+        long[] sums = new long[studentCount];
+        int[] counts = new int[studentCount];
+        for (Object[] row : gradeRows) {
+            Integer s = studentIndex.get((String) row[0]);
+            if (s == null || Boolean.TRUE.equals(row[3])) {
+                continue;
+            }
+            sums[s] += GradeMath.toBasisPoints((BigDecimal) row[2]);
+            counts[s]++;
+        }
+
+        long[] grades = new long[studentCount];
+        for (int s = 0; s < studentCount; s++) {
+            grades[s] = counts[s] == 0 ? 0 : GradeMath.divideHalfUp(sums[s], counts[s]);
+        }
+        return grades;
+    }
+
+    private long[] computeWeighted(int studentCount, Map<String, Integer> studentIndex,
+                                         List<Object[]> gradeRows) {
+        int assignmentCount = assignmentIndex.size();
+        int[] scores = new int[studentCount * assignmentCount];
+        int[] attempts = new int[studentCount * assignmentCount];
+        Arrays.fill(scores, MISSING);
+
+        for (Object[] row : gradeRows) {
+            Integer s = studentIndex.get((String) row[0]);
+            Integer a = assignmentIndex.get((String) row[1]);
+            if (s == null || a == null) {
+                continue;
+            }
+            int cell = s * assignmentCount + a;
+            int attempt = row[4] != null ? ((Number) row[4]).intValue() : 1;
+            if (attempt >= attempts[cell]) {
+                attempts[cell] = attempt;
+                scores[cell] = Boolean.TRUE.equals(row[3]) ? MISSING : (int) GradeMath.toBasisPoints((BigDecimal) row[2]);
+            }
+        }
+
+        long[] grades = new long[studentCount];
+        int[] buffer = new int[maxAssignmentsPerCategory];
+        for (int s = 0; s < studentCount; s++) {
+            int base = s * assignmentCount;
+            long weightedSum = 0;
+            long totalWeight = 0;
+            for (int c = 0; c < categoryCount; c++) {
+                int[] members = categoryAssignments[c];
+                if (members.length == 0) {
+                    continue;
+                }
+                int n = 0;
+                for (int a : members) {
+                    int score = scores[base + a];
+                    if (score != MISSING) {
+                        buffer[n++] = score;
+                    }
+                }
+                weightedSum += categoryAverage(buffer, n, categoryDropLowest[c]) * categoryWeights[c];
+                totalWeight += categoryWeights[c];
+            }
+            grades[s] = totalWeight == 0 ? 0 : GradeMath.divideHalfUp(weightedSum, totalWeight);
+        }
+        return grades;
+    }
+
+    // Average in basis points after dropping the lowest scores
+    private static long categoryAverage(int[] scores, int n, int dropLowest) {
+        int from = 0;
+        if (dropLowest > 0 && n > dropLowest) {
+            Arrays.sort(scores, 0, n);
+            from = dropLowest;
+        }
+        return GradeMath.average(scores, from, n);
+    }
+
+    /**
+     * An active gradebook category. Weight is a percentage with two decimals.
+     */
+    public record Category(String id, BigDecimal weightPercentage, int dropLowest) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.lms.service.gradebook;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic for grade percentages.
+ *
+ * <p>A percentage is held as a {@code long} number of basis points (hundredths of a
+ * percent), so {@code 87.25%} is {@code 8725} and {@code 100%} is {@link #FULL}. This is
+ * exactly the {@code DECIMAL(5,2)} precision of the grade columns, which makes integer
+ * arithmetic with half-up rounding give the same results as the {@code BigDecimal}
+ * calculation with scale 2 and {@link RoundingMode#HALF_UP}. Conversion to and from
+ * {@code BigDecimal} only happens when reading rows and persisting results.
+ */
+public final class GradeMath {
+
+    public static final int FULL = 10_000;
+
+    private GradeMath() {
+    }
+
+    public static long toBasisPoints(BigDecimal percentage) {
+        return percentage == null ? 0 : percentage.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    public static BigDecimal toPercentage(long basisPoints) {
+        return BigDecimal.valueOf(basisPoints, 2);
+    }
+
+    /**
+     * Non-negative division rounded half-up, as {@code BigDecimal.divide(.., HALF_UP)}.
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        return (2 * dividend + divisor) / (2 * divisor);
+    }
+
+    /**
+     * Average of {@code values[from..to)} rounded half-up, or 0 for an empty range.
+     */
+    public static long average(int[] values, int from, int to) {
+        if (to <= from) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return divideHalfUp(sum, to - from);
+    }
+
+    /**
+     * Index into the 0-100% lookup tables; extra credit and negative values are clamped.
+     */
+    public static int clamp(long basisPoints) {
+        return (int) Math.max(0, Math.min(FULL, basisPoints));
+    }
+}
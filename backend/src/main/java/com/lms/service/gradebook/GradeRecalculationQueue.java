@@ -0,0 +1,306 @@
+package com.lms.service.gradebook;
+
+import com.lms.cache.CacheTagInvalidator;
+import com.lms.cache.CacheTags;
+import com.lms.entity.Course;
+import com.lms.repository.CourseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Debounced, coalescing queue of course grade recalculations.
+ *
+ * <p>Grading an assignment only marks the (course, student) pair as dirty. Pending work is
+ * kept per course: repeated requests for the same student collapse into one, and a
+ * course-wide request absorbs every pending student of that course. A course becomes due
+ * once it has been quiet for {@code debounce}, or at the latest {@code max-delay} after it
+ * was first marked, so a long grading session still produces grades while it runs.
+ *
+ * <p>Due courses are handed to a bounded worker pool and recalculated in one pass through
+ * {@link GradebookRecalculationService}. A course is never processed by two workers at
+ * once; requests arriving meanwhile wait for the next round. Work that fails is merged back
+ * into the course's pending work and retried after another debounce, up to
+ * {@code max-attempts} times. Pending work lives in memory only and is lost on shutdown,
+ * which is acceptable because grades can always be recalculated from the assignment grades.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GradeRecalculationQueue {
+
+    private static final String GRADEBOOK_CACHE = "gradebook";
+
+    private final GradebookRecalculationService recalculationService;
+    private final CourseRepository courseRepository;
+    private final CacheTagInvalidator cacheTagInvalidator;
+
+    @Value("${app.gradebook.recalculation.debounce:2s}")
+    private Duration debounce;
+
+    @Value("${app.gradebook.recalculation.max-delay:30s}")
+    private Duration maxDelay;
+
+    @Value("${app.gradebook.recalculation.poll-interval:500ms}")
+    private Duration pollInterval;
+
+    @Value("${app.gradebook.recalculation.workers:4}")
+    private int workers;
+
+    @Value("${app.gradebook.recalculation.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.gradebook.recalculation.max-attempts:3}")
+    private int maxAttempts;
+
+    private final Map<String, PendingCourse> pending = new HashMap<>();
+    private final Set<String> inFlight = new HashSet<>();
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong processedCourses = new AtomicLong();
+    private final AtomicLong processedGrades = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile LocalDateTime lastCompletedAt;
+
+    // Monotonic time source for debounce and max-delay; replaced in tests
+    private LongSupplier nanoClock = System::nanoTime;
+
+    private ScheduledExecutorService dispatcher;
+    private ThreadPoolExecutor workerPool;
+
+    @PostConstruct
+    public void start() {
+        workerPool = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory("grade-recalc-"));
+        workerPool.allowCoreThreadTimeOut(true);
+        dispatcher = Executors.newSingleThreadScheduledExecutor(threadFactory("grade-recalc-dispatch-"));
+        dispatcher.scheduleWithFixedDelay(this::dispatchDue,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+        workerPool.shutdown();
+        synchronized (pending) {
+            if (!pending.isEmpty()) {
+                log.warn("Discarding pending grade recalculations for {} courses on shutdown", pending.size());
+            }
+        }
+    }
+
+    /**
+     * Marks one student's course grade as dirty. Inside a transaction the request is only
+     * queued after commit, so the worker sees the new assignment grade.
+     */
+    public void enqueueStudent(String courseId, String studentId) {
+        afterCommit(() -> mark(courseId, studentId));
+    }
+
+    /**
+     * Marks every course grade of the course as dirty.
+     */
+    public void enqueueCourse(String courseId) {
+        afterCommit(() -> mark(courseId, null));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void mark(String courseId, String studentId) {
+        requested.incrementAndGet();
+        long now = nanoClock.getAsLong();
+        synchronized (pending) {
+            PendingCourse course = pending.computeIfAbsent(courseId, id -> new PendingCourse(now));
+            course.lastRequestedAt = now;
+            if (studentId == null) {
+                course.allStudents = true;
+                course.studentIds.clear();
+            } else if (!course.allStudents) {
+                course.studentIds.add(studentId);
+            }
+        }
+    }
+
+    /**
+     * Hands every due course that is not already in flight to the worker pool.
+     */
+    void dispatchDue() {
+        try {
+            long now = nanoClock.getAsLong();
+            synchronized (pending) {
+                Iterator<Map.Entry<String, PendingCourse>> it = pending.entrySet().iterator();
+                while (it.hasNext() && workerPool.getQueue().remainingCapacity() > 0) {
+                    Map.Entry<String, PendingCourse> entry = it.next();
+                    String courseId = entry.getKey();
+                    PendingCourse course = entry.getValue();
+                    if (!course.isDue(now, debounce.toNanos(), maxDelay.toNanos()) || inFlight.contains(courseId)) {
+                        continue;
+                    }
+                    it.remove();
+                    inFlight.add(courseId);
+                    try {
+                        workerPool.execute(() -> process(courseId, course));
+                    } catch (RejectedExecutionException e) {
+                        // Pool saturated: put the work back and retry on the next poll
+                        inFlight.remove(courseId);
+                        pending.put(courseId, course);
+                        break;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to dispatch grade recalculations", e);
+        }
+    }
+
+    private void process(String courseId, PendingCourse work) {
+        boolean succeeded = false;
+        try {
+            Optional<Course> course = courseRepository.findById(courseId);
+            if (course.isEmpty()) {
+                log.debug("Skipping grade recalculation for deleted course {}", courseId);
+                return;
+            }
+            int written;
+            if (work.allStudents) {
+                written = recalculationService.recalculateCourse(course.get());
+                cacheTagInvalidator.evictTagged(GRADEBOOK_CACHE, CacheTags.course(courseId));
+            } else {
+                written = recalculationService.recalculateStudents(course.get(), work.studentIds);
+                for (String studentId : work.studentIds) {
+                    cacheTagInvalidator.evictKey(GRADEBOOK_CACHE, CacheTags.courseGradeKey(courseId, studentId));
+                }
+            }
+            processedCourses.incrementAndGet();
+            processedGrades.addAndGet(written);
+            lastCompletedAt = LocalDateTime.now();
+            succeeded = true;
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.error("Failed to recalculate course grades for course {} (attempt {} of {})",
+                    courseId, work.attempts + 1, maxAttempts, e);
+        } finally {
+            synchronized (pending) {
+                if (!succeeded) {
+                    retry(courseId, work);
+                }
+                inFlight.remove(courseId);
+            }
+        }
+    }
+
+    // Caller holds the pending map's monitor
+    private void retry(String courseId, PendingCourse work) {
+        int attempts = work.attempts + 1;
+        if (attempts >= maxAttempts) {
+            log.warn("Giving up on grade recalculation for course {} after {} attempts", courseId, attempts);
+            return;
+        }
+        // A fresh entry restarts the debounce, so the retry does not run on the next poll
+        PendingCourse course = pending.computeIfAbsent(courseId, id -> new PendingCourse(nanoClock.getAsLong()));
+        course.absorb(work);
+        course.attempts = Math.max(course.attempts, attempts);
+    }
+
+    /**
+     * Queue-wide counters for the status endpoint.
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        synchronized (pending) {
+            status.put("pendingCourses", pending.size());
+            status.put("pendingStudents", pending.values().stream()
+                    .filter(course -> !course.allStudents)
+                    .mapToInt(course -> course.studentIds.size())
+                    .sum());
+            status.put("pendingFullCourses", pending.values().stream()
+                    .filter(course -> course.allStudents)
+                    .count());
+            status.put("inFlightCourses", inFlight.size());
+        }
+        status.put("activeWorkers", workerPool.getActiveCount());
+        status.put("maxWorkers", workerPool.getMaximumPoolSize());
+        status.put("queuedTasks", workerPool.getQueue().size());
+        status.put("requested", requested.get());
+        status.put("processedCourses", processedCourses.get());
+        status.put("processedGrades", processedGrades.get());
+        status.put("failed", failed.get());
+        status.put("lastCompletedAt", lastCompletedAt);
+        return status;
+    }
+
+    /**
+     * Whether grades of one course are still waiting to be recalculated.
+     */
+    public Map<String, Object> getCourseStatus(String courseId) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        synchronized (pending) {
+            PendingCourse course = pending.get(courseId);
+            status.put("courseId", courseId);
+            status.put("pending", course != null);
+            status.put("pendingAllStudents", course != null && course.allStudents);
+            status.put("pendingStudents", course != null ? course.studentIds.size() : 0);
+            status.put("inFlight", inFlight.contains(courseId));
+        }
+        return status;
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Guarded by the pending map's monitor until handed to a worker
+    private static final class PendingCourse {
+        private final long firstRequestedAt;
+        private long lastRequestedAt;
+        private boolean allStudents;
+        private final Set<String> studentIds = new HashSet<>();
+        private int attempts;
+
+        private PendingCourse(long firstRequestedAt) {
+            this.firstRequestedAt = firstRequestedAt;
+            this.lastRequestedAt = firstRequestedAt;
+        }
+
+        private void absorb(PendingCourse other) {
+            if (other.allStudents) {
+                allStudents = true;
+                studentIds.clear();
+            } else if (!allStudents) {
+                studentIds.addAll(other.studentIds);
+            }
+        }
+
+        private boolean isDue(long now, long debounceNanos, long maxDelayNanos) {
+            return now - lastRequestedAt >= debounceNanos || now - firstRequestedAt >= maxDelayNanos;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.lms.service.gradebook;
+
+import java.math.BigDecimal;
+
+/**
+ * Letter grade and grade point scale, precomputed into lookup tables with one entry per
+ * basis point from 0% to 100%. Looking up a grade is a single array access instead of a
+ * chain of {@code BigDecimal} comparisons. Instances are immutable and thread-safe; course
+ * schemes are compiled into one by {@link GradingSchemeService}.
+ */
+public final class GradeScale {
+
+    private static final int DEFAULT_PASSING = 6000;
+
+    private static final int[] PLUS_MINUS_CUTOFFS =
+            {9700, 9300, 9000, 8700, 8300, 8000, 7700, 7300, 7000, 6700, 6300, 6000};
+    private static final String[] PLUS_MINUS_LETTERS =
+            {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "D-"};
+    private static final BigDecimal[] PLUS_MINUS_POINTS =
+            points("4.0", "4.0", "3.7", "3.3", "3.0", "2.7", "2.3", "2.0", "1.7", "1.3", "1.0", "0.7");
+
+    private static final int[] STRAIGHT_CUTOFFS = {9000, 8000, 7000, 6000};
+    private static final String[] STRAIGHT_LETTERS = {"A", "B", "C", "D"};
+    private static final BigDecimal[] STRAIGHT_POINTS = points("4.0", "3.0", "2.0", "1.0");
+
+    private static final String FAILING_LETTER = "F";
+    private static final BigDecimal FAILING_POINTS = new BigDecimal("0.0");
+
+    /**
+     * The standard plus/minus scale with 60% to pass.
+     */
+    public static final GradeScale DEFAULT = letterScale(true, DEFAULT_PASSING);
+
+    private final String[] letters = new String[GradeMath.FULL + 1];
+    private final BigDecimal[] points = new BigDecimal[GradeMath.FULL + 1];
+    private final int passingBasisPoints;
+
+    /**
+     * @param cutoffs            lower bounds in basis points, highest first
+     * @param cutoffLetters      letter for each cutoff
+     * @param cutoffPoints       grade points for each cutoff, {@code null} entries for none
+     * @param failingLetter      letter below the last cutoff
+     * @param failingPoints      grade points below the last cutoff, may be {@code null}
+     * @param passingBasisPoints lowest passing grade in basis points
+     */
+    private GradeScale(int[] cutoffs, String[] cutoffLetters, BigDecimal[] cutoffPoints,
+                       String failingLetter, BigDecimal failingPoints, int passingBasisPoints) {
+        this.passingBasisPoints = passingBasisPoints;
+        int step = 0;
+        for (int bp = GradeMath.FULL; bp >= 0; bp--) {
+            while (step < cutoffs.length && bp < cutoffs[step]) {
+                step++;
+            }
+            letters[bp] = step < cutoffs.length ? cutoffLetters[step] : failingLetter;
+            points[bp] = step < cutoffs.length ? cutoffPoints[step] : failingPoints;
+        }
+    }
+
+    /**
+     * The standard letter scale, with or without plus/minus grades.
+     */
+    public static GradeScale letterScale(boolean plusMinus, int passingBasisPoints) {
+        return plusMinus
+                ? new GradeScale(PLUS_MINUS_CUTOFFS, PLUS_MINUS_LETTERS, PLUS_MINUS_POINTS,
+                        FAILING_LETTER, FAILING_POINTS, passingBasisPoints)
+                : new GradeScale(STRAIGHT_CUTOFFS, STRAIGHT_LETTERS, STRAIGHT_POINTS,
+                        FAILING_LETTER, FAILING_POINTS, passingBasisPoints);
+    }
+
+    /**
+     * A custom letter scale. Cutoffs must be sorted highest first.
+     */
+    public static GradeScale customScale(int[] cutoffs, String[] letters, BigDecimal[] points,
+                                         int passingBasisPoints) {
+        return new GradeScale(cutoffs.clone(), letters.clone(), points.clone(),
+                FAILING_LETTER, FAILING_POINTS, passingBasisPoints);
+    }
+
+    /**
+     * P or F around the passing grade. Pass/fail grades carry no grade points.
+     */
+    public static GradeScale passFail(int passingBasisPoints) {
+        return new GradeScale(new int[]{passingBasisPoints}, new String[]{"P"}, new BigDecimal[]{null},
+                FAILING_LETTER, null, passingBasisPoints);
+    }
+
+    public String letterGrade(long basisPoints) {
+        return letters[GradeMath.clamp(basisPoints)];
+    }
+
+    public BigDecimal gradePoints(long basisPoints) {
+        return points[GradeMath.clamp(basisPoints)];
+    }
+
+    public boolean isPassing(long basisPoints) {
+        return basisPoints >= passingBasisPoints;
+    }
+
+    public String letterGrade(BigDecimal percentage) {
+        return letterGrade(GradeMath.toBasisPoints(percentage));
+    }
+
+    public BigDecimal gradePoints(BigDecimal percentage) {
+        return gradePoints(GradeMath.toBasisPoints(percentage));
+    }
+
+    public boolean isPassing(BigDecimal percentage) {
+        return isPassing(GradeMath.toBasisPoints(percentage));
+    }
+
+    private static BigDecimal[] points(String... values) {
+        BigDecimal[] points = new BigDecimal[values.length];
+        for (int i = 0; i < values.length; i++) {
+            points[i] = new BigDecimal(values[i]);
+        }
+        return points;
+    }
+}
@@ -0,0 +1,188 @@
+package com.lms.service.gradebook;
+
+import com.lms.entity.Course;
+import com.lms.entity.GradebookCategory;
+import com.lms.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Recalculates course grades for a whole course in a fixed number of queries.
+ *
+ * <p>Instead of loading every student and assignment as entities, the inputs are read as
+ * flat projections (categories, assignment-to-category mapping, grade rows, enrollment
+ * progress and existing grade rows), all grades are computed in memory by
+ * {@link CourseGradeCalculator}, and the results are written back with JDBC batch
+ * updates and inserts. The work is independent of the number of students in round trips.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GradebookRecalculationService {
+
+    private static final BigDecimal COMPLETE_PROGRESS = BigDecimal.valueOf(100);
+
+    private static final String UPDATE_SQL =
+            "UPDATE course_grades SET current_grade = ?, letter_grade = ?, grade_points = ?, is_passing = ?, " +
+            "is_complete = ?, final_grade = ?, completion_date = ?, last_calculated = ?, updated_at = ? " +
+            "WHERE id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO course_grades (id, course_id, student_id, current_grade, letter_grade, grade_points, " +
+            "is_passing, is_complete, final_grade, completion_date, grade_locked, last_calculated, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, ?, ?, ?)";
+
+    private final GradebookCategoryRepository categoryRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final AssignmentGradeRepository assignmentGradeRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseGradeRepository courseGradeRepository;
+    private final GradingSchemeService gradingSchemeService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.gradebook.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Recomputes and stores the grade of every student enrolled in the course.
+     *
+     * @return the number of course grade rows written
+     */
+    @Transactional
+    public int recalculateCourse(Course course) {
+        return recalculate(course, null);
+    }
+
+    /**
+     * Recomputes and stores the grades of the given students in one pass. Students who
+     * are no longer enrolled are skipped.
+     *
+     * @return the number of course grade rows written
+     */
+    @Transactional
+    public int recalculateStudents(Course course, Collection<String> studentIds) {
+        return studentIds.isEmpty() ? 0 : recalculate(course, new HashSet<>(studentIds));
+    }
+
+    // A null selection means every enrolled student
+    private int recalculate(Course course, Set<String> selection) {
+        long started = System.nanoTime();
+        String courseId = course.getId();
+
+        List<Object[]> progressRows = enrollmentRepository.findStudentProgressByCourseId(courseId);
+        if (selection != null) {
+            progressRows = progressRows.stream()
+                    .filter(row -> selection.contains((String) row[0]))
+                    .toList();
+        }
+        if (progressRows.isEmpty()) {
+            return 0;
+        }
+        List<String> studentIds = new ArrayList<>(progressRows.size());
+        for (Object[] row : progressRows) {
+            studentIds.add((String) row[0]);
+        }
+
+        CourseGradeCalculator calculator = calculatorFor(course);
+        List<Object[]> gradeRows = selection == null
+                ? assignmentGradeRepository.findGradeRowsByCourseId(courseId)
+                : assignmentGradeRepository.findGradeRowsByCourseIdAndStudentIds(courseId, studentIds);
+        long[] grades = calculator.computeBasisPoints(studentIds, gradeRows);
+
+        Map<String, Object[]> existing = new HashMap<>();
+        List<Object[]> stateRows = selection == null
+                ? courseGradeRepository.findGradeStateByCourseId(courseId)
+                : courseGradeRepository.findGradeStateByCourseIdAndStudentIds(courseId, studentIds);
+        for (Object[] row : stateRows) {
+            existing.put((String) row[0], row);
+        }
+
+        GradeScale scale = gradingSchemeService.scaleFor(courseId);
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+
+        for (int s = 0; s < studentIds.size(); s++) {
+            String studentId = studentIds.get(s);
+            // Converted to BigDecimal only for persistence
+            long basisPoints = grades[s];
+            BigDecimal grade = GradeMath.toPercentage(basisPoints);
+            String letterGrade = scale.letterGrade(basisPoints);
+            BigDecimal gradePoints = scale.gradePoints(basisPoints);
+            boolean passing = scale.isPassing(basisPoints);
+            Object[] state = existing.get(studentId);
+
+            boolean complete = state != null && Boolean.TRUE.equals(state[2]);
+            BigDecimal finalGrade = state != null ? (BigDecimal) state[3] : null;
+            LocalDateTime completionDate = state != null ? (LocalDateTime) state[4] : null;
+
+            BigDecimal progress = (BigDecimal) progressRows.get(s)[1];
+            if (progress != null && progress.compareTo(COMPLETE_PROGRESS) >= 0) {
+                complete = true;
+                finalGrade = grade;
+                if (completionDate == null) {
+                    completionDate = now;
+                }
+            }
+            Timestamp completion = completionDate != null ? Timestamp.valueOf(completionDate) : null;
+
+            if (state != null) {
+                updates.add(new Object[]{grade, letterGrade, gradePoints, passing, complete, finalGrade,
+                        completion, timestamp, timestamp, state[1]});
+            } else {
+                inserts.add(new Object[]{UUID.randomUUID().toString(), courseId, studentId, grade, letterGrade,
+                        gradePoints, passing, complete, finalGrade, completion, timestamp, timestamp, timestamp});
+            }
+        }
+
+        batchWrite(UPDATE_SQL, updates);
+        batchWrite(INSERT_SQL, inserts);
+
+        log.info("Recalculated {} course grades for course {} ({} updated, {} created) in {} ms",
+                studentIds.size(), courseId, updates.size(), inserts.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return updates.size() + inserts.size();
+    }
+
+    /**
+     * Computes the current grade of a single student with the same rules as
+     * {@link #recalculateCourse(Course)}, without writing it.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal computeGrade(Course course, String studentId) {
+        CourseGradeCalculator calculator = calculatorFor(course);
+        return calculator.compute(List.of(studentId),
+                assignmentGradeRepository.findGradeRowsByCourseIdAndStudentId(course.getId(), studentId))[0];
+    }
+
+    private CourseGradeCalculator calculatorFor(Course course) {
+        List<GradebookCategory> categories = categoryRepository.findByCourseAndIsActiveTrueOrderByCategoryOrderAsc(course);
+        if (categories.isEmpty()) {
+            return new CourseGradeCalculator(List.of(), List.of());
+        }
+        List<CourseGradeCalculator.Category> activeCategories = new ArrayList<>(categories.size());
+        for (GradebookCategory category : categories) {
+            activeCategories.add(new CourseGradeCalculator.Category(category.getId(),
+                    category.getWeightPercentage(),
+                    category.getDropLowest() != null ? category.getDropLowest() : 0));
+        }
+        return new CourseGradeCalculator(activeCategories,
+                assignmentRepository.findGradedAssignmentCategories(course.getId()));
+    }
+
+    private void batchWrite(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.lms.service.gradebook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lms.cache.CacheTagInvalidator;
+import com.lms.cache.CacheTags;
+import com.lms.dto.gradebook.GradingSchemeDto;
+import com.lms.entity.Course;
+import com.lms.entity.GradingScheme;
+import com.lms.exception.BadRequestException;
+import com.lms.repository.GradingSchemeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Stores per-course grading schemes and compiles them into {@link GradeScale} lookup tables.
+ *
+ * <p>Compiled scales are cached by scheme content rather than by course, so courses sharing
+ * the same settings share one table. The settings of each course are kept in the gradebook
+ * cache under {@code grading-scheme:<courseId>}, so resolving a course's scale normally
+ * needs no database lookup; saving a scheme evicts that entry on every node once the
+ * change commits. The scheme is never parsed per student.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GradingSchemeService {
+
+    private static final TypeReference<List<GradingSchemeDto.Cutoff>> CUTOFF_LIST = new TypeReference<>() {
+    };
+
+    private static final String GRADEBOOK_CACHE = "gradebook";
+
+    private final GradingSchemeRepository gradingSchemeRepository;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final CacheTagInvalidator cacheTagInvalidator;
+
+    @Value("${app.gradebook.schemes.cache-size:1000}")
+    private long cacheSize;
+
+    private Cache<SchemeKey, GradeScale> compiledScales;
+
+    @PostConstruct
+    public void init() {
+        compiledScales = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    /**
+     * The compiled scale of the course, or the standard letter scale of
+     * {@link GradeScale#DEFAULT} when the course has no scheme of its own.
+     */
+    public GradeScale scaleFor(String courseId) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(GRADEBOOK_CACHE);
+        GradingSchemeDto scheme = cache != null
+                ? cache.get(CacheTags.gradingSchemeKey(courseId), () -> getScheme(courseId))
+                : getScheme(courseId);
+        return compile(scheme);
+    }
+
+    @Transactional(readOnly = true)
+    public GradingSchemeDto getScheme(String courseId) {
+        return gradingSchemeRepository.findByCourseId(courseId)
+                .map(this::toDto)
+                .orElseGet(() -> new GradingSchemeDto(GradingScheme.SchemeType.LETTER, true,
+                        GradeMath.toPercentage(6000), null));
+    }
+
+    /**
+     * Creates or replaces the scheme of the course. The scheme is compiled before it is
+     * saved, so an invalid scheme is rejected rather than stored.
+     *
+     * @return whether the scheme changed
+     */
+    @Transactional
+    public boolean saveScheme(Course course, GradingSchemeDto request) {
+        String cutoffs = serializeCutoffs(request);
+        GradingScheme scheme = gradingSchemeRepository.findByCourseId(course.getId())
+                .orElseGet(() -> {
+                    GradingScheme created = new GradingScheme();
+                    created.setId(UUID.randomUUID().toString());
+                    created.setCourse(course);
+                    return created;
+                });
+        SchemeKey before = scheme.getCreatedAt() != null ? keyOf(scheme) : null;
+
+        scheme.setSchemeType(request.getSchemeType());
+        scheme.setPlusMinus(request.isPlusMinus());
+        scheme.setPassingPercentage(request.getPassingPercentage());
+        scheme.setCutoffs(cutoffs);
+        compile(scheme);
+
+        gradingSchemeRepository.save(scheme);
+        cacheTagInvalidator.evictKey(GRADEBOOK_CACHE, CacheTags.gradingSchemeKey(course.getId()));
+        log.info("Grading scheme saved for course: {} ({})", course.getTitle(), scheme.getSchemeType());
+        return !keyOf(scheme).equals(before);
+    }
+
+    GradeScale compile(GradingScheme scheme) {
+        return compiledScales.get(keyOf(scheme), this::compile);
+    }
+
+    private GradeScale compile(GradingSchemeDto scheme) {
+        SchemeKey key = new SchemeKey(scheme.getSchemeType(), scheme.isPlusMinus(),
+                GradeMath.clamp(GradeMath.toBasisPoints(scheme.getPassingPercentage())), serializeCutoffs(scheme));
+        return compiledScales.get(key, this::compile);
+    }
+
+    private GradeScale compile(SchemeKey key) {
+        if (key.schemeType() == GradingScheme.SchemeType.PASS_FAIL) {
+            return GradeScale.passFail(key.passingBasisPoints());
+        }
+        if (key.cutoffs() == null) {
+            return GradeScale.letterScale(key.plusMinus(), key.passingBasisPoints());
+        }
+
+        List<GradingSchemeDto.Cutoff> cutoffs = parseCutoffs(key.cutoffs());
+        cutoffs.sort(Comparator.comparing(GradingSchemeDto.Cutoff::getMinPercentage).reversed());
+        int[] bounds = new int[cutoffs.size()];
+        String[] letters = new String[cutoffs.size()];
+        BigDecimal[] points = new BigDecimal[cutoffs.size()];
+        for (int i = 0; i < cutoffs.size(); i++) {
+            GradingSchemeDto.Cutoff cutoff = cutoffs.get(i);
+            bounds[i] = GradeMath.clamp(GradeMath.toBasisPoints(cutoff.getMinPercentage()));
+            if (i > 0 && bounds[i] == bounds[i - 1]) {
+                throw new BadRequestException("Duplicate grade cutoff: " + cutoff.getMinPercentage());
+            }
+            letters[i] = cutoff.getLetter();
+            points[i] = cutoff.getGradePoints();
+        }
+        return GradeScale.customScale(bounds, letters, points, key.passingBasisPoints());
+    }
+
+    private SchemeKey keyOf(GradingScheme scheme) {
+        return new SchemeKey(scheme.getSchemeType(), scheme.isPlusMinus(),
+                GradeMath.clamp(GradeMath.toBasisPoints(scheme.getPassingPercentage())), scheme.getCutoffs());
+    }
+
+    private String serializeCutoffs(GradingSchemeDto request) {
+        if (request.getSchemeType() == GradingScheme.SchemeType.PASS_FAIL
+                || request.getCutoffs() == null || request.getCutoffs().isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(request.getCutoffs());
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Invalid grade cutoffs");
+        }
+    }
+
+    private List<GradingSchemeDto.Cutoff> parseCutoffs(String json) {
+        try {
+            return new ArrayList<>(objectMapper.readValue(json, CUTOFF_LIST));
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Invalid grade cutoffs");
+        }
+    }
+
+    private GradingSchemeDto toDto(GradingScheme scheme) {
+        return new GradingSchemeDto(scheme.getSchemeType(), scheme.isPlusMinus(), scheme.getPassingPercentage(),
+                scheme.getCutoffs() != null ? parseCutoffs(scheme.getCutoffs()) : null);
+    }
+
+    // Everything a compiled scale depends on
+    private record SchemeKey(GradingScheme.SchemeType schemeType, boolean plusMinus,
+                             int passingBasisPoints, String cutoffs) {
+    }
+}
@@ -2,13 +2,14 @@ package com.lms.service.messaging;
 
 import com.lms.config.RabbitMQConfig;
 import com.lms.dto.messaging.CertificateMessage;
-import com.lms.dto.messaging.EmailMessage;
-import com.lms.dto.messaging.NotificationMessage;
 import com.lms.entity.Certificate;
 import com.lms.entity.Enrollment;
 import com.lms.repository.CertificateRepository;
 import com.lms.repository.EnrollmentRepository;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
 import com.lms.service.PdfCertificateGeneratorService;
+import com.lms.service.certificate.CertificateNotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -17,8 +18,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -29,12 +29,14 @@ public class CertificateConsumerService {
     private final CertificateRepository certificateRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final PdfCertificateGeneratorService pdfGeneratorService;
-    private final MessageProducerService messageProducerService;
+    private final CertificateNotificationService certificateNotificationService;
+    private final PlatformMetricsService platformMetrics;
 
     @Value("${app.certificate.base-url:http://localhost:8080/certificates}")
     private String certificateBaseUrl;
 
-    @RabbitListener(queues = RabbitMQConfig.CERTIFICATE_QUEUE)
+    @RabbitListener(id = RabbitMQConfig.CERTIFICATE_LISTENER, queues = RabbitMQConfig.CERTIFICATE_QUEUE,
+                    containerFactory = RabbitMQConfig.CERTIFICATE_CONTAINER_FACTORY)
     public void processCertificateMessage(CertificateMessage certificateMessage) {
         try {
             log.info("Processing certificate generation for enrollment: {}", 
@@ -50,20 +52,23 @@ public class CertificateConsumerService {
                 return;
             }
             
-            // Check if certificate already exists
-            if (certificateRepository.existsByEnrollment(enrollment)) {
+            // Check if certificate already exists; a failed one is generated again on retry
+            Optional<Certificate> existing = certificateRepository.findByEnrollment(enrollment);
+            if (existing.isPresent() && existing.get().getStatus() != Certificate.Status.FAILED) {
                 log.warn("Certificate already exists for enrollment {}", enrollment.getId());
                 return;
             }
             
             // Create certificate record
-            Certificate certificate = createCertificateRecord(enrollment);
+            Certificate certificate = existing.isPresent()
+                    ? resetFailedCertificate(existing.get())
+                    : createCertificateRecord(enrollment);
             
             // Generate PDF
             generateCertificatePdf(certificate);
             
             // Send notifications
-            sendCertificateNotifications(certificate);
+            certificateNotificationService.notifyStudent(certificate);
             
             log.info("Certificate generated successfully for enrollment: {}", 
                     certificateMessage.getEnrollmentId());
@@ -71,7 +76,8 @@ public class CertificateConsumerService {
         } catch (Exception e) {
             log.error("Failed to process certificate message: {}", 
                     certificateMessage.getId(), e);
-            handleCertificateFailure(certificateMessage, e);
+            // Retried with backoff and finally parked by RetryingMessageRecoverer
+            throw new RuntimeException("Failed to process certificate message", e);
         }
     }
     
@@ -84,7 +90,19 @@ public class CertificateConsumerService {
         certificate.setCertificateNumber(generateCertificateNumber());
         certificate.setStatus(Certificate.Status.PENDING);
         
-        return certificateRepository.save(certificate);
+        Certificate saved = certificateRepository.save(certificate);
+        platformMetrics.increment(PlatformMetric.TOTAL_CERTIFICATES);
+        platformMetrics.increment(PlatformMetric.PENDING_CERTIFICATES);
+        return saved;
+    }
+    
+    private Certificate resetFailedCertificate(Certificate certificate) {
+        certificate.setStatus(Certificate.Status.PENDING);
+        Certificate saved = certificateRepository.save(certificate);
+        platformMetrics.increment(PlatformMetric.PENDING_CERTIFICATES);
+        log.info("Retrying failed certificate {} for enrollment {}", certificate.getId(),
+                certificate.getEnrollment().getId());
+        return saved;
     }
     
     private void generateCertificatePdf(Certificate certificate) {
@@ -97,87 +115,23 @@ public class CertificateConsumerService {
             certificate.setStatus(Certificate.Status.GENERATED);
             
             certificateRepository.save(certificate);
+            platformMetrics.decrement(PlatformMetric.PENDING_CERTIFICATES);
             
             log.info("Certificate PDF generated successfully: {}", fileName);
         } catch (Exception e) {
             log.error("Failed to generate certificate PDF", e);
+            if (certificate.getStatus() == Certificate.Status.PENDING) {
+                platformMetrics.decrement(PlatformMetric.PENDING_CERTIFICATES);
+            }
             certificate.setStatus(Certificate.Status.FAILED);
             certificateRepository.save(certificate);
             throw new RuntimeException("Failed to generate certificate PDF", e);
         }
     }
     
-    private void sendCertificateNotifications(Certificate certificate) {
-        try {
-            // Send email notification
-            sendCertificateEmail(certificate);
-            
-            // Send in-app notification
-            sendCertificateNotification(certificate);
-            
-        } catch (Exception e) {
-            log.error("Failed to send certificate notifications", e);
-            // Don't fail the entire process if notifications fail
-        }
-    }
-    
-    private void sendCertificateEmail(Certificate certificate) {
-        Map<String, Object> emailData = new HashMap<>();
-        emailData.put("studentName", certificate.getUser().getFullName());
-        emailData.put("courseName", certificate.getCourse().getTitle());
-        emailData.put("certificateNumber", certificate.getCertificateNumber());
-        emailData.put("instructorName", certificate.getCourse().getInstructor().getFullName());
-        emailData.put("completionDate", certificate.getEnrollment().getCompletedAt()
-                .format(DateTimeFormatter.ofPattern("MMMM dd, yyyy")));
-        
-        EmailMessage emailMessage = new EmailMessage(
-                certificate.getUser().getEmail(),
-                "Your Certificate is Ready!",
-                EmailMessage.EmailType.CERTIFICATE_READY,
-                emailData
-        );
-        
-        messageProducerService.sendEmailMessage(emailMessage);
-    }
-    
-    private void sendCertificateNotification(Certificate certificate) {
-        String title = "Certificate Ready!";
-        String message = String.format("Your certificate for '%s' is now ready for download.",
-                certificate.getCourse().getTitle());
-        
-        Map<String, Object> notificationData = new HashMap<>();
-        notificationData.put("certificateId", certificate.getId());
-        notificationData.put("courseId", certificate.getCourse().getId());
-        notificationData.put("certificateNumber", certificate.getCertificateNumber());
-        
-        NotificationMessage notificationMessage = new NotificationMessage(
-                certificate.getUser().getId(),
-                title,
-                message,
-                NotificationMessage.NotificationType.CERTIFICATE_READY,
-                notificationData
-        );
-        
-        messageProducerService.sendNotificationMessage(notificationMessage);
-    }
-    
     private String generateCertificateNumber() {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
         String randomPart = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
         return "CERT-" + timestamp + "-" + randomPart;
     }
-    
-    private void handleCertificateFailure(CertificateMessage certificateMessage, Exception e) {
-        certificateMessage.setRetryCount(certificateMessage.getRetryCount() + 1);
-        
-        if (certificateMessage.getRetryCount() < 3) {
-            log.info("Retrying certificate generation: {} (attempt {})", 
-                    certificateMessage.getId(), certificateMessage.getRetryCount());
-            // Could re-queue the message for retry
-        } else {
-            log.error("Certificate generation failed after {} attempts: {}", 
-                    certificateMessage.getRetryCount(), certificateMessage.getId());
-            // Could send to dead letter queue or alert admins
-        }
-    }
 }
@@ -0,0 +1,133 @@
+package com.lms.service.messaging;
+
+import com.lms.config.RabbitMQConfig;
+import com.lms.config.RetryBackoff;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer view of the consumers, so each can be scaled on its own.
+ *
+ * <p>Per listener: invocation time ({@code messaging.listener.duration}), invocations in
+ * progress ({@code messaging.listener.busy}), running consumers
+ * ({@code messaging.listener.consumers.active}) and the configured maximum
+ * ({@code messaging.listener.consumers.max}). Busy divided by active consumers is the
+ * utilisation; when it stays near one while the queue grows, raise the maximum.
+ *
+ * <p>Per queue: broker-side depth of the work queue, its retry tiers and its parking lot
+ * ({@code messaging.queue.depth}). Depths are polled on a schedule rather than on every
+ * scrape, so a slow broker never stalls the metrics endpoint.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConsumerMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final RetryBackoff retryBackoff;
+
+    private final Map<String, AtomicLong> depths = new ConcurrentHashMap<>();
+
+    /**
+     * Advice that times every invocation of the listener. Registers the listener's meters.
+     */
+    public MethodInterceptor listenerAdvice(String listener, int maxConsumers) {
+        Timer timer = Timer.builder("messaging.listener.duration")
+                .description("Time spent in the listener per delivery or batch")
+                .tag("listener", listener)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        AtomicInteger busy = meterRegistry.gauge("messaging.listener.busy",
+                Tags.of("listener", listener), new AtomicInteger());
+        Gauge.builder("messaging.listener.consumers.max", () -> maxConsumers)
+                .tag("listener", listener)
+                .register(meterRegistry);
+
+        return invocation -> {
+            busy.incrementAndGet();
+            long started = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                busy.decrementAndGet();
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerContainerGauges() {
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            if (container instanceof SimpleMessageListenerContainer simple) {
+                Gauge.builder("messaging.listener.consumers.active", simple,
+                                SimpleMessageListenerContainer::getActiveConsumerCount)
+                        .description("Consumers currently running in the listener container")
+                        .tag("listener", simple.getListenerId())
+                        .register(meterRegistry);
+            }
+        }
+        for (String queue : RabbitMQConfig.RETRYABLE_QUEUES) {
+            registerDepth(queue, "work");
+            registerDepth(queue, "retry");
+            registerDepth(queue, "parked");
+        }
+        pollQueueDepths();
+    }
+
+    @Scheduled(fixedDelayString = "${app.messaging.metrics.poll-interval:15000}",
+               initialDelayString = "${app.messaging.metrics.poll-interval:15000}")
+    public void pollQueueDepths() {
+        try {
+            for (String queue : RabbitMQConfig.RETRYABLE_QUEUES) {
+                depth(queue, "work").set(messageCount(queue));
+                long retrying = 0;
+                for (int attempt = 1; attempt <= retryBackoff.tiers(); attempt++) {
+                    retrying += messageCount(RabbitMQConfig.retryQueue(queue, attempt));
+                }
+                depth(queue, "retry").set(retrying);
+                depth(queue, "parked").set(messageCount(RabbitMQConfig.parkingLotQueue(queue)));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to poll queue depths: {}", e.getMessage());
+        }
+    }
+
+    private void registerDepth(String queue, String stage) {
+        Gauge.builder("messaging.queue.depth", depth(queue, stage), AtomicLong::get)
+                .description("Messages waiting in the queue, its retry tiers or its parking lot")
+                .tag("queue", queue)
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private AtomicLong depth(String queue, String stage) {
+        return depths.computeIfAbsent(queue + "|" + stage, key -> new AtomicLong());
+    }
+
+    private long messageCount(String queue) {
+        QueueInformation info = amqpAdmin.getQueueInfo(queue);
+        return info != null ? info.getMessageCount() : 0;
+    }
+}
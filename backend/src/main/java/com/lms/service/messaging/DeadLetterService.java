@@ -0,0 +1,163 @@
+package com.lms.service.messaging;
+
+import com.lms.config.RabbitMQConfig;
+import com.lms.config.RetryBackoff;
+import com.lms.exception.BadRequestException;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Admin view of the delivery-guarantee layer: queue depths per stage, and inspecting,
+ * replaying and purging parked messages.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterService {
+
+    private static final int MAX_LIMIT = 500;
+    private static final int MAX_PAYLOAD_PREVIEW = 2000;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final RetryBackoff retryBackoff;
+
+    /**
+     * Message counts of every retryable queue, its retry tiers and its parking lot.
+     */
+    public List<Map<String, Object>> getQueueSummaries() {
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        for (String queue : RabbitMQConfig.RETRYABLE_QUEUES) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            QueueInformation info = amqpAdmin.getQueueInfo(queue);
+            summary.put("queue", queue);
+            summary.put("ready", info != null ? info.getMessageCount() : null);
+            summary.put("consumers", info != null ? info.getConsumerCount() : null);
+
+            List<Map<String, Object>> tiers = new ArrayList<>();
+            for (int attempt = 1; attempt <= retryBackoff.tiers(); attempt++) {
+                String retryQueue = RabbitMQConfig.retryQueue(queue, attempt);
+                QueueInformation tierInfo = amqpAdmin.getQueueInfo(retryQueue);
+                Map<String, Object> tier = new LinkedHashMap<>();
+                tier.put("queue", retryQueue);
+                tier.put("delay", retryBackoff.delay(attempt).toString());
+                tier.put("waiting", tierInfo != null ? tierInfo.getMessageCount() : null);
+                tiers.add(tier);
+            }
+            summary.put("retryTiers", tiers);
+
+            QueueInformation parked = amqpAdmin.getQueueInfo(RabbitMQConfig.parkingLotQueue(queue));
+            summary.put("parked", parked != null ? parked.getMessageCount() : null);
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    /**
+     * Up to {@code limit} parked messages of the queue, oldest first. Messages are fetched
+     * without acknowledgement and returned to the parking lot afterwards.
+     */
+    public List<Map<String, Object>> peekParked(String queue, int limit) {
+        String parkingLot = parkingLotOf(queue);
+        int max = clampLimit(limit);
+        return rabbitTemplate.execute(channel -> {
+            List<Map<String, Object>> messages = new ArrayList<>();
+            long lastTag = -1;
+            try {
+                GetResponse response;
+                while (messages.size() < max && (response = channel.basicGet(parkingLot, false)) != null) {
+                    lastTag = response.getEnvelope().getDeliveryTag();
+                    messages.add(describe(response));
+                }
+            } finally {
+                if (lastTag >= 0) {
+                    channel.basicNack(lastTag, true, true);
+                }
+            }
+            return messages;
+        });
+    }
+
+    /**
+     * Moves up to {@code limit} parked messages back onto their work queue with a fresh
+     * attempt count. Each message is acknowledged only after it has been republished.
+     *
+     * @return the number of messages replayed
+     */
+    public int replayParked(String queue, int limit) {
+        String parkingLot = parkingLotOf(queue);
+        int max = clampLimit(limit);
+        Integer replayed = rabbitTemplate.execute(channel -> {
+            int count = 0;
+            GetResponse response;
+            while (count < max && (response = channel.basicGet(parkingLot, false)) != null) {
+                channel.basicPublish("", queue, withoutRetryHeaders(response.getProps()), response.getBody());
+                channel.basicAck(response.getEnvelope().getDeliveryTag(), false);
+                count++;
+            }
+            return count;
+        });
+        log.info("Replayed {} parked messages onto {}", replayed, queue);
+        return replayed != null ? replayed : 0;
+    }
+
+    /**
+     * Drops every parked message of the queue.
+     *
+     * @return the number of messages purged
+     */
+    public int purgeParked(String queue) {
+        int purged = amqpAdmin.purgeQueue(parkingLotOf(queue));
+        log.warn("Purged {} parked messages of {}", purged, queue);
+        return purged;
+    }
+
+    private static String parkingLotOf(String queue) {
+        if (!RabbitMQConfig.RETRYABLE_QUEUES.contains(queue)) {
+            throw new BadRequestException("Unknown queue: " + queue);
+        }
+        return RabbitMQConfig.parkingLotQueue(queue);
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private static Map<String, Object> describe(GetResponse response) {
+        AMQP.BasicProperties props = response.getProps();
+        Map<String, Object> headers = props.getHeaders() != null ? props.getHeaders() : Map.of();
+        String payload = new String(response.getBody(), StandardCharsets.UTF_8);
+
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("messageId", props.getMessageId());
+        message.put("attempts", headers.get(RetryingMessageRecoverer.ATTEMPT_HEADER));
+        message.put("lastError", stringValue(headers.get(RetryingMessageRecoverer.ERROR_HEADER)));
+        message.put("failedAt", stringValue(headers.get(RetryingMessageRecoverer.FAILED_AT_HEADER)));
+        message.put("payload", payload.length() > MAX_PAYLOAD_PREVIEW ? payload.substring(0, MAX_PAYLOAD_PREVIEW) : payload);
+        return message;
+    }
+
+    // Header values arrive as LongString from the client library
+    private static String stringValue(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static AMQP.BasicProperties withoutRetryHeaders(AMQP.BasicProperties props) {
+        Map<String, Object> headers = props.getHeaders() != null ? new HashMap<>(props.getHeaders()) : new HashMap<>();
+        headers.remove(RetryingMessageRecoverer.ATTEMPT_HEADER);
+        headers.remove(RetryingMessageRecoverer.ERROR_HEADER);
+        headers.remove(RetryingMessageRecoverer.FAILED_AT_HEADER);
+        headers.remove(RetryingMessageRecoverer.ORIGINAL_QUEUE_HEADER);
+        headers.remove("x-death");
+        return props.builder().headers(headers).deliveryMode(2).build();
+    }
+}
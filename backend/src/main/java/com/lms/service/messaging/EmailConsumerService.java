@@ -2,6 +2,7 @@ package com.lms.service.messaging;
 
 import com.lms.config.RabbitMQConfig;
 import com.lms.dto.messaging.EmailMessage;
+import com.lms.service.email.EmailTemplates;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -21,6 +22,8 @@ public class EmailConsumerService {
 
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
+    private final EmailTemplates emailTemplates;
+    private final ProcessedMessageStore processedMessages;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -28,8 +31,19 @@ public class EmailConsumerService {
     @Value("${cors.allowed-origins}")
     private String frontendUrl;
 
-    @RabbitListener(queues = RabbitMQConfig.EMAIL_QUEUE)
+    /**
+     * Sends one email. The message id is claimed first, so a redelivered message (outbox
+     * republish, retry-tier duplicate) does not send the email twice; a failed send releases
+     * the claim for the retry.
+     */
+    @RabbitListener(id = RabbitMQConfig.EMAIL_LISTENER, queues = RabbitMQConfig.EMAIL_QUEUE,
+                    containerFactory = RabbitMQConfig.EMAIL_CONTAINER_FACTORY)
     public void processEmailMessage(EmailMessage emailMessage) {
+        String messageId = emailMessage.getId();
+        if (messageId != null && !processedMessages.claim(RabbitMQConfig.EMAIL_LISTENER, messageId)) {
+            log.info("Skipping already sent email message: {}", messageId);
+            return;
+        }
         try {
             log.info("Processing email message: {} for {}", emailMessage.getType(), emailMessage.getTo());
             
@@ -38,8 +52,12 @@ public class EmailConsumerService {
             
             log.info("Email sent successfully: {} to {}", emailMessage.getType(), emailMessage.getTo());
         } catch (Exception e) {
+            if (messageId != null) {
+                processedMessages.release(RabbitMQConfig.EMAIL_LISTENER, messageId);
+            }
             log.error("Failed to process email message: {}", emailMessage.getId(), e);
-            handleEmailFailure(emailMessage, e);
+            // Retried with backoff and finally parked by RetryingMessageRecoverer
+            throw new RuntimeException("Failed to send email message", e);
         }
     }
 
@@ -53,120 +71,11 @@ public class EmailConsumerService {
             context.setVariable("frontendUrl", frontendUrl.split(",")[0]);
             return templateEngine.process(emailMessage.getTemplateName(), context);
         } else {
-            // Generate content based on email type
-            return generateContentByType(emailMessage);
+            // Precompiled plain-text body of the email type
+            return emailTemplates.render(emailMessage.getType(), emailMessage.getTemplateData());
         }
     }
 
-    private String generateContentByType(EmailMessage emailMessage) {
-        var data = emailMessage.getTemplateData();
-        String baseUrl = frontendUrl.split(",")[0];
-        
-        return switch (emailMessage.getType()) {
-            case WELCOME -> String.format(
-                "Hi %s,\n\n" +
-                "Welcome to Modern LMS! We're excited to have you join our learning community.\n\n" +
-                "Please verify your email by clicking the link below:\n" +
-                "%s/verify-email?token=%s\n\n" +
-                "Best regards,\n" +
-                "Modern LMS Team",
-                data.get("firstName"),
-                baseUrl,
-                data.get("verificationToken")
-            );
-            
-            case ENROLLMENT_CONFIRMATION -> String.format(
-                "Hi %s,\n\n" +
-                "You have successfully enrolled in the course: %s\n\n" +
-                "Instructor: %s\n" +
-                "Course Duration: %s hours\n\n" +
-                "You can start learning by visiting:\n" +
-                "%s/courses/%s\n\n" +
-                "Happy learning!\n\n" +
-                "Best regards,\n" +
-                "Modern LMS Team",
-                data.get("studentName"),
-                data.get("courseName"),
-                data.get("instructorName"),
-                data.get("courseDuration"),
-                baseUrl,
-                data.get("courseId")
-            );
-            
-            case COURSE_PUBLISHED -> String.format(
-                "Hi %s,\n\n" +
-                "Great news! Your course '%s' has been published and is now available to students.\n\n" +
-                "Course URL: %s/courses/%s\n\n" +
-                "Students can now discover and enroll in your course. We'll notify you when you get your first enrollments!\n\n" +
-                "Best regards,\n" +
-                "Modern LMS Team",
-                data.get("instructorName"),
-                data.get("courseName"),
-                baseUrl,
-                data.get("courseId")
-            );
-            
-            case CERTIFICATE_READY -> String.format(
-                "Hi %s,\n\n" +
-                "Congratulations! You have successfully completed the course: %s\n\n" +
-                "Your certificate is now ready for download.\n" +
-                "Certificate Number: %s\n\n" +
-                "Download your certificate from your dashboard:\n" +
-                "%s/dashboard/certificates\n\n" +
-                "Well done on completing the course!\n\n" +
-                "Best regards,\n" +
-                "Modern LMS Team",
-                data.get("studentName"),
-                data.get("courseName"),
-                data.get("certificateNumber"),
-                baseUrl
-            );
-            
-            case INSTRUCTOR_APPROVED -> String.format(
-                "Hi %s,\n\n" +
-                "Congratulations! Your instructor application has been approved.\n\n" +
-                "You can now start creating and publishing courses on Modern LMS.\n\n" +
-                "Get started by visiting your instructor dashboard:\n" +
-                "%s/instructor/dashboard\n\n" +
-                "Welcome to the Modern LMS instructor community!\n\n" +
-                "Best regards,\n" +
-                "Modern LMS Team",
-                data.get("instructorName"),
-                baseUrl
-            );
-            
-            case INSTRUCTOR_REJECTED -> String.format(
-                "Hi %s,\n\n" +
-                "Thank you for your interest in becoming an instructor on Modern LMS.\n\n" +
-                "After reviewing your application, we are unable to approve it at this time.\n\n" +
-                "%s\n\n" +
-                "You're welcome to reapply in the future. If you have any questions, " +
-                "please don't hesitate to contact our support team.\n\n" +
-                "Best regards,\n" +
-                "Modern LMS Team",
-                data.get("instructorName"),
-                data.get("reason") != null ? "Reason: " + data.get("reason") : 
-                    "Please ensure you meet all our instructor requirements."
-            );
-            
-            case PASSWORD_RESET -> String.format(
-                "Hi %s,\n\n" +
-                "You requested a password reset for your Modern LMS account.\n\n" +
-                "Click the link below to reset your password:\n" +
-                "%s/reset-password?token=%s\n\n" +
-                "This link will expire in 1 hour.\n\n" +
-                "If you didn't request this, please ignore this email.\n\n" +
-                "Best regards,\n" +
-                "Modern LMS Team",
-                data.get("userName"),
-                baseUrl,
-                data.get("resetToken")
-            );
-            
-            default -> "Thank you for using Modern LMS!";
-        };
-    }
-
     private void sendEmail(String to, String subject, String content) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(fromEmail);
@@ -176,19 +85,4 @@ public class EmailConsumerService {
         
         mailSender.send(message);
     }
-
-    private void handleEmailFailure(EmailMessage emailMessage, Exception e) {
-        // Implement retry logic or dead letter queue handling
-        emailMessage.setRetryCount(emailMessage.getRetryCount() + 1);
-        
-        if (emailMessage.getRetryCount() < 3) {
-            log.info("Retrying email message: {} (attempt {})", 
-                    emailMessage.getId(), emailMessage.getRetryCount());
-            // Could re-queue the message for retry
-        } else {
-            log.error("Email message failed after {} attempts: {}", 
-                    emailMessage.getRetryCount(), emailMessage.getId());
-            // Could send to dead letter queue or alert admins
-        }
-    }
 }
@@ -3,7 +3,9 @@ package com.lms.service.messaging;
 import com.lms.config.RabbitMQConfig;
 import com.lms.dto.messaging.CertificateMessage;
 import com.lms.dto.messaging.EmailMessage;
+import com.lms.dto.messaging.NotificationBatchMessage;
 import com.lms.dto.messaging.NotificationMessage;
+import com.lms.service.outbox.OutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -11,22 +13,30 @@ import org.springframework.stereotype.Service;
 
 import java.util.UUID;
 
+/**
+ * Entry point for outgoing messages. Email, notification and certificate messages go
+ * through the transactional outbox, so they are only sent when the caller's transaction
+ * commits. Notification batches are published directly: they are produced outside any
+ * business transaction by the broadcast fan-out, which checkpoints its own progress.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MessageProducerService {
 
     private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
 
     public void sendEmailMessage(EmailMessage emailMessage) {
         try {
             emailMessage.setId(UUID.randomUUID().toString());
-            rabbitTemplate.convertAndSend(
+            outboxService.enqueue(
                     RabbitMQConfig.LMS_EXCHANGE,
                     RabbitMQConfig.EMAIL_ROUTING_KEY,
+                    emailMessage.getId(),
                     emailMessage
             );
-            log.info("Email message sent to queue: {}", emailMessage.getTo());
+            log.info("Email message queued in outbox: {}", emailMessage.getTo());
         } catch (Exception e) {
             log.error("Failed to send email message to queue", e);
             throw new RuntimeException("Failed to send email message", e);
@@ -36,27 +46,44 @@ public class MessageProducerService {
     public void sendNotificationMessage(NotificationMessage notificationMessage) {
         try {
             notificationMessage.setId(UUID.randomUUID().toString());
-            rabbitTemplate.convertAndSend(
+            outboxService.enqueue(
                     RabbitMQConfig.LMS_EXCHANGE,
                     RabbitMQConfig.NOTIFICATION_ROUTING_KEY,
+                    notificationMessage.getId(),
                     notificationMessage
             );
-            log.info("Notification message sent to queue for user: {}", notificationMessage.getUserId());
+            log.info("Notification message queued in outbox for user: {}", notificationMessage.getUserId());
         } catch (Exception e) {
             log.error("Failed to send notification message to queue", e);
             throw new RuntimeException("Failed to send notification message", e);
         }
     }
 
+    public void sendNotificationBatchMessage(NotificationBatchMessage batchMessage) {
+        try {
+            batchMessage.setId(UUID.randomUUID().toString());
+            rabbitTemplate.convertAndSend(
+                    RabbitMQConfig.LMS_EXCHANGE,
+                    RabbitMQConfig.BROADCAST_NOTIFICATION_ROUTING_KEY,
+                    batchMessage
+            );
+            log.debug("Notification batch sent to queue for {} users", batchMessage.getUserIds().size());
+        } catch (Exception e) {
+            log.error("Failed to send notification batch to queue", e);
+            throw new RuntimeException("Failed to send notification batch", e);
+        }
+    }
+
     public void sendCertificateMessage(CertificateMessage certificateMessage) {
         try {
             certificateMessage.setId(UUID.randomUUID().toString());
-            rabbitTemplate.convertAndSend(
+            outboxService.enqueue(
                     RabbitMQConfig.LMS_EXCHANGE,
                     RabbitMQConfig.CERTIFICATE_ROUTING_KEY,
+                    certificateMessage.getId(),
                     certificateMessage
             );
-            log.info("Certificate generation message sent to queue for enrollment: {}", 
+            log.info("Certificate generation message queued in outbox for enrollment: {}", 
                     certificateMessage.getEnrollmentId());
         } catch (Exception e) {
             log.error("Failed to send certificate message to queue", e);
@@ -1,59 +1,223 @@
 package com.lms.service.messaging;
 
 import com.lms.config.RabbitMQConfig;
+import com.lms.dto.messaging.NotificationBatchMessage;
 import com.lms.dto.messaging.NotificationMessage;
 import com.lms.entity.Notification;
-import com.lms.repository.NotificationRepository;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationConsumerService {
 
-    private final NotificationRepository notificationRepository;
+    private final PlatformMetricsService platformMetrics;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
 
-    @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE)
+    // Redelivered chunks hit the primary key and are skipped
+    private static final String INSERT_BATCH_SQL =
+            "INSERT IGNORE INTO notifications (id, user_id, title, message, type, is_read, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, false, ?)";
+
+    // Row id is the message id, so a redelivered batch is skipped the same way
+    private static final String INSERT_MESSAGE_SQL =
+            "INSERT IGNORE INTO notifications (id, user_id, title, message, type, is_read, metadata, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, false, ?, ?)";
+
+    private DistributionSummary batchSize;
+    private Timer batchInsertTimer;
+    private Counter savedMessages;
+    private Counter duplicateMessages;
+    private Counter failedMessages;
+
+    @PostConstruct
+    public void registerMetrics() {
+        batchSize = DistributionSummary.builder("notifications.consumer.batch.size")
+                .description("Notification messages per consumed batch")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        batchInsertTimer = Timer.builder("notifications.consumer.batch.insert")
+                .description("Time to convert and insert one batch of notifications")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        savedMessages = messageCounter("saved");
+        duplicateMessages = messageCounter("duplicate");
+        failedMessages = messageCounter("failed");
+    }
+
+    private Counter messageCounter(String outcome) {
+        return Counter.builder("notifications.consumer.messages")
+                .description("Notification messages consumed, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Batching consumer of {@code notification.queue}: one JDBC batch insert per batch,
+     * acknowledged as a whole when this method returns. If the batch insert fails the rows
+     * are retried one by one so the good ones are saved, and the batch is then handed to the
+     * retry layer, which redelivers it later; saved rows are skipped by their ids.
+     */
+    @RabbitListener(id = RabbitMQConfig.BATCHED_NOTIFICATION_LISTENER, queues = RabbitMQConfig.NOTIFICATION_QUEUE,
+                    containerFactory = RabbitMQConfig.BATCHED_NOTIFICATION_CONTAINER_FACTORY,
+                    autoStartup = "#{@messagingConsumerProperties.batchedNotifications}")
+    public void processNotificationMessages(List<NotificationMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        batchSize.record(messages.size());
+
+        int failed = 0;
+        List<Object[]> rows = new ArrayList<>(messages.size());
+        for (NotificationMessage message : messages) {
+            try {
+                rows.add(toRow(message));
+            } catch (Exception e) {
+                failed++;
+                log.error("Failed to convert notification message: {}", message.getId(), e);
+            }
+        }
+
+        int inserted = 0;
+        try {
+            inserted = countInserted(jdbcTemplate.batchUpdate(INSERT_MESSAGE_SQL, rows));
+        } catch (Exception e) {
+            log.warn("Batch insert of {} notifications failed, inserting one by one", rows.size(), e);
+            for (Object[] row : rows) {
+                try {
+                    inserted += jdbcTemplate.update(INSERT_MESSAGE_SQL, row) > 0 ? 1 : 0;
+                } catch (Exception rowFailure) {
+                    failed++;
+                    log.error("Failed to save notification {} for user {}", row[0], row[1], rowFailure);
+                }
+            }
+        }
+
+        savedMessages.increment(inserted);
+        duplicateMessages.increment(Math.max(messages.size() - inserted - failed, 0));
+        failedMessages.increment(failed);
+        platformMetrics.add(PlatformMetric.TOTAL_NOTIFICATIONS, inserted);
+        batchInsertTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        if (failed > 0) {
+            // The whole batch goes to retry; rows saved now are skipped on redelivery
+            throw new IllegalStateException(failed + " of " + messages.size() + " notifications could not be saved");
+        }
+
+        for (NotificationMessage message : messages) {
+            sendRealTimeNotification(message.getUserId());
+        }
+        log.debug("Saved {} of {} notifications in {} ms", inserted, messages.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Per-message consumer of {@code notification.queue}, used when batching is switched off.
+     * Saves the row under the message id with the same insert as the batch path, so a
+     * redelivered message is skipped instead of creating a second notification.
+     */
+    @RabbitListener(id = RabbitMQConfig.NOTIFICATION_LISTENER, queues = RabbitMQConfig.NOTIFICATION_QUEUE,
+                    containerFactory = RabbitMQConfig.NOTIFICATION_CONTAINER_FACTORY,
+                    autoStartup = "#{!@messagingConsumerProperties.batchedNotifications}")
     public void processNotificationMessage(NotificationMessage notificationMessage) {
         try {
             log.info("Processing notification message: {} for user {}", 
                     notificationMessage.getType(), notificationMessage.getUserId());
             
-            // Create and save notification entity
-            Notification notification = new Notification();
-            notification.setId(UUID.randomUUID().toString());
-            notification.setUserId(notificationMessage.getUserId());
-            notification.setTitle(notificationMessage.getTitle());
-            notification.setMessage(notificationMessage.getMessage());
-            notification.setType(mapNotificationType(notificationMessage.getType()));
-            notification.setRead(false);
-            notification.setCreatedAt(notificationMessage.getCreatedAt());
-            
-            if (notificationMessage.getData() != null) {
-                // Store additional data as JSON string or in separate fields
-                notification.setMetadata(notificationMessage.getData().toString());
+            if (jdbcTemplate.update(INSERT_MESSAGE_SQL, toRow(notificationMessage)) == 0) {
+                duplicateMessages.increment();
+                log.debug("Skipping already saved notification message: {}", notificationMessage.getId());
+                return;
             }
-            
-            notificationRepository.save(notification);
+            savedMessages.increment();
+            platformMetrics.increment(PlatformMetric.TOTAL_NOTIFICATIONS);
             
             log.info("Notification saved successfully for user: {}", notificationMessage.getUserId());
             
             // Here you could also implement real-time notification delivery
             // via WebSocket, Server-Sent Events, or push notifications
-            sendRealTimeNotification(notification);
+            sendRealTimeNotification(notificationMessage.getUserId());
             
         } catch (Exception e) {
+            failedMessages.increment();
             log.error("Failed to process notification message: {}", notificationMessage.getId(), e);
-            // Could implement retry logic or dead letter queue
+            // Retried with backoff and finally parked by RetryingMessageRecoverer
+            throw new RuntimeException("Failed to save notification", e);
         }
     }
     
+    @RabbitListener(id = RabbitMQConfig.BROADCAST_NOTIFICATION_LISTENER, queues = RabbitMQConfig.BROADCAST_NOTIFICATION_QUEUE,
+                    containerFactory = RabbitMQConfig.BROADCAST_NOTIFICATION_CONTAINER_FACTORY)
+    public void processNotificationBatch(NotificationBatchMessage batchMessage) {
+        try {
+            String type = mapNotificationType(batchMessage.getType()).name();
+            LocalDateTime createdAt = batchMessage.getCreatedAt() != null ? batchMessage.getCreatedAt() : LocalDateTime.now();
+            Timestamp timestamp = Timestamp.valueOf(createdAt);
+
+            List<Object[]> rows = new ArrayList<>(batchMessage.getUserIds().size());
+            for (String userId : batchMessage.getUserIds()) {
+                rows.add(new Object[]{notificationId(batchMessage.getBroadcastId(), userId), userId,
+                        batchMessage.getTitle(), batchMessage.getMessage(), type, timestamp});
+            }
+
+            int inserted = countInserted(jdbcTemplate.batchUpdate(INSERT_BATCH_SQL, rows));
+            platformMetrics.add(PlatformMetric.TOTAL_NOTIFICATIONS, inserted);
+
+            log.info("Saved {} notifications for broadcast {}", inserted, batchMessage.getBroadcastId());
+        } catch (Exception e) {
+            log.error("Failed to process notification batch: {}", batchMessage.getId(), e);
+            throw new RuntimeException("Failed to save notification batch", e);
+        }
+    }
+
+    private Object[] toRow(NotificationMessage message) {
+        LocalDateTime createdAt = message.getCreatedAt() != null ? message.getCreatedAt() : LocalDateTime.now();
+        return new Object[]{
+                message.getId() != null ? message.getId() : UUID.randomUUID().toString(),
+                message.getUserId(),
+                message.getTitle(),
+                message.getMessage(),
+                mapNotificationType(message.getType()).name(),
+                message.getData() != null ? message.getData().toString() : null,
+                Timestamp.valueOf(createdAt)
+        };
+    }
+
+    private static int countInserted(int[] counts) {
+        int inserted = 0;
+        for (int count : counts) {
+            // The driver may report SUCCESS_NO_INFO (-2) for rewritten batches
+            inserted += count == 0 ? 0 : 1;
+        }
+        return inserted;
+    }
+
+    static String notificationId(String broadcastId, String userId) {
+        return UUID.nameUUIDFromBytes((broadcastId + ":" + userId).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+    
     private Notification.NotificationType mapNotificationType(NotificationMessage.NotificationType messageType) {
         return switch (messageType) {
             case COURSE_ENROLLMENT -> Notification.NotificationType.COURSE_ENROLLMENT;
@@ -68,10 +232,10 @@ public class NotificationConsumerService {
         };
     }
     
-    private void sendRealTimeNotification(Notification notification) {
+    private void sendRealTimeNotification(String userId) {
         // Implement real-time notification delivery
         // This could be WebSocket, Server-Sent Events, or push notifications
-        log.info("Real-time notification sent for user: {}", notification.getUserId());
+        log.debug("Real-time notification sent for user: {}", userId);
         
         // Example: WebSocket implementation would go here
         // webSocketService.sendNotificationToUser(notification.getUserId(), notification);
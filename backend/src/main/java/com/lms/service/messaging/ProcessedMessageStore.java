@@ -0,0 +1,76 @@
+package com.lms.service.messaging;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Message ids each consumer has already handled, for consumers whose side effect cannot be
+ * made idempotent in their own tables (sending an email, for example).
+ *
+ * <p>A consumer claims the message id before acting on it and skips the message when the
+ * claim already exists. If the action fails the claim is released, so the retry layer's
+ * redelivery is processed again. Claims are kept for {@code retention}, well beyond the
+ * longest retry delay, and then purged.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProcessedMessageStore {
+
+    private static final String CLAIM_SQL =
+            "INSERT IGNORE INTO processed_messages (consumer, message_id) VALUES (?, ?)";
+
+    private static final String RELEASE_SQL =
+            "DELETE FROM processed_messages WHERE consumer = ? AND message_id = ?";
+
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM processed_messages WHERE processed_at < ? LIMIT 5000";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.messaging.processed-messages.retention:7d}")
+    private Duration retention;
+
+    /**
+     * Records that the consumer is handling the message.
+     *
+     * @return false when the message was already claimed, i.e. this is a duplicate
+     */
+    public boolean claim(String consumer, String messageId) {
+        return jdbcTemplate.update(CLAIM_SQL, consumer, messageId) > 0;
+    }
+
+    /**
+     * Drops a claim after the consumer failed, so a redelivery is handled again.
+     */
+    public void release(String consumer, String messageId) {
+        try {
+            jdbcTemplate.update(RELEASE_SQL, consumer, messageId);
+        } catch (Exception e) {
+            // The redelivery will be skipped as a duplicate; nothing more we can do here
+            log.error("Failed to release claim of message {} for consumer {}", messageId, consumer, e);
+        }
+    }
+
+    @Scheduled(cron = "${app.messaging.processed-messages.cleanup-cron:0 40 3 * * *}")
+    public void purgeExpired() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update(DELETE_EXPIRED_SQL, cutoff);
+            total += deleted;
+        } while (deleted > 0);
+        if (total > 0) {
+            log.info("Purged {} processed message ids older than {}", total, retention);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.lms.service.messaging;
+
+import com.lms.config.RabbitMQConfig;
+import com.lms.config.RetryBackoff;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Routes a message whose listener failed to its next delayed-retry tier, or to the parking
+ * lot once it has used up its attempts.
+ *
+ * <p>The attempt count travels with the message in the {@value #ATTEMPT_HEADER} header.
+ * The message is republished before the container acknowledges the original, so a crash
+ * in between delivers it twice rather than losing it. Consumers discard the duplicate by
+ * message id: notifications are inserted under their message id, emails claim it in
+ * {@link ProcessedMessageStore}, and certificates are issued once per enrollment.
+ * If republishing fails the exception propagates and the container requeues the original.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RetryingMessageRecoverer implements MessageBatchRecoverer {
+
+    public static final String ATTEMPT_HEADER = "x-lms-attempt";
+    public static final String ERROR_HEADER = "x-lms-last-error";
+    public static final String FAILED_AT_HEADER = "x-lms-failed-at";
+    public static final String ORIGINAL_QUEUE_HEADER = "x-lms-original-queue";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final RetryBackoff retryBackoff;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void recover(Message message, Throwable cause) {
+        String queue = originalQueue(message);
+        if (queue == null || !RabbitMQConfig.RETRYABLE_QUEUES.contains(queue)) {
+            // Not one of ours: let the container reject it to the broker's dead-letter route
+            throw new IllegalStateException("No retry route for queue " + queue, cause);
+        }
+
+        int attempt = attemptOf(message) + 1;
+        MessageProperties properties = message.getMessageProperties();
+        properties.setHeader(ATTEMPT_HEADER, attempt);
+        properties.setHeader(ERROR_HEADER, describe(cause));
+        properties.setHeader(FAILED_AT_HEADER, Instant.now().toString());
+        properties.setHeader(ORIGINAL_QUEUE_HEADER, queue);
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+
+        if (isRetryable(cause) && attempt < retryBackoff.maxAttempts()) {
+            rabbitTemplate.send("", RabbitMQConfig.retryQueue(queue, attempt), message);
+            count(queue, "retried");
+            log.warn("Delivery from {} failed (attempt {}/{}), retrying in {}: {}", queue, attempt,
+                    retryBackoff.maxAttempts(), retryBackoff.delay(attempt), describe(cause));
+        } else {
+            rabbitTemplate.send("", RabbitMQConfig.parkingLotQueue(queue), message);
+            count(queue, "parked");
+            log.error("Delivery from {} parked after {} attempt(s): {}", queue, attempt, describe(cause));
+        }
+    }
+
+    /**
+     * A failed batch is retried as a whole; the batched notification consumer skips the rows
+     * it already inserted by their ids.
+     */
+    @Override
+    public void recover(List<Message> messages, Throwable cause) {
+        for (Message message : messages) {
+            recover(message, cause);
+        }
+    }
+
+    public static int attemptOf(Message message) {
+        Object attempt = message.getMessageProperties().getHeaders().get(ATTEMPT_HEADER);
+        return attempt instanceof Number number ? number.intValue() : 0;
+    }
+
+    private static String originalQueue(Message message) {
+        Object original = message.getMessageProperties().getHeaders().get(ORIGINAL_QUEUE_HEADER);
+        return original != null ? original.toString() : message.getMessageProperties().getConsumerQueue();
+    }
+
+    // Payloads that cannot be converted will fail the same way on every attempt
+    private static boolean isRetryable(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof MessageConversionException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String describe(Throwable cause) {
+        Throwable root = cause;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String description = root.getClass().getSimpleName() + ": " + root.getMessage();
+        return description.length() > MAX_ERROR_LENGTH ? description.substring(0, MAX_ERROR_LENGTH) : description;
+    }
+
+    private void count(String queue, String outcome) {
+        meterRegistry.counter("messaging.delivery.failures", "queue", queue, "outcome", outcome).increment();
+    }
+}
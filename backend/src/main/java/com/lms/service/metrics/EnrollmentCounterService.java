@@ -0,0 +1,204 @@
+package com.lms.service.metrics;
+
+import com.lms.cache.CacheTagInvalidator;
+import com.lms.cache.CacheTags;
+import com.lms.service.CacheService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesced maintenance of {@code courses.enrolled_count}.
+ *
+ * <p>Enrolling and unenrolling record a delta per course into a striped {@link LongAdder}
+ * (after the surrounding transaction commits) instead of rewriting the course row. A
+ * scheduled flush pushes the summed deltas as in-place increments in one JDBC batch, so a
+ * popular course takes one short row write per node and interval however many students
+ * enrol, and concurrent writers never overwrite each other's counts. Counts read from the
+ * course row therefore lag by at most one flush interval.
+ *
+ * <p>Cached course entries of flushed courses are evicted on a slower schedule, and a
+ * nightly job recounts the courses whose count disagrees with their active enrollments.
+ * Each recount locks the course row and takes this node's unflushed delta of the course
+ * with it, since the recount already includes those enrollments. Deltas still buffered on
+ * other nodes cannot be seen from here; they are at most one flush interval of enrollments
+ * and would be added on top of the recount, which the next reconcile corrects.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentCounterService {
+
+    private static final String INCREMENT_SQL =
+            "UPDATE courses SET enrolled_count = GREATEST(enrolled_count + ?, 0) WHERE id = ?";
+
+    private static final String LOCK_COURSE_SQL = "SELECT id FROM courses WHERE id = ? FOR UPDATE";
+
+    private static final String COUNT_ACTIVE_SQL =
+            "SELECT COUNT(*) FROM enrollments WHERE course_id = ? AND is_active = TRUE";
+
+    private static final String UPDATE_COUNT_SQL =
+            "UPDATE courses SET enrolled_count = ? WHERE id = ? AND enrolled_count <> ?";
+
+    private static final String FIND_DRIFTED_SQL =
+            "SELECT c.id FROM courses c LEFT JOIN (SELECT course_id, COUNT(*) AS active FROM enrollments " +
+            "WHERE is_active = TRUE GROUP BY course_id) e ON e.course_id = c.id " +
+            "WHERE c.enrolled_count <> COALESCE(e.active, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final CacheTagInvalidator cacheTagInvalidator;
+
+    // One adder per course that was ever enrolled in on this node; bounded by the catalog size
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+    private final Set<String> staleInCache = ConcurrentHashMap.newKeySet();
+
+    private TransactionTemplate recountTransaction;
+
+    @PostConstruct
+    public void init() {
+        recountTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public void enrolled(String courseId) {
+        add(courseId, 1);
+    }
+
+    public void unenrolled(String courseId) {
+        add(courseId, -1);
+    }
+
+    private void add(String courseId, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only count enrollments that actually commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.computeIfAbsent(courseId, id -> new LongAdder()).add(delta);
+                }
+            });
+        } else {
+            pending.computeIfAbsent(courseId, id -> new LongAdder()).add(delta);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.enrollments.counters.flush-interval:250}")
+    public synchronized void flush() {
+        List<String> courseIds = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                courseIds.add(entry.getKey());
+                updates.add(new Object[]{delta, entry.getKey()});
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INCREMENT_SQL, updates);
+            staleInCache.addAll(courseIds);
+        } catch (Exception e) {
+            // Put the deltas back so the next flush retries them
+            for (Object[] update : updates) {
+                pending.computeIfAbsent((String) update[1], id -> new LongAdder()).add((Long) update[0]);
+            }
+            log.error("Failed to flush enrollment counts of {} courses", updates.size(), e);
+        }
+    }
+
+    /**
+     * Drops cached course entries and listings that show an outdated count. Runs less often
+     * than the flush so a course that is being enrolled in keeps being served from cache.
+     */
+    @Scheduled(fixedDelayString = "${app.enrollments.counters.cache-evict-interval:30000}")
+    public void evictStaleCourses() {
+        for (String courseId : List.copyOf(staleInCache)) {
+            staleInCache.remove(courseId);
+            cacheTagInvalidator.evictTagged(CacheService.COURSES_CACHE, CacheTags.course(courseId));
+        }
+    }
+
+    @Scheduled(cron = "${app.enrollments.counters.reconcile-cron:0 15 4 * * ?}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Scheduled enrollment count reconciliation failed", e);
+        }
+    }
+
+    /**
+     * Recounts every course whose count disagrees with its active enrollments. The scan only
+     * picks the courses; each one is then recounted under its row lock.
+     *
+     * @return the number of courses corrected
+     */
+    public int reconcile() {
+        int corrected = 0;
+        for (String courseId : jdbcTemplate.queryForList(FIND_DRIFTED_SQL, String.class)) {
+            if (recount(courseId)) {
+                staleInCache.add(courseId);
+                corrected++;
+            }
+        }
+        if (corrected > 0) {
+            log.warn("Corrected enrollment counts of {} courses", corrected);
+        }
+        return corrected;
+    }
+
+    /**
+     * Sets the course's count to its number of active enrollments. Holds the flush monitor
+     * so this node's delta of the course is either already applied or dropped here, never
+     * applied on top of the recount.
+     *
+     * @return whether the stored count changed
+     */
+    synchronized boolean recount(String courseId) {
+        LongAdder adder = pending.get(courseId);
+        // Already committed, so already part of the recount below
+        long drained = adder != null ? adder.sumThenReset() : 0;
+        try {
+            Boolean updated = recountTransaction.execute(status -> {
+                if (jdbcTemplate.queryForList(LOCK_COURSE_SQL, String.class, courseId).isEmpty()) {
+                    return false;
+                }
+                Long active = jdbcTemplate.queryForObject(COUNT_ACTIVE_SQL, Long.class, courseId);
+                long count = active != null ? active : 0;
+                return jdbcTemplate.update(UPDATE_COUNT_SQL, count, courseId, count) > 0;
+            });
+            return Boolean.TRUE.equals(updated);
+        } catch (RuntimeException e) {
+            if (drained != 0) {
+                pending.computeIfAbsent(courseId, id -> new LongAdder()).add(drained);
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Failed to flush enrollment counts on shutdown", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.lms.service.metrics;
+
+/**
+ * Platform-wide counters kept by {@link PlatformMetricsService}. The enum name is
+ * the row key in the platform_counters table, so constants must not be renamed.
+ */
+public enum PlatformMetric {
+    TOTAL_USERS,
+    ACTIVE_USERS,
+    TOTAL_COURSES,
+    PUBLISHED_COURSES,
+    TOTAL_ENROLLMENTS,
+    COMPLETED_ENROLLMENTS,
+    TOTAL_CERTIFICATES,
+    PENDING_CERTIFICATES,
+    TOTAL_REVIEWS,
+    PENDING_REVIEWS,
+    TOTAL_COMMENTS,
+    PENDING_COMMENTS,
+    TOTAL_NOTIFICATIONS
+}
@@ -0,0 +1,252 @@
+package com.lms.service.metrics;
+
+import com.lms.entity.Certificate;
+import com.lms.entity.PlatformCounter;
+import com.lms.repository.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Incrementally maintained platform counters.
+ *
+ * <p>Write paths record deltas into striped {@link LongAdder}s (applied after the
+ * surrounding transaction commits). A scheduled flush pushes the deltas into the
+ * platform_counters table with in-place increments and reloads the shared totals,
+ * so every node converges on the same values. On startup, and on a slow schedule,
+ * the counters are reconciled against exact COUNT queries to correct any drift
+ * from write paths that are not instrumented.
+ *
+ * <p>A reconciliation locks the counter row, so it is serialised with the flushes and
+ * reconciliations of every node, and applies its correction as a delta on top of the
+ * persisted value. This node's pending deltas are drained before the COUNT runs, so they
+ * are already part of it; anything recorded afterwards stays pending for the next flush.
+ * Deltas other nodes have not flushed yet can be counted twice; that is at most one flush
+ * interval of writes, and every node runs the same reconciliation.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlatformMetricsService {
+
+    private final PlatformCounterRepository counterRepository;
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final CertificateRepository certificateRepository;
+    private final CourseReviewRepository reviewRepository;
+    private final CourseCommentRepository commentRepository;
+    private final NotificationRepository notificationRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<PlatformMetric, LongAdder> pending = new EnumMap<>(PlatformMetric.class);
+    private final Map<PlatformMetric, AtomicLong> totals = new EnumMap<>(PlatformMetric.class);
+    private volatile boolean reconciled = false;
+
+    private TransactionTemplate reconcileTransaction;
+
+    {
+        for (PlatformMetric metric : PlatformMetric.values()) {
+            pending.put(metric, new LongAdder());
+            totals.put(metric, new AtomicLong());
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        reconcileTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public void increment(PlatformMetric metric) {
+        add(metric, 1);
+    }
+
+    public void decrement(PlatformMetric metric) {
+        add(metric, -1);
+    }
+
+    public void add(PlatformMetric metric, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only count writes that actually commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.get(metric).add(delta);
+                }
+            });
+        } else {
+            pending.get(metric).add(delta);
+        }
+    }
+
+    public long get(PlatformMetric metric) {
+        if (!reconciled) {
+            // Startup reconciliation has not finished yet; answer exactly
+            return exactCount(metric);
+        }
+        return Math.max(0, totals.get(metric).get() + pending.get(metric).sum());
+    }
+
+    public Map<String, Long> getAll() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (PlatformMetric metric : PlatformMetric.values()) {
+            values.put(metric.name(), get(metric));
+        }
+        return values;
+    }
+
+    @Scheduled(fixedDelayString = "${app.metrics.counters.flush-interval:5000}")
+    public synchronized void flush() {
+        if (!reconciled) {
+            return;
+        }
+        for (PlatformMetric metric : PlatformMetric.values()) {
+            long delta = pending.get(metric).sumThenReset();
+            if (delta == 0) {
+                continue;
+            }
+            totals.get(metric).addAndGet(delta);
+            try {
+                if (counterRepository.incrementBy(metric.name(), delta) == 0) {
+                    counterRepository.save(new PlatformCounter(metric.name(), totals.get(metric).get(), null, null));
+                }
+            } catch (Exception e) {
+                // Put the delta back so the next flush retries it
+                totals.get(metric).addAndGet(-delta);
+                pending.get(metric).add(delta);
+                log.error("Failed to flush platform counter {}", metric, e);
+            }
+        }
+
+        // Pick up deltas flushed by other nodes
+        try {
+            for (PlatformCounter counter : counterRepository.findAll()) {
+                PlatformMetric metric = parse(counter.getName());
+                if (metric != null) {
+                    totals.get(metric).set(counter.getValue());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to reload platform counters", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        try {
+            reconcileAll();
+        } catch (Exception e) {
+            log.error("Failed to reconcile platform counters on startup", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.metrics.counters.reconcile-cron:0 30 3 * * ?}")
+    public void scheduledReconcile() {
+        try {
+            reconcileAll();
+        } catch (Exception e) {
+            log.error("Scheduled platform counter reconciliation failed", e);
+        }
+    }
+
+    public synchronized void reconcileAll() {
+        long started = System.currentTimeMillis();
+        for (PlatformMetric metric : PlatformMetric.values()) {
+            reconcile(metric);
+        }
+        reconciled = true;
+        log.info("Platform counters reconciled in {} ms", System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Corrects one counter to its exact COUNT under the counter's row lock.
+     *
+     * @return the drift that was corrected, not counting this node's unflushed deltas
+     */
+    public synchronized long reconcile(PlatformMetric metric) {
+        // [drained local delta, exact count, correction applied to the persisted value]
+        long[] result = new long[3];
+        try {
+            reconcileTransaction.executeWithoutResult(status -> {
+                Optional<PlatformCounter> persisted = counterRepository.findForUpdate(metric.name());
+                // Drained after locking and before counting: each of these deltas belongs to a commit the COUNT sees
+                result[0] = pending.get(metric).sumThenReset();
+                result[1] = exactCount(metric);
+                LocalDateTime now = LocalDateTime.now();
+                if (persisted.isPresent()) {
+                    result[2] = result[1] - persisted.get().getValue();
+                    counterRepository.applyCorrection(metric.name(), result[2], now);
+                } else {
+                    result[2] = result[1];
+                    counterRepository.save(new PlatformCounter(metric.name(), result[1], now, null));
+                }
+            });
+        } catch (RuntimeException e) {
+            pending.get(metric).add(result[0]);
+            throw e;
+        }
+        totals.get(metric).set(result[1]);
+        long drift = result[2] - result[0];
+        if (drift != 0) {
+            log.warn("Corrected platform counter {} by {}", metric, drift);
+        }
+        return drift;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Failed to flush platform counters on shutdown", e);
+        }
+    }
+
+    private long exactCount(PlatformMetric metric) {
+        LongSupplier query = switch (metric) {
+            case TOTAL_USERS -> userRepository::count;
+            case ACTIVE_USERS -> userRepository::countByIsEnabledTrue;
+            case TOTAL_COURSES -> courseRepository::count;
+            case PUBLISHED_COURSES -> courseRepository::countByIsPublishedTrue;
+            case TOTAL_ENROLLMENTS -> enrollmentRepository::count;
+            case COMPLETED_ENROLLMENTS -> enrollmentRepository::countByCompletedAtIsNotNull;
+            case TOTAL_CERTIFICATES -> certificateRepository::count;
+            case PENDING_CERTIFICATES -> () -> certificateRepository.countByStatus(Certificate.Status.PENDING);
+            case TOTAL_REVIEWS -> reviewRepository::count;
+            case PENDING_REVIEWS -> reviewRepository::countByIsPublishedFalse;
+            case TOTAL_COMMENTS -> commentRepository::count;
+            case PENDING_COMMENTS -> commentRepository::countByIsPublishedFalse;
+            case TOTAL_NOTIFICATIONS -> notificationRepository::count;
+        };
+        return query.getAsLong();
+    }
+
+    private static PlatformMetric parse(String name) {
+        try {
+            return PlatformMetric.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
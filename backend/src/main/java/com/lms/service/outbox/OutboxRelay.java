@@ -0,0 +1,277 @@
+package com.lms.service.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes pending {@code outbox_events} rows to RabbitMQ.
+ *
+ * <p>Each round claims up to {@code batch-size} due rows with {@code FOR UPDATE SKIP LOCKED},
+ * so several instances can relay side by side without publishing the same row twice in the
+ * same round. The rows are sent with correlated publisher confirms and the relay waits for
+ * all of them before committing: a row is marked published only when the broker acked it
+ * and did not return it as unroutable. Anything else is retried later with a capped
+ * exponential backoff.
+ *
+ * <p>Delivery is at least once: a crash between the broker's ack and the commit publishes
+ * the row again. The row's message id is the AMQP message id and the payload id, which the
+ * consumers use to discard duplicates (see {@link com.lms.service.messaging.RetryingMessageRecoverer}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private static final String SELECT_DUE_SQL =
+            "SELECT id, message_id, exchange_name, routing_key, payload_type, payload, attempts " +
+            "FROM outbox_events WHERE published_at IS NULL AND available_at <= ? " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String MARK_PUBLISHED_SQL =
+            "UPDATE outbox_events SET published_at = ?, attempts = attempts + 1, last_error = NULL WHERE id = ?";
+    private static final String MARK_FAILED_SQL =
+            "UPDATE outbox_events SET attempts = attempts + 1, last_error = ?, available_at = ? WHERE id = ?";
+    private static final String DELETE_PUBLISHED_SQL =
+            "DELETE FROM outbox_events WHERE published_at IS NOT NULL AND published_at < ? LIMIT 5000";
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final RowMapper<OutboxRow> ROW_MAPPER = (rs, rowNum) -> new OutboxRow(
+            rs.getLong("id"),
+            rs.getString("message_id"),
+            rs.getString("exchange_name"),
+            rs.getString("routing_key"),
+            rs.getString("payload_type"),
+            rs.getString("payload"),
+            rs.getInt("attempts"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.messaging.outbox.poll-interval:1000}")
+    private long pollInterval;
+
+    @Value("${app.messaging.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.messaging.outbox.confirm-timeout:5s}")
+    private Duration confirmTimeout;
+
+    @Value("${app.messaging.outbox.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    @Value("${app.messaging.outbox.retention:7d}")
+    private Duration retention;
+
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    private TransactionTemplate relayTransaction;
+    private ScheduledExecutorService executor;
+    private Counter publishedCounter;
+    private Counter failedCounter;
+    private Timer roundTimer;
+
+    @PostConstruct
+    public void start() {
+        relayTransaction = new TransactionTemplate(transactionManager);
+        publishedCounter = meterRegistry.counter("messaging.outbox.messages", "outcome", "published");
+        failedCounter = meterRegistry.counter("messaging.outbox.messages", "outcome", "failed");
+        roundTimer = Timer.builder("messaging.outbox.round")
+                .description("Time to publish and confirm one batch of outbox rows")
+                .register(meterRegistry);
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::drain, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Requests a drain right away instead of at the next poll. Calls made while a wake-up is
+     * already queued collapse into it.
+     */
+    public void wakeUp() {
+        if (executor != null && wakeUpPending.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    wakeUpPending.set(false);
+                    drain();
+                });
+            } catch (RejectedExecutionException e) {
+                wakeUpPending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Publishes due rows until fewer than a full batch are left. Runs on the relay thread only.
+     */
+    void drain() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed >= batchSize && !Thread.currentThread().isInterrupted());
+        } catch (Exception e) {
+            log.warn("Outbox relay round failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claims, publishes and settles one batch in a single transaction.
+     *
+     * @return the number of rows claimed
+     */
+    int relayBatch() {
+        Integer claimed = relayTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxRow> rows = jdbcTemplate.query(SELECT_DUE_SQL, ROW_MAPPER, Timestamp.valueOf(now), batchSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            roundTimer.record(() -> settle(rows, publish(rows)));
+            return rows.size();
+        });
+        return claimed != null ? claimed : 0;
+    }
+
+    private List<CorrelationData> publish(List<OutboxRow> rows) {
+        List<CorrelationData> confirms = new ArrayList<>(rows.size());
+        for (OutboxRow row : rows) {
+            CorrelationData correlation = new CorrelationData(row.messageId());
+            try {
+                rabbitTemplate.send(row.exchange(), row.routingKey(), toMessage(row), correlation);
+            } catch (Exception e) {
+                correlation.getFuture().completeExceptionally(e);
+            }
+            confirms.add(correlation);
+        }
+        return confirms;
+    }
+
+    private void settle(List<OutboxRow> rows, List<CorrelationData> confirms) {
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> published = new ArrayList<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            OutboxRow row = rows.get(i);
+            String error = awaitConfirm(confirms.get(i), deadline);
+            if (error == null) {
+                published.add(new Object[]{Timestamp.valueOf(now), row.id()});
+            } else {
+                LocalDateTime retryAt = now.plus(backoff(row.attempts() + 1));
+                jdbcTemplate.update(MARK_FAILED_SQL, truncate(error), Timestamp.valueOf(retryAt), row.id());
+                failedCounter.increment();
+                log.warn("Outbox message {} to {} / {} not published (attempt {}), retrying at {}: {}",
+                        row.messageId(), row.exchange(), row.routingKey(), row.attempts() + 1, retryAt, error);
+            }
+        }
+        if (!published.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_PUBLISHED_SQL, published);
+            publishedCounter.increment(published.size());
+        }
+    }
+
+    /**
+     * @return {@code null} when the broker accepted and routed the message, otherwise why not
+     */
+    private static String awaitConfirm(CorrelationData correlation, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            CorrelationData.Confirm confirm = correlation.getFuture().get(remaining, TimeUnit.NANOSECONDS);
+            if (!confirm.isAck()) {
+                return "Nacked by broker: " + confirm.getReason();
+            }
+            if (correlation.getReturned() != null) {
+                return "Unroutable: " + correlation.getReturned().getReplyText();
+            }
+            return null;
+        } catch (TimeoutException e) {
+            return "No publisher confirm within timeout";
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrupted while waiting for publisher confirm";
+        }
+    }
+
+    /**
+     * Deletes published rows once they are older than the retention.
+     */
+    @Scheduled(cron = "${app.messaging.outbox.cleanup-cron:0 30 3 * * *}")
+    public void purgePublished() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update(DELETE_PUBLISHED_SQL, cutoff);
+            total += deleted;
+        } while (deleted > 0);
+        if (total > 0) {
+            log.info("Purged {} published outbox rows older than {}", total, retention);
+        }
+    }
+
+    Duration backoff(int attempts) {
+        long factor = 1L << Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = INITIAL_BACKOFF.multipliedBy(factor);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static Message toMessage(OutboxRow row) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setMessageId(row.messageId());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, row.payloadType());
+        return new Message(row.payload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    record OutboxRow(long id, String messageId, String exchange, String routingKey,
+                     String payloadType, String payload, int attempts) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.lms.service.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes outgoing messages to the {@code outbox_events} table.
+ *
+ * <p>The row joins the caller's transaction, so a message exists exactly when the business
+ * change that produced it commits: a rollback can no longer send a phantom email, and the
+ * request never waits on the broker. {@link OutboxRelay} publishes the rows afterwards and
+ * is woken as soon as the transaction commits. Called outside a transaction, the row is
+ * committed on its own.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (message_id, exchange_name, routing_key, payload_type, payload) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MessageConverter messageConverter;
+    private final OutboxRelay outboxRelay;
+
+    /**
+     * Stores the payload as the JSON the message converter would have sent, keyed by
+     * {@code messageId}, which also becomes the AMQP message id.
+     */
+    @Transactional
+    public void enqueue(String exchange, String routingKey, String messageId, Object payload) {
+        Message message = messageConverter.toMessage(payload, new MessageProperties());
+        Object typeId = message.getMessageProperties().getHeaders().get(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        String payloadType = typeId != null ? typeId.toString() : payload.getClass().getName();
+
+        jdbcTemplate.update(INSERT_SQL, messageId, exchange, routingKey, payloadType,
+                new String(message.getBody(), StandardCharsets.UTF_8));
+        log.debug("Outbox message {} queued for {} / {}", messageId, exchange, routingKey);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxRelay.wakeUp();
+                }
+            });
+        } else {
+            outboxRelay.wakeUp();
+        }
+    }
+}
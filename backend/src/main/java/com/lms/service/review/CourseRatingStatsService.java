@@ -0,0 +1,188 @@
+package com.lms.service.review;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Running rating aggregates per course: sum, count and a 1-5 star histogram.
+ *
+ * <p>Every review change applies its delta with one in-place upsert on the course's
+ * course_rating_stats row, then copies the resulting average and count onto the course
+ * row, so a write never scans the course's reviews. Both statements run in the caller's
+ * transaction and commit or roll back with the review. The row lock on the stats row also
+ * serialises concurrent reviews of one course, which is what keeps the aggregates exact.
+ *
+ * <p>A scheduled job compares the aggregates with a recount of the published reviews and
+ * rewrites the courses that drifted, for example after reviews were changed outside the
+ * service or a course was deleted and recreated.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseRatingStatsService {
+
+    private static final String APPLY_DELTA_SQL =
+            "INSERT INTO course_rating_stats (course_id, rating_sum, rating_count, stars_1, stars_2, stars_3, stars_4, stars_5) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "rating_sum = rating_sum + VALUES(rating_sum), rating_count = rating_count + VALUES(rating_count), " +
+            "stars_1 = stars_1 + VALUES(stars_1), stars_2 = stars_2 + VALUES(stars_2), stars_3 = stars_3 + VALUES(stars_3), " +
+            "stars_4 = stars_4 + VALUES(stars_4), stars_5 = stars_5 + VALUES(stars_5)";
+
+    private static final String REPLACE_SQL =
+            "INSERT INTO course_rating_stats (course_id, rating_sum, rating_count, stars_1, stars_2, stars_3, stars_4, stars_5, reconciled_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) ON DUPLICATE KEY UPDATE " +
+            "rating_sum = VALUES(rating_sum), rating_count = VALUES(rating_count), " +
+            "stars_1 = VALUES(stars_1), stars_2 = VALUES(stars_2), stars_3 = VALUES(stars_3), " +
+            "stars_4 = VALUES(stars_4), stars_5 = VALUES(stars_5), reconciled_at = VALUES(reconciled_at)";
+
+    private static final String COPY_TO_COURSE_SQL =
+            "UPDATE courses c JOIN course_rating_stats s ON s.course_id = c.id " +
+            "SET c.average_rating = CASE WHEN s.rating_count > 0 THEN ROUND(s.rating_sum / s.rating_count, 2) ELSE 0 END, " +
+            "c.total_ratings = GREATEST(s.rating_count, 0) " +
+            "WHERE c.id = ?";
+
+    private static final String SELECT_HISTOGRAM_SQL =
+            "SELECT stars_1, stars_2, stars_3, stars_4, stars_5 FROM course_rating_stats WHERE course_id = ?";
+
+    private static final String LOCK_SQL =
+            "SELECT course_id FROM course_rating_stats WHERE course_id = ? FOR UPDATE";
+
+    private static final String RECOUNT_SQL =
+            "SELECT rating, COUNT(*) FROM course_reviews WHERE course_id = ? AND is_published = TRUE GROUP BY rating";
+
+    // Courses whose aggregates, or whose copied average and count, disagree with their published reviews
+    private static final String FIND_DRIFTED_SQL =
+            "SELECT c.id FROM courses c " +
+            "LEFT JOIN course_rating_stats s ON s.course_id = c.id " +
+            "LEFT JOIN (SELECT course_id, COUNT(*) AS cnt, SUM(rating) AS total, " +
+            "                  SUM(rating = 1) AS s1, SUM(rating = 2) AS s2, SUM(rating = 3) AS s3, " +
+            "                  SUM(rating = 4) AS s4, SUM(rating = 5) AS s5 " +
+            "           FROM course_reviews WHERE is_published = TRUE GROUP BY course_id) r ON r.course_id = c.id " +
+            "WHERE COALESCE(s.rating_count, 0) <> COALESCE(r.cnt, 0) " +
+            "   OR COALESCE(s.rating_sum, 0) <> COALESCE(r.total, 0) " +
+            "   OR COALESCE(s.stars_1, 0) <> COALESCE(r.s1, 0) OR COALESCE(s.stars_2, 0) <> COALESCE(r.s2, 0) " +
+            "   OR COALESCE(s.stars_3, 0) <> COALESCE(r.s3, 0) OR COALESCE(s.stars_4, 0) <> COALESCE(r.s4, 0) " +
+            "   OR COALESCE(s.stars_5, 0) <> COALESCE(r.s5, 0) " +
+            "   OR c.total_ratings <> COALESCE(r.cnt, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate reconcileTransaction;
+
+    @PostConstruct
+    public void init() {
+        reconcileTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Applies one review change to the course's aggregates.
+     *
+     * @param removed rating that stops counting (a deleted, unpublished or re-rated review), or null
+     * @param added   rating that starts counting (a new, published or re-rated review), or null
+     */
+    public void recordChange(String courseId, Integer removed, Integer added) {
+        if (removed != null && removed.equals(added)) {
+            return;
+        }
+        long[] stars = new long[5];
+        long sum = 0;
+        long count = 0;
+        if (removed != null) {
+            stars[removed - 1]--;
+            sum -= removed;
+            count--;
+        }
+        if (added != null) {
+            stars[added - 1]++;
+            sum += added;
+            count++;
+        }
+        if (count == 0 && sum == 0) {
+            return;
+        }
+        jdbcTemplate.update(APPLY_DELTA_SQL, courseId, sum, count, stars[0], stars[1], stars[2], stars[3], stars[4]);
+        jdbcTemplate.update(COPY_TO_COURSE_SQL, courseId);
+    }
+
+    /**
+     * Published review counts per rating, highest rating first, leaving out ratings nobody
+     * gave. Each row is {@code [rating, count]}.
+     */
+    public List<Object[]> getDistribution(String courseId) {
+        List<Object[]> distribution = new ArrayList<>();
+        List<long[]> rows = jdbcTemplate.query(SELECT_HISTOGRAM_SQL, (rs, rowNum) -> new long[]{
+                rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)}, courseId);
+        if (rows.isEmpty()) {
+            return distribution;
+        }
+        long[] stars = rows.get(0);
+        for (int rating = 5; rating >= 1; rating--) {
+            if (stars[rating - 1] > 0) {
+                distribution.add(new Object[]{rating, stars[rating - 1]});
+            }
+        }
+        return distribution;
+    }
+
+    @Scheduled(cron = "${app.reviews.rating-stats.reconcile-cron:0 45 3 * * ?}")
+    public void scheduledReconcile() {
+        try {
+            reconcileAll();
+        } catch (Exception e) {
+            log.error("Scheduled course rating reconciliation failed", e);
+        }
+    }
+
+    /**
+     * Rewrites the aggregates of every course that drifted from its published reviews.
+     *
+     * @return the number of courses corrected
+     */
+    public int reconcileAll() {
+        long started = System.currentTimeMillis();
+        List<String> drifted = jdbcTemplate.queryForList(FIND_DRIFTED_SQL, String.class);
+        for (String courseId : drifted) {
+            reconcile(courseId);
+        }
+        if (!drifted.isEmpty()) {
+            log.warn("Corrected rating aggregates of {} courses", drifted.size());
+        }
+        log.info("Course rating aggregates reconciled in {} ms", System.currentTimeMillis() - started);
+        return drifted.size();
+    }
+
+    /**
+     * Recounts one course's published reviews and replaces its aggregates. The stats row is
+     * locked first, so review changes of the course wait and then apply on top of the recount.
+     */
+    public void reconcile(String courseId) {
+        reconcileTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList(LOCK_SQL, String.class, courseId);
+            long[] stars = new long[5];
+            jdbcTemplate.query(RECOUNT_SQL, rs -> {
+                int rating = rs.getInt(1);
+                if (rating >= 1 && rating <= 5) {
+                    stars[rating - 1] = rs.getLong(2);
+                }
+            }, courseId);
+            long count = 0;
+            long sum = 0;
+            for (int rating = 1; rating <= 5; rating++) {
+                count += stars[rating - 1];
+                sum += rating * stars[rating - 1];
+            }
+            jdbcTemplate.update(REPLACE_SQL, courseId, sum, count, stars[0], stars[1], stars[2], stars[3], stars[4]);
+            jdbcTemplate.update(COPY_TO_COURSE_SQL, courseId);
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.lms.service.search;
+
+import com.lms.entity.Course;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * What the catalog indexes keep of a published course: its searchable text and its facet
+ * and sort attributes, copied out of the entity so they can be indexed after the
+ * transaction that loaded it has ended. Tags come from {@code course_tags}, which has no
+ * entity mapping, so the caller loads them alongside the course.
+ */
+public record CourseDocument(String courseId, String title, String shortDescription, String description,
+                             String whatYouWillLearn, List<String> tags, String categoryId, String categoryName,
+                             String level, String language, BigDecimal price, LocalDateTime createdAt,
+                             BigDecimal averageRating, Integer enrolledCount) {
+
+    public static CourseDocument of(Course course, List<String> tags) {
+        String categoryId = course.getCategory() != null ? course.getCategory().getId() : null;
+        String categoryName = course.getCategory() != null ? course.getCategory().getName() : null;
+        return new CourseDocument(course.getId(), course.getTitle(), course.getShortDescription(),
+                course.getDescription(), course.getWhatYouWillLearn(), List.copyOf(tags), categoryId, categoryName,
+                course.getLevel() != null ? course.getLevel().name() : null, course.getLanguage(),
+                course.getPrice(), course.getCreatedAt(), course.getAverageRating(), course.getEnrolledCount());
+    }
+}
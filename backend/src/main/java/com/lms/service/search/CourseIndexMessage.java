@@ -0,0 +1,17 @@
+package com.lms.service.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published on the search channel after a node changed a course, so the other nodes reload
+ * it into their own index.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseIndexMessage {
+    private String origin;
+    private String courseId;
+}
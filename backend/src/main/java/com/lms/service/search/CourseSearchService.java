@@ -0,0 +1,435 @@
+package com.lms.service.search;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.dto.course.CourseCatalogDto;
+import com.lms.dto.course.CourseSuggestionDto;
+import com.lms.dto.course.FacetCountDto;
+import com.lms.entity.Course;
+import com.lms.repository.CourseRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Course search and faceted browsing backed by two in-process indexes of the published
+ * catalog: an {@link InvertedIndex} for keywords and a {@link FacetIndex} for filters,
+ * sorting and facet counts.
+ *
+ * <p>The indexes are built from the database in the background at startup and again on
+ * {@code app.search.rebuild-cron}; until the first build finishes, searches and listings fall
+ * back to the repository queries. In between, {@code CourseService} reports every course it changes:
+ * the change is applied after the transaction commits and announced on a Redis channel,
+ * where the other nodes pick it up and reload the course from the database. Changes seen
+ * while a rebuild runs are reloaded again once the new indexes are in place. Ratings and
+ * enrollment counts, which change without going through {@code CourseService}, are
+ * refreshed into the facet index every {@code app.search.facets.stats-refresh-interval}.
+ *
+ * @see com.lms.service.CourseService
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseSearchService implements MessageListener {
+
+    private final CourseRepository courseRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.channel:lms:search:courses}")
+    private String channel;
+
+    @Value("${app.search.rebuild-chunk-size:500}")
+    private int rebuildChunkSize;
+
+    @Value("${app.search.max-prefix-expansions:50}")
+    private int maxPrefixExpansions;
+
+    @Value("${app.search.facets.price-buckets:20,50,100}")
+    private String[] priceBuckets;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Set<String> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private final ObjectMapper messageMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private volatile InvertedIndex index;
+    private volatile FacetIndex facets;
+    private volatile Instant builtAt;
+    private ExecutorService executor;
+    private TransactionTemplate readTransaction;
+    private Timer searchTimer;
+    private Timer suggestTimer;
+    private Timer browseTimer;
+    private List<BigDecimal> priceBounds;
+
+    @PostConstruct
+    public void init() {
+        AtomicLong counter = new AtomicLong();
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "course-search-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+
+        searchTimer = Timer.builder("search.query.duration")
+                .description("Course search index lookups")
+                .tag("type", "search")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        suggestTimer = Timer.builder("search.query.duration")
+                .description("Course search index lookups")
+                .tag("type", "suggest")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        browseTimer = Timer.builder("search.query.duration")
+                .description("Course search index lookups")
+                .tag("type", "browse")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        priceBounds = Arrays.stream(priceBuckets).map(String::trim).map(BigDecimal::new).sorted().toList();
+        Gauge.builder("search.index.documents", this, service -> service.index != null ? service.index.documentCount() : 0)
+                .description("Published courses in the search index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.terms", this, service -> service.index != null ? service.index.termCount() : 0)
+                .description("Distinct terms in the search index")
+                .register(meterRegistry);
+
+        if (enabled) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        requestRebuild();
+    }
+
+    @Scheduled(cron = "${app.search.rebuild-cron:0 15 4 * * ?}")
+    public void scheduledRebuild() {
+        requestRebuild();
+    }
+
+    /**
+     * Starts a rebuild from the database in the background.
+     *
+     * @return false when search is disabled or a rebuild is already running
+     */
+    public boolean requestRebuild() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(this::rebuild);
+        return true;
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    public Map<String, Object> getStatus() {
+        InvertedIndex current = index;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("ready", current != null);
+        status.put("rebuilding", rebuilding.get());
+        status.put("documents", current != null ? current.documentCount() : 0);
+        status.put("terms", current != null ? current.termCount() : 0);
+        status.put("priceBuckets", priceBounds.stream().map(BigDecimal::toPlainString).toList());
+        status.put("builtAt", builtAt != null ? builtAt.toString() : null);
+        return status;
+    }
+
+    /**
+     * Published courses matching every word of the keyword, best match first, or null when
+     * the index cannot answer (not built yet, or no searchable words in the keyword) and the
+     * caller should fall back to the database.
+     */
+    public Page<Course> search(String keyword, Pageable pageable) {
+        InvertedIndex current = index;
+        List<String> terms = TextAnalyzer.analyze(keyword);
+        if (current == null || terms.isEmpty()) {
+            return null;
+        }
+        InvertedIndex.SearchHits hits = searchTimer.record(() ->
+                current.search(terms, (int) pageable.getOffset(), pageable.getPageSize()));
+        return new PageImpl<>(loadInOrder(hits.courseIds()), pageable, hits.total());
+    }
+
+    /**
+     * Published courses matching the filters in {@code sortBy} order, with facet counts for
+     * the same filters when asked for. A keyword narrows the listing, and the counts, to
+     * every course matching all of its words. Null when the indexes cannot answer and the
+     * caller should fall back to the database.
+     */
+    public CourseCatalogDto browse(String categoryId, Course.Level level, String language,
+                                   BigDecimal minPrice, BigDecimal maxPrice, String keyword,
+                                   String sortBy, Pageable pageable, boolean withFacets) {
+        InvertedIndex currentIndex = index;
+        FacetIndex currentFacets = facets;
+        if (currentIndex == null || currentFacets == null) {
+            return null;
+        }
+        List<String> keywordMatches = null;
+        if (keyword != null && !keyword.isBlank()) {
+            List<String> terms = TextAnalyzer.analyze(keyword);
+            if (terms.isEmpty()) {
+                return null;
+            }
+            keywordMatches = searchTimer.record(() -> currentIndex.matchAll(terms));
+        }
+
+        FacetIndex.Filter filter = new FacetIndex.Filter(categoryId, level != null ? level.name() : null,
+                language, minPrice, maxPrice, keywordMatches);
+        FacetIndex.Result result = browseTimer.record(() -> currentFacets.query(filter, sortBy,
+                (int) pageable.getOffset(), pageable.getPageSize(), withFacets));
+
+        Map<String, List<FacetCountDto>> facetCounts = new LinkedHashMap<>();
+        result.facets().forEach((dimension, counts) -> facetCounts.put(dimension, counts.stream()
+                .map(count -> new FacetCountDto(count.value(), count.label(), count.count()))
+                .toList()));
+        Page<Course> courses = new PageImpl<>(loadInOrder(result.courseIds()), pageable, result.total());
+        return new CourseCatalogDto(courses, facetCounts);
+    }
+
+    /**
+     * Course titles for a partly typed query: earlier words must match, the last word is
+     * completed as a prefix.
+     */
+    public List<CourseSuggestionDto> suggest(String query, int limit) {
+        InvertedIndex current = index;
+        if (current == null || query == null || query.isBlank()) {
+            return List.of();
+        }
+        int lastSpace = Math.max(query.lastIndexOf(' '), query.lastIndexOf('\t'));
+        List<String> completeTerms = TextAnalyzer.analyze(query.substring(0, lastSpace + 1));
+        String prefix = TextAnalyzer.normalizePrefix(query.substring(lastSpace + 1));
+        int max = Math.max(1, Math.min(limit, 20));
+        return suggestTimer.record(() -> current.suggest(completeTerms, prefix, max, maxPrefixExpansions)).stream()
+                .map(suggestion -> new CourseSuggestionDto(suggestion.courseId(), suggestion.title()))
+                .toList();
+    }
+
+    /**
+     * Brings the course's entry up to date once the surrounding transaction commits: indexed
+     * when published, dropped otherwise. The text is copied now, while lazy associations can
+     * still load.
+     */
+    public void courseChanged(Course course) {
+        if (!enabled) {
+            return;
+        }
+        String courseId = course.getId();
+        CourseDocument document = course.isPublished()
+                ? CourseDocument.of(course, tagsOf(List.of(courseId)).getOrDefault(courseId, List.of()))
+                : null;
+        afterCommit(() -> apply(courseId, document));
+    }
+
+    public void courseDeleted(String courseId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> apply(courseId, null));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Object payload = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            CourseIndexMessage change = messageMapper.convertValue(payload, CourseIndexMessage.class);
+            if (change == null || change.getCourseId() == null || nodeId.equals(change.getOrigin())) {
+                return;
+            }
+            executor.execute(() -> reload(change.getCourseId()));
+        } catch (Exception e) {
+            log.warn("Failed to apply course search change", e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void apply(String courseId, CourseDocument document) {
+        try {
+            applyLocally(courseId, document);
+            redisTemplate.convertAndSend(channel, new CourseIndexMessage(nodeId, courseId));
+        } catch (Exception e) {
+            // Other nodes catch up on their next rebuild
+            log.warn("Failed to propagate search index change for course {}", courseId, e);
+        }
+    }
+
+    private void applyLocally(String courseId, CourseDocument document) {
+        if (rebuilding.get()) {
+            changedDuringRebuild.add(courseId);
+        }
+        InvertedIndex currentIndex = index;
+        FacetIndex currentFacets = facets;
+        if (currentIndex == null || currentFacets == null) {
+            return;
+        }
+        if (document != null) {
+            currentIndex.put(document);
+            currentFacets.put(document);
+        } else {
+            currentIndex.remove(courseId);
+            currentFacets.remove(courseId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.facets.stats-refresh-interval:60000}",
+               initialDelayString = "${app.search.facets.stats-refresh-interval:60000}")
+    public void refreshStats() {
+        FacetIndex current = facets;
+        if (current == null || rebuilding.get()) {
+            return;
+        }
+        try {
+            Map<String, FacetIndex.Entry> stats = new HashMap<>();
+            for (Object[] row : readTransaction.execute(status -> courseRepository.findPublishedStats())) {
+                String courseId = (String) row[0];
+                stats.put(courseId, new FacetIndex.Entry(courseId, null, null, null, null, null,
+                        (BigDecimal) row[1], ((Number) row[2]).intValue()));
+            }
+            current.updateStats(stats);
+        } catch (Exception e) {
+            log.warn("Failed to refresh course ratings and enrollment counts in the facet index", e);
+        }
+    }
+
+    private void reload(String courseId) {
+        try {
+            CourseDocument document = readTransaction.execute(status -> courseRepository.findWithCategoryById(courseId)
+                    .filter(Course::isPublished)
+                    .map(course -> CourseDocument.of(course, tagsOf(List.of(courseId)).getOrDefault(courseId, List.of())))
+                    .orElse(null));
+            applyLocally(courseId, document);
+        } catch (Exception e) {
+            log.warn("Failed to reload course {} into the search index", courseId, e);
+        }
+    }
+
+    private void rebuild() {
+        long started = System.nanoTime();
+        try {
+            changedDuringRebuild.clear();
+            InvertedIndex fresh = new InvertedIndex();
+            FacetIndex freshFacets = new FacetIndex(priceBounds);
+            String afterId = "";
+            List<CourseDocument> chunk;
+            do {
+                String from = afterId;
+                chunk = readTransaction.execute(status -> {
+                    List<Course> courses = courseRepository.findPublishedForIndexing(from, PageRequest.of(0, rebuildChunkSize));
+                    Map<String, List<String>> tags = tagsOf(courses.stream().map(Course::getId).toList());
+                    return courses.stream()
+                            .map(course -> CourseDocument.of(course, tags.getOrDefault(course.getId(), List.of())))
+                            .toList();
+                });
+                for (CourseDocument document : chunk) {
+                    fresh.put(document);
+                    freshFacets.put(document);
+                }
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).courseId();
+                }
+            } while (chunk.size() == rebuildChunkSize);
+
+            index = fresh;
+            facets = freshFacets;
+            builtAt = Instant.now();
+            rebuilding.set(false);
+            // Changes committed while the chunks were read may be missing from the new index
+            for (String courseId : changedDuringRebuild) {
+                reload(courseId);
+            }
+            changedDuringRebuild.clear();
+            log.info("Course search index rebuilt: {} courses, {} terms in {} ms", fresh.documentCount(),
+                    fresh.termCount(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (Exception e) {
+            log.error("Course search index rebuild failed", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    // Tag names per course id, for the courses that have any
+    private Map<String, List<String>> tagsOf(Collection<String> courseIds) {
+        Map<String, List<String>> tags = new HashMap<>();
+        if (courseIds.isEmpty()) {
+            return tags;
+        }
+        for (Object[] row : courseRepository.findTagNames(courseIds)) {
+            tags.computeIfAbsent((String) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return tags;
+    }
+
+    private List<Course> loadInOrder(List<String> courseIds) {
+        if (courseIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Course> byId = courseRepository.findAllById(courseIds).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        // A course deleted since it was matched is simply left out
+        return courseIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,420 @@
+package com.lms.service.search;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmaps over the published catalog for filtered browsing and facet counts.
+ *
+ * <p>Every course gets a dense document id, and each category, level, language and price
+ * bucket keeps a bitmap of its documents as an array of 64-bit words. A filter combination
+ * is the AND of the selected bitmaps. Facet counts come from the same pass: each dimension
+ * is counted against the other dimensions' filters, so the counts show what selecting
+ * another value would return. The cost is a few hundred word operations per thousand
+ * courses, whatever the filters.
+ *
+ * <p>Result order comes from a per-sort-key array of document ids and its inverse rank
+ * array, built on first use and dropped when a course changes. A page of a broad filter
+ * walks the sorted ids until the page is full or every match has been seen; a narrow filter
+ * (a few matches in a large catalog) instead collects its matches from the bitmap and
+ * sorts only those by rank. Ratings and enrollment counts change outside course editing,
+ * so they are refreshed through {@link #updateStats}.
+ */
+final class FacetIndex {
+
+    static final String CATEGORY = "category";
+    static final String LEVEL = "level";
+    static final String LANGUAGE = "language";
+    static final String PRICE = "price";
+    static final List<String> DIMENSIONS = List.of(CATEGORY, LEVEL, LANGUAGE, PRICE);
+
+    static final String FREE_BUCKET = "free";
+
+    private static final long[] NONE = new long[0];
+
+    // Below one match per this many courses a page is built from the matches, not the order
+    private static final int SPARSE_RATIO = 32;
+
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator.comparing(Entry::createdAt,
+            Comparator.nullsLast(Comparator.reverseOrder()));
+    private static final Map<String, Comparator<Entry>> SORT_ORDERS = Map.of(
+            "created", NEWEST_FIRST,
+            "price", Comparator.comparing(Entry::price).thenComparing(NEWEST_FIRST),
+            "rating", Comparator.comparing(Entry::averageRating).reversed().thenComparing(NEWEST_FIRST),
+            "enrolled", Comparator.comparingInt(Entry::enrolledCount).reversed().thenComparing(NEWEST_FIRST));
+
+    private final List<BigDecimal> priceBounds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+    private final Map<String, Map<String, long[]>> bitmaps = new HashMap<>();
+    private final Map<String, String> categoryNames = new HashMap<>();
+    private long[] live = NONE;
+    // Built lazily by readers, cleared by writers
+    private final Map<String, SortOrder> sortOrders = new ConcurrentHashMap<>();
+
+    record Entry(String courseId, String categoryId, String level, String language, BigDecimal price,
+                 LocalDateTime createdAt, BigDecimal averageRating, int enrolledCount) {}
+
+    record Filter(String categoryId, String level, String language, BigDecimal minPrice, BigDecimal maxPrice,
+                  Collection<String> courseIds) {}
+
+    record FacetCount(String value, String label, int count) {}
+
+    record Result(List<String> courseIds, int total, Map<String, List<FacetCount>> facets) {}
+
+    /** Document ids in sort order, and each document id's position in it. */
+    private record SortOrder(int[] docIds, int[] rank) {}
+
+    /**
+     * @param priceBounds ascending upper bounds of the paid price buckets; free courses get
+     *                    a bucket of their own and prices from the last bound up share one
+     */
+    FacetIndex(List<BigDecimal> priceBounds) {
+        this.priceBounds = List.copyOf(priceBounds);
+        DIMENSIONS.forEach(dimension -> bitmaps.put(dimension, new HashMap<>()));
+    }
+
+    void put(CourseDocument document) {
+        Entry entry = new Entry(document.courseId(), document.categoryId(), document.level(), document.language(),
+                document.price() != null ? document.price() : BigDecimal.ZERO, document.createdAt(),
+                document.averageRating() != null ? document.averageRating() : BigDecimal.ZERO,
+                document.enrolledCount() != null ? document.enrolledCount() : 0);
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = docIds.get(entry.courseId());
+            int docId;
+            if (existing != null) {
+                unlink(existing);
+                docId = existing;
+            } else {
+                docId = freeDocIds.isEmpty() ? entries.size() : freeDocIds.pop();
+                if (docId == entries.size()) {
+                    entries.add(null);
+                }
+                docIds.put(entry.courseId(), docId);
+            }
+            entries.set(docId, entry);
+            live = set(live, docId);
+            link(CATEGORY, entry.categoryId(), docId);
+            link(LEVEL, entry.level(), docId);
+            link(LANGUAGE, entry.language(), docId);
+            link(PRICE, priceBucket(entry.price()), docId);
+            if (entry.categoryId() != null && document.categoryName() != null) {
+                categoryNames.put(entry.categoryId(), document.categoryName());
+            }
+            sortOrders.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean remove(String courseId) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIds.remove(courseId);
+            if (docId == null) {
+                return false;
+            }
+            unlink(docId);
+            entries.set(docId, null);
+            freeDocIds.push(docId);
+            sortOrders.clear();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the rating and enrollment count of indexed courses; unknown ids are ignored.
+     */
+    void updateStats(Map<String, Entry> stats) {
+        lock.writeLock().lock();
+        try {
+            boolean changed = false;
+            for (Map.Entry<String, Entry> update : stats.entrySet()) {
+                Integer docId = docIds.get(update.getKey());
+                if (docId == null) {
+                    continue;
+                }
+                Entry current = entries.get(docId);
+                Entry fresh = update.getValue();
+                if (current.averageRating().compareTo(fresh.averageRating()) != 0
+                        || current.enrolledCount() != fresh.enrolledCount()) {
+                    entries.set(docId, new Entry(current.courseId(), current.categoryId(), current.level(),
+                            current.language(), current.price(), current.createdAt(), fresh.averageRating(),
+                            fresh.enrolledCount()));
+                    changed = true;
+                }
+            }
+            if (changed) {
+                sortOrders.remove("rating");
+                sortOrders.remove("enrolled");
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of the courses matching the filter in {@code sortBy} order, the total number
+     * of matches and, when asked for, the facet counts of every dimension.
+     */
+    Result query(Filter filter, String sortBy, int offset, int limit, boolean withFacets) {
+        lock.readLock().lock();
+        try {
+            Map<String, long[]> selected = new HashMap<>();
+            if (filter.categoryId() != null) {
+                selected.put(CATEGORY, bitmap(CATEGORY, filter.categoryId()));
+            }
+            if (filter.level() != null) {
+                selected.put(LEVEL, bitmap(LEVEL, filter.level()));
+            }
+            if (filter.language() != null) {
+                selected.put(LANGUAGE, bitmap(LANGUAGE, filter.language()));
+            }
+            if (filter.minPrice() != null || filter.maxPrice() != null) {
+                selected.put(PRICE, priceRange(filter.minPrice(), filter.maxPrice()));
+            }
+
+            long[] base = live.clone();
+            if (filter.courseIds() != null) {
+                and(base, courseIdMask(filter.courseIds()));
+            }
+            long[] matches = base.clone();
+            selected.values().forEach(mask -> and(matches, mask));
+
+            Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+            if (withFacets) {
+                for (String dimension : DIMENSIONS) {
+                    long[] others = base.clone();
+                    selected.forEach((other, mask) -> {
+                        if (!other.equals(dimension)) {
+                            and(others, mask);
+                        }
+                    });
+                    facets.put(dimension, count(dimension, others));
+                }
+            }
+
+            int total = cardinality(matches);
+            return new Result(page(matches, total, sortOrder(sortBy), offset, limit), total, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<String> page(long[] matches, int total, SortOrder order, int offset, int limit) {
+        int end = (int) Math.min((long) offset + Math.max(limit, 0), total);
+        List<String> page = new ArrayList<>(Math.max(end - offset, 0));
+        if (offset >= end) {
+            return page;
+        }
+        if ((long) total * SPARSE_RATIO < order.docIds().length) {
+            int[] found = new int[total];
+            int n = 0;
+            for (int word = 0; word < matches.length; word++) {
+                for (long bits = matches[word]; bits != 0; bits &= bits - 1) {
+                    found[n++] = word << 6 | Long.numberOfTrailingZeros(bits);
+                }
+            }
+            int[] ranked = Arrays.stream(found, 0, n)
+                    .map(docId -> order.rank()[docId])
+                    .sorted()
+                    .toArray();
+            for (int i = offset; i < end; i++) {
+                page.add(entries.get(order.docIds()[ranked[i]]).courseId());
+            }
+            return page;
+        }
+        int seen = 0;
+        for (int docId : order.docIds()) {
+            if (isSet(matches, docId)) {
+                if (seen >= offset) {
+                    page.add(entries.get(docId).courseId());
+                }
+                if (++seen == end) {
+                    break;
+                }
+            }
+        }
+        return page;
+    }
+
+    String priceBucket(BigDecimal price) {
+        if (price.signum() <= 0) {
+            return FREE_BUCKET;
+        }
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal bound : priceBounds) {
+            if (price.compareTo(bound) < 0) {
+                return lower.toPlainString() + "-" + bound.toPlainString();
+            }
+            lower = bound;
+        }
+        return lower.toPlainString() + "+";
+    }
+
+    private List<FacetCount> count(String dimension, long[] mask) {
+        List<FacetCount> counts = new ArrayList<>();
+        bitmaps.get(dimension).forEach((value, bits) -> {
+            int count = andCardinality(bits, mask);
+            if (count > 0) {
+                String label = CATEGORY.equals(dimension) ? categoryNames.getOrDefault(value, value) : value;
+                counts.add(new FacetCount(value, label, count));
+            }
+        });
+        if (PRICE.equals(dimension)) {
+            counts.sort(Comparator.comparing(facet -> lowerBound(facet.value())));
+        } else {
+            counts.sort(Comparator.comparingInt(FacetCount::count).reversed().thenComparing(FacetCount::label));
+        }
+        return counts;
+    }
+
+    private static BigDecimal lowerBound(String bucket) {
+        if (FREE_BUCKET.equals(bucket)) {
+            return BigDecimal.valueOf(-1);
+        }
+        int end = bucket.indexOf('-') > 0 ? bucket.indexOf('-') : bucket.length() - 1;
+        return new BigDecimal(bucket.substring(0, end));
+    }
+
+    private SortOrder sortOrder(String sortBy) {
+        String key = SORT_ORDERS.containsKey(sortBy) ? sortBy : "created";
+        SortOrder sortOrder = sortOrders.get(key);
+        if (sortOrder == null) {
+            Comparator<Entry> order = SORT_ORDERS.get(key);
+            int[] sorted = docIds.values().stream()
+                    .sorted((a, b) -> order.compare(entries.get(a), entries.get(b)))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            int[] rank = new int[entries.size()];
+            for (int i = 0; i < sorted.length; i++) {
+                rank[sorted[i]] = i;
+            }
+            sortOrder = new SortOrder(sorted, rank);
+            sortOrders.put(key, sortOrder);
+        }
+        return sortOrder;
+    }
+
+    // Price ranges are arbitrary, so they are answered from the price order rather than the buckets
+    private long[] priceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        long[] mask = new long[live.length];
+        for (int docId : sortOrder("price").docIds()) {
+            BigDecimal price = entries.get(docId).price();
+            if (maxPrice != null && price.compareTo(maxPrice) > 0) {
+                break;
+            }
+            if (minPrice == null || price.compareTo(minPrice) >= 0) {
+                mask[docId >>> 6] |= 1L << docId;
+            }
+        }
+        return mask;
+    }
+
+    private long[] courseIdMask(Collection<String> courseIds) {
+        long[] mask = new long[live.length];
+        for (String courseId : courseIds) {
+            Integer docId = docIds.get(courseId);
+            if (docId != null) {
+                mask[docId >>> 6] |= 1L << docId;
+            }
+        }
+        return mask;
+    }
+
+    private long[] bitmap(String dimension, String value) {
+        return bitmaps.get(dimension).getOrDefault(value, NONE);
+    }
+
+    private void link(String dimension, String value, int docId) {
+        if (value != null) {
+            bitmaps.get(dimension).compute(value, (key, bits) -> set(bits != null ? bits : NONE, docId));
+        }
+    }
+
+    private void unlink(int docId) {
+        Entry entry = entries.get(docId);
+        live = clear(live, docId);
+        unlink(CATEGORY, entry.categoryId(), docId);
+        unlink(LEVEL, entry.level(), docId);
+        unlink(LANGUAGE, entry.language(), docId);
+        unlink(PRICE, priceBucket(entry.price()), docId);
+    }
+
+    private void unlink(String dimension, String value, int docId) {
+        if (value == null) {
+            return;
+        }
+        Map<String, long[]> values = bitmaps.get(dimension);
+        long[] bits = values.get(value);
+        if (bits != null) {
+            clear(bits, docId);
+            if (cardinality(bits) == 0) {
+                values.remove(value);
+            }
+        }
+    }
+
+    private static long[] set(long[] bits, int docId) {
+        int word = docId >>> 6;
+        if (word >= bits.length) {
+            bits = Arrays.copyOf(bits, Math.max(word + 1, bits.length * 2));
+        }
+        bits[word] |= 1L << docId;
+        return bits;
+    }
+
+    private static long[] clear(long[] bits, int docId) {
+        int word = docId >>> 6;
+        if (word < bits.length) {
+            bits[word] &= ~(1L << docId);
+        }
+        return bits;
+    }
+
+    private static boolean isSet(long[] bits, int docId) {
+        int word = docId >>> 6;
+        return word < bits.length && (bits[word] & (1L << docId)) != 0;
+    }
+
+    private static void and(long[] target, long[] mask) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= i < mask.length ? mask[i] : 0L;
+        }
+    }
+
+    private static int andCardinality(long[] a, long[] b) {
+        int count = 0;
+        for (int i = 0, n = Math.min(a.length, b.length); i < n; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    private static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
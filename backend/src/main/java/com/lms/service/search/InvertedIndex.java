@@ -0,0 +1,398 @@
+package com.lms.service.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over course documents with BM25 ranking.
+ *
+ * <p>Each term maps to a postings list of document ids, kept sorted, and the weighted term
+ * frequency in that document. Fields count with different weights (a title hit is worth
+ * three description hits), and document length is the weighted token count, so the
+ * scoring is BM25F with the usual {@code k1 = 1.2}, {@code b = 0.75}.
+ *
+ * <p>A query walks the postings of its rarest term and looks each document up in the other
+ * lists, so its cost follows the number of matching documents rather than the catalog
+ * size. The term dictionary is sorted, which turns prefix completion into a range scan.
+ *
+ * <p>Reads run concurrently; updates take the write lock for the few microseconds needed
+ * to relink one document.
+ */
+final class InvertedIndex {
+
+    static final float TITLE_WEIGHT = 3f;
+    static final float SHORT_DESCRIPTION_WEIGHT = 2f;
+    static final float TAG_WEIGHT = 2f;
+    static final float WHAT_YOU_WILL_LEARN_WEIGHT = 1f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Best first: higher score, then the older document
+    private static final Comparator<Hit> HIT_ORDER = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparingInt(Hit::docId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+    private double totalLength;
+
+    record SearchHits(List<String> courseIds, int total) {
+        static final SearchHits EMPTY = new SearchHits(List.of(), 0);
+    }
+
+    record Suggestion(String courseId, String title) {}
+
+    private record Doc(String courseId, String title, float length, Map<String, Float> weights) {}
+
+    private record Hit(int docId, float score) {}
+
+    /**
+     * Adds the document, or replaces the one indexed under the same course id.
+     */
+    void put(CourseDocument document) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, document.title(), TITLE_WEIGHT);
+        addField(weights, document.shortDescription(), SHORT_DESCRIPTION_WEIGHT);
+        if (document.tags() != null) {
+            for (String tag : document.tags()) {
+                addField(weights, tag, TAG_WEIGHT);
+            }
+        }
+        addField(weights, document.whatYouWillLearn(), WHAT_YOU_WILL_LEARN_WEIGHT);
+        addField(weights, document.description(), DESCRIPTION_WEIGHT);
+        float length = 0;
+        for (float weight : weights.values()) {
+            length += weight;
+        }
+        Doc doc = new Doc(document.courseId(), document.title(), length, weights);
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = docIds.get(document.courseId());
+            int docId;
+            if (existing != null) {
+                unlink(existing);
+                docId = existing;
+            } else {
+                docId = freeDocIds.isEmpty() ? docs.size() : freeDocIds.pop();
+                if (docId == docs.size()) {
+                    docs.add(null);
+                }
+                docIds.put(document.courseId(), docId);
+            }
+            docs.set(docId, doc);
+            totalLength += length;
+            weights.forEach((term, weight) -> dictionary.computeIfAbsent(term, t -> new Postings()).add(docId, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean remove(String courseId) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIds.remove(courseId);
+            if (docId == null) {
+                return false;
+            }
+            unlink(docId);
+            docs.set(docId, null);
+            freeDocIds.push(docId);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int termCount() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Courses containing every query term, best first. {@code total} counts all matches,
+     * not just the requested page.
+     */
+    SearchHits search(List<String> terms, int offset, int limit) {
+        if (terms.isEmpty() || limit <= 0) {
+            return SearchHits.EMPTY;
+        }
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            for (String term : new LinkedHashSet<>(terms)) {
+                Postings postings = dictionary.get(term);
+                if (postings == null) {
+                    return SearchHits.EMPTY;
+                }
+                lists.add(postings);
+            }
+            lists.sort(Comparator.comparingInt(postings -> postings.size));
+
+            int n = lists.size();
+            float[] idf = new float[n];
+            for (int j = 0; j < n; j++) {
+                idf[j] = idf(lists.get(j).size);
+            }
+            float averageLength = averageLength();
+            int[] cursors = new int[n];
+            PriorityQueue<Hit> top = new PriorityQueue<>(HIT_ORDER.reversed());
+            int keep = offset + limit;
+            int total = 0;
+
+            Postings driver = lists.get(0);
+            candidates:
+            for (int i = 0; i < driver.size; i++) {
+                int docId = driver.docs[i];
+                float length = docs.get(docId).length();
+                float score = bm25(idf[0], driver.weights[i], length, averageLength);
+                for (int j = 1; j < n; j++) {
+                    Postings other = lists.get(j);
+                    int position = Arrays.binarySearch(other.docs, cursors[j], other.size, docId);
+                    if (position < 0) {
+                        cursors[j] = -position - 1;
+                        continue candidates;
+                    }
+                    cursors[j] = position + 1;
+                    score += bm25(idf[j], other.weights[position], length, averageLength);
+                }
+                total++;
+                offer(top, new Hit(docId, score), keep);
+            }
+
+            List<Hit> ranked = drain(top);
+            List<String> courseIds = new ArrayList<>();
+            for (int i = offset; i < ranked.size(); i++) {
+                courseIds.add(docs.get(ranked.get(i).docId()).courseId());
+            }
+            return new SearchHits(courseIds, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every course containing all query terms, unranked. Used as a filter, where the
+     * listing's own sort order applies and a ranked page would leave matches out.
+     */
+    List<String> matchAll(List<String> terms) {
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            for (String term : new LinkedHashSet<>(terms)) {
+                Postings postings = dictionary.get(term);
+                if (postings == null) {
+                    return List.of();
+                }
+                lists.add(postings);
+            }
+            lists.sort(Comparator.comparingInt(postings -> postings.size));
+
+            int n = lists.size();
+            int[] cursors = new int[n];
+            List<String> courseIds = new ArrayList<>();
+            Postings driver = lists.get(0);
+            candidates:
+            for (int i = 0; i < driver.size; i++) {
+                int docId = driver.docs[i];
+                for (int j = 1; j < n; j++) {
+                    Postings other = lists.get(j);
+                    int position = Arrays.binarySearch(other.docs, cursors[j], other.size, docId);
+                    if (position < 0) {
+                        cursors[j] = -position - 1;
+                        continue candidates;
+                    }
+                    cursors[j] = position + 1;
+                }
+                courseIds.add(docs.get(docId).courseId());
+            }
+            return courseIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Courses that contain every complete term and a word starting with {@code prefix},
+     * best first. At most {@code maxExpansions} dictionary terms are tried for the prefix.
+     */
+    List<Suggestion> suggest(List<String> completeTerms, String prefix, int limit, int maxExpansions) {
+        if (prefix.isEmpty()) {
+            SearchHits hits = search(completeTerms, 0, limit);
+            return hits.courseIds().stream().map(id -> new Suggestion(id, titleOf(id))).toList();
+        }
+        lock.readLock().lock();
+        try {
+            Set<String> expansions = new LinkedHashSet<>();
+            for (String stem : TextAnalyzer.prefixStems(prefix)) {
+                expand(stem, maxExpansions, expansions);
+            }
+            if (expansions.isEmpty()) {
+                return List.of();
+            }
+
+            float averageLength = averageLength();
+            Map<Integer, Float> scores = new HashMap<>();
+            for (String term : expansions) {
+                Postings postings = dictionary.get(term);
+                float termIdf = idf(postings.size);
+                for (int i = 0; i < postings.size; i++) {
+                    int docId = postings.docs[i];
+                    float score = bm25(termIdf, postings.weights[i], docs.get(docId).length(), averageLength);
+                    scores.merge(docId, score, Math::max);
+                }
+            }
+
+            for (String term : new LinkedHashSet<>(completeTerms)) {
+                Postings postings = dictionary.get(term);
+                if (postings == null) {
+                    return List.of();
+                }
+                float termIdf = idf(postings.size);
+                scores.entrySet().removeIf(entry -> {
+                    int position = Arrays.binarySearch(postings.docs, 0, postings.size, entry.getKey());
+                    if (position < 0) {
+                        return true;
+                    }
+                    float length = docs.get(entry.getKey()).length();
+                    entry.setValue(entry.getValue() + bm25(termIdf, postings.weights[position], length, averageLength));
+                    return false;
+                });
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(HIT_ORDER.reversed());
+            scores.forEach((docId, score) -> offer(top, new Hit(docId, score), limit));
+            List<Suggestion> suggestions = new ArrayList<>();
+            for (Hit hit : drain(top)) {
+                Doc doc = docs.get(hit.docId());
+                suggestions.add(new Suggestion(doc.courseId(), doc.title()));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void offer(PriorityQueue<Hit> top, Hit hit, int keep) {
+        if (top.size() < keep) {
+            top.add(hit);
+        } else if (HIT_ORDER.compare(hit, top.peek()) < 0) {
+            top.poll();
+            top.add(hit);
+        }
+    }
+
+    private static List<Hit> drain(PriorityQueue<Hit> top) {
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(HIT_ORDER);
+        return ranked;
+    }
+
+    private void expand(String prefix, int maxExpansions, Set<String> expansions) {
+        if (prefix.isEmpty()) {
+            return;
+        }
+        for (String term : dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+            if (expansions.size() >= maxExpansions) {
+                return;
+            }
+            expansions.add(term);
+        }
+    }
+
+    private String titleOf(String courseId) {
+        lock.readLock().lock();
+        try {
+            Integer docId = docIds.get(courseId);
+            return docId != null ? docs.get(docId).title() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void unlink(int docId) {
+        Doc doc = docs.get(docId);
+        totalLength -= doc.length();
+        for (String term : doc.weights().keySet()) {
+            Postings postings = dictionary.get(term);
+            postings.remove(docId);
+            if (postings.size == 0) {
+                dictionary.remove(term);
+            }
+        }
+    }
+
+    private float averageLength() {
+        return docIds.isEmpty() ? 1f : (float) Math.max(totalLength / docIds.size(), 1.0);
+    }
+
+    private float idf(int documentFrequency) {
+        int n = docIds.size();
+        return (float) Math.log(1 + (n - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static float bm25(float idf, float termFrequency, float length, float averageLength) {
+        return idf * termFrequency * (K1 + 1) / (termFrequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float fieldWeight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            weights.merge(term, fieldWeight, Float::sum);
+        }
+    }
+
+    /** Sorted document ids of one term with the weighted term frequency of each. */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int docId, float weight) {
+            int position = Arrays.binarySearch(docs, 0, size, docId);
+            if (position >= 0) {
+                weights[position] = weight;
+                return;
+            }
+            position = -position - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(docs, position, docs, position + 1, size - position);
+            System.arraycopy(weights, position, weights, position + 1, size - position);
+            docs[position] = docId;
+            weights[position] = weight;
+            size++;
+        }
+
+        void remove(int docId) {
+            int position = Arrays.binarySearch(docs, 0, size, docId);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+            System.arraycopy(weights, position + 1, weights, position, size - position - 1);
+            size--;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.lms.service.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns course text and queries into index terms: lower-cased runs of letters and digits,
+ * stop words dropped, and a light suffix stemmer so that "course", "courses" and
+ * "programming", "programmer" meet on the same term. A trailing {@code +} or {@code #}
+ * stays part of the token, so "C++" and "C#" remain searchable.
+ */
+public final class TextAnalyzer {
+
+    private static final int MAX_TOKEN_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "how", "in", "into", "is",
+            "it", "its", "of", "on", "or", "that", "the", "this", "to", "was", "what", "will", "with",
+            "you", "your");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Index terms of the text, in order, including repeats.
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if ((c == '+' || c == '#') && !token.isEmpty()) {
+                token.append(c);
+            } else {
+                emit(token, terms);
+            }
+        }
+        emit(token, terms);
+        return terms;
+    }
+
+    /**
+     * The unstemmed, lower-cased form of a partly typed word, for prefix matching.
+     */
+    public static String normalizePrefix(String prefix) {
+        StringBuilder normalized = new StringBuilder(prefix.length());
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '+' || c == '#') {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static void emit(StringBuilder token, List<String> terms) {
+        if (token.isEmpty()) {
+            return;
+        }
+        String word = token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token.toString();
+        token.setLength(0);
+        if (!STOP_WORDS.contains(word)) {
+            terms.add(stem(word));
+        }
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 3 || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        String stem = word;
+        if (stem.endsWith("ies") && stem.length() > 4) {
+            stem = stem.substring(0, stem.length() - 3) + "y";
+        } else if (stem.endsWith("sses")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us") && !stem.endsWith("is")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        for (String suffix : new String[] {"ing", "ed", "er", "ly"}) {
+            if (stem.endsWith(suffix) && stem.length() - suffix.length() >= 3
+                    && hasVowel(stem, stem.length() - suffix.length())) {
+                stem = undouble(stem.substring(0, stem.length() - suffix.length()));
+                break;
+            }
+        }
+
+        if (stem.endsWith("e") && stem.length() > 4) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    /**
+     * Dictionary prefixes to try for a typed word prefix. Terms are stored stemmed, so a
+     * prefix that already runs past the stem ("programm", "programmi" for "program") would
+     * otherwise match nothing. Besides the prefix and its stem this tries the prefix with a
+     * doubled final consonant collapsed, and with a partly typed suffix removed.
+     */
+    static Set<String> prefixStems(String prefix) {
+        Set<String> stems = new LinkedHashSet<>();
+        stems.add(prefix);
+        stems.add(stem(prefix));
+        stems.add(undouble(prefix));
+        for (String suffix : new String[] {"ing", "ed", "er", "ly"}) {
+            for (int typed = 1; typed < suffix.length(); typed++) {
+                int root = prefix.length() - typed;
+                if (prefix.endsWith(suffix.substring(0, typed)) && root >= 3 && hasVowel(prefix, root)) {
+                    stems.add(undouble(prefix.substring(0, root)));
+                }
+            }
+        }
+        stems.remove("");
+        return stems;
+    }
+
+    private static boolean hasVowel(String word, int end) {
+        for (int i = 0; i < end; i++) {
+            if ("aeiouy".indexOf(word.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // "programm" -> "program", "runn" -> "run"; keeps "ll", "ss" and "zz"
+    private static String undouble(String stem) {
+        int n = stem.length();
+        if (n >= 4 && stem.charAt(n - 1) == stem.charAt(n - 2) && "lsz".indexOf(stem.charAt(n - 1)) < 0
+                && "aeiou".indexOf(stem.charAt(n - 1)) < 0) {
+            return stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+}
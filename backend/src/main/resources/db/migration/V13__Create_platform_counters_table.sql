@@ -0,0 +1,9 @@
+-- Platform-wide counters maintained incrementally by the application
+-- V13__Create_platform_counters_table.sql
+
+CREATE TABLE platform_counters (
+    name VARCHAR(64) PRIMARY KEY,
+    value BIGINT NOT NULL DEFAULT 0,
+    reconciled_at TIMESTAMP NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
@@ -0,0 +1,20 @@
+-- Per-course grading schemes
+-- V14__Create_grading_schemes_table.sql
+
+CREATE TABLE grading_schemes (
+    id VARCHAR(255) PRIMARY KEY,
+    course_id VARCHAR(255) NOT NULL,
+    scheme_type VARCHAR(20) NOT NULL DEFAULT 'LETTER',
+    plus_minus BOOLEAN NOT NULL DEFAULT TRUE,
+    passing_percentage DECIMAL(5,2) NOT NULL DEFAULT 60.00,
+    cutoffs TEXT, -- JSON array of {letter, minPercentage, gradePoints}, highest first
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE CASCADE,
+
+    UNIQUE KEY unique_grading_scheme_course (course_id)
+);
+
+ALTER TABLE grading_schemes ADD CONSTRAINT chk_grading_scheme_type
+    CHECK (scheme_type IN ('LETTER', 'PASS_FAIL'));
@@ -0,0 +1,34 @@
+-- System broadcasts fanned out to users in keyset-ordered chunks
+-- V15__Create_broadcasts_table.sql
+
+CREATE TABLE broadcasts (
+    id VARCHAR(255) PRIMARY KEY,
+    channel VARCHAR(20) NOT NULL,
+    audience VARCHAR(20) NOT NULL,
+    title VARCHAR(500) NOT NULL,
+    content TEXT NOT NULL,
+    priority VARCHAR(20),
+    action_url VARCHAR(500),
+    action_text VARCHAR(100),
+    requested_by VARCHAR(255),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    total_recipients BIGINT NOT NULL DEFAULT 0,
+    processed_recipients BIGINT NOT NULL DEFAULT 0,
+    last_recipient_id VARCHAR(255), -- resume point: every user id up to here has been delivered
+    owner_node VARCHAR(64),
+    heartbeat_at TIMESTAMP NULL,
+    error_message TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP NULL,
+    completed_at TIMESTAMP NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    INDEX idx_broadcasts_status (status, heartbeat_at),
+    INDEX idx_broadcasts_created_at (created_at)
+);
+
+ALTER TABLE broadcasts ADD CONSTRAINT chk_broadcast_channel
+    CHECK (channel IN ('NOTIFICATION', 'IN_APP_MESSAGE'));
+
+ALTER TABLE broadcasts ADD CONSTRAINT chk_broadcast_status
+    CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED'));
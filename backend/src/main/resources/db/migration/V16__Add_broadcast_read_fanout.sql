@@ -0,0 +1,23 @@
+-- Broadcasts stored once and merged into each inbox at read time
+-- V16__Add_broadcast_read_fanout.sql
+
+ALTER TABLE broadcasts
+    ADD COLUMN delivery VARCHAR(10) NOT NULL DEFAULT 'WRITE' AFTER audience,
+    ADD COLUMN expires_at TIMESTAMP NULL AFTER completed_at;
+
+ALTER TABLE broadcasts ADD CONSTRAINT chk_broadcast_delivery
+    CHECK (delivery IN ('WRITE', 'READ'));
+
+-- Inbox lookups: newest read-time broadcasts of one channel
+CREATE INDEX idx_broadcasts_inbox ON broadcasts (delivery, channel, status, created_at);
+
+-- Per-user "last seen broadcast" position; every broadcast created at or before it counts as read
+CREATE TABLE broadcast_watermarks (
+    user_id VARCHAR(255) NOT NULL,
+    channel VARCHAR(20) NOT NULL,
+    last_seen_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (user_id, channel),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
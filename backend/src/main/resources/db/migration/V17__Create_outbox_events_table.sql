@@ -0,0 +1,19 @@
+-- Messages written in the business transaction and published to RabbitMQ by the outbox relay
+-- V17__Create_outbox_events_table.sql
+
+CREATE TABLE outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY, -- publish order
+    message_id VARCHAR(64) NOT NULL,
+    exchange_name VARCHAR(255) NOT NULL,
+    routing_key VARCHAR(255) NOT NULL,
+    payload_type VARCHAR(255) NOT NULL, -- Java type id for the JSON converter
+    payload MEDIUMTEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error TEXT,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    available_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), -- not retried before this
+    published_at TIMESTAMP(3) NULL,
+
+    UNIQUE KEY uk_outbox_message_id (message_id),
+    INDEX idx_outbox_pending (published_at, available_at, id)
+);
@@ -0,0 +1,30 @@
+-- Cohort certificate issuance, processed in enrollment-id order with a resume point
+-- V18__Create_certificate_issuance_jobs_table.sql
+
+CREATE TABLE certificate_issuance_jobs (
+    id VARCHAR(255) PRIMARY KEY,
+    course_id VARCHAR(255) NOT NULL,
+    enrollment_ids MEDIUMTEXT, -- comma-separated subset of the course's enrollments; NULL issues to every completed one
+    requested_by VARCHAR(255),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    total_enrollments BIGINT NOT NULL DEFAULT 0,
+    issued_count BIGINT NOT NULL DEFAULT 0,
+    skipped_count BIGINT NOT NULL DEFAULT 0, -- already had a generated certificate
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    last_enrollment_id VARCHAR(255), -- resume point: every enrollment id up to here has been processed
+    owner_node VARCHAR(64),
+    heartbeat_at TIMESTAMP NULL,
+    error_message TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP NULL,
+    completed_at TIMESTAMP NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE CASCADE,
+
+    INDEX idx_issuance_jobs_status (status, heartbeat_at),
+    INDEX idx_issuance_jobs_course (course_id, created_at)
+);
+
+ALTER TABLE certificate_issuance_jobs ADD CONSTRAINT chk_issuance_job_status
+    CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED'));
@@ -0,0 +1,36 @@
+-- Indexes for keyset (cursor) listings ordered by (timestamp DESC, id DESC)
+-- V19__Add_keyset_pagination_indexes.sql
+
+-- The cursor timestamps must never be NULL: a NULL row is never returned by the
+-- (timestamp, id) < (?, ?) seek predicate and cannot be encoded into a cursor. Rows without a
+-- timestamp get the migration time, courses their last update where they have one.
+UPDATE courses SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+ALTER TABLE courses MODIFY created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+UPDATE enrollments SET enrolled_at = CURRENT_TIMESTAMP WHERE enrolled_at IS NULL;
+ALTER TABLE enrollments MODIFY enrolled_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+UPDATE certificates SET issued_at = CURRENT_TIMESTAMP WHERE issued_at IS NULL;
+ALTER TABLE certificates MODIFY issued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+UPDATE in_app_messages SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE in_app_messages MODIFY created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+UPDATE notifications SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE notifications MODIFY created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+UPDATE broadcasts SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE broadcasts MODIFY created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Published catalog, newest first
+CREATE INDEX idx_courses_published_created ON courses (is_published, created_at);
+
+-- A user's active enrollments, newest first
+CREATE INDEX idx_enrollments_user_active_enrolled ON enrollments (user_id, is_active, enrolled_at);
+
+-- A recipient's inbox, newest first; the unread inbox keeps using (recipient_id, is_read, created_at)
+CREATE INDEX idx_in_app_messages_recipient_created ON in_app_messages (recipient_id, created_at);
+
+-- InnoDB secondary indexes end with the primary key, so each of these also covers the id
+-- tie-break. Admin listings of all enrollments and certificates are served by idx_enrolled_at
+-- and idx_issued_at for the same reason
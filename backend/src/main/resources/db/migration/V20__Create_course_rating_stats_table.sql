@@ -0,0 +1,29 @@
+-- Running rating aggregates per course, maintained with deltas from each review change
+-- V20__Create_course_rating_stats_table.sql
+
+CREATE TABLE course_rating_stats (
+    course_id VARCHAR(36) PRIMARY KEY,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    rating_count INT NOT NULL DEFAULT 0,
+    stars_1 INT NOT NULL DEFAULT 0,
+    stars_2 INT NOT NULL DEFAULT 0,
+    stars_3 INT NOT NULL DEFAULT 0,
+    stars_4 INT NOT NULL DEFAULT 0,
+    stars_5 INT NOT NULL DEFAULT 0,
+    reconciled_at TIMESTAMP NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE CASCADE
+);
+
+-- Seed from the published reviews
+INSERT INTO course_rating_stats (course_id, rating_sum, rating_count, stars_1, stars_2, stars_3, stars_4, stars_5, reconciled_at)
+SELECT course_id, SUM(rating), COUNT(*),
+       SUM(rating = 1), SUM(rating = 2), SUM(rating = 3), SUM(rating = 4), SUM(rating = 5),
+       CURRENT_TIMESTAMP
+FROM course_reviews
+WHERE is_published = TRUE
+GROUP BY course_id;
+
+-- Per-course recount used by the reconciliation job
+CREATE INDEX idx_course_reviews_course_published_rating ON course_reviews (course_id, is_published, rating);
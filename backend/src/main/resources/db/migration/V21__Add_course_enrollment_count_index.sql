@@ -0,0 +1,7 @@
+-- Most-enrolled listing reads the top of the maintained counter instead of sorting the catalog
+-- V21__Add_course_enrollment_count_index.sql
+
+CREATE INDEX idx_courses_published_enrolled ON courses (is_published, enrolled_count);
+
+-- Nightly recount of active enrollments per course
+CREATE INDEX idx_enrollments_course_active ON enrollments (course_id, is_active);
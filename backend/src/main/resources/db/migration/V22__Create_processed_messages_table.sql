@@ -0,0 +1,11 @@
+-- Message ids a consumer has already handled, so a redelivered message is skipped
+-- V22__Create_processed_messages_table.sql
+
+CREATE TABLE processed_messages (
+    consumer VARCHAR(64) NOT NULL,
+    message_id VARCHAR(64) NOT NULL,
+    processed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+
+    PRIMARY KEY (consumer, message_id),
+    INDEX idx_processed_messages_processed_at (processed_at)
+);
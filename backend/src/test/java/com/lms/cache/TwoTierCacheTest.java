@@ -0,0 +1,54 @@
+package com.lms.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TwoTierCache Tests")
+class TwoTierCacheTest {
+
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TwoTierCache("courses", Caffeine.newBuilder().maximumSize(100).build(),
+                new ConcurrentMapCache("courses"), new GenericJackson2JsonRedisSerializer(), (name, key) -> { });
+    }
+
+    @Test
+    @DisplayName("Should hand every reader its own copy of an L1 entry")
+    void shouldIsolateReaders() {
+        // Given
+        cache.put("published:0:12", new ArrayList<>(List.of("course-1", "course-2")));
+
+        // When
+        @SuppressWarnings("unchecked")
+        List<String> first = (List<String>) cache.get("published:0:12").get();
+        first.clear();
+        @SuppressWarnings("unchecked")
+        List<String> second = (List<String>) cache.get("published:0:12").get();
+
+        // Then
+        assertThat(second).containsExactly("course-1", "course-2").isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should cache null results without serializing them")
+    void shouldCacheNull() {
+        // When
+        Object loaded = cache.get("missing", () -> null);
+
+        // Then
+        assertThat(loaded).isNull();
+        assertThat(cache.getLocalCache().getIfPresent("missing")).isNotNull();
+        assertThat(cache.get("missing")).isNotNull();
+    }
+}
@@ -0,0 +1,102 @@
+package com.lms.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.config.RateLimitConfig;
+import com.lms.service.RateLimitService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateLimitFilter Tests")
+class RateLimitFilterTest {
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private RateLimitConfig rateLimitConfig;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        // Local mode keeps the buckets in memory
+        rateLimitConfig = new RateLimitConfig();
+        ReflectionTestUtils.setField(rateLimitConfig, "mode", "local");
+        ReflectionTestUtils.setField(rateLimitConfig, "cacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(rateLimitConfig, "cacheExpireAfterAccess", Duration.ofHours(2));
+        rateLimitConfig.init();
+        filter = new RateLimitFilter(new RateLimitService(rateLimitConfig), new ObjectMapper().findAndRegisterModules());
+
+        SecurityContextHolder.clearContext();
+        when(request.getRequestURI()).thenReturn("/auth/login");
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getRemoteAddr()).thenReturn("203.0.113.7");
+    }
+
+    @AfterEach
+    void tearDown() {
+        rateLimitConfig.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should report the tokens left after the request and no reset wait")
+    void shouldReportRemainingTokens() throws Exception {
+        // When
+        filter.doFilterInternal(request, response, filterChain);
+
+        // Then - the auth limit is 10 per minute
+        verify(filterChain).doFilter(request, response);
+        verify(response).setHeader("X-RateLimit-Remaining", "9");
+        verify(response).setHeader("X-RateLimit-Reset", "0");
+        verify(response).setHeader("X-RateLimit-Type", "auth");
+    }
+
+    @Test
+    @DisplayName("Should reject once the bucket is empty and report when it refills")
+    void shouldReportResetWhenExhausted() throws Exception {
+        // Given
+        StringWriter body = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+        for (int i = 0; i < 10; i++) {
+            filter.doFilterInternal(request, response, filterChain);
+        }
+        verify(response).setHeader("X-RateLimit-Remaining", "0");
+        clearInvocations(response, filterChain);
+
+        // When
+        filter.doFilterInternal(request, response, filterChain);
+
+        // Then - the whole quota refills at the end of the minute
+        verify(filterChain, never()).doFilter(any(), any());
+        verify(response).setStatus(429);
+        verify(response).setHeader("X-RateLimit-Remaining", "0");
+        verify(response).setHeader(eq("Retry-After"), argThat(seconds -> {
+            long value = Long.parseLong(seconds);
+            return value > 0 && value <= 60;
+        }));
+        assertThat(body.toString()).contains("Rate limit exceeded");
+    }
+}
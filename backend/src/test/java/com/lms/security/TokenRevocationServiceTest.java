@@ -0,0 +1,118 @@
+package com.lms.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationService Tests")
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationService, "principalCacheTtl", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(tokenRevocationService, "principalCacheMaximumSize", 100L);
+        tokenRevocationService.init();
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("Should build principal from claims and serve repeats from cache")
+    void shouldBuildPrincipalFromClaims() {
+        // Given
+        Claims claims = accessClaims(2L);
+        when(valueOperations.get("lms:auth:epoch:user-1")).thenReturn(2);
+
+        // When
+        UserPrincipal first = tokenRevocationService.principalFor("token", claims);
+        UserPrincipal second = tokenRevocationService.principalFor("token", claims);
+
+        // Then
+        assertThat(first.getId()).isEqualTo("user-1");
+        assertThat(first.getEmail()).isEqualTo("student@test.com");
+        assertThat(first.getAuthorities()).extracting("authority").containsExactly("ROLE_STUDENT");
+        assertThat(second).isSameAs(first);
+        verify(valueOperations, times(1)).get("lms:auth:epoch:user-1");
+    }
+
+    @Test
+    @DisplayName("Should reject fast path when token epoch is stale")
+    void shouldRejectStaleEpoch() {
+        // Given
+        when(valueOperations.get("lms:auth:epoch:user-1")).thenReturn(3);
+
+        // When
+        UserPrincipal principal = tokenRevocationService.principalFor("token", accessClaims(2L));
+
+        // Then
+        assertThat(principal).isNull();
+    }
+
+    @Test
+    @DisplayName("Should drop cached principals when tokens are revoked")
+    void shouldDropCachedPrincipalsOnRevoke() {
+        // Given
+        when(valueOperations.get("lms:auth:epoch:user-1")).thenReturn(null, 1);
+        Claims claims = accessClaims(0L);
+        assertThat(tokenRevocationService.principalFor("token", claims)).isNotNull();
+
+        // When
+        tokenRevocationService.revokeTokens("user-1");
+
+        // Then
+        verify(valueOperations).increment("lms:auth:epoch:user-1");
+        assertThat(tokenRevocationService.principalFor("token", claims)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fall back for tokens issued without fast-path claims")
+    void shouldFallBackForLegacyTokens() {
+        // Given
+        Claims claims = Jwts.claims().setSubject("student@test.com");
+        claims.put("userId", "user-1");
+        claims.put("role", "STUDENT");
+
+        // When
+        UserPrincipal principal = tokenRevocationService.principalFor("legacy-token", claims);
+
+        // Then
+        assertThat(principal).isNull();
+        verifyNoInteractions(valueOperations);
+    }
+
+    private Claims accessClaims(long epoch) {
+        Claims claims = Jwts.claims().setSubject("student@test.com");
+        claims.put("userId", "user-1");
+        claims.put("role", "STUDENT");
+        claims.put("type", "access");
+        claims.put("enabled", true);
+        claims.put("approved", true);
+        claims.put("firstName", "Test");
+        claims.put("lastName", "Student");
+        claims.put("epoch", epoch);
+        return claims;
+    }
+}
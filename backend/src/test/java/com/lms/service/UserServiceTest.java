@@ -9,6 +9,8 @@ import com.lms.exception.ResourceNotFoundException;
 import com.lms.exception.UserAlreadyExistsException;
 import com.lms.mapper.UserMapper;
 import com.lms.repository.UserRepository;
+import com.lms.security.TokenRevocationService;
+import com.lms.service.metrics.PlatformMetricsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -46,6 +48,12 @@ class UserServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private PlatformMetricsService platformMetrics;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private UserService userService;
 
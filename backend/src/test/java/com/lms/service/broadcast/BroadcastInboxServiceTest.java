@@ -0,0 +1,154 @@
+package com.lms.service.broadcast;
+
+import com.lms.dto.common.Cursor;
+import com.lms.dto.common.CursorSlice;
+import com.lms.entity.Broadcast;
+import com.lms.entity.Notification;
+import com.lms.entity.User;
+import com.lms.repository.BroadcastRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BroadcastInboxService Tests")
+class BroadcastInboxServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private BroadcastRepository broadcastRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private BroadcastInboxService inboxService;
+
+    @Test
+    @DisplayName("Should interleave broadcasts with personal items and page over the merged order")
+    void shouldMergeAndPage() {
+        // Given
+        User user = user();
+        List<Notification> personal = List.of(notification("p1", T0.plusMinutes(50)),
+                notification("p2", T0.plusMinutes(30)), notification("p3", T0.plusMinutes(10)));
+        List<Broadcast> broadcasts = List.of(broadcast("b1", T0.plusMinutes(40)), broadcast("b2", T0.plusMinutes(20)));
+        when(jdbcTemplate.queryForList(anyString(), eq(Timestamp.class), any(), any()))
+                .thenReturn(List.of(Timestamp.valueOf(T0.plusMinutes(25))));
+        when(broadcastRepository.countInbox(any(), any(), any(), any(), any())).thenReturn(2L);
+        when(broadcastRepository.findInbox(any(), any(), any(), any(), any(), any())).thenReturn(broadcasts);
+
+        // When
+        Page<Notification> page = inboxService.mergeInbox(user, Broadcast.Channel.NOTIFICATION, false,
+                PageRequest.of(1, 2), window -> page(personal, window), (b, read) -> view(b, read),
+                Notification::getCreatedAt);
+
+        // Then
+        assertThat(page.getContent()).extracting(Notification::getId).containsExactly("p2", "b2");
+        assertThat(page.getContent().get(1).isRead()).isTrue();
+        assertThat(page.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should run the personal query unchanged when no broadcast is visible")
+    void shouldSkipMergeWithoutBroadcasts() {
+        // Given
+        User user = user();
+        List<Notification> personal = List.of(notification("p1", T0));
+        when(jdbcTemplate.queryForList(anyString(), eq(Timestamp.class), any(), any())).thenReturn(List.of());
+        when(broadcastRepository.countInbox(any(), any(), any(), any(), any())).thenReturn(0L);
+
+        // When
+        Page<Notification> page = inboxService.mergeInbox(user, Broadcast.Channel.NOTIFICATION, true,
+                PageRequest.of(0, 20), window -> page(personal, window), (b, read) -> view(b, read),
+                Notification::getCreatedAt);
+
+        // Then
+        assertThat(page.getContent()).extracting(Notification::getId).containsExactly("p1");
+        verify(broadcastRepository, never()).findInbox(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should slice the merged inbox by creation time and id and resume after the cursor")
+    void shouldScrollByCursor() {
+        // Given
+        User user = user();
+        List<Notification> personal = List.of(notification("p1", T0.plusMinutes(50)),
+                notification("p2", T0.plusMinutes(30)), notification("p3", T0.plusMinutes(10)));
+        Broadcast b1 = broadcast("b1", T0.plusMinutes(40));
+        Broadcast b2 = broadcast("b2", T0.plusMinutes(30));
+        when(jdbcTemplate.queryForList(anyString(), eq(Timestamp.class), any(), any())).thenReturn(List.of());
+        when(broadcastRepository.findInbox(any(), any(), any(), any(), any(), any())).thenReturn(List.of(b1, b2));
+        when(broadcastRepository.findInboxBefore(any(), any(), any(), any(), any(),
+                eq(T0.plusMinutes(40)), eq("b1"), any())).thenReturn(List.of(b2));
+
+        // When
+        CursorSlice<Notification> first = scroll(user, personal, null);
+        CursorSlice<Notification> second = scroll(user, personal, Cursor.decode(first.getNextCursor()));
+
+        // Then
+        assertThat(first.getContent()).extracting(Notification::getId).containsExactly("p1", "b1");
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(second.getContent()).extracting(Notification::getId).containsExactly("p2", "b2");
+        assertThat(second.isHasNext()).isTrue();
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId("user-1");
+        user.setCreatedAt(T0);
+        return user;
+    }
+
+    private CursorSlice<Notification> scroll(User user, List<Notification> personal, Cursor cursor) {
+        return inboxService.scrollInbox(user, Broadcast.Channel.NOTIFICATION, false, cursor, 2,
+                (after, limit) -> personal.stream()
+                        .filter(n -> after == null || n.getCreatedAt().isBefore(after.timestamp())
+                                || (n.getCreatedAt().equals(after.timestamp()) && n.getId().compareTo(after.id()) < 0))
+                        .limit(limit)
+                        .toList(),
+                (b, read) -> view(b, read), Notification::getCreatedAt, Notification::getId);
+    }
+
+    private static Page<Notification> page(List<Notification> all, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    private static Notification notification(String id, LocalDateTime createdAt) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setCreatedAt(createdAt);
+        return notification;
+    }
+
+    private static Notification view(Broadcast broadcast, boolean read) {
+        Notification notification = notification(broadcast.getId(), broadcast.getCreatedAt());
+        notification.setRead(read);
+        return notification;
+    }
+
+    private static Broadcast broadcast(String id, LocalDateTime createdAt) {
+        Broadcast broadcast = new Broadcast();
+        broadcast.setId(id);
+        broadcast.setCreatedAt(createdAt);
+        return broadcast;
+    }
+}
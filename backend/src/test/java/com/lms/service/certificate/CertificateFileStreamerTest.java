@@ -0,0 +1,114 @@
+package com.lms.service.certificate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CertificateFileStreamer Tests")
+class CertificateFileStreamerTest {
+
+    private static final byte[] CONTENT = "%PDF-1.4 certificate body".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path storageRoot;
+
+    private CertificateStorageService storageService;
+    private CertificateFileStreamer streamer;
+    private Path stored;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storageService = new CertificateStorageService();
+        ReflectionTestUtils.setField(storageService, "certificateStoragePath", storageRoot.toString());
+        storageService.init();
+        streamer = new CertificateFileStreamer(storageService);
+
+        Path staged = storageService.stagingPath("cert.pdf");
+        Files.write(staged, CONTENT);
+        stored = storageService.store(staged);
+    }
+
+    @Test
+    @DisplayName("Should store identical content once under its hash")
+    void shouldDeduplicateByContent() throws Exception {
+        // Given
+        Path staged = storageService.stagingPath("copy.pdf");
+        Files.write(staged, CONTENT);
+
+        // When
+        Path second = storageService.store(staged);
+
+        // Then
+        assertThat(second).isEqualTo(stored);
+        assertThat(staged).doesNotExist();
+        assertThat(stored.getFileName().toString()).isEqualTo(CertificateStorageService.sha256(stored) + ".pdf");
+    }
+
+    @Test
+    @DisplayName("Should send the whole file with a strong ETag")
+    void shouldStreamWholeFile() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean complete = streamer.stream(stored, "cert.pdf", request, response);
+
+        // Then
+        assertThat(complete).isTrue();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + CertificateStorageService.sha256(stored) + "\"");
+        assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should answer 304 when the client's ETag matches")
+    void shouldHonourIfNoneMatch() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + CertificateStorageService.sha256(stored) + "\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean complete = streamer.stream(stored, "cert.pdf", request, response);
+
+        // Then
+        assertThat(complete).isFalse();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should serve a byte range as partial content and reject unsatisfiable ranges")
+    void shouldServeRanges() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean complete = streamer.stream(stored, "cert.pdf", request, response);
+
+        // Then
+        assertThat(complete).isFalse();
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("%PDF");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-3/" + CONTENT.length);
+
+        assertThat(CertificateFileStreamer.parseRange("bytes=-5", 100)).containsExactly(95, 99);
+        assertThat(CertificateFileStreamer.parseRange("bytes=100-", 100)).isNull();
+        assertThat(CertificateFileStreamer.parseRange("bytes=0-1,4-5", 100)).isNull();
+    }
+}
@@ -0,0 +1,120 @@
+package com.lms.service.certificate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.TemplateEngine;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CertificateRenderingEngine Tests")
+class CertificateRenderingEngineTest {
+
+    // With no resolver configured the engine treats the template name as the template itself
+    private static final String TEMPLATE =
+            "<html><head><style>p { font-size: 20px; }</style></head>" +
+            "<body><p th:text=\"${studentName}\">Student</p></body></html>";
+
+    @TempDir
+    Path storage;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CertificateRenderingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new CertificateRenderingEngine(new TemplateEngine(), meterRegistry);
+        ReflectionTestUtils.setField(engine, "workers", 2);
+        ReflectionTestUtils.setField(engine, "queueCapacity", 4);
+        ReflectionTestUtils.setField(engine, "renderTimeout", Duration.ofMinutes(1));
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    @DisplayName("Should render concurrent certificates to complete PDF files and time every stage")
+    void shouldRenderOnPool() throws Exception {
+        // Given
+        List<Path> targets = IntStream.range(0, 6).mapToObj(i -> storage.resolve("cert-" + i + ".pdf")).toList();
+
+        // When
+        List<CompletableFuture<CertificateRenderingEngine.RenderTimings>> renders = targets.stream()
+                .map(target -> engine.render(TEMPLATE, Map.of("studentName", "Ada Lovelace"), target))
+                .toList();
+        CompletableFuture.allOf(renders.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+
+        // Then
+        for (Path target : targets) {
+            byte[] pdf = Files.readAllBytes(target);
+            assertThat(new String(pdf, 0, 5, StandardCharsets.ISO_8859_1)).isEqualTo("%PDF-");
+        }
+        assertThat(Files.list(storage)).noneMatch(path -> path.toString().endsWith(".part"));
+        for (String stage : List.of("queue", "template", "layout", "pdf")) {
+            assertThat(meterRegistry.get("certificate.render.duration").tag("stage", stage).timer().count())
+                    .isEqualTo(6);
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail the render when the file cannot be written and keep the pool usable")
+    void shouldFailAndRecover() throws Exception {
+        // Given
+        Path unwritable = storage.resolve("missing-dir").resolve("cert.pdf");
+        Path target = storage.resolve("cert.pdf");
+
+        // When
+        CompletableFuture<CertificateRenderingEngine.RenderTimings> failed =
+                engine.render(TEMPLATE, Map.of("studentName", "Ada"), unwritable);
+
+        // Then
+        assertThatThrownBy(() -> failed.get(60, TimeUnit.SECONDS))
+                .hasRootCauseInstanceOf(NoSuchFileException.class);
+        engine.render(TEMPLATE, Map.of("studentName", "Ada"), target).get(60, TimeUnit.SECONDS);
+        assertThat(target).exists();
+    }
+
+    @Test
+    @DisplayName("Should fail a render that overruns its deadline and delete the file it writes late")
+    void shouldDiscardLateRender() throws Exception {
+        // Given - one worker, so the next render starts only once the late one has cleaned up
+        engine.stop();
+        ReflectionTestUtils.setField(engine, "workers", 1);
+        ReflectionTestUtils.setField(engine, "renderTimeout", Duration.ofNanos(1));
+        engine.start();
+        Path target = storage.resolve("late.pdf");
+
+        // When
+        CompletableFuture<CertificateRenderingEngine.RenderTimings> late =
+                engine.render(TEMPLATE, Map.of("studentName", "Ada"), target);
+
+        // Then
+        assertThatThrownBy(() -> late.get(60, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(TimeoutException.class);
+        ReflectionTestUtils.setField(engine, "renderTimeout", Duration.ofMinutes(1));
+        Path next = storage.resolve("next.pdf");
+        engine.render(TEMPLATE, Map.of("studentName", "Ada"), next).get(60, TimeUnit.SECONDS);
+        assertThat(target).doesNotExist();
+        assertThat(next).exists();
+    }
+}
@@ -0,0 +1,101 @@
+package com.lms.service.email;
+
+import com.lms.dto.messaging.EmailMessage.EmailType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the enrollment confirmation for every student of a course of {@code recipients}
+ * students, once with the previous {@code String.format} body and once with the compiled
+ * templates, whose course-level values are bound once and reused.
+ *
+ * <p>Not part of the test suite. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.lms.service.email.EmailTemplateBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailTemplateBenchmark {
+
+    private static final String BASE_URL = "https://lms.example.com";
+
+    @Param({"100", "3000"})
+    private int recipients;
+
+    private EmailTemplates templates;
+    private List<Map<String, Object>> messages;
+
+    @Setup
+    public void setUp() {
+        templates = new EmailTemplates();
+        ReflectionTestUtils.setField(templates, "frontendUrl", BASE_URL);
+        ReflectionTestUtils.setField(templates, "fragmentCacheSize", 1000);
+        templates.compile();
+
+        messages = new ArrayList<>(recipients);
+        for (int i = 0; i < recipients; i++) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("studentName", "Student " + i);
+            data.put("courseName", "Distributed Systems in Practice");
+            data.put("instructorName", "Leslie Lamport");
+            data.put("courseDuration", 42);
+            data.put("courseId", "5f0c3c8e-8f1a-4b7e-9a53-0d3b2f6c1e77");
+            messages.add(data);
+        }
+    }
+
+    @Benchmark
+    public void stringFormat(Blackhole blackhole) {
+        for (Map<String, Object> data : messages) {
+            blackhole.consume(legacyEnrollmentConfirmation(data, BASE_URL + ",http://localhost:3000"));
+        }
+    }
+
+    @Benchmark
+    public void compiledTemplate(Blackhole blackhole) {
+        for (Map<String, Object> data : messages) {
+            blackhole.consume(templates.render(EmailType.ENROLLMENT_CONFIRMATION, data));
+        }
+    }
+
+    // The body EmailConsumerService built before templates were compiled
+    static String legacyEnrollmentConfirmation(Map<String, Object> data, String frontendUrl) {
+        String baseUrl = frontendUrl.split(",")[0];
+        return String.format(
+            "Hi %s,\n\n" +
+            "You have successfully enrolled in the course: %s\n\n" +
+            "Instructor: %s\n" +
+            "Course Duration: %s hours\n\n" +
+            "You can start learning by visiting:\n" +
+            "%s/courses/%s\n\n" +
+            "Happy learning!\n\n" +
+            "Best regards,\n" +
+            "Modern LMS Team",
+            data.get("studentName"),
+            data.get("courseName"),
+            data.get("instructorName"),
+            data.get("courseDuration"),
+            baseUrl,
+            data.get("courseId")
+        );
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
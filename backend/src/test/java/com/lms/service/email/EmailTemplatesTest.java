@@ -0,0 +1,96 @@
+package com.lms.service.email;
+
+import com.lms.dto.messaging.EmailMessage.EmailType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("EmailTemplates Tests")
+class EmailTemplatesTest {
+
+    private EmailTemplates templates;
+
+    @BeforeEach
+    void setUp() {
+        templates = new EmailTemplates();
+        ReflectionTestUtils.setField(templates, "frontendUrl", "https://lms.example.com,http://localhost:3000");
+        ReflectionTestUtils.setField(templates, "fragmentCacheSize", 10);
+        templates.compile();
+    }
+
+    @Test
+    @DisplayName("Should render the same text as the previous String.format bodies")
+    void shouldMatchFormattedBody() {
+        // Given
+        Map<String, Object> data = Map.of(
+                "studentName", "Ada Lovelace",
+                "courseName", "Analytical Engines",
+                "instructorName", "Charles Babbage",
+                "courseDuration", 12,
+                "courseId", "c-1");
+
+        // When
+        String body = templates.render(EmailType.ENROLLMENT_CONFIRMATION, data);
+
+        // Then
+        assertThat(body).isEqualTo(String.format(
+                "Hi %s,\n\n" +
+                "You have successfully enrolled in the course: %s\n\n" +
+                "Instructor: %s\n" +
+                "Course Duration: %s hours\n\n" +
+                "You can start learning by visiting:\n" +
+                "%s/courses/%s\n\n" +
+                "Happy learning!\n\n" +
+                "Best regards,\n" +
+                "Modern LMS Team",
+                "Ada Lovelace", "Analytical Engines", "Charles Babbage", 12, "https://lms.example.com", "c-1"));
+    }
+
+    @Test
+    @DisplayName("Should keep recipient values separate when course values are shared")
+    void shouldReuseSharedFragment() {
+        // Given
+        Map<String, Object> first = new HashMap<>(Map.of("studentName", "Ada", "courseName", "Logic", "certificateNumber", "N-1"));
+        Map<String, Object> second = new HashMap<>(Map.of("studentName", "Alan", "courseName", "Logic", "certificateNumber", "N-2"));
+
+        // When
+        String a = templates.render(EmailType.CERTIFICATE_READY, first);
+        String b = templates.render(EmailType.CERTIFICATE_READY, second);
+
+        // Then
+        assertThat(a).startsWith("Hi Ada,").contains("course: Logic", "Certificate Number: N-1");
+        assertThat(b).startsWith("Hi Alan,").contains("course: Logic", "Certificate Number: N-2");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the rejection hint when no reason is given")
+    void shouldRenderReasonLine() {
+        assertThat(templates.render(EmailType.INSTRUCTOR_REJECTED, Map.of("instructorName", "Grace", "reason", "Incomplete profile")))
+                .contains("\n\nReason: Incomplete profile\n\n");
+        assertThat(templates.render(EmailType.INSTRUCTOR_REJECTED, Map.of("instructorName", "Grace")))
+                .contains("Please ensure you meet all our instructor requirements.");
+        assertThat(templates.render(EmailType.COURSE_REMINDER, Map.of()))
+                .isEqualTo("Thank you for using Modern LMS!");
+    }
+
+    @Test
+    @DisplayName("Should bind constants and escape values of HTML templates")
+    void shouldBindAndEscape() {
+        // Given
+        CompiledTemplate template = CompiledTemplate.compile("<a href=\"{{baseUrl}}/u/{{ id }}\">{{name}}</a>", true)
+                .bind(Map.of("baseUrl", "https://lms.example.com"));
+
+        // When / Then
+        assertThat(template.variables()).containsExactly("id", "name");
+        assertThat(template.render(Map.of("id", 7, "name", "<b>Bob</b>")))
+                .isEqualTo("<a href=\"https://lms.example.com/u/7\">&lt;b&gt;Bob&lt;/b&gt;</a>");
+        assertThatThrownBy(() -> CompiledTemplate.compile("Hi {{name", false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
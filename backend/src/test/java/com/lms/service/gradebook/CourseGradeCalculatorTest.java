@@ -0,0 +1,100 @@
+package com.lms.service.gradebook;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CourseGradeCalculator Tests")
+class CourseGradeCalculatorTest {
+
+    private static Object[] grade(String studentId, String assignmentId, String percentage, boolean excused, int attempt) {
+        return new Object[]{studentId, assignmentId, new BigDecimal(percentage), excused, attempt};
+    }
+
+    @Test
+    @DisplayName("Should average all non-excused grades when the course has no categories")
+    void compute_NoCategories_SimpleAverage() {
+        // Given
+        CourseGradeCalculator calculator = new CourseGradeCalculator(List.of(), List.of());
+        List<Object[]> rows = List.of(
+                grade("s1", "a1", "80.00", false, 1),
+                grade("s1", "a2", "91.00", false, 1),
+                grade("s1", "a3", "10.00", true, 1));
+
+        // When
+        BigDecimal[] grades = calculator.compute(List.of("s1", "s2"), rows);
+
+        // Then
+        assertThat(grades[0]).isEqualByComparingTo("85.50");
+        assertThat(grades[1]).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("Should weight categories, drop lowest scores and use the latest attempt")
+    void compute_WeightedCategories() {
+        // Given
+        CourseGradeCalculator calculator = new CourseGradeCalculator(
+                List.of(new CourseGradeCalculator.Category("homework", new BigDecimal("40.00"), 1),
+                        new CourseGradeCalculator.Category("exams", new BigDecimal("60.00"), 0),
+                        new CourseGradeCalculator.Category("empty", new BigDecimal("50.00"), 0)),
+                List.<Object[]>of(
+                        new Object[]{"h1", "homework"},
+                        new Object[]{"h2", "homework"},
+                        new Object[]{"h3", "homework"},
+                        new Object[]{"e1", "exams"}));
+        List<Object[]> rows = List.of(
+                grade("s1", "h1", "50.00", false, 1),
+                grade("s1", "h2", "90.00", false, 1),
+                grade("s1", "h3", "80.00", false, 1),
+                grade("s1", "e1", "60.00", false, 1),
+                grade("s1", "e1", "75.00", false, 2));
+
+        // When
+        BigDecimal[] grades = calculator.compute(List.of("s1"), rows);
+
+        // Then - homework (90 + 80) / 2 = 85, exams 75 from the second attempt
+        assertThat(grades[0]).isEqualByComparingTo("79.00");
+    }
+
+    @Test
+    @DisplayName("Should count a category without grades as zero")
+    void compute_CategoryWithoutGrades_CountsAsZero() {
+        // Given
+        CourseGradeCalculator calculator = new CourseGradeCalculator(
+                List.of(new CourseGradeCalculator.Category("homework", new BigDecimal("50.00"), 0),
+                        new CourseGradeCalculator.Category("exams", new BigDecimal("50.00"), 0)),
+                List.<Object[]>of(new Object[]{"h1", "homework"}, new Object[]{"e1", "exams"}));
+
+        // When
+        BigDecimal[] grades = calculator.compute(List.of("s1"),
+                List.<Object[]>of(grade("s1", "h1", "93.33", false, 1)));
+
+        // Then
+        assertThat(grades[0]).isEqualByComparingTo("46.67");
+    }
+
+    @Test
+    @DisplayName("Should count only the latest attempt at an assignment, even when it scored lower")
+    void compute_LatestAttemptCounts() {
+        // Given
+        CourseGradeCalculator calculator = new CourseGradeCalculator(
+                List.of(new CourseGradeCalculator.Category("exams", new BigDecimal("100.00"), 0)),
+                List.<Object[]>of(new Object[]{"e1", "exams"}, new Object[]{"e2", "exams"}));
+        List<Object[]> rows = List.of(
+                grade("s1", "e1", "40.00", false, 3),
+                grade("s1", "e1", "95.00", false, 2),
+                grade("s1", "e1", "70.00", false, 1),
+                grade("s1", "e2", "90.00", false, 1),
+                grade("s1", "e2", "10.00", true, 2));
+
+        // When
+        BigDecimal[] grades = calculator.compute(List.of("s1"), rows);
+
+        // Then - e1 counts its third attempt, e2 is left out because its latest attempt is excused
+        assertThat(grades[0]).isEqualByComparingTo("40.00");
+    }
+}
@@ -0,0 +1,132 @@
+package com.lms.service.gradebook;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the basis-point kernel with the previous {@code BigDecimal} implementation on a
+ * course of {@code students} students, three weighted categories and ten assignments each.
+ *
+ * <p>Not part of the test suite. JMH forks a fresh JVM with the launching JVM's class path,
+ * so run it from a plain {@code java} process rather than through {@code exec:java}:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) org.openjdk.jmh.Main GradeMathBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GradeMathBenchmark {
+
+    private static final int CATEGORIES = 3;
+    private static final int ASSIGNMENTS_PER_CATEGORY = 10;
+    private static final int DROP_LOWEST = 1;
+
+    @Param({"100", "1000"})
+    private int students;
+
+    private BigDecimal[] weights;
+    private BigDecimal[][][] decimalScores;
+    private long[] basisPointWeights;
+    private int[][][] basisPointScores;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        weights = new BigDecimal[]{new BigDecimal("20.00"), new BigDecimal("30.00"), new BigDecimal("50.00")};
+        basisPointWeights = new long[CATEGORIES];
+        for (int c = 0; c < CATEGORIES; c++) {
+            basisPointWeights[c] = GradeMath.toBasisPoints(weights[c]);
+        }
+
+        decimalScores = new BigDecimal[students][CATEGORIES][ASSIGNMENTS_PER_CATEGORY];
+        basisPointScores = new int[students][CATEGORIES][ASSIGNMENTS_PER_CATEGORY];
+        for (int s = 0; s < students; s++) {
+            for (int c = 0; c < CATEGORIES; c++) {
+                for (int a = 0; a < ASSIGNMENTS_PER_CATEGORY; a++) {
+                    int score = 4000 + random.nextInt(6001);
+                    basisPointScores[s][c][a] = score;
+                    decimalScores[s][c][a] = BigDecimal.valueOf(score, 2);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole blackhole) {
+        for (int s = 0; s < students; s++) {
+            BigDecimal totalWeightedPoints = BigDecimal.ZERO;
+            BigDecimal totalWeight = BigDecimal.ZERO;
+            for (int c = 0; c < CATEGORIES; c++) {
+                List<BigDecimal> grades = new ArrayList<>(List.of(decimalScores[s][c]));
+                grades.sort(BigDecimal::compareTo);
+                for (int i = 0; i < DROP_LOWEST; i++) {
+                    grades.remove(0);
+                }
+                BigDecimal sum = grades.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+                BigDecimal categoryGrade = sum.divide(BigDecimal.valueOf(grades.size()), 2, RoundingMode.HALF_UP);
+                totalWeightedPoints = totalWeightedPoints.add(categoryGrade.multiply(weights[c]));
+                totalWeight = totalWeight.add(weights[c]);
+            }
+            BigDecimal grade = totalWeightedPoints.divide(totalWeight, 2, RoundingMode.HALF_UP);
+            blackhole.consume(LegacyGradeScale.letterGrade(grade));
+            blackhole.consume(LegacyGradeScale.gradePoints(grade));
+            blackhole.consume(grade.compareTo(BigDecimal.valueOf(60)) >= 0);
+        }
+    }
+
+    @Benchmark
+    public void basisPoints(Blackhole blackhole) {
+        GradeScale scale = GradeScale.DEFAULT;
+        int[] buffer = new int[ASSIGNMENTS_PER_CATEGORY];
+        for (int s = 0; s < students; s++) {
+            long weightedSum = 0;
+            long totalWeight = 0;
+            for (int c = 0; c < CATEGORIES; c++) {
+                System.arraycopy(basisPointScores[s][c], 0, buffer, 0, ASSIGNMENTS_PER_CATEGORY);
+                java.util.Arrays.sort(buffer);
+                weightedSum += GradeMath.average(buffer, DROP_LOWEST, ASSIGNMENTS_PER_CATEGORY) * basisPointWeights[c];
+                totalWeight += basisPointWeights[c];
+            }
+            long grade = GradeMath.divideHalfUp(weightedSum, totalWeight);
+            blackhole.consume(scale.letterGrade(grade));
+            blackhole.consume(scale.gradePoints(grade));
+            blackhole.consume(scale.isPassing(grade));
+        }
+    }
+
+    @Benchmark
+    public void letterGradeChain(Blackhole blackhole) {
+        for (int bp = 0; bp <= GradeMath.FULL; bp += 7) {
+            blackhole.consume(LegacyGradeScale.letterGrade(BigDecimal.valueOf(bp, 2)));
+        }
+    }
+
+    @Benchmark
+    public void letterGradeTable(Blackhole blackhole) {
+        GradeScale scale = GradeScale.DEFAULT;
+        for (int bp = 0; bp <= GradeMath.FULL; bp += 7) {
+            blackhole.consume(scale.letterGrade(bp));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GradeMathBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,174 @@
+package com.lms.service.gradebook;
+
+import com.lms.cache.CacheTagInvalidator;
+import com.lms.entity.Course;
+import com.lms.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GradeRecalculationQueue Tests")
+class GradeRecalculationQueueTest {
+
+    private static final String COURSE_ID = "course-1";
+
+    @Mock
+    private GradebookRecalculationService recalculationService;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private CacheTagInvalidator cacheTagInvalidator;
+
+    private final Course course = new Course();
+    private final CapturingExecutor workerPool = new CapturingExecutor();
+    private long now;
+    private GradeRecalculationQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new GradeRecalculationQueue(recalculationService, courseRepository, cacheTagInvalidator);
+        ReflectionTestUtils.setField(queue, "debounce", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(queue, "maxDelay", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(queue, "maxAttempts", 3);
+        ReflectionTestUtils.setField(queue, "nanoClock", (LongSupplier) () -> now);
+        ReflectionTestUtils.setField(queue, "workerPool", workerPool);
+        course.setId(COURSE_ID);
+    }
+
+    @Test
+    @DisplayName("Should collapse repeated requests for a student into one recalculation")
+    void shouldCoalesceRepeatedStudent() {
+        // Given
+        when(courseRepository.findById(COURSE_ID)).thenReturn(Optional.of(course));
+        queue.enqueueStudent(COURSE_ID, "s1");
+        advance(Duration.ofMillis(500));
+        queue.enqueueStudent(COURSE_ID, "s1");
+        advance(Duration.ofMillis(500));
+        queue.enqueueStudent(COURSE_ID, "s1");
+
+        // When
+        advance(Duration.ofMillis(1500));
+        queue.dispatchDue();
+        int beforeDebounce = workerPool.runAll();
+        advance(Duration.ofMillis(500));
+        queue.dispatchDue();
+        int afterDebounce = workerPool.runAll();
+
+        // Then
+        assertThat(beforeDebounce).isZero();
+        assertThat(afterDebounce).isEqualTo(1);
+        verify(recalculationService).recalculateStudents(course, Set.of("s1"));
+        verify(cacheTagInvalidator).evictKey(eq("gradebook"), anyString());
+        assertThat(queue.getStatus()).containsEntry("requested", 3L).containsEntry("processedCourses", 1L);
+        assertThat(queue.getCourseStatus(COURSE_ID)).containsEntry("pending", false);
+    }
+
+    @Test
+    @DisplayName("Should flush after the max delay while requests keep arriving")
+    void shouldFlushAtMaxDelay() {
+        // Given
+        when(courseRepository.findById(COURSE_ID)).thenReturn(Optional.of(course));
+        List<Integer> dispatched = new ArrayList<>();
+
+        // When - a new grade every second never lets the course go quiet
+        for (int second = 0; second <= 30; second++) {
+            queue.enqueueStudent(COURSE_ID, "s" + second);
+            queue.dispatchDue();
+            if (workerPool.runAll() > 0) {
+                dispatched.add(second);
+            }
+            advance(Duration.ofSeconds(1));
+        }
+
+        // Then
+        assertThat(dispatched).containsExactly(30);
+        verify(recalculationService).recalculateStudents(eq(course),
+                argThat(ids -> ids.size() == 31 && ids.contains("s0") && ids.contains("s30")));
+    }
+
+    @Test
+    @DisplayName("Should merge a failed batch back and drop it after the last attempt")
+    void shouldRetryAndGiveUp() {
+        // Given
+        when(courseRepository.findById(COURSE_ID)).thenReturn(Optional.of(course));
+        when(recalculationService.recalculateStudents(eq(course), anyCollection()))
+                .thenThrow(new RuntimeException("deadlock"));
+        queue.enqueueStudent(COURSE_ID, "s1");
+        advance(Duration.ofSeconds(2));
+        queue.dispatchDue();
+
+        // When - a request arriving while the batch is in flight waits for the next round
+        queue.enqueueStudent(COURSE_ID, "s2");
+        queue.dispatchDue();
+        int whileInFlight = workerPool.pending();
+        workerPool.runAll();
+        for (int attempt = 2; attempt <= 3; attempt++) {
+            advance(Duration.ofSeconds(2));
+            queue.dispatchDue();
+            workerPool.runAll();
+        }
+        advance(Duration.ofSeconds(2));
+        queue.dispatchDue();
+
+        // Then
+        assertThat(whileInFlight).isEqualTo(1);
+        verify(recalculationService).recalculateStudents(course, Set.of("s1"));
+        verify(recalculationService, times(2)).recalculateStudents(course, Set.of("s1", "s2"));
+        assertThat(workerPool.pending()).isZero();
+        assertThat(queue.getStatus()).containsEntry("failed", 3L).containsEntry("pendingCourses", 0);
+        assertThat(queue.getCourseStatus(COURSE_ID))
+                .containsEntry("pending", false)
+                .containsEntry("inFlight", false);
+        verifyNoInteractions(cacheTagInvalidator);
+    }
+
+    private void advance(Duration duration) {
+        now += duration.toNanos();
+    }
+
+    // Worker pool that holds submitted tasks until the test runs them on its own thread
+    private static final class CapturingExecutor extends ThreadPoolExecutor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        private CapturingExecutor() {
+            super(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(10));
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        private int pending() {
+            return tasks.size();
+        }
+
+        private int runAll() {
+            List<Runnable> batch = new ArrayList<>(tasks);
+            tasks.clear();
+            batch.forEach(Runnable::run);
+            return batch.size();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.lms.service.gradebook;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("GradeScale Tests")
+class GradeScaleTest {
+
+    @Test
+    @DisplayName("Should match the previous BigDecimal cutoffs for every basis point")
+    void defaultScale_MatchesLegacyCutoffs() {
+        for (int bp = 0; bp <= GradeMath.FULL; bp++) {
+            BigDecimal percentage = BigDecimal.valueOf(bp, 2);
+            assertThat(GradeScale.DEFAULT.letterGrade(bp))
+                    .as("letter at %s", percentage)
+                    .isEqualTo(LegacyGradeScale.letterGrade(percentage));
+            assertThat(GradeScale.DEFAULT.gradePoints(bp))
+                    .as("points at %s", percentage)
+                    .isEqualByComparingTo(LegacyGradeScale.gradePoints(percentage));
+            assertThat(GradeScale.DEFAULT.isPassing(bp)).isEqualTo(bp >= 6000);
+        }
+    }
+
+    @Test
+    @DisplayName("Should clamp extra credit and negative grades")
+    void defaultScale_ClampsOutOfRange() {
+        assertThat(GradeScale.DEFAULT.letterGrade(new BigDecimal("104.50"))).isEqualTo("A+");
+        assertThat(GradeScale.DEFAULT.letterGrade(-100)).isEqualTo("F");
+    }
+
+    @Test
+    @DisplayName("Should grade pass/fail around the passing threshold without grade points")
+    void passFail_UsesThreshold() {
+        GradeScale scale = GradeScale.passFail(7000);
+
+        assertThat(scale.letterGrade(7000)).isEqualTo("P");
+        assertThat(scale.letterGrade(6999)).isEqualTo("F");
+        assertThat(scale.gradePoints(8000)).isNull();
+        assertThat(scale.isPassing(6999)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should collapse plus/minus grades when disabled")
+    void letterScale_WithoutPlusMinus() {
+        GradeScale scale = GradeScale.letterScale(false, 6000);
+
+        assertThat(scale.letterGrade(new BigDecimal("98.00"))).isEqualTo("A");
+        assertThat(scale.letterGrade(new BigDecimal("89.99"))).isEqualTo("B");
+        assertThat(scale.gradePoints(new BigDecimal("75.00"))).isEqualByComparingTo("2.0");
+    }
+
+    @Test
+    @DisplayName("Should apply custom cutoffs")
+    void customScale_UsesCutoffs() {
+        GradeScale scale = GradeScale.customScale(new int[]{8500, 5000},
+                new String[]{"HD", "CR"}, new BigDecimal[]{new BigDecimal("4.0"), new BigDecimal("2.0")}, 5000);
+
+        assertThat(scale.letterGrade(8500)).isEqualTo("HD");
+        assertThat(scale.letterGrade(8499)).isEqualTo("CR");
+        assertThat(scale.letterGrade(4999)).isEqualTo("F");
+        assertThat(scale.isPassing(5000)).isTrue();
+    }
+}
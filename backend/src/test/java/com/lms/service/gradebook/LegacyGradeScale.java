@@ -0,0 +1,44 @@
+package com.lms.service.gradebook;
+
+import java.math.BigDecimal;
+
+/**
+ * The {@code BigDecimal} letter grade and grade point cutoffs that {@link GradeScale#DEFAULT}
+ * replaced, kept as the reference the default scale is tested and benchmarked against.
+ */
+final class LegacyGradeScale {
+
+    private LegacyGradeScale() {
+    }
+
+    static String letterGrade(BigDecimal percentage) {
+        if (percentage.compareTo(BigDecimal.valueOf(97)) >= 0) return "A+";
+        if (percentage.compareTo(BigDecimal.valueOf(93)) >= 0) return "A";
+        if (percentage.compareTo(BigDecimal.valueOf(90)) >= 0) return "A-";
+        if (percentage.compareTo(BigDecimal.valueOf(87)) >= 0) return "B+";
+        if (percentage.compareTo(BigDecimal.valueOf(83)) >= 0) return "B";
+        if (percentage.compareTo(BigDecimal.valueOf(80)) >= 0) return "B-";
+        if (percentage.compareTo(BigDecimal.valueOf(77)) >= 0) return "C+";
+        if (percentage.compareTo(BigDecimal.valueOf(73)) >= 0) return "C";
+        if (percentage.compareTo(BigDecimal.valueOf(70)) >= 0) return "C-";
+        if (percentage.compareTo(BigDecimal.valueOf(67)) >= 0) return "D+";
+        if (percentage.compareTo(BigDecimal.valueOf(63)) >= 0) return "D";
+        if (percentage.compareTo(BigDecimal.valueOf(60)) >= 0) return "D-";
+        return "F";
+    }
+
+    static BigDecimal gradePoints(BigDecimal percentage) {
+        if (percentage.compareTo(BigDecimal.valueOf(93)) >= 0) return BigDecimal.valueOf(4.0);
+        if (percentage.compareTo(BigDecimal.valueOf(90)) >= 0) return BigDecimal.valueOf(3.7);
+        if (percentage.compareTo(BigDecimal.valueOf(87)) >= 0) return BigDecimal.valueOf(3.3);
+        if (percentage.compareTo(BigDecimal.valueOf(83)) >= 0) return BigDecimal.valueOf(3.0);
+        if (percentage.compareTo(BigDecimal.valueOf(80)) >= 0) return BigDecimal.valueOf(2.7);
+        if (percentage.compareTo(BigDecimal.valueOf(77)) >= 0) return BigDecimal.valueOf(2.3);
+        if (percentage.compareTo(BigDecimal.valueOf(73)) >= 0) return BigDecimal.valueOf(2.0);
+        if (percentage.compareTo(BigDecimal.valueOf(70)) >= 0) return BigDecimal.valueOf(1.7);
+        if (percentage.compareTo(BigDecimal.valueOf(67)) >= 0) return BigDecimal.valueOf(1.3);
+        if (percentage.compareTo(BigDecimal.valueOf(63)) >= 0) return BigDecimal.valueOf(1.0);
+        if (percentage.compareTo(BigDecimal.valueOf(60)) >= 0) return BigDecimal.valueOf(0.7);
+        return BigDecimal.valueOf(0.0);
+    }
+}
@@ -0,0 +1,108 @@
+package com.lms.service.messaging;
+
+import com.lms.dto.messaging.NotificationMessage;
+import com.lms.service.metrics.PlatformMetric;
+import com.lms.service.metrics.PlatformMetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationConsumerService Tests")
+class NotificationConsumerServiceTest {
+
+    @Mock
+    private PlatformMetricsService platformMetrics;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationConsumerService consumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new NotificationConsumerService(platformMetrics, jdbcTemplate, meterRegistry);
+        consumer.registerMetrics();
+    }
+
+    @Test
+    @DisplayName("Should insert a whole batch with one JDBC batch and count redelivered rows as duplicates")
+    void shouldInsertBatchOnce() {
+        // Given
+        List<NotificationMessage> messages = List.of(message("m1"), message("m2"), message("m3"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0, -2});
+
+        // When
+        consumer.processNotificationMessages(messages);
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 3));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(platformMetrics).add(PlatformMetric.TOTAL_NOTIFICATIONS, 2);
+        assertThat(count("saved")).isEqualTo(2);
+        assertThat(count("duplicate")).isEqualTo(1);
+        assertThat(meterRegistry.get("notifications.consumer.batch.size").summary().totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should save the good rows one by one and hand a partly failed batch to retry")
+    void shouldIsolateFailingRow() {
+        // Given
+        List<NotificationMessage> messages = List.of(message("m1"), message("m2"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataIntegrityViolationException("fk"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenReturn(1)
+                .thenThrow(new DataIntegrityViolationException("fk"));
+
+        // When / Then
+        assertThatThrownBy(() -> consumer.processNotificationMessages(messages))
+                .isInstanceOf(IllegalStateException.class);
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        assertThat(count("saved")).isEqualTo(1);
+        assertThat(count("failed")).isEqualTo(1);
+        assertThat(count("duplicate")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should save a single message under its id and skip it when redelivered")
+    void shouldSkipRedeliveredMessage() {
+        // Given
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1).thenReturn(0);
+
+        // When
+        consumer.processNotificationMessage(message("m1"));
+        consumer.processNotificationMessage(message("m1"));
+
+        // Then
+        verify(jdbcTemplate, times(2)).update(startsWith("INSERT IGNORE"),
+                argThat((Object[] row) -> "m1".equals(row[0])));
+        verify(platformMetrics, times(1)).increment(PlatformMetric.TOTAL_NOTIFICATIONS);
+        assertThat(count("saved")).isEqualTo(1);
+        assertThat(count("duplicate")).isEqualTo(1);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("notifications.consumer.messages").tag("outcome", outcome).counter().count();
+    }
+
+    private static NotificationMessage message(String id) {
+        NotificationMessage message = new NotificationMessage("user-" + id, "Title", "Body",
+                NotificationMessage.NotificationType.COURSE_UPDATED);
+        message.setId(id);
+        return message;
+    }
+}
@@ -0,0 +1,107 @@
+package com.lms.service.messaging;
+
+import com.lms.config.RabbitMQConfig;
+import com.lms.config.RetryBackoff;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RetryingMessageRecoverer Tests")
+class RetryingMessageRecovererTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private RetryingMessageRecoverer recoverer;
+
+    @BeforeEach
+    void setUp() {
+        RetryBackoff backoff = new RetryBackoff(3, Duration.ofSeconds(5), 4.0, Duration.ofMinutes(30));
+        recoverer = new RetryingMessageRecoverer(rabbitTemplate, backoff, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should compute capped exponential delays")
+    void shouldComputeBackoff() {
+        RetryBackoff backoff = new RetryBackoff(6, Duration.ofSeconds(5), 4.0, Duration.ofMinutes(10));
+
+        assertThat(backoff.delay(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(backoff.delay(2)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(backoff.delay(4)).isEqualTo(Duration.ofSeconds(320));
+        assertThat(backoff.delay(5)).isEqualTo(Duration.ofMinutes(10));
+        assertThat(backoff.tiers()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should send a failed message to the retry tier of its attempt")
+    void shouldRetryWithNextTier() {
+        // Given
+        Message message = message(RabbitMQConfig.EMAIL_QUEUE, 1);
+
+        // When
+        recoverer.recover(message, failure(new IllegalStateException("SMTP down")));
+
+        // Then
+        verify(rabbitTemplate).send("", RabbitMQConfig.retryQueue(RabbitMQConfig.EMAIL_QUEUE, 2), message);
+        assertThat(RetryingMessageRecoverer.attemptOf(message)).isEqualTo(2);
+        assertThat(message.getMessageProperties().<String>getHeader(RetryingMessageRecoverer.ERROR_HEADER))
+                .contains("SMTP down");
+    }
+
+    @Test
+    @DisplayName("Should park a message after its last attempt")
+    void shouldParkAfterMaxAttempts() {
+        // Given
+        Message message = message(RabbitMQConfig.CERTIFICATE_QUEUE, 2);
+
+        // When
+        recoverer.recover(message, failure(new IllegalStateException("disk full")));
+
+        // Then
+        verify(rabbitTemplate).send("", RabbitMQConfig.parkingLotQueue(RabbitMQConfig.CERTIFICATE_QUEUE), message);
+    }
+
+    @Test
+    @DisplayName("Should park unconvertible messages without retrying")
+    void shouldParkConversionFailures() {
+        // Given
+        Message message = message(RabbitMQConfig.NOTIFICATION_QUEUE, 0);
+
+        // When
+        recoverer.recover(message, failure(new MessageConversionException("bad json")));
+
+        // Then
+        verify(rabbitTemplate).send(eq(""), eq(RabbitMQConfig.parkingLotQueue(RabbitMQConfig.NOTIFICATION_QUEUE)), any());
+        verifyNoMoreInteractions(rabbitTemplate);
+    }
+
+    private static ListenerExecutionFailedException failure(Throwable cause) {
+        return new ListenerExecutionFailedException("Listener threw exception", cause);
+    }
+
+    private static Message message(String queue, int previousAttempts) {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue(queue);
+        if (previousAttempts > 0) {
+            properties.setHeader(RetryingMessageRecoverer.ATTEMPT_HEADER, previousAttempts);
+        }
+        return new Message("{}".getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
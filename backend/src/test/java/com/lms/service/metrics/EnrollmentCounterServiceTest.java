@@ -0,0 +1,100 @@
+package com.lms.service.metrics;
+
+import com.lms.cache.CacheTagInvalidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EnrollmentCounterService Tests")
+class EnrollmentCounterServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheTagInvalidator cacheTagInvalidator;
+
+    private EnrollmentCounterService counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new EnrollmentCounterService(jdbcTemplate, transactionManager, cacheTagInvalidator);
+        counters.init();
+    }
+
+    @Test
+    @DisplayName("Should coalesce the deltas of one interval into one increment per course")
+    void shouldCoalesceDeltas() {
+        // Given
+        for (int i = 0; i < 500; i++) {
+            counters.enrolled("course-1");
+        }
+        counters.unenrolled("course-1");
+        counters.enrolled("course-2");
+        counters.unenrolled("course-2");
+
+        // When
+        counters.flush();
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) ->
+                rows.size() == 1 && rows.get(0)[0].equals(499L) && rows.get(0)[1].equals("course-1")));
+    }
+
+    @Test
+    @DisplayName("Should keep the deltas of a failed flush for the next one")
+    void shouldRetryFailedFlush() {
+        // Given
+        counters.enrolled("course-1");
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new QueryTimeoutException("lock wait timeout"))
+                .thenReturn(new int[]{1});
+
+        // When
+        counters.flush();
+        counters.flush();
+
+        // Then
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), argThat((List<Object[]> rows) ->
+                rows.size() == 1 && rows.get(0)[0].equals(1L)));
+        counters.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should recount a drifted course under its row lock and drop the local delta it already includes")
+    void shouldReconcileWithoutDoubleCounting() {
+        // Given
+        counters.enrolled("course-1");
+        when(jdbcTemplate.queryForList(startsWith("SELECT c.id"), eq(String.class))).thenReturn(List.of("course-1"));
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM courses"), eq(String.class), eq("course-1")))
+                .thenReturn(List.of("course-1"));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("course-1"))).thenReturn(42L);
+        when(jdbcTemplate.update(startsWith("UPDATE courses SET enrolled_count = ?"), eq(42L), eq("course-1"), eq(42L)))
+                .thenReturn(1);
+
+        // When
+        int corrected = counters.reconcile();
+        counters.flush();
+
+        // Then
+        assertThat(corrected).isEqualTo(1);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
@@ -0,0 +1,140 @@
+package com.lms.service.metrics;
+
+import com.lms.entity.PlatformCounter;
+import com.lms.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlatformMetricsService Tests")
+class PlatformMetricsServiceTest {
+
+    @Mock
+    private PlatformCounterRepository counterRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private CertificateRepository certificateRepository;
+
+    @Mock
+    private CourseReviewRepository reviewRepository;
+
+    @Mock
+    private CourseCommentRepository commentRepository;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private PlatformMetricsService platformMetrics;
+
+    @BeforeEach
+    void setUp() {
+        platformMetrics.init();
+        lenient().when(userRepository.count()).thenReturn(10L);
+        lenient().when(enrollmentRepository.count()).thenReturn(40L);
+    }
+
+    @Test
+    @DisplayName("Should serve reconciled value plus pending deltas without querying")
+    void shouldServeReconciledValuePlusPendingDeltas() {
+        // Given
+        platformMetrics.reconcileAll();
+        clearInvocations(userRepository);
+
+        // When
+        platformMetrics.increment(PlatformMetric.TOTAL_USERS);
+        platformMetrics.increment(PlatformMetric.TOTAL_USERS);
+        platformMetrics.decrement(PlatformMetric.TOTAL_USERS);
+
+        // Then
+        assertThat(platformMetrics.get(PlatformMetric.TOTAL_USERS)).isEqualTo(11L);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should flush deltas as in-place increments and adopt shared totals")
+    void shouldFlushDeltasAsIncrements() {
+        // Given
+        platformMetrics.reconcileAll();
+        platformMetrics.add(PlatformMetric.TOTAL_ENROLLMENTS, 5);
+        when(counterRepository.incrementBy("TOTAL_ENROLLMENTS", 5L)).thenReturn(1);
+        // Another node flushed 3 more in the meantime
+        when(counterRepository.findAll()).thenReturn(List.of(
+                new PlatformCounter("TOTAL_ENROLLMENTS", 48L, null, null)));
+
+        // When
+        platformMetrics.flush();
+
+        // Then
+        verify(counterRepository).incrementBy("TOTAL_ENROLLMENTS", 5L);
+        verify(counterRepository, never()).incrementBy(eq("TOTAL_USERS"), anyLong());
+        assertThat(platformMetrics.get(PlatformMetric.TOTAL_ENROLLMENTS)).isEqualTo(48L);
+    }
+
+    @Test
+    @DisplayName("Should keep delta pending when flush fails")
+    void shouldKeepDeltaPendingWhenFlushFails() {
+        // Given
+        platformMetrics.reconcileAll();
+        platformMetrics.increment(PlatformMetric.TOTAL_USERS);
+        when(counterRepository.incrementBy("TOTAL_USERS", 1L)).thenThrow(new RuntimeException("db down"));
+
+        // When
+        platformMetrics.flush();
+
+        // Then
+        assertThat(platformMetrics.get(PlatformMetric.TOTAL_USERS)).isEqualTo(11L);
+    }
+
+    @Test
+    @DisplayName("Should reconcile as a correction on top of the persisted value")
+    void shouldReconcileAsCorrection() {
+        // Given
+        platformMetrics.reconcileAll();
+        platformMetrics.increment(PlatformMetric.TOTAL_USERS);
+        platformMetrics.increment(PlatformMetric.TOTAL_USERS);
+        when(userRepository.count()).thenReturn(12L);
+        when(counterRepository.findForUpdate("TOTAL_USERS")).thenReturn(Optional.of(
+                new PlatformCounter("TOTAL_USERS", 9L, null, null)));
+
+        // When
+        long drift = platformMetrics.reconcile(PlatformMetric.TOTAL_USERS);
+
+        // Then
+        verify(counterRepository).applyCorrection(eq("TOTAL_USERS"), eq(3L), any());
+        assertThat(drift).isEqualTo(1L);
+        assertThat(platformMetrics.get(PlatformMetric.TOTAL_USERS)).isEqualTo(12L);
+    }
+
+    @Test
+    @DisplayName("Should fall back to exact count before reconciliation")
+    void shouldFallBackToExactCountBeforeReconciliation() {
+        assertThat(platformMetrics.get(PlatformMetric.TOTAL_USERS)).isEqualTo(10L);
+        verify(userRepository).count();
+    }
+}
@@ -0,0 +1,126 @@
+package com.lms.service.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Tests")
+class OutboxRelayTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(jdbcTemplate, rabbitTemplate, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(relay, "pollInterval", 60_000L);
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "confirmTimeout", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(relay, "maxBackoff", Duration.ofMinutes(5));
+        relay.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.stop();
+    }
+
+    @Test
+    @DisplayName("Should mark acked rows published and reschedule nacked rows")
+    void shouldSettleByConfirm() {
+        // Given
+        givenDueRows(row(1, "m1", 0), row(2, "m2", 2));
+        doAnswer(invocation -> {
+            Message message = invocation.getArgument(2);
+            CorrelationData correlation = invocation.getArgument(3);
+            boolean ack = "m1".equals(message.getMessageProperties().getMessageId());
+            correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "queue full"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        // When
+        int claimed = relay.relayBatch();
+
+        // Then
+        assertThat(claimed).isEqualTo(2);
+        verify(jdbcTemplate).batchUpdate(contains("published_at = ?"),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[1].equals(1L)));
+        verify(jdbcTemplate).update(contains("last_error = ?"), contains("queue full"), any(), eq(2L));
+        assertThat(count("published")).isEqualTo(1);
+        assertThat(count("failed")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep rows pending when the broker returns them as unroutable")
+    void shouldRetryReturnedMessages() {
+        // Given
+        givenDueRows(row(1, "m1", 0));
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            correlation.setReturned(new ReturnedMessage(
+                    invocation.getArgument(2), 312, "NO_ROUTE", "lms.exchange", "missing"));
+            correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        // When
+        relay.relayBatch();
+
+        // Then
+        verify(jdbcTemplate).update(contains("last_error = ?"), contains("NO_ROUTE"), any(), eq(1L));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should back off exponentially up to the cap")
+    void shouldCapBackoff() {
+        assertThat(relay.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(relay.backoff(4)).isEqualTo(Duration.ofSeconds(8));
+        assertThat(relay.backoff(20)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenDueRows(OutboxRelay.OutboxRow... rows) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any())).thenReturn(List.of(rows));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("messaging.outbox.messages").tag("outcome", outcome).counter().count();
+    }
+
+    private static OutboxRelay.OutboxRow row(long id, String messageId, int attempts) {
+        return new OutboxRelay.OutboxRow(id, messageId, "lms.exchange", "email.send", "com.lms.dto.messaging.EmailMessage",
+                "{\"id\":\"" + messageId + "\"}", attempts);
+    }
+}
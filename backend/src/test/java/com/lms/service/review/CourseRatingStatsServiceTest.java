@@ -0,0 +1,69 @@
+package com.lms.service.review;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CourseRatingStatsService Tests")
+class CourseRatingStatsServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private CourseRatingStatsService ratingStats;
+
+    @Test
+    @DisplayName("Should apply a re-rating as one delta that moves a review between histogram buckets")
+    void shouldApplyReRatingDelta() {
+        // When
+        ratingStats.recordChange("course-1", 3, 5);
+
+        // Then
+        verify(jdbcTemplate).update(startsWith("INSERT INTO course_rating_stats"),
+                eq("course-1"), eq(2L), eq(0L), eq(0L), eq(0L), eq(-1L), eq(0L), eq(1L));
+        verify(jdbcTemplate).update(startsWith("UPDATE courses"), eq("course-1"));
+    }
+
+    @Test
+    @DisplayName("Should skip the write when a review keeps its rating")
+    void shouldSkipUnchangedRating() {
+        // When
+        ratingStats.recordChange("course-1", 4, 4);
+        ratingStats.recordChange("course-1", null, null);
+
+        // Then
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should serve the distribution from the histogram, highest rating first and without empty buckets")
+    void shouldServeDistributionFromHistogram() {
+        // Given
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("course-1")))
+                .thenReturn(List.of(new long[]{2, 0, 5, 0, 40}));
+
+        // When
+        List<Object[]> distribution = ratingStats.getDistribution("course-1");
+
+        // Then
+        assertThat(distribution).extracting(row -> row[0]).containsExactly(5, 3, 1);
+        assertThat(distribution).extracting(row -> row[1]).containsExactly(40L, 5L, 2L);
+    }
+}
@@ -0,0 +1,126 @@
+package com.lms.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("FacetIndex Tests")
+class FacetIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FacetIndex(List.of(new BigDecimal("20"), new BigDecimal("50")));
+        index.put(course("java", "dev", "BEGINNER", "English", "0", 4));
+        index.put(course("spring", "dev", "ADVANCED", "English", "45", 3));
+        index.put(course("kotlin", "dev", "BEGINNER", "German", "15", 2));
+        index.put(course("paint", "art", "BEGINNER", "English", "80", 1));
+    }
+
+    @Test
+    @DisplayName("Should intersect filters and count each facet against the other filters")
+    void shouldFilterAndCount() {
+        // When
+        FacetIndex.Result result = index.query(filter("dev", "BEGINNER", null, null), "created", 0, 10, true);
+
+        // Then
+        assertThat(result.courseIds()).containsExactly("kotlin", "java");
+        assertThat(result.total()).isEqualTo(2);
+        // Level counts ignore the level filter, so ADVANCED shows what selecting it would return
+        assertThat(result.facets().get(FacetIndex.LEVEL))
+                .extracting(FacetIndex.FacetCount::value, FacetIndex.FacetCount::count)
+                .containsExactly(tuple("BEGINNER", 2), tuple("ADVANCED", 1));
+        assertThat(result.facets().get(FacetIndex.CATEGORY))
+                .extracting(FacetIndex.FacetCount::value, FacetIndex.FacetCount::label, FacetIndex.FacetCount::count)
+                .containsExactly(tuple("dev", "Category dev", 2), tuple("art", "Category art", 1));
+        assertThat(result.facets().get(FacetIndex.PRICE))
+                .extracting(FacetIndex.FacetCount::value)
+                .containsExactly("free", "0-20");
+    }
+
+    @Test
+    @DisplayName("Should answer price ranges and sort by price")
+    void shouldFilterPriceRange() {
+        FacetIndex.Result result = index.query(filter(null, null, "10", "50"), "price", 0, 10, false);
+
+        assertThat(result.courseIds()).containsExactly("kotlin", "spring");
+        assertThat(result.facets()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should restrict to keyword matches and page through the sort order")
+    void shouldRestrictAndPage() {
+        // Given
+        FacetIndex.Filter filter = new FacetIndex.Filter(null, null, null, null, null, List.of("java", "paint", "gone"));
+
+        // When
+        FacetIndex.Result page = index.query(filter, "created", 1, 1, false);
+
+        // Then
+        assertThat(page.courseIds()).containsExactly("java");
+        assertThat(page.total()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should page a narrow filter in sort order from its matches alone")
+    void shouldPageSparseMatches() {
+        // Given - two art courses among more than a hundred
+        for (int i = 0; i < 100; i++) {
+            index.put(course("bulk-" + i, "bulk", "BEGINNER", "English", "10", 10 + i));
+        }
+        index.put(course("sculpt", "art", "ADVANCED", "English", "30", 5));
+
+        // When
+        FacetIndex.Result first = index.query(filter("art", null, null, null), "created", 0, 10, false);
+        FacetIndex.Result second = index.query(filter("art", null, null, null), "created", 1, 10, false);
+        FacetIndex.Result beyond = index.query(filter("art", null, null, null), "created", 2, 10, false);
+
+        // Then
+        assertThat(first.courseIds()).containsExactly("paint", "sculpt");
+        assertThat(second.courseIds()).containsExactly("sculpt");
+        assertThat(beyond.courseIds()).isEmpty();
+        assertThat(beyond.total()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should move and drop documents and resort on refreshed stats")
+    void shouldUpdateIncrementally() {
+        // When
+        index.put(course("kotlin", "art", "ADVANCED", "German", "15", 2));
+        index.remove("spring");
+        index.updateStats(Map.of("java", new FacetIndex.Entry("java", null, null, null, null, null, BigDecimal.ONE, 500)));
+
+        // Then
+        assertThat(index.query(filter("dev", null, null, null), "created", 0, 10, false).courseIds())
+                .containsExactly("java");
+        assertThat(index.query(filter("art", "ADVANCED", null, null), "created", 0, 10, false).courseIds())
+                .containsExactly("kotlin");
+        assertThat(index.query(filter(null, null, null, null), "enrolled", 0, 1, false).courseIds())
+                .containsExactly("java");
+        assertThat(index.documentCount()).isEqualTo(3);
+        assertThat(index.priceBucket(new BigDecimal("50"))).isEqualTo("50+");
+    }
+
+    private static FacetIndex.Filter filter(String categoryId, String level, String minPrice, String maxPrice) {
+        return new FacetIndex.Filter(categoryId, level, null,
+                minPrice != null ? new BigDecimal(minPrice) : null,
+                maxPrice != null ? new BigDecimal(maxPrice) : null, null);
+    }
+
+    // Higher age means an older course
+    private static CourseDocument course(String id, String categoryId, String level, String language,
+                                         String price, int ageInDays) {
+        return new CourseDocument(id, id, null, null, null, List.of(), categoryId, "Category " + categoryId, level, language,
+                new BigDecimal(price), NOW.minusDays(ageInDays), BigDecimal.ZERO, ageInDays);
+    }
+}
@@ -0,0 +1,115 @@
+package com.lms.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("InvertedIndex Tests")
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.put(document("java", "Java Programming for Beginners", "Learn Java from scratch",
+                "Variables, loops and classes.", "Write your first programs", "Programming"));
+        index.put(document("python", "Advanced Python", "Decorators and generators",
+                "Async programming in Python.", null, "Programming"));
+        index.put(document("cpp", "C++ Deep Dive", "Templates and the STL",
+                "Modern C++ programming.", null, "Programming"));
+        index.put(document("art", "Watercolor Painting", "Paint landscapes",
+                "Brushes, paper and pigments.", null, "Art"));
+    }
+
+    @Test
+    @DisplayName("Should stem words and keep C++ and C# as tokens")
+    void shouldAnalyzeText() {
+        assertThat(TextAnalyzer.analyze("The Programming courses of C++ and C#"))
+                .containsExactly("program", "cours", "c++", "c#");
+        assertThat(TextAnalyzer.stem("programmer")).isEqualTo(TextAnalyzer.stem("programs"));
+    }
+
+    @Test
+    @DisplayName("Should require every term and rank title matches first")
+    void shouldRankByBm25() {
+        // When
+        InvertedIndex.SearchHits programming = index.search(TextAnalyzer.analyze("programs"), 0, 10);
+        InvertedIndex.SearchHits javaPrograms = index.search(TextAnalyzer.analyze("java programming"), 0, 10);
+
+        // Then
+        assertThat(programming.total()).isEqualTo(3);
+        assertThat(programming.courseIds().get(0)).isEqualTo("java");
+        assertThat(javaPrograms.courseIds()).containsExactly("java");
+        assertThat(index.search(TextAnalyzer.analyze("java painting"), 0, 10).total()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should page hits while counting all matches")
+    void shouldPage() {
+        InvertedIndex.SearchHits page = index.search(TextAnalyzer.analyze("programming"), 1, 1);
+
+        assertThat(page.courseIds()).hasSize(1);
+        assertThat(page.total()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should match course tags and list every match for filtering")
+    void shouldMatchTagsAndListAllMatches() {
+        assertThat(index.search(TextAnalyzer.analyze("art"), 0, 10).courseIds()).containsExactly("art");
+        assertThat(index.matchAll(TextAnalyzer.analyze("programming")))
+                .containsExactlyInAnyOrder("java", "python", "cpp");
+        assertThat(index.matchAll(TextAnalyzer.analyze("programming painting"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should complete the last word as a prefix")
+    void shouldSuggestByPrefix() {
+        assertThat(index.suggest(List.of(), "pyt", 5, 50))
+                .extracting(InvertedIndex.Suggestion::title)
+                .containsExactly("Advanced Python");
+        assertThat(index.suggest(TextAnalyzer.analyze("programming"), "ja", 5, 50))
+                .extracting(InvertedIndex.Suggestion::courseId)
+                .containsExactly("java");
+        assertThat(index.suggest(List.of(), "xyz", 5, 50)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should complete prefixes typed past the stored stem")
+    void shouldSuggestPastTheStem() {
+        // "programming" is stored as "program" and "painting" as "paint"
+        assertThat(index.suggest(List.of(), "programm", 5, 50))
+                .extracting(InvertedIndex.Suggestion::courseId)
+                .containsExactlyInAnyOrder("java", "python", "cpp");
+        assertThat(index.suggest(List.of(), "programmi", 5, 50))
+                .extracting(InvertedIndex.Suggestion::courseId)
+                .containsExactlyInAnyOrder("java", "python", "cpp");
+        assertThat(index.suggest(List.of(), "painti", 5, 50))
+                .extracting(InvertedIndex.Suggestion::courseId)
+                .containsExactly("art");
+    }
+
+    @Test
+    @DisplayName("Should replace and remove documents in place")
+    void shouldUpdateIncrementally() {
+        // When
+        index.put(document("java", "Kotlin for Android", null, null, null, null));
+        index.remove("python");
+
+        // Then
+        assertThat(index.search(TextAnalyzer.analyze("java"), 0, 10).total()).isZero();
+        assertThat(index.search(TextAnalyzer.analyze("kotlin"), 0, 10).courseIds()).containsExactly("java");
+        assertThat(index.search(TextAnalyzer.analyze("programming"), 0, 10).courseIds()).containsExactly("cpp");
+        assertThat(index.documentCount()).isEqualTo(3);
+    }
+
+    private static CourseDocument document(String id, String title, String shortDescription, String description,
+                                           String whatYouWillLearn, String tag) {
+        return new CourseDocument(id, title, shortDescription, description, whatYouWillLearn,
+                tag != null ? List.of(tag) : List.of(), null, null, null, null, null, null, null, null);
+    }
+}